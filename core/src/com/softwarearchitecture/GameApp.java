@@ -4,7 +4,6 @@ import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
-import com.softwarearchitecture.clock.Clock;
 import com.softwarearchitecture.game_client.GameClient;
 import com.softwarearchitecture.launcher.GameLauncher;
 
@@ -18,7 +17,6 @@ public class GameApp extends ApplicationAdapter {
 
 	@Override
 	public void create() {
-		Clock.getInstance();
 		camera = new OrthographicCamera();
 		viewport = new FitViewport(SCREEN_WIDTH, SCREEN_HEIGHT, camera);
 		gameClient = GameLauncher.createGameClient(this.camera, this.viewport);
@@ -37,5 +35,6 @@ public class GameApp extends ApplicationAdapter {
 
 	@Override
 	public void dispose() {
+		gameClient.dispose();
 	}
 }
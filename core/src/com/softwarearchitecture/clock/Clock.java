@@ -1,29 +1,24 @@
 package com.softwarearchitecture.clock;
 
+/**
+ * Measures the time between updates with {@link System#nanoTime()}, which is
+ * monotonic and not limited to millisecond resolution.
+ */
 public class Clock {
-    private long deltaTimeTime;
+    private long lastTime;
 
-    // singleton instance
-    private static ThreadLocal<Clock> instance = null;
-
-    public static Clock getInstance() {
-        if (instance == null) {
-            instance = ThreadLocal.withInitial(Clock::new);
-        }
-        return instance.get();
-    }
-
-    private Clock() {
-        deltaTimeTime = System.currentTimeMillis();
+    public Clock() {
+        lastTime = System.nanoTime();
     }
 
     public float getDeltaTime() {
-        return (float) (System.currentTimeMillis() - deltaTimeTime) / 1_000f;
+        return (float) ((System.nanoTime() - lastTime) / 1_000_000_000d);
     }
 
     public float getAndResetDeltaTime() {
-        float deltaTime = (float)(System.currentTimeMillis() - deltaTimeTime) / 1_000f;
-        deltaTimeTime = System.currentTimeMillis();
+        long now = System.nanoTime();
+        float deltaTime = (float) ((now - lastTime) / 1_000_000_000d);
+        lastTime = now;
         return deltaTime;
     }
 }
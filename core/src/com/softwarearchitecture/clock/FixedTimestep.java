@@ -0,0 +1,72 @@
+package com.softwarearchitecture.clock;
+
+/**
+ * Turns elapsed wall-clock time into a number of simulation steps of a fixed
+ * length.
+ * <p>
+ * Elapsed time is collected in an accumulator and a step is due whenever a
+ * full step length has been collected. Every step advances the simulation by
+ * exactly {@link #getStepSeconds()}, so the outcome does not depend on how
+ * often or how regularly the loop runs. After a hitch at most
+ * {@code maxCatchUpSteps} steps are run at once and the rest of the backlog
+ * is dropped, so the simulation slows down instead of spiralling.
+ */
+public class FixedTimestep {
+    public static final int DEFAULT_TICKS_PER_SECOND = 60;
+    public static final int DEFAULT_MAX_CATCH_UP_STEPS = 5;
+
+    private final double stepSeconds;
+    private final int maxCatchUpSteps;
+    private double accumulator = 0;
+
+    /**
+     * @param ticksPerSecond  The number of simulation steps per second.
+     * @param maxCatchUpSteps The most steps run for a single call to {@link #advance(float)}.
+     */
+    public FixedTimestep(int ticksPerSecond, int maxCatchUpSteps) throws IllegalArgumentException {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("[ERROR] Ticks per second must be positive, was " + ticksPerSecond);
+        }
+        if (maxCatchUpSteps <= 0) {
+            throw new IllegalArgumentException("[ERROR] Max catch-up steps must be positive, was " + maxCatchUpSteps);
+        }
+        this.stepSeconds = 1d / ticksPerSecond;
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    public FixedTimestep() {
+        this(DEFAULT_TICKS_PER_SECOND, DEFAULT_MAX_CATCH_UP_STEPS);
+    }
+
+    /**
+     * Adds elapsed time to the accumulator and takes out the steps that are due.
+     *
+     * @param elapsedSeconds The time elapsed since the previous call.
+     * @return The number of steps to run now, between 0 and the max catch-up steps.
+     */
+    public int advance(float elapsedSeconds) {
+        accumulator += Math.max(0, elapsedSeconds);
+        int steps = (int) (accumulator / stepSeconds);
+        if (steps > maxCatchUpSteps) {
+            steps = maxCatchUpSteps;
+            // Drop the backlog, but keep the fraction of a step already collected
+            accumulator = accumulator % stepSeconds + steps * stepSeconds;
+        }
+        accumulator -= steps * stepSeconds;
+        return steps;
+    }
+
+    /**
+     * @return The simulated time of one step in seconds.
+     */
+    public float getStepSeconds() {
+        return (float) stepSeconds;
+    }
+
+    /**
+     * @return How far the accumulator is into the next step, between 0 and 1.
+     */
+    public float getAlpha() {
+        return (float) (accumulator / stepSeconds);
+    }
+}
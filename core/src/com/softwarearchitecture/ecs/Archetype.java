@@ -0,0 +1,164 @@
+package com.softwarearchitecture.ecs;
+
+import java.util.Arrays;
+
+/**
+ * An {@code Archetype} groups all entities that share exactly the same set of
+ * component types. Each component type of the archetype is stored in its own
+ * dense column, and row {@code i} of every column belongs to
+ * {@code entities[i]}. Iterating an archetype therefore walks contiguous arrays
+ * instead of probing one hash map per component type.
+ * <p>
+ * Rows are kept packed: removing a row moves the last row into the hole.
+ */
+final class Archetype {
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Bit {@code i} is set if the archetype holds component type {@code i}. */
+    final long mask;
+
+    /** The component type ids of this archetype, in ascending order. */
+    final int[] typeIds;
+
+    /** Maps a component type id to its column, or {@code -1} if absent. */
+    private final int[] columnIndex;
+
+    private Object[][] columns;
+    private Entity[] entities;
+    private int size;
+
+    /** Cached transitions to the archetype with one more or one less component type. */
+    final Archetype[] addEdges;
+    final Archetype[] removeEdges;
+
+    Archetype(long mask) {
+        this.mask = mask;
+        this.typeIds = new int[Long.bitCount(mask)];
+        this.columnIndex = new int[ComponentStorage.MAX_COMPONENT_TYPES];
+        Arrays.fill(columnIndex, -1);
+        int column = 0;
+        for (int typeId = 0; typeId < ComponentStorage.MAX_COMPONENT_TYPES; typeId++) {
+            if ((mask & (1L << typeId)) != 0) {
+                typeIds[column] = typeId;
+                columnIndex[typeId] = column;
+                column++;
+            }
+        }
+        this.columns = new Object[typeIds.length][INITIAL_CAPACITY];
+        this.entities = new Entity[INITIAL_CAPACITY];
+        this.addEdges = new Archetype[ComponentStorage.MAX_COMPONENT_TYPES];
+        this.removeEdges = new Archetype[ComponentStorage.MAX_COMPONENT_TYPES];
+    }
+
+    /**
+     * @return The number of entities stored in this archetype.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param typeId The component type id.
+     * @return {@code true} if this archetype stores the given component type.
+     */
+    boolean has(int typeId) {
+        return columnIndex[typeId] != -1;
+    }
+
+    /**
+     * Returns the column of the given component type. Only the first
+     * {@link #size()} elements are valid.
+     *
+     * @param typeId The component type id.
+     * @return The column, or {@code null} if the archetype does not store the type.
+     */
+    Object[] column(int typeId) {
+        int column = columnIndex[typeId];
+        return column == -1 ? null : columns[column];
+    }
+
+    /**
+     * @return The entity column. Only the first {@link #size()} elements are valid.
+     */
+    Entity[] entities() {
+        return entities;
+    }
+
+    Entity entityAt(int row) {
+        return entities[row];
+    }
+
+    Object get(int row, int typeId) {
+        int column = columnIndex[typeId];
+        return column == -1 ? null : columns[column][row];
+    }
+
+    void set(int row, int typeId, Object component) {
+        columns[columnIndex[typeId]][row] = component;
+    }
+
+    /**
+     * Appends a new row for the entity. All component slots start out empty.
+     *
+     * @param entity The entity owning the row.
+     * @return The index of the new row.
+     */
+    int add(Entity entity) {
+        if (size == entities.length) {
+            int capacity = entities.length * 2;
+            entities = Arrays.copyOf(entities, capacity);
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = Arrays.copyOf(columns[i], capacity);
+            }
+        }
+        entities[size] = entity;
+        return size++;
+    }
+
+    /**
+     * Removes a row by moving the last row into its place.
+     *
+     * @param row The row to remove.
+     * @return The entity that was moved into {@code row}, or {@code null} if the
+     *         removed row was the last one.
+     */
+    Entity remove(int row) {
+        int last = --size;
+        Entity moved = null;
+        if (row != last) {
+            entities[row] = entities[last];
+            for (Object[] column : columns) {
+                column[row] = column[last];
+            }
+            moved = entities[row];
+        }
+        entities[last] = null;
+        for (Object[] column : columns) {
+            column[last] = null;
+        }
+        return moved;
+    }
+
+    /**
+     * Copies every component the two archetypes have in common from a row in
+     * this archetype to a row in {@code target}.
+     */
+    void copyRow(int row, Archetype target, int targetRow) {
+        for (int i = 0; i < typeIds.length; i++) {
+            if (target.has(typeIds[i])) {
+                target.set(targetRow, typeIds[i], columns[i][row]);
+            }
+        }
+    }
+
+    /**
+     * Drops all rows while keeping the allocated columns.
+     */
+    void clear() {
+        Arrays.fill(entities, 0, size, null);
+        for (Object[] column : columns) {
+            Arrays.fill(column, 0, size, null);
+        }
+        size = 0;
+    }
+}
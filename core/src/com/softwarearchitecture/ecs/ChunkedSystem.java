@@ -0,0 +1,40 @@
+package com.softwarearchitecture.ecs;
+
+/**
+ * A {@link System} whose work on each entity of a {@link View} is independent
+ * of the work on every other entity. The {@link ParallelSystemExecutor} splits
+ * the view into chunks and updates the chunks on several threads at once.
+ * <p>
+ * {@link #beginChunks(float)} is called once per update before any chunk, on
+ * the thread that runs the update. {@link #updateChunk(Entity[], int, int, float)}
+ * may then be called from any thread, concurrently, and must only touch the
+ * given entities and state prepared by {@link #beginChunks(float)}.
+ * Implementations are expected to do the same work sequentially in
+ * {@link #update(java.util.Set, float)}, which is used when no parallel
+ * executor is set.
+ */
+public interface ChunkedSystem extends System {
+
+    /**
+     * @return The view whose entities are updated in chunks.
+     */
+    View getChunkedView();
+
+    /**
+     * Prepares an update, for example by reading state shared by all entities.
+     *
+     * @param deltaTime The time in seconds since the last update.
+     */
+    void beginChunks(float deltaTime);
+
+    /**
+     * Updates the entities {@code entities[from]} up to, but not including,
+     * {@code entities[to]}.
+     *
+     * @param entities  The entities of one archetype of the view.
+     * @param from      The first row to update.
+     * @param to        The row after the last row to update.
+     * @param deltaTime The time in seconds since the last update.
+     */
+    void updateChunk(Entity[] entities, int from, int to, float deltaTime);
+}
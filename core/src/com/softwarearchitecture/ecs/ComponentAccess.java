@@ -0,0 +1,73 @@
+package com.softwarearchitecture.ecs;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Declares which component types a {@link System} reads and which it writes.
+ * The {@link SystemScheduler} uses the declarations to order conflicting systems
+ * deterministically, and to find systems that may run at the same time.
+ * <p>
+ * Two accesses conflict if one of them writes a component type the other one
+ * reads or writes. {@link #EXCLUSIVE} conflicts with everything and is the
+ * default for systems that do not declare their access, since they may touch
+ * anything.
+ */
+public final class ComponentAccess {
+    /** Access of a system that may read and write any component. */
+    public static final ComponentAccess EXCLUSIVE = new ComponentAccess(null, null);
+
+    private final Set<Class<?>> reads;
+    private final Set<Class<?>> writes;
+
+    /**
+     * @param reads  The component types the system only reads.
+     * @param writes The component types the system writes, and possibly reads.
+     */
+    public ComponentAccess(Set<Class<?>> reads, Set<Class<?>> writes) {
+        this.reads = reads == null ? null : Collections.unmodifiableSet(reads);
+        this.writes = writes == null ? null : Collections.unmodifiableSet(writes);
+    }
+
+    /**
+     * @return {@code true} if this access conflicts with every other access.
+     */
+    public boolean isExclusive() {
+        return reads == null || writes == null;
+    }
+
+    /**
+     * @return The component types read, or {@code null} if the access is exclusive.
+     */
+    public Set<Class<?>> getReads() {
+        return reads;
+    }
+
+    /**
+     * @return The component types written, or {@code null} if the access is exclusive.
+     */
+    public Set<Class<?>> getWrites() {
+        return writes;
+    }
+
+    /**
+     * @param other The access of another system.
+     * @return {@code true} if the two systems must not run at the same time.
+     */
+    public boolean conflictsWith(ComponentAccess other) {
+        if (isExclusive() || other.isExclusive()) {
+            return true;
+        }
+        for (Class<?> written : writes) {
+            if (other.reads.contains(written) || other.writes.contains(written)) {
+                return true;
+            }
+        }
+        for (Class<?> written : other.writes) {
+            if (reads.contains(written)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
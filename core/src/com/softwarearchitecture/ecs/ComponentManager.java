@@ -1,19 +1,31 @@
 package com.softwarearchitecture.ecs;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 /**
  * Manages components of a specific type for entities in ecs architecture.
  * The ComponentManager allows for the addition, retrieval, and removal of
  * components
- * associated with entities, using the entity's UUID as the key.
+ * associated with entities. The components themselves are kept in the
+ * archetype based {@link ComponentStorage} of the owning {@link ECSManager};
+ * the manager is a typed handle onto one column of that storage.
  *
  * @param <T> The type of component this manager is responsible for.
  */
 public class ComponentManager<T> {
-    protected Map<UUID, T> components = new HashMap<>();
+    private final ComponentStorage storage;
+    private final int typeId;
+
+    ComponentManager(ComponentStorage storage, int typeId) {
+        this.storage = storage;
+        this.typeId = typeId;
+    }
+
+    /**
+     * @return The id of the component type within the owning {@link ECSManager}.
+     */
+    int getTypeId() {
+        return typeId;
+    }
 
     /**
      * Adds a component to an entity. If the entity already has a component
@@ -23,22 +35,36 @@ public class ComponentManager<T> {
      * @param component The component to add to the entity.
      */
     public void addComponent(Entity entity, T component) {
-        components.put(entity.getId(), component);
+        if (component == null) {
+            storage.remove(entity, typeId);
+            return;
+        }
+        storage.set(entity, typeId, component);
     }
 
     /**
-     * Retrieves a component associated with a given entity. 
-     * 
+     * Retrieves a component associated with a given entity.
+     *
      * @param entity The entity whose component is to be retrieved.
      * @return An Optional containing the component, If the entity does not
      * have a component of this type, the method returns an empty Optional.
      */
     public Optional<T> getComponent(Entity entity) {
-        T component = components.get(entity.getId());
-        if (component == null) {
-            return Optional.empty();
-        }
-        return Optional.of(component);
+        return Optional.ofNullable(get(entity));
+    }
+
+    /**
+     * Retrieves a component associated with a given entity without wrapping it in
+     * an {@link Optional}. Meant for hot loops.
+     *
+     * @param entity The entity whose component is to be retrieved.
+     * @return The component, or {@code null} if the entity does not have a
+     *         component of this type.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(Entity entity) {
+        // Cast is safe since only addComponent writes to this type's column
+        return (T) storage.get(entity, typeId);
     }
 
     /**
@@ -49,6 +75,6 @@ public class ComponentManager<T> {
      * @param entity The entity whose component is to be removed.
      */
     public void removeComponent(Entity entity) {
-        components.remove(entity.getId());
+        storage.remove(entity, typeId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,252 @@
+package com.softwarearchitecture.ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Archetype based component storage used by the {@link ECSManager}.
+ * <p>
+ * Every entity that owns at least one component lives in exactly one
+ * {@link Archetype}, the one matching its set of component types. Adding or
+ * removing a component moves the entity's row to the neighbouring archetype.
+ * Locations are kept in arrays indexed by entity id, so a component lookup is
+ * two array reads followed by an index straight into the archetype's columns.
+ * Handles whose generation is no longer alive in the {@link EntityAllocator}
+ * are treated as having no components.
+ * <p>
+ * Type id {@link #REGISTERED} is reserved for a marker that is set while the
+ * entity is registered in the {@link ECSManager}, which lets {@link View}s
+ * skip entities that only exist in a factory or a deserialized snapshot.
+ * <p>
+ * Every entity carries the change version it was last changed at. Adding,
+ * replacing or removing a component stamps it, and changes made in place are
+ * stamped through {@link #markChanged(Entity)}, so a reader that remembers the
+ * version it last looked at only has to look at the entities changed since.
+ */
+final class ComponentStorage {
+    /** The component type set of an archetype is stored as a {@code long} bit mask. */
+    static final int MAX_COMPONENT_TYPES = Long.SIZE;
+
+    /** Type id of the marker set on entities registered in the {@link ECSManager}. */
+    static final int REGISTERED = 0;
+
+    private final EntityAllocator allocator;
+    private final Map<Long, Archetype> archetypes = new HashMap<>();
+    private final List<Archetype> archetypeList = new ArrayList<>();
+    private final Map<Long, View> views = new HashMap<>();
+
+    /** The archetype and row of each entity id, {@code null} if it has no components. */
+    private Archetype[] archetypeOf = new Archetype[256];
+    private int[] rowOf = new int[256];
+    /** The change version each entity id was last changed at. */
+    private long[] changedAt = new long[256];
+    /** The version stamped on changes, advanced by {@link #nextChangeVersion()}. */
+    private long changeVersion = 1;
+
+    ComponentStorage(EntityAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    /**
+     * @return All archetypes created so far, in creation order.
+     */
+    List<Archetype> getArchetypes() {
+        return archetypeList;
+    }
+
+    /**
+     * Returns the view over all registered entities having every type in
+     * {@code mask}. Views are shared between callers asking for the same types.
+     */
+    View getView(long mask) {
+        mask |= 1L << REGISTERED;
+        View view = views.get(mask);
+        if (view == null) {
+            view = new View(this, mask);
+            for (Archetype archetype : archetypeList) {
+                view.onArchetypeCreated(archetype);
+            }
+            views.put(mask, view);
+        }
+        return view;
+    }
+
+    /**
+     * @param entity The entity.
+     * @return The component type mask of the entity, {@code 0} if it has no components.
+     */
+    long getMask(Entity entity) {
+        Archetype archetype = archetypeOf(entity);
+        return archetype == null ? 0 : archetype.mask;
+    }
+
+    /**
+     * @param entity The entity.
+     * @param typeId The component type id.
+     * @return The component, or {@code null} if the entity does not have one of this type.
+     */
+    Object get(Entity entity, int typeId) {
+        Archetype archetype = archetypeOf(entity);
+        if (archetype == null) {
+            return null;
+        }
+        return archetype.get(rowOf[entity.getId()], typeId);
+    }
+
+    /**
+     * Sets a component on an entity, moving the entity to a new archetype if it
+     * did not have a component of this type before.
+     */
+    void set(Entity entity, int typeId, Object component) throws IllegalStateException {
+        int id = entity.getId();
+        if (!allocator.isAlive(id, entity.getGeneration())) {
+            throw new IllegalStateException("[ERROR] Entity " + id + " is detached or has been destroyed");
+        }
+        ensureCapacity(id);
+        changedAt[id] = changeVersion;
+        Archetype archetype = archetypeOf[id];
+        if (archetype == null) {
+            archetype = getOrCreateArchetype(1L << typeId);
+            archetypeOf[id] = archetype;
+            rowOf[id] = archetype.add(entity);
+        } else if (!archetype.has(typeId)) {
+            Archetype target = archetype.addEdges[typeId];
+            if (target == null) {
+                target = getOrCreateArchetype(archetype.mask | (1L << typeId));
+                archetype.addEdges[typeId] = target;
+                target.removeEdges[typeId] = archetype;
+            }
+            move(entity, target);
+        }
+        archetypeOf[id].set(rowOf[id], typeId, component);
+    }
+
+    /**
+     * Removes a component from an entity. Does nothing if the entity does not have
+     * a component of this type.
+     */
+    void remove(Entity entity, int typeId) {
+        Archetype archetype = archetypeOf(entity);
+        if (archetype == null || !archetype.has(typeId)) {
+            return;
+        }
+        changedAt[entity.getId()] = changeVersion;
+        long mask = archetype.mask & ~(1L << typeId);
+        if (mask == 0) {
+            removeEntity(entity);
+            return;
+        }
+        Archetype target = archetype.removeEdges[typeId];
+        if (target == null) {
+            target = getOrCreateArchetype(mask);
+            archetype.removeEdges[typeId] = target;
+            target.addEdges[typeId] = archetype;
+        }
+        move(entity, target);
+    }
+
+    /**
+     * Removes every component of an entity.
+     */
+    void removeEntity(Entity entity) {
+        Archetype archetype = archetypeOf(entity);
+        if (archetype != null) {
+            int id = entity.getId();
+            release(archetype, rowOf[id]);
+            archetypeOf[id] = null;
+        }
+    }
+
+    /**
+     * Stamps an entity with the current change version. Does nothing if the entity
+     * has no components.
+     */
+    void markChanged(Entity entity) {
+        if (archetypeOf(entity) != null) {
+            changedAt[entity.getId()] = changeVersion;
+        }
+    }
+
+    /**
+     * @param entity The entity.
+     * @return The change version the entity was last changed at, {@code 0} if it has
+     *         no components.
+     */
+    long getChangedAt(Entity entity) {
+        return archetypeOf(entity) == null ? 0 : changedAt[entity.getId()];
+    }
+
+    /**
+     * Ends the current change version.
+     *
+     * @return The version that ended, every change made after the call is stamped
+     *         with a higher version.
+     */
+    long nextChangeVersion() {
+        return changeVersion++;
+    }
+
+    /**
+     * Removes every component of every entity. Archetypes are kept so that their
+     * columns can be reused.
+     */
+    void clear() {
+        for (Archetype archetype : archetypeList) {
+            archetype.clear();
+        }
+        Arrays.fill(archetypeOf, null);
+    }
+
+    /** @return The archetype of a live entity, or {@code null}. */
+    private Archetype archetypeOf(Entity entity) {
+        int id = entity.getId();
+        if (id < 0 || id >= archetypeOf.length || !allocator.isAlive(id, entity.getGeneration())) {
+            return null;
+        }
+        return archetypeOf[id];
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= archetypeOf.length) {
+            int capacity = Math.max(archetypeOf.length * 2, id + 1);
+            archetypeOf = Arrays.copyOf(archetypeOf, capacity);
+            rowOf = Arrays.copyOf(rowOf, capacity);
+            changedAt = Arrays.copyOf(changedAt, capacity);
+        }
+    }
+
+    private void move(Entity entity, Archetype target) {
+        int id = entity.getId();
+        Archetype source = archetypeOf[id];
+        int row = rowOf[id];
+        int targetRow = target.add(entity);
+        source.copyRow(row, target, targetRow);
+        release(source, row);
+        archetypeOf[id] = target;
+        rowOf[id] = targetRow;
+    }
+
+    /** Frees a row and fixes up the location of the entity that took its place. */
+    private void release(Archetype archetype, int row) {
+        Entity moved = archetype.remove(row);
+        if (moved != null) {
+            rowOf[moved.getId()] = row;
+        }
+    }
+
+    private Archetype getOrCreateArchetype(long mask) {
+        Archetype archetype = archetypes.get(mask);
+        if (archetype == null) {
+            archetype = new Archetype(mask);
+            archetypes.put(mask, archetype);
+            archetypeList.add(archetype);
+            for (View view : views.values()) {
+                view.onArchetypeCreated(archetype);
+            }
+        }
+        return archetype;
+    }
+}
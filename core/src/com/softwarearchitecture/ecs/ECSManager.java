@@ -1,88 +1,194 @@
 package com.softwarearchitecture.ecs;
 
+import java.util.AbstractSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The {@code ECSManager} class serves as the central hub for managing the
  * Entity-Component-System (ECS) architecture in Besieged.
  * It facilitates the handling of entities, components, and systems to
  * enable a decoupled and flexible game or application architecture.
- * This class follows the Singleton design pattern to ensure only one instance
- * exists throughout the application lifecycle.
+ * <p>
+ * Every match, and the client, owns its own manager through a {@link World}, and
+ * the manager is handed to the systems and factories working on it. Managers do
+ * not share any state, so several of them can live on the same thread or move
+ * between threads.
  * <p>
  * For more information on the ECS pattern, see
  * <a href="https://en.wikipedia.org/wiki/Entity_component_system">Entity
  * Component System</a>.
- * <p>
- * For more information on the Singleton design pattern, see
- * <a href="https://en.wikipedia.org/wiki/Singleton_pattern">Singleton
- * Pattern</a>.
  */
 public class ECSManager {
-    
-    /** Singleton */
-    private static ThreadLocal<ECSManager> instance;
 
     /** Stores the entities */
     private Set<Entity> localEntities;
     private Set<Entity> remoteEntities;
-    private Set<Entity> toAdd; // Entities to be added before the next update
-    private Set<Entity> toRemove; // Entities to be removed before the next update
-    private Set<Entity> newlyAddedEntities; // Entities that were added in the last update
+    private Set<Entity> newlyAddedEntities; // Remote entities added since they were last fetched
+    private Set<Entity> fetchedNewlyAddedEntities; // Returned by the last fetch, reused by the next one
+
+    /** Read-only views handed out to callers and systems, created once */
+    private Set<Entity> localEntitiesView;
+    private Set<Entity> remoteEntitiesView;
+    private Set<Entity> allEntitiesView;
+
+    /**
+     * Structural changes recorded since the last update. The buffers are swapped
+     * before being applied, so changes made while applying go to the next update.
+     */
+    private EntityCommandBuffer pendingCommands;
+    private EntityCommandBuffer applyingCommands;
+
+    /** Stores the systems and decides their order */
+    private SystemScheduler systems;
 
-    /** Stores the systems */
-    private Set<System> systems;
+    /** Runs the systems in parallel, {@code null} to run them one after another */
+    private ParallelSystemExecutor parallelExecutor;
 
     /** Stores component managers for different component types */
     private Map<Class<?>, ComponentManager<?>> componentManagers;
 
+    /** Archetype based storage backing all component managers */
+    private ComponentStorage componentStorage;
 
-    // Private constructor to prevent instantiation
-    private ECSManager() {
+    /** Hands out entity ids */
+    private EntityAllocator entityAllocator;
+
+    /** Local handles of remote entities, keyed by their network id */
+    private Map<Long, Entity> remoteEntityHandles;
+
+
+    /**
+     * Creates an empty manager. Usually created through a {@link World}.
+     */
+    public ECSManager() {
         localEntities = new HashSet<>();
         remoteEntities = new HashSet<>();
-        toAdd = new HashSet<>();
-        toRemove = new HashSet<>();
         newlyAddedEntities = new HashSet<>();
-        systems = new HashSet<>();
-        componentManagers = new HashMap<>();
-
+        fetchedNewlyAddedEntities = new HashSet<>();
+        localEntitiesView = Collections.unmodifiableSet(localEntities);
+        remoteEntitiesView = Collections.unmodifiableSet(remoteEntities);
+        allEntitiesView = new EntityUnion(localEntities, remoteEntities);
+        pendingCommands = new EntityCommandBuffer();
+        applyingCommands = new EntityCommandBuffer();
+        systems = new SystemScheduler();
+        componentManagers = new ConcurrentHashMap<>();
+        entityAllocator = new EntityAllocator();
+        componentStorage = new ComponentStorage(entityAllocator);
+        remoteEntityHandles = new HashMap<>();
     }
 
     /**
-     * @return The singleton instance of the ECSManager.
+     * Creates a new entity owned by this manager. The entity is not part of any
+     * update until it is added through {@link #addLocalEntity(Entity)}.
+     *
+     * @return The new entity.
      */
-    public static synchronized ECSManager getInstance() {
-        if (instance == null) {
-            instance = ThreadLocal.withInitial(ECSManager::new);
-        }
-        return instance.get();
+    public Entity createEntity() {
+        return new Entity(this);
     }
 
     /**
-     * Adds an entity to the ECSManager.
+     * Adds an entity to the ECSManager. The entity becomes visible at the start of
+     * the next update.
      * 
      * @param entity The entity to be added.
      */
     public void addLocalEntity(Entity entity) {
-        toAdd.add(entity);
+        pendingCommands.add(EntityCommandBuffer.ADD_LOCAL, entity);
     }
 
     /**
-     * @return The set of entities managed by the ECSManager.
+     * @return A read-only view of the entities managed by the ECSManager.
      */
     public Set<Entity> getLocalEntities() {
-        return localEntities;
+        return localEntitiesView;
     }
 
     /**
-     * Removes an entity from the ECSManager.
+     * Removes an entity from the ECSManager at the start of the next update.
      */
     public void removeLocalEntity(Entity entity) {
-        toRemove.add(entity);
+        pendingCommands.add(EntityCommandBuffer.REMOVE_LOCAL, entity);
+    }
+
+    /**
+     * Destroys an entity before the next update. The entity is removed from the
+     * ECSManager, all its components are dropped and its id is recycled. Handles to
+     * the entity held elsewhere become stale and no longer have any components.
+     *
+     * @param entity The entity to be destroyed.
+     */
+    public void destroyEntity(Entity entity) {
+        pendingCommands.add(EntityCommandBuffer.DESTROY, entity);
+    }
+
+    /**
+     * @return A fresh entity id, see {@link #createEntity()}.
+     */
+    int allocateEntityId() {
+        return entityAllocator.allocate();
+    }
+
+    /**
+     * @param id An entity id.
+     * @return The current generation of the id.
+     */
+    int getEntityGeneration(int id) {
+        return entityAllocator.generation(id);
+    }
+
+    /**
+     * Returns the local handle of a remote entity, creating one the first time the
+     * network id is seen. Used when reading a {@link com.softwarearchitecture.game_server.GameState}.
+     *
+     * @param networkId The id of the entity on the sending side.
+     * @return The local entity mapped to the network id.
+     */
+    public Entity getOrCreateRemoteEntity(long networkId) {
+        Entity entity = remoteEntityHandles.get(networkId);
+        if (entity == null) {
+            entity = createEntity();
+            remoteEntityHandles.put(networkId, entity);
+        }
+        return entity;
+    }
+
+    /**
+     * Destroys every remote entity whose network id is not in the given set.
+     *
+     * @param networkIds The network ids of the remote entities that still exist.
+     */
+    public void retainRemoteEntities(Set<Long> networkIds) {
+        Iterator<Map.Entry<Long, Entity>> iterator = remoteEntityHandles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Entity> entry = iterator.next();
+            if (!networkIds.contains(entry.getKey())) {
+                removeRemoteEntity(entry.getValue());
+                destroyEntity(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Destroys the remote entity mapped to a network id. Does nothing if the id is unknown.
+     *
+     * @param networkId The id of the entity on the sending side.
+     */
+    public void destroyRemoteEntity(long networkId) {
+        Entity entity = remoteEntityHandles.remove(networkId);
+        if (entity != null) {
+            removeRemoteEntity(entity);
+            destroyEntity(entity);
+        }
     }
 
     /**
@@ -91,14 +197,17 @@ public class ECSManager {
      */
     public void addRemoteEntity(Entity entity) {
         boolean result = remoteEntities.add(entity);
-        if (result) newlyAddedEntities.add(entity);
+        if (result) {
+            newlyAddedEntities.add(entity);
+            componentStorage.set(entity, ComponentStorage.REGISTERED, Boolean.TRUE);
+        }
     }
 
     /**
-     * Get all external entities.
+     * Get a read-only view of all external entities.
      */
     public Set<Entity> getRemoteEntities() {
-        return remoteEntities;
+        return remoteEntitiesView;
     }
 
     /**
@@ -106,13 +215,34 @@ public class ECSManager {
      * @param entity The entity to be removed.
      */
     public void removeRemoteEntity(Entity entity) {
-        remoteEntities.remove(entity);
+        if (remoteEntities.remove(entity) && !localEntities.contains(entity)) {
+            componentStorage.remove(entity, ComponentStorage.REGISTERED);
+        }
     }
 
     /**
-     * Clears all entities from the ECSManager.
+     * Clears all entities from the ECSManager, including changes not yet applied.
+     * Local entities that are not also remote are destroyed, so their ids are recycled.
+     * Entities already waiting to be destroyed, like remote entities that no longer
+     * exist, are destroyed too.
      */
     public void clearLocalEntities() {
+        for (int i = 0; i < pendingCommands.size(); i++) {
+            Entity entity = pendingCommands.entityAt(i);
+            int command = pendingCommands.commandAt(i);
+            // Local entities waiting to be added are cleared with the others
+            if (command == EntityCommandBuffer.DESTROY
+                    || (command == EntityCommandBuffer.ADD_LOCAL && !remoteEntities.contains(entity))) {
+                destroyNow(entity);
+            }
+        }
+        pendingCommands.clear();
+        for (Entity entity : localEntities) {
+            if (!remoteEntities.contains(entity) && entityAllocator.isAlive(entity.getId(), entity.getGeneration())) {
+                componentStorage.removeEntity(entity);
+                entityAllocator.free(entity.getId());
+            }
+        }
         localEntities.clear();
     }
 
@@ -128,14 +258,52 @@ public class ECSManager {
         // Cast is safe due to the controlled way ComponentManagers are added
         ComponentManager<T> manager = (ComponentManager<T>) componentManagers.get(componentType);
         if (manager == null) {
-            manager = new ComponentManager<T>();
+            manager = registerComponentType(componentType);
+        }
+        return manager;
+    }
+
+    /**
+     * Creates the component manager of a new component type. Synchronized since
+     * systems run by the {@link ParallelSystemExecutor} may look up managers
+     * concurrently.
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized <T> ComponentManager<T> registerComponentType(Class<T> componentType) throws IllegalStateException {
+        ComponentManager<T> manager = (ComponentManager<T>) componentManagers.get(componentType);
+        if (manager == null) {
+            // Type ids start after the ones reserved by the storage
+            int typeId = componentManagers.size() + 1;
+            if (typeId >= ComponentStorage.MAX_COMPONENT_TYPES) {
+                throw new IllegalStateException("[ERROR] Too many component types, at most "
+                        + ComponentStorage.MAX_COMPONENT_TYPES + " are supported");
+            }
+            manager = new ComponentManager<T>(componentStorage, typeId);
             componentManagers.put(componentType, manager);
         }
         return manager;
     }
 
     /**
-     * Adds a system to the ECSManager.
+     * Returns a view over all registered entities that have every one of the given
+     * component types. The view is kept up to date as components are added and
+     * removed, so it can be created once, for example in a system's constructor,
+     * and iterated every update.
+     *
+     * @param componentTypes The component types an entity must have to be part of the view.
+     * @return The view over the matching entities.
+     */
+    public View getView(Class<?>... componentTypes) {
+        long mask = 0;
+        for (Class<?> componentType : componentTypes) {
+            mask |= 1L << getOrDefaultComponentManager(componentType).getTypeId();
+        }
+        return componentStorage.getView(mask);
+    }
+
+    /**
+     * Adds a system to the ECSManager. Systems run phase by phase and, within a
+     * phase, in the order they were added.
      * 
      * @param system The system to be added.
      */
@@ -144,49 +312,222 @@ public class ECSManager {
     }
 
     /**
-     * Returns the set of systems managed by the ECSManager.
+     * Returns the systems managed by the ECSManager in the order they are run.
      * 
-     * @return A set of systems.
+     * @return A read-only list of systems.
      */
-    public Set<System> getSystems() {
-        return systems;
+    public List<System> getSystems() {
+        return systems.getOrder();
     }
 
     /**
-     * Updates all systems managed by the ECSManager.
+     * Updates all systems managed by the ECSManager, see {@link #getSystems()}
+     * for the order.
      * 
      * @param deltaTime The time elapsed since the last update.
      */
     public void update(float deltaTime) {
-        for (Entity entity : toAdd) {
-            localEntities.add(entity);
+        applyCommands();
+
+        if (parallelExecutor != null) {
+            parallelExecutor.execute(systems, allEntitiesView, deltaTime);
+            return;
+        }
+        List<System> order = systems.getOrder();
+        for (int i = 0; i < order.size(); i++) {
+            order.get(i).update(allEntitiesView, deltaTime);
         }
+    }
+
+    /**
+     * Records that a component of an entity was changed in place, so readers
+     * following the changes of the manager, like the replication to the clients,
+     * see it. Adding, replacing or removing a component records it by itself.
+     *
+     * @param entity The changed entity.
+     */
+    public void markChanged(Entity entity) {
+        componentStorage.markChanged(entity);
+    }
 
-        for (Entity entity : toRemove) {
-            localEntities.remove(entity);
+    /**
+     * @param entity The entity.
+     * @return The change version the entity was last changed at, compare it with the
+     *         version returned by {@link #nextChangeVersion()}.
+     */
+    public long getChangedAt(Entity entity) {
+        return componentStorage.getChangedAt(entity);
+    }
+
+    /**
+     * Ends the current change version, so the entities changed from now on can be
+     * told apart from those that were not.
+     *
+     * @return The version that ended, every entity changed after the call has a
+     *         higher {@link #getChangedAt(Entity) change version}.
+     */
+    public long nextChangeVersion() {
+        return componentStorage.nextChangeVersion();
+    }
+
+    /**
+     * Sets the executor used to run systems in parallel. Systems that do not
+     * conflict according to their {@link System#getComponentAccess()} may then run
+     * at the same time, with the same result as running them in order.
+     *
+     * @param parallelExecutor The executor, or {@code null} to run systems one after another.
+     */
+    public void setParallelExecutor(ParallelSystemExecutor parallelExecutor) {
+        this.parallelExecutor = parallelExecutor;
+    }
+
+    /**
+     * Applies the structural changes recorded since the last update, in the order
+     * they were issued, and clears them.
+     */
+    private void applyCommands() {
+        EntityCommandBuffer commands = pendingCommands;
+        pendingCommands = applyingCommands;
+        applyingCommands = commands;
+
+        for (int i = 0; i < commands.size(); i++) {
+            Entity entity = commands.entityAt(i);
+            if (!entityAllocator.isAlive(entity.getId(), entity.getGeneration())) {
+                continue;
+            }
+            switch (commands.commandAt(i)) {
+                case EntityCommandBuffer.ADD_LOCAL:
+                    if (localEntities.add(entity)) {
+                        componentStorage.set(entity, ComponentStorage.REGISTERED, Boolean.TRUE);
+                    }
+                    break;
+                case EntityCommandBuffer.REMOVE_LOCAL:
+                    if (localEntities.remove(entity) && !remoteEntities.contains(entity)) {
+                        componentStorage.remove(entity, ComponentStorage.REGISTERED);
+                    }
+                    break;
+                case EntityCommandBuffer.DESTROY:
+                    destroyNow(entity);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown entity command: " + commands.commandAt(i));
+            }
         }
+        commands.clear();
+    }
 
-        Set<Entity> entities = new HashSet<>(localEntities);
-        entities.addAll(remoteEntities);
-        for (System system : this.systems) {
-            // Update each system
-            system.update(entities, deltaTime); // TODO: Render function should be the last system called!
+    /**
+     * Removes a live entity from the ECSManager, drops its components and frees its id.
+     * Does nothing for a stale handle, so an entity is never freed twice.
+     */
+    private void destroyNow(Entity entity) {
+        if (!entityAllocator.isAlive(entity.getId(), entity.getGeneration())) {
+            return;
         }
+        localEntities.remove(entity);
+        remoteEntities.remove(entity);
+        newlyAddedEntities.remove(entity);
+        componentStorage.removeEntity(entity);
+        entityAllocator.free(entity.getId());
     }
 
     /**
-     * Clears all entities, systems, and component managers from the ECSManager.
+     * Clears all entities, systems, and components from the ECSManager.
+     * Component managers stay registered so that handles held by systems remain
+     * valid. Every entity id is freed, so handles to the cleared entities become
+     * stale and the ids are recycled.
      */
     public void clearAll() {
+        pendingCommands.clear();
         localEntities.clear();
         systems.clear();
-        componentManagers.clear();
+        componentStorage.clear();
         remoteEntities.clear();
+        remoteEntityHandles.clear();
+        newlyAddedEntities.clear();
+        entityAllocator.freeAll();
     }
 
+    /**
+     * Returns the remote entities added since the last call. The returned set is
+     * reused by the next call, so it should not be kept around.
+     *
+     * @return The newly added remote entities.
+     */
     public Set<Entity> getAndClearNewlyRemoteAddedEntities() {
-        Set<Entity> temp = new HashSet<>(newlyAddedEntities);
+        Set<Entity> fetched = newlyAddedEntities;
+        newlyAddedEntities = fetchedNewlyAddedEntities;
         newlyAddedEntities.clear();
-        return temp;
+        fetchedNewlyAddedEntities = fetched;
+        return fetched;
+    }
+
+    /**
+     * Read-only set of the local and remote entities that is backed by both sets
+     * instead of copying them.
+     */
+    private static final class EntityUnion extends AbstractSet<Entity> {
+        private final Set<Entity> local;
+        private final Set<Entity> remote;
+
+        EntityUnion(Set<Entity> local, Set<Entity> remote) {
+            this.local = local;
+            this.remote = remote;
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            return local.contains(object) || remote.contains(object);
+        }
+
+        @Override
+        public int size() {
+            int size = local.size();
+            for (Entity entity : remote) {
+                if (!local.contains(entity)) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public Iterator<Entity> iterator() {
+            return new Iterator<Entity>() {
+                private final Iterator<Entity> localIterator = local.iterator();
+                private final Iterator<Entity> remoteIterator = remote.iterator();
+                private Entity next = null;
+
+                @Override
+                public boolean hasNext() {
+                    if (next != null) {
+                        return true;
+                    }
+                    if (localIterator.hasNext()) {
+                        next = localIterator.next();
+                        return true;
+                    }
+                    while (remoteIterator.hasNext()) {
+                        Entity entity = remoteIterator.next();
+                        // Entities that are both local and remote were already returned
+                        if (!local.contains(entity)) {
+                            next = entity;
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+
+                @Override
+                public Entity next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Entity entity = next;
+                    next = null;
+                    return entity;
+                }
+            };
+        }
     }
-}
\ No newline at end of file
+}
@@ -3,12 +3,18 @@ package com.softwarearchitecture.ecs;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Optional;
-import java.util.UUID;
 
 /**
  * Represents an entity within an Entity-Component-System (ECS) architecture.
- * Each entity is uniquely identified by a UUID and can have various components
- * attached to it.
+ * Each entity is a handle made of a dense integer id and a generation counter
+ * handed out by its {@link ECSManager}, and can have various components
+ * attached to it. Ids are recycled once an entity is destroyed; the generation
+ * tells a recycled id apart from a stale handle.
+ * <p>
+ * Handles are only meaningful inside the ECSManager that created them. Entities
+ * sent over the network are mapped to network ids by
+ * {@link com.softwarearchitecture.game_server.GameState}, and a handle restored
+ * through Java serialization is detached and holds no components.
  * 
  * The Entity class provides methods for adding components to the entity.
  * Components are managed by the
@@ -17,33 +23,46 @@ import java.util.UUID;
  * entity efficiently.
  */
 public class Entity implements Serializable {
-    /** Unique identifier for the entity. */
-    private UUID id;
+    /** Id of detached handles, which are restored through Java serialization. */
+    public static final int DETACHED_ID = -1;
+
+    /** Dense identifier for the entity, unique among the live entities of its ECSManager. */
+    private transient int id;
+
+    /** Generation of the id at the time this handle was created. */
+    private transient int generation;
 
     /** Reference to the ECSManager, used for component management. */
     private transient ECSManager ecs;
 
     /**
-     * Constructs a new Entity with a unique UUID and initializes its connection to
-     * the ECSManager.
-     * The ECSManager instance is retrieved through its singleton instance, ensuring
-     * that all entities
-     * interact with the same ECS management system.
+     * Constructs a new Entity with a fresh id owned by the given ECSManager.
+     * Entities are created through {@link ECSManager#createEntity()}.
+     *
+     * @param ecs The manager owning the entity and its components.
      */
-    public Entity() {
-        this.id = UUID.randomUUID();
-        this.ecs = ECSManager.getInstance();
+    Entity(ECSManager ecs) {
+        this.ecs = ecs;
+        this.id = ecs.allocateEntityId();
+        this.generation = ecs.getEntityGeneration(id);
     }
 
     /**
-     * Returns the unique identifier (UUID) of the entity.
+     * Returns the identifier of the entity.
      * 
-     * @return The UUID of this entity.
+     * @return The id of this entity, or {@link #DETACHED_ID} for a detached handle.
      */
-    public UUID getId() {
+    public int getId() {
         return id;
     }
 
+    /**
+     * @return The generation of the id at the time this handle was created.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
     /**
      * Adds a component of a specific type to this entity. If the ECSManager has a
      * ComponentManager
@@ -54,8 +73,8 @@ public class Entity implements Serializable {
      * @param component     The component instance to add to this entity.
      * @param <T>           The type of the component.
      */
-    public <T> void addComponent(Class<T> componentType, T component) {
-        ComponentManager<T> manager = ecs.getOrDefaultComponentManager(componentType);
+    public <T> void addComponent(Class<T> componentType, T component) throws IllegalStateException {
+        ComponentManager<T> manager = getECSManager().getOrDefaultComponentManager(componentType);
         manager.addComponent(this, component);
     }
 
@@ -68,32 +87,67 @@ public class Entity implements Serializable {
      * @param componentType The class type of the component to remove.
      * @param <T>           The type of the component.
      */
-    public <T> void removeComponent(Class<T> componentType) {
-        ComponentManager<T> manager = ecs.getOrDefaultComponentManager(componentType);
+    public <T> void removeComponent(Class<T> componentType) throws IllegalStateException {
+        ComponentManager<T> manager = getECSManager().getOrDefaultComponentManager(componentType);
         manager.removeComponent(this);
     }
 
+    /**
+     * Records that a component of this entity was changed in place, see
+     * {@link ECSManager#markChanged(Entity)}.
+     */
+    public void markChanged() throws IllegalStateException {
+        getECSManager().markChanged(this);
+    }
+
+    /**
+     * Ids are local to the ECSManager that created them, so a deserialized handle
+     * is detached instead of aliasing an unrelated local entity.
+     */
     private void readObject(ObjectInputStream ois) throws Exception {
         ois.defaultReadObject();
-        this.ecs = ECSManager.getInstance();
+        this.ecs = null;
+        this.id = DETACHED_ID;
+        this.generation = 0;
     }
 
+    /**
+     * Returns the component of a specific type of this entity.
+     *
+     * @param componentType The class type of the component.
+     * @param <T>           The type of the component.
+     * @return The component, or empty if the entity has none or is detached.
+     */
     public <T> Optional<T> getComponent(Class<T> componentType) {
+        if (ecs == null) {
+            return Optional.empty();
+        }
         ComponentManager<T> manager = ecs.getOrDefaultComponentManager(componentType);
         return manager.getComponent(this);
     }
 
+    /**
+     * @return The manager owning this entity.
+     * @throws IllegalStateException If the entity is detached.
+     */
+    private ECSManager getECSManager() throws IllegalStateException {
+        if (ecs == null) {
+            throw new IllegalStateException("[ERROR] Entity is detached and has no ECSManager");
+        }
+        return ecs;
+    }
+
     @Override
     public boolean equals(Object object) {
         if (object instanceof Entity) {
             Entity entity = (Entity) object;
-            return this.id.equals(entity.id);
+            return this.id == entity.id && this.generation == entity.generation;
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return id.hashCode();
+        return 31 * id + generation;
     }
 }
\ No newline at end of file
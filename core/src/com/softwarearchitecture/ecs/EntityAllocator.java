@@ -0,0 +1,77 @@
+package com.softwarearchitecture.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Hands out dense integer entity ids for an {@link ECSManager}.
+ * <p>
+ * Every id has a generation counter. Freeing an id bumps its generation and
+ * pushes the id onto a free-list, so the next allocation reuses the slot while
+ * any handle still holding the old generation is recognised as stale.
+ */
+final class EntityAllocator {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private int[] freeList = new int[INITIAL_CAPACITY];
+    private int freeCount = 0;
+    private int nextId = 0;
+
+    /**
+     * @return A free entity id. Its current generation is {@link #generation(int)}.
+     */
+    int allocate() {
+        if (freeCount > 0) {
+            return freeList[--freeCount];
+        }
+        if (nextId == generations.length) {
+            generations = Arrays.copyOf(generations, generations.length * 2);
+        }
+        return nextId++;
+    }
+
+    /**
+     * Frees an id so it can be recycled. Handles with the old generation become stale.
+     *
+     * @param id The id to free.
+     */
+    void free(int id) {
+        generations[id]++;
+        if (freeCount == freeList.length) {
+            freeList = Arrays.copyOf(freeList, freeList.length * 2);
+        }
+        freeList[freeCount++] = id;
+    }
+
+    /**
+     * Frees every id at once. Every handle handed out so far becomes stale, and the
+     * ids are recycled from the lowest one on.
+     */
+    void freeAll() {
+        if (freeList.length < nextId) {
+            freeList = new int[generations.length];
+        }
+        for (int id = 0; id < nextId; id++) {
+            generations[id]++;
+            freeList[nextId - 1 - id] = id;
+        }
+        freeCount = nextId;
+    }
+
+    /**
+     * @param id An id handed out by {@link #allocate()}.
+     * @return The current generation of the id.
+     */
+    int generation(int id) {
+        return generations[id];
+    }
+
+    /**
+     * @param id         The entity id.
+     * @param generation The generation stored in the handle.
+     * @return {@code true} if the handle refers to a live entity.
+     */
+    boolean isAlive(int id, int generation) {
+        return id >= 0 && id < nextId && generations[id] == generation;
+    }
+}
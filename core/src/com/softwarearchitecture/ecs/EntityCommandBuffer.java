@@ -0,0 +1,50 @@
+package com.softwarearchitecture.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Records structural changes to the entity registry of an {@link ECSManager}
+ * so they can be applied in one go at the start of the next update, in the
+ * order they were issued.
+ */
+final class EntityCommandBuffer {
+    static final byte ADD_LOCAL = 0;
+    static final byte REMOVE_LOCAL = 1;
+    static final byte DESTROY = 2;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private byte[] commands = new byte[INITIAL_CAPACITY];
+    private Entity[] entities = new Entity[INITIAL_CAPACITY];
+    private int size = 0;
+
+    void add(byte command, Entity entity) {
+        if (size == commands.length) {
+            commands = Arrays.copyOf(commands, size * 2);
+            entities = Arrays.copyOf(entities, size * 2);
+        }
+        commands[size] = command;
+        entities[size] = entity;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte commandAt(int index) {
+        return commands[index];
+    }
+
+    Entity entityAt(int index) {
+        return entities[index];
+    }
+
+    /**
+     * Drops all recorded commands while keeping the allocated arrays.
+     */
+    void clear() {
+        Arrays.fill(entities, 0, size, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,194 @@
+package com.softwarearchitecture.ecs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the systems of an {@link ECSManager} on a {@link ForkJoinPool} instead of
+ * one after another. Parallel execution is opt-in, see
+ * {@link ECSManager#setParallelExecutor(ParallelSystemExecutor)}.
+ * <p>
+ * Every update the executor walks the dependency graph of the
+ * {@link SystemScheduler} and groups the systems into stages: a system is put in
+ * the stage after the last stage holding one of its dependencies. Systems of a
+ * stage do not conflict with each other, so they are run concurrently, and a
+ * stage only starts once the previous one has finished. A stage holding a single
+ * system runs it on the calling thread. The result is the same as running the
+ * systems sequentially in scheduler order.
+ * <p>
+ * Systems of the {@link Phase#RENDER} phase always run on the thread calling
+ * {@link ECSManager#update(float)}, since drawing has to happen on the thread
+ * owning the graphics context. {@link ChunkedSystem}s whose view holds more than
+ * one chunk of entities are additionally split into chunks that are updated in
+ * parallel.
+ * <p>
+ * The executor keeps no state between updates, so one executor can be shared by
+ * several managers updated from different threads.
+ */
+public final class ParallelSystemExecutor {
+    /** Number of entities updated by one task of a {@link ChunkedSystem} */
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * @param pool      The pool the systems and chunks are run on.
+     * @param chunkSize The number of entities updated by one task of a {@link ChunkedSystem}.
+     */
+    public ParallelSystemExecutor(ForkJoinPool pool, int chunkSize) throws IllegalArgumentException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("[ERROR] Chunk size must be positive, was " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param pool The pool the systems and chunks are run on.
+     */
+    public ParallelSystemExecutor(ForkJoinPool pool) {
+        this(pool, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Runs one update of all systems and returns once every system has finished.
+     *
+     * @param scheduler The systems and their dependency graph.
+     * @param entities  The entities passed to {@link System#update(Set, float)}.
+     * @param deltaTime The time elapsed since the last update.
+     */
+    void execute(SystemScheduler scheduler, Set<Entity> entities, float deltaTime) {
+        List<System> order = scheduler.getOrder();
+        int count = order.size();
+        int[] stages = new int[count];
+        List<ForkJoinTask<?>> running = new ArrayList<>();
+
+        int stageCount = 0;
+        for (int i = 0; i < count; i++) {
+            int stage = 0;
+            for (int dependency : scheduler.getDependencies(i)) {
+                stage = Math.max(stage, stages[dependency] + 1);
+            }
+            stages[i] = stage;
+            stageCount = Math.max(stageCount, stage + 1);
+        }
+
+        for (int stage = 0; stage < stageCount; stage++) {
+            int size = 0;
+            int last = -1;
+            for (int i = 0; i < count; i++) {
+                if (stages[i] == stage) {
+                    size++;
+                    last = i;
+                }
+            }
+            // A lone system gains nothing from a thread switch
+            if (size == 1) {
+                run(order.get(last), entities, deltaTime);
+                continue;
+            }
+
+            // Hand all but the render systems to the pool, then run those on this thread
+            for (int i = 0; i < count; i++) {
+                System system = order.get(i);
+                if (stages[i] == stage && system.getPhase() != Phase.RENDER) {
+                    running.add(pool.submit(new SystemTask(system, entities, deltaTime)));
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                System system = order.get(i);
+                if (stages[i] == stage && system.getPhase() == Phase.RENDER) {
+                    system.update(entities, deltaTime);
+                }
+            }
+            for (ForkJoinTask<?> task : running) {
+                task.join();
+            }
+            running.clear();
+        }
+    }
+
+    /**
+     * Updates a system on the current thread, splitting it into chunks if possible.
+     */
+    private void run(System system, Set<Entity> entities, float deltaTime) {
+        if (!(system instanceof ChunkedSystem)) {
+            system.update(entities, deltaTime);
+            return;
+        }
+        ChunkedSystem chunked = (ChunkedSystem) system;
+        chunked.beginChunks(deltaTime);
+        View view = chunked.getChunkedView();
+        List<ChunkTask> chunks = new ArrayList<>();
+        for (int i = 0; i < view.archetypeCount(); i++) {
+            Archetype archetype = view.archetypeAt(i);
+            Entity[] rows = archetype.entities();
+            int size = archetype.size();
+            for (int from = 0; from < size; from += chunkSize) {
+                chunks.add(new ChunkTask(chunked, rows, from, Math.min(from + chunkSize, size), deltaTime));
+            }
+        }
+
+        if (chunks.size() == 1) {
+            chunks.get(0).invoke();
+        } else if (ForkJoinTask.getPool() == pool) {
+            ForkJoinTask.invokeAll(chunks);
+        } else if (!chunks.isEmpty()) {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(chunks);
+                }
+            });
+        }
+    }
+
+    /**
+     * Updates one system on a pool thread.
+     */
+    private final class SystemTask extends RecursiveAction {
+        private final System system;
+        private final Set<Entity> entities;
+        private final float deltaTime;
+
+        SystemTask(System system, Set<Entity> entities, float deltaTime) {
+            this.system = system;
+            this.entities = entities;
+            this.deltaTime = deltaTime;
+        }
+
+        @Override
+        protected void compute() {
+            run(system, entities, deltaTime);
+        }
+    }
+
+    /**
+     * Updates one chunk of a {@link ChunkedSystem}.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        private final ChunkedSystem system;
+        private final Entity[] entities;
+        private final int from;
+        private final int to;
+        private final float deltaTime;
+
+        ChunkTask(ChunkedSystem system, Entity[] entities, int from, int to, float deltaTime) {
+            this.system = system;
+            this.entities = entities;
+            this.from = from;
+            this.to = to;
+            this.deltaTime = deltaTime;
+        }
+
+        @Override
+        protected void compute() {
+            system.updateChunk(entities, from, to, deltaTime);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.softwarearchitecture.ecs;
+
+import java.util.Arrays;
+
+import com.softwarearchitecture.math.Polyline;
+
+/**
+ * The entities on a path ordered by how far they have come along it, so the first, last or
+ * strongest entity within a part of the path is found in logarithmic time.
+ * <p>
+ * The parts of the path a tower reaches are a few intervals of progress, computed once from
+ * the position and range of the tower by {@link Polyline#coveredIntervals}. An entity on the path
+ * is within the range exactly when its progress is within one of them, so a query only
+ * searches the sorted progress and a segment tree of the health of the entities.
+ * <p>
+ * The index is meant to be cleared, filled and built again every tick. It keeps its
+ * entities in arrays that only grow, so it allocates nothing once it has reached the size
+ * of the largest wave.
+ */
+public final class PathProgressIndex {
+    private Entity[] entities = new Entity[64];
+    private float[] progress = new float[64];
+    private int[] health = new int[64];
+    /** The progress and slot of every entity, sorted by progress */
+    private long[] keys = new long[64];
+    /** The slots of the entities, by order of progress */
+    private int[] order = new int[64];
+    /** The order of the healthiest entity below every node, leaves from {@code size} on */
+    private int[] tree = new int[128];
+    private float[] sortedProgress = new float[64];
+    private int size = 0;
+    private boolean built = true;
+
+    /**
+     * Removes every entity from the index.
+     */
+    public void clear() {
+        Arrays.fill(entities, 0, size, null);
+        size = 0;
+        built = true;
+    }
+
+    /**
+     * Adds an entity, {@link #build()} has to be called before the next query.
+     *
+     * @param entity   The entity.
+     * @param progress The distance the entity has come along the path.
+     * @param health   The health of the entity.
+     */
+    public void insert(Entity entity, float progress, int health) {
+        if (size == entities.length) {
+            int capacity = size * 2;
+            entities = Arrays.copyOf(entities, capacity);
+            this.progress = Arrays.copyOf(this.progress, capacity);
+            this.health = Arrays.copyOf(this.health, capacity);
+            keys = new long[capacity];
+            order = new int[capacity];
+            tree = new int[capacity * 2];
+            sortedProgress = new float[capacity];
+        }
+        entities[size] = entity;
+        // The bits of non-negative floats sort like the floats
+        this.progress[size] = progress > 0 ? progress : 0f;
+        this.health[size] = health;
+        size++;
+        built = false;
+    }
+
+    /**
+     * Sorts the entities added since the last build.
+     */
+    public void build() {
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) Float.floatToIntBits(progress[i]) << 32) | i;
+        }
+        Arrays.sort(keys, 0, size);
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) keys[i];
+            sortedProgress[i] = progress[order[i]];
+            tree[size + i] = i;
+        }
+        for (int node = size - 1; node > 0; node--) {
+            tree[node] = stronger(tree[2 * node], tree[2 * node + 1]);
+        }
+        built = true;
+    }
+
+    /**
+     * @return The number of entities in the index.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the entity that has come the furthest within the intervals.
+     *
+     * @param intervals The start and end of every interval of progress, in increasing order.
+     * @return The entity, or {@code null} if none is within the intervals.
+     */
+    public Entity first(float[] intervals) {
+        checkBuilt();
+        for (int i = intervals.length - 2; i >= 0; i -= 2) {
+            int last = upperBound(intervals[i + 1]) - 1;
+            if (last >= 0 && sortedProgress[last] >= intervals[i]) {
+                return entities[order[last]];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the entity that has come the shortest within the intervals.
+     *
+     * @param intervals The start and end of every interval of progress, in increasing order.
+     * @return The entity, or {@code null} if none is within the intervals.
+     */
+    public Entity last(float[] intervals) {
+        checkBuilt();
+        for (int i = 0; i < intervals.length; i += 2) {
+            int first = lowerBound(intervals[i]);
+            if (first < size && sortedProgress[first] <= intervals[i + 1]) {
+                return entities[order[first]];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the entity with the most health within the intervals, the one that has come the
+     * furthest of those with as much health.
+     *
+     * @param intervals The start and end of every interval of progress, in increasing order.
+     * @return The entity, or {@code null} if none is within the intervals.
+     */
+    public Entity strongest(float[] intervals) {
+        checkBuilt();
+        int best = -1;
+        for (int i = 0; i < intervals.length; i += 2) {
+            best = stronger(best, strongestBetween(lowerBound(intervals[i]), upperBound(intervals[i + 1])));
+        }
+        return best == -1 ? null : entities[order[best]];
+    }
+
+    /**
+     * The order of the entity with the most health from {@code from} up to {@code to}.
+     */
+    private int strongestBetween(int from, int to) {
+        int best = -1;
+        for (int left = from + size, right = to + size; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                best = stronger(best, tree[left++]);
+            }
+            if ((right & 1) == 1) {
+                best = stronger(best, tree[--right]);
+            }
+        }
+        return best;
+    }
+
+    private int stronger(int a, int b) {
+        if (a == -1) {
+            return b;
+        }
+        if (b == -1) {
+            return a;
+        }
+        int healthA = health[order[a]];
+        int healthB = health[order[b]];
+        if (healthA != healthB) {
+            return healthA > healthB ? a : b;
+        }
+        return Math.max(a, b);
+    }
+
+    /** The first order with at least the given progress */
+    private int lowerBound(float value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedProgress[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** The first order with more than the given progress */
+    private int upperBound(float value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedProgress[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void checkBuilt() throws IllegalStateException {
+        if (!built) {
+            throw new IllegalStateException("[ERROR] The index must be built after entities are inserted");
+        }
+    }
+}
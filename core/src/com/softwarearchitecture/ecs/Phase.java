@@ -0,0 +1,16 @@
+package com.softwarearchitecture.ecs;
+
+/**
+ * The phases of an update, in the order they are run by the
+ * {@link SystemScheduler}. Every {@link System} belongs to exactly one phase.
+ */
+public enum Phase {
+    /** Reads player input and reacts to it, for example buttons. */
+    INPUT,
+    /** Advances the game simulation, for example movement, waves and attacks. */
+    SIMULATION,
+    /** Reacts to the result of the simulation, for example animation, sound and game over checks. */
+    POST_SIMULATION,
+    /** Draws the frame. Always runs last. */
+    RENDER
+}
@@ -0,0 +1,166 @@
+package com.softwarearchitecture.ecs;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A uniform grid of entity positions, so the entities near a point are found by looking at
+ * the cells around it instead of at every entity.
+ * <p>
+ * The cells are laid out like the tiles of the map, the cell at column {@code i} and row
+ * {@code j} covering the tile drawn at {@code (i * cellWidth, j * cellHeight)}. Positions
+ * outside the grid are kept in the nearest border cell, so every entity is found by the
+ * queries whatever its position.
+ * <p>
+ * The grid is meant to be cleared and filled again every tick. It keeps its entities in
+ * arrays that only grow, so filling and querying it allocates nothing once it has reached
+ * the size of the largest wave.
+ */
+public final class SpatialGrid {
+    private final int columns;
+    private final int rows;
+    private final float cellWidth;
+    private final float cellHeight;
+    /** The first entity of every cell, {@code -1} if the cell is empty */
+    private final int[] cellHeads;
+
+    private Entity[] entities = new Entity[64];
+    private float[] xs = new float[64];
+    private float[] ys = new float[64];
+    /** The next entity in the same cell, {@code -1} after the last */
+    private int[] next = new int[64];
+    private int size = 0;
+
+    /**
+     * @param columns    The number of columns of the grid.
+     * @param rows       The number of rows of the grid.
+     * @param cellWidth  The width of a cell in UV-coordinates.
+     * @param cellHeight The height of a cell in UV-coordinates.
+     * @throws IllegalArgumentException If the grid has no cells or a cell has no size.
+     */
+    public SpatialGrid(int columns, int rows, float cellWidth, float cellHeight) throws IllegalArgumentException {
+        if (columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("[ERROR] A grid must have cells, was " + columns + "x" + rows);
+        }
+        if (!(cellWidth > 0) || !(cellHeight > 0)) {
+            throw new IllegalArgumentException("[ERROR] A cell must have a size, was " + cellWidth + "x" + cellHeight);
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.cellHeads = new int[columns * rows];
+        Arrays.fill(cellHeads, -1);
+    }
+
+    /**
+     * Removes every entity from the grid.
+     */
+    public void clear() {
+        Arrays.fill(cellHeads, -1);
+        Arrays.fill(entities, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Adds an entity at a position.
+     *
+     * @param entity The entity.
+     * @param x      The x-coordinate of the entity in UV-coordinates.
+     * @param y      The y-coordinate of the entity in UV-coordinates.
+     */
+    public void insert(Entity entity, float x, float y) {
+        if (size == entities.length) {
+            int capacity = size * 2;
+            entities = Arrays.copyOf(entities, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        int cell = row(y) * columns + column(x);
+        entities[size] = entity;
+        xs[size] = x;
+        ys[size] = y;
+        next[size] = cellHeads[cell];
+        cellHeads[cell] = size;
+        size++;
+    }
+
+    /**
+     * @return The number of entities in the grid.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the entity closest to a point within a radius.
+     *
+     * @param x      The x-coordinate of the point.
+     * @param y      The y-coordinate of the point.
+     * @param radius The largest distance of the entity from the point, inclusive.
+     * @return The closest entity, or {@code null} if none is within the radius.
+     */
+    public Entity nearest(float x, float y, float radius) {
+        float radiusSquared = radius * radius;
+        float bestSquared = Float.POSITIVE_INFINITY;
+        Entity best = null;
+        int lastRow = row(y + radius);
+        int lastColumn = column(x + radius);
+        for (int row = row(y - radius); row <= lastRow; row++) {
+            for (int column = column(x - radius); column <= lastColumn; column++) {
+                for (int i = cellHeads[row * columns + column]; i != -1; i = next[i]) {
+                    float dx = xs[i] - x;
+                    float dy = ys[i] - y;
+                    float distanceSquared = dx * dx + dy * dy;
+                    if (distanceSquared <= radiusSquared && distanceSquared < bestSquared) {
+                        bestSquared = distanceSquared;
+                        best = entities[i];
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds every entity within a radius of a point.
+     *
+     * @param x      The x-coordinate of the point.
+     * @param y      The y-coordinate of the point.
+     * @param radius The largest distance of the entities from the point, inclusive.
+     * @param result The list the entities are added to.
+     * @return The number of entities added.
+     */
+    public int queryRadius(float x, float y, float radius, List<Entity> result) {
+        float radiusSquared = radius * radius;
+        int found = 0;
+        int lastRow = row(y + radius);
+        int lastColumn = column(x + radius);
+        for (int row = row(y - radius); row <= lastRow; row++) {
+            for (int column = column(x - radius); column <= lastColumn; column++) {
+                for (int i = cellHeads[row * columns + column]; i != -1; i = next[i]) {
+                    float dx = xs[i] - x;
+                    float dy = ys[i] - y;
+                    if (dx * dx + dy * dy <= radiusSquared) {
+                        result.add(entities[i]);
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private int column(float x) {
+        return clamp((int) Math.floor(x / cellWidth), columns);
+    }
+
+    private int row(float y) {
+        return clamp((int) Math.floor(y / cellHeight), rows);
+    }
+
+    private static int clamp(int cell, int cells) {
+        return cell < 0 ? 0 : (cell >= cells ? cells - 1 : cell);
+    }
+}
@@ -38,4 +38,25 @@ public interface System {
      *                  such as physics integration or animations.
      */
     void update(Set<Entity> entities, float deltaTime);
+
+    /**
+     * Returns the phase of the update this system runs in. Systems of an earlier
+     * phase always run before systems of a later one.
+     *
+     * @return The phase of the system, {@link Phase#SIMULATION} by default.
+     */
+    default Phase getPhase() {
+        return Phase.SIMULATION;
+    }
+
+    /**
+     * Returns the component types this system reads and writes. The declaration
+     * must cover every component the system touches, and must not change after the
+     * system has been added to the {@link ECSManager}.
+     *
+     * @return The component access of the system, {@link ComponentAccess#EXCLUSIVE} by default.
+     */
+    default ComponentAccess getComponentAccess() {
+        return ComponentAccess.EXCLUSIVE;
+    }
 }
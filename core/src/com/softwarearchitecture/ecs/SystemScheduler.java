@@ -0,0 +1,102 @@
+package com.softwarearchitecture.ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decides the order in which the systems of an {@link ECSManager} are run.
+ * <p>
+ * Systems run phase by phase, see {@link Phase}. Within a phase they run in the
+ * order they were added, so the order is the same every update and on every
+ * machine, independent of hashing.
+ * <p>
+ * The scheduler also keeps the dependency graph implied by that order: a system
+ * depends on every system of an earlier phase and on every earlier system of its
+ * own phase whose {@link ComponentAccess} conflicts with its own. Systems that do
+ * not depend on each other, directly or indirectly, may run at the same time
+ * without changing the result.
+ */
+final class SystemScheduler {
+    private static final int[] NO_DEPENDENCIES = new int[0];
+
+    /** Systems in the order they were added */
+    private final List<System> systems = new ArrayList<>();
+
+    /** Systems in execution order, rebuilt when a system is added */
+    private final List<System> order = new ArrayList<>();
+    private final List<System> orderView = Collections.unmodifiableList(order);
+    private int[][] dependencies = new int[0][];
+    private boolean dirty = false;
+
+    /**
+     * Adds a system. Adding a system that is already scheduled does nothing.
+     *
+     * @param system The system to be added.
+     */
+    void add(System system) {
+        if (!systems.contains(system)) {
+            systems.add(system);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Removes all systems.
+     */
+    void clear() {
+        systems.clear();
+        dirty = true;
+    }
+
+    /**
+     * @return A read-only list of the systems in execution order.
+     */
+    List<System> getOrder() {
+        if (dirty) {
+            rebuild();
+        }
+        return orderView;
+    }
+
+    /**
+     * @param index The index of a system in {@link #getOrder()}.
+     * @return The indices in {@link #getOrder()} of the systems that must have
+     *         finished before the system may run, in ascending order.
+     */
+    int[] getDependencies(int index) {
+        if (dirty) {
+            rebuild();
+        }
+        return dependencies[index];
+    }
+
+    private void rebuild() {
+        order.clear();
+        order.addAll(systems);
+        // List.sort is stable, so systems keep their registration order within a phase
+        order.sort((first, second) -> first.getPhase().compareTo(second.getPhase()));
+
+        int count = order.size();
+        Phase[] phases = new Phase[count];
+        ComponentAccess[] accesses = new ComponentAccess[count];
+        for (int i = 0; i < count; i++) {
+            phases[i] = order.get(i).getPhase();
+            accesses[i] = order.get(i).getComponentAccess();
+        }
+
+        dependencies = new int[count][];
+        int[] buffer = new int[count];
+        for (int i = 0; i < count; i++) {
+            int size = 0;
+            for (int j = 0; j < i; j++) {
+                if (phases[j] != phases[i] || accesses[j].conflictsWith(accesses[i])) {
+                    buffer[size++] = j;
+                }
+            }
+            dependencies[i] = size == 0 ? NO_DEPENDENCIES : Arrays.copyOf(buffer, size);
+        }
+        dirty = false;
+    }
+}
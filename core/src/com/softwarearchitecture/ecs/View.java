@@ -0,0 +1,140 @@
+package com.softwarearchitecture.ecs;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * A {@code View} is a live query over all entities registered in the
+ * {@link ECSManager} that have every component type of the view. Views are
+ * created through {@link ECSManager#getView(Class...)}.
+ * <p>
+ * The view keeps track of the archetypes that match its component types and is
+ * updated incrementally whenever a new archetype is created, so iterating a
+ * view only touches matching entities, no matter how many other entities exist.
+ * <p>
+ * Structural changes to matching entities (adding or removing components, or
+ * removing the entity) should not be made while iterating. Use
+ * {@link ECSManager#addLocalEntity(Entity)} and
+ * {@link ECSManager#removeLocalEntity(Entity)}, which are deferred to the next
+ * update.
+ */
+public final class View implements Iterable<Entity> {
+    private final long mask;
+    private final ComponentStorage storage;
+    private final List<Archetype> archetypes = new ArrayList<>();
+
+    View(ComponentStorage storage, long mask) {
+        this.storage = storage;
+        this.mask = mask;
+    }
+
+    /**
+     * Called by the storage for every archetype, existing or new.
+     */
+    void onArchetypeCreated(Archetype archetype) {
+        if ((archetype.mask & mask) == mask) {
+            archetypes.add(archetype);
+        }
+    }
+
+    /**
+     * @return The number of entities currently matching this view.
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < archetypes.size(); i++) {
+            size += archetypes.get(i).size();
+        }
+        return size;
+    }
+
+    /**
+     * @return {@code true} if no entity matches this view.
+     */
+    public boolean isEmpty() {
+        for (int i = 0; i < archetypes.size(); i++) {
+            if (archetypes.get(i).size() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param entity The entity to check.
+     * @return {@code true} if the entity is registered and has all component types of this view.
+     */
+    public boolean contains(Entity entity) {
+        return entity != null && (storage.getMask(entity) & mask) == mask;
+    }
+
+    /**
+     * @return Any matching entity, or {@code null} if the view is empty.
+     */
+    public Entity first() {
+        for (int i = 0; i < archetypes.size(); i++) {
+            Archetype archetype = archetypes.get(i);
+            if (archetype.size() > 0) {
+                return archetype.entityAt(0);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The number of archetypes matching this view, used to split the view into chunks.
+     */
+    int archetypeCount() {
+        return archetypes.size();
+    }
+
+    /**
+     * @param index The index of a matching archetype, below {@link #archetypeCount()}.
+     * @return The matching archetype.
+     */
+    Archetype archetypeAt(int index) {
+        return archetypes.get(index);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Entity> action) {
+        for (int i = 0; i < archetypes.size(); i++) {
+            Archetype archetype = archetypes.get(i);
+            Entity[] entities = archetype.entities();
+            for (int row = 0; row < archetype.size(); row++) {
+                action.accept(entities[row]);
+            }
+        }
+    }
+
+    @Override
+    public Iterator<Entity> iterator() {
+        return new Iterator<Entity>() {
+            private int archetypeIndex = 0;
+            private int row = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (archetypeIndex < archetypes.size()) {
+                    if (row < archetypes.get(archetypeIndex).size()) {
+                        return true;
+                    }
+                    archetypeIndex++;
+                    row = 0;
+                }
+                return false;
+            }
+
+            @Override
+            public Entity next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return archetypes.get(archetypeIndex).entityAt(row++);
+            }
+        };
+    }
+}
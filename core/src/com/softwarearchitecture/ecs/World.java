@@ -0,0 +1,82 @@
+package com.softwarearchitecture.ecs;
+
+import com.softwarearchitecture.clock.Clock;
+import com.softwarearchitecture.clock.FixedTimestep;
+
+/**
+ * A {@code World} holds everything needed to run one game: the
+ * {@link ECSManager} with its entities, component managers and systems, and
+ * the {@link Clock} driving its updates.
+ * <p>
+ * Worlds are independent of each other and of the thread they are used on, so
+ * a server can host several matches at once and the client can read a
+ * {@link com.softwarearchitecture.game_server.GameState} without touching the
+ * world it is showing. The manager is passed explicitly to the systems and
+ * factories that work on it.
+ * <p>
+ * A world created with a tick rate simulates in fixed steps, see
+ * {@link FixedTimestep}. A world without one updates once per call with the
+ * elapsed time, which suits the client where every update draws a frame.
+ */
+public class World {
+    private final ECSManager ecs;
+    private final Clock clock;
+    /** {@code null} if the world updates with the elapsed time */
+    private final FixedTimestep timestep;
+
+    public World() {
+        this.ecs = new ECSManager();
+        this.clock = new Clock();
+        this.timestep = null;
+    }
+
+    /**
+     * @param ticksPerSecond  The number of simulation steps per second.
+     * @param maxCatchUpSteps The most steps run by one call to {@link #update()}.
+     */
+    public World(int ticksPerSecond, int maxCatchUpSteps) throws IllegalArgumentException {
+        this.ecs = new ECSManager();
+        this.clock = new Clock();
+        this.timestep = new FixedTimestep(ticksPerSecond, maxCatchUpSteps);
+    }
+
+    /**
+     * @return The manager of the entities, components and systems of this world.
+     */
+    public ECSManager getECSManager() {
+        return ecs;
+    }
+
+    /**
+     * @return The clock measuring the time between updates of this world.
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * @return The fixed timestep of this world, or {@code null} if it updates with the elapsed time.
+     */
+    public FixedTimestep getTimestep() {
+        return timestep;
+    }
+
+    /**
+     * Updates all systems. A world with a fixed timestep runs every step that is
+     * due, otherwise the systems are updated once with the elapsed time.
+     *
+     * @return The number of updates run.
+     */
+    public int update() {
+        float elapsed = clock.getAndResetDeltaTime();
+        if (timestep == null) {
+            ecs.update(elapsed);
+            return 1;
+        }
+        int steps = timestep.advance(elapsed);
+        for (int i = 0; i < steps; i++) {
+            ecs.update(timestep.getStepSeconds());
+        }
+        return steps;
+    }
+}
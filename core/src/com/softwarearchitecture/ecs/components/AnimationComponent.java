@@ -3,38 +3,53 @@ package com.softwarearchitecture.ecs.components;
 import java.io.Serializable;
 import java.util.List;
 
+import com.softwarearchitecture.game_server.AssetRegistry;
+
 public class AnimationComponent implements Serializable {
 
-    private List<String> animationPaths;
+    /** The {@link AssetRegistry} ids of the frames */
+    private int[] animationIds;
     private int currentFrame;
-    private int frameCount;
     private float timeSinceLastFrame;
     private final float frameDuration = 0.15f;
     public boolean isPlaying = false;
 
-    public AnimationComponent(List<String> animationPaths) {
-        this.animationPaths = animationPaths;
+    public AnimationComponent(List<String> animationPaths) throws IllegalArgumentException {
+        this(toIds(animationPaths));
+    }
+
+    public AnimationComponent(int[] animationIds) {
+        this.animationIds = animationIds;
         this.currentFrame = 0;
-        this.frameCount = animationPaths.size();
     }
 
-    public String getFramePath(float deltaTime) {
+    public int getFrameId(float deltaTime) {
         timeSinceLastFrame += deltaTime;
         if (timeSinceLastFrame >= frameDuration) {
             timeSinceLastFrame = timeSinceLastFrame - frameDuration;
             nextFrame();
         }
-        return animationPaths.get(currentFrame);
+        return animationIds[currentFrame];
     }
 
     private void nextFrame() {
-        currentFrame = (currentFrame + 1) % frameCount;
+        currentFrame = (currentFrame + 1) % animationIds.length;
     }
 
-    public void setAnimation(List<String> animationPaths) {
-        this.animationPaths = animationPaths;
-        this.frameCount = animationPaths.size();
+    public int[] getAnimationIds() {
+        return animationIds;
+    }
+
+    public void setAnimation(List<String> animationPaths) throws IllegalArgumentException {
+        this.animationIds = toIds(animationPaths);
         currentFrame = 0;
     }
 
+    private static int[] toIds(List<String> animationPaths) throws IllegalArgumentException {
+        int[] ids = new int[animationPaths.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = AssetRegistry.idOf(animationPaths.get(i));
+        }
+        return ids;
+    }
 }
@@ -4,10 +4,15 @@ import java.io.Serializable;
 import java.util.List;
 
 import com.softwarearchitecture.game_server.Tile;
+import com.softwarearchitecture.math.Polyline;
 
 public class PathfindingComponent implements Serializable {
     public List<Tile> path;
     public Tile targetTile;
+    /** The distance travelled along the path in UV-coordinates, the position follows from it */
+    public float progress = 0f;
+    /** The path as a line in UV-coordinates, compiled by the movement system on first use */
+    public transient Polyline route;
 
     public PathfindingComponent(List<Tile> path) {
         this.path = path;
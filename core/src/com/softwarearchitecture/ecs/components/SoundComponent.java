@@ -2,14 +2,21 @@ package com.softwarearchitecture.ecs.components;
 
 import java.io.Serializable;
 
+import com.softwarearchitecture.game_server.AssetRegistry;
+
 public class SoundComponent implements Serializable {
-    public String sound_path;
+    /** The {@link AssetRegistry} id of the sound */
+    public int sound_id;
     public boolean loop = false;
     public boolean isPlaying = false;
     public boolean isBackgroundMusic = false;
 
-    public SoundComponent(String sound_path, boolean loop, boolean isBackgroundMusic) {
-        this.sound_path = sound_path;
+    public SoundComponent(String sound_path, boolean loop, boolean isBackgroundMusic) throws IllegalArgumentException {
+        this(AssetRegistry.idOf(sound_path), loop, isBackgroundMusic);
+    }
+
+    public SoundComponent(int sound_id, boolean loop, boolean isBackgroundMusic) {
+        this.sound_id = sound_id;
         this.loop = loop;
         this.isBackgroundMusic = isBackgroundMusic;
     }
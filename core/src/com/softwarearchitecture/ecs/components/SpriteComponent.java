@@ -2,6 +2,7 @@ package com.softwarearchitecture.ecs.components;
 
 import java.io.Serializable;
 
+import com.softwarearchitecture.game_server.AssetRegistry;
 import com.softwarearchitecture.math.Vector2;
 
 /**
@@ -20,8 +21,8 @@ import com.softwarearchitecture.math.Vector2;
  *                     as a fraction of the screen's width (0 to 1).
  * @param v_size       The relative height of the entity on the screen,
  *                     expressed as a fraction of the screen's height (0 to 1).
- * @param texture_path The path to the texture image file used for drawing the
- *                     entity.
+ * @param texture_id   The {@link AssetRegistry} id of the texture used for
+ *                     drawing the entity.
  * @param z_index      The Z-index determines the rendering order of entities,
  *                     with higher values rendered in front of lower ones.
  *
@@ -29,18 +30,29 @@ import com.softwarearchitecture.math.Vector2;
  *      Wikipedia</a> for more information on UV mapping.
  */
 public class SpriteComponent implements Serializable {
-    public String texture_path;
+    public int texture_id;
     public Vector2 size_uv;
 
     /**
      * Constructs a new SpriteComponent with specified texture, position, and size.
      * 
-     * @param texture_path Path to the texture image.
+     * @param texture_path Path to the texture image, one of the {@link com.softwarearchitecture.game_client.TexturePack}.
      * @param size_uv      The size of the entity on the screen, expressed as a
      *                     fraction of the screen's width and height.
      */
-    public SpriteComponent(String texture_path, Vector2 size_uv) {
-        this.texture_path = texture_path;
+    public SpriteComponent(String texture_path, Vector2 size_uv) throws IllegalArgumentException {
+        this(AssetRegistry.idOf(texture_path), size_uv);
+    }
+
+    /**
+     * Constructs a new SpriteComponent with specified texture and size.
+     * 
+     * @param texture_id The {@link AssetRegistry} id of the texture.
+     * @param size_uv    The size of the entity on the screen, expressed as a
+     *                   fraction of the screen's width and height.
+     */
+    public SpriteComponent(int texture_id, Vector2 size_uv) {
+        this.texture_id = texture_id;
         this.size_uv = size_uv;
     }
 }
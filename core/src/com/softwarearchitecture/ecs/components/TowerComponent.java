@@ -5,8 +5,22 @@ import java.io.Serializable;
 import com.softwarearchitecture.game_server.PairableCards.TowerType;
 
 public class TowerComponent implements Serializable {
+    /**
+     * Which enemy within range a tower attacks, area of effect towers attack all of them.
+     */
+    public enum Targeting {
+        /** The enemy furthest along the path */
+        FIRST,
+        /** The enemy the shortest along the path */
+        LAST,
+        /** The enemy with the most health */
+        STRONGEST
+    }
+
     // TODO: Change all fields to public and remove getters and setters
     public TowerType towerType;
+    /** Chosen by the {@code TowerFactory} from the type of the tower */
+    public Targeting targeting = Targeting.FIRST;
     private int damage;
     private float range;
     private float attackCooldown;
@@ -34,6 +48,10 @@ public class TowerComponent implements Serializable {
         return this.range;
     }
 
+    public float getAttackCooldown() {
+        return this.attackCooldown;
+    }
+
     public void setDamage(int damage) {
         if (damage >= 1) {
             this.damage = damage;
@@ -3,13 +3,15 @@ package com.softwarearchitecture.ecs.systems;
 import com.softwarearchitecture.ecs.components.AnimationComponent;
 import com.softwarearchitecture.ecs.components.SpriteComponent;
 
-import java.util.Optional;
 import java.util.Set;
 
+import com.softwarearchitecture.ecs.ComponentAccess;
 import com.softwarearchitecture.ecs.ComponentManager;
 import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.ecs.Phase;
 import com.softwarearchitecture.ecs.System;
+import com.softwarearchitecture.ecs.View;
 
 /**
  * The {@code AnimationSystem} class updates animation frames of entities based on the elapsed time.
@@ -20,39 +22,55 @@ import com.softwarearchitecture.ecs.System;
  * based on the delta time provided by the game loop.
  */
 public class AnimationSystem implements System {
+    /** Component types read and written by the system, see {@link #getComponentAccess()} */
+    private static final ComponentAccess ACCESS = new ComponentAccess(
+            Set.of(),
+            Set.of(SpriteComponent.class, AnimationComponent.class));
 
+    private final ECSManager ecs;
     public ComponentManager<SpriteComponent> spriteManager;
     public ComponentManager<AnimationComponent> animationManager;
+    private View animatedEntities;
 
     /**
      * Constructor for AnimationSystem.
      */
-    public AnimationSystem() {
-        this.spriteManager = ECSManager.getInstance().getOrDefaultComponentManager(SpriteComponent.class);
-        this.animationManager = ECSManager.getInstance().getOrDefaultComponentManager(AnimationComponent.class);
+    public AnimationSystem(ECSManager ecs) {
+        this.ecs = ecs;
+        this.spriteManager = ecs.getOrDefaultComponentManager(SpriteComponent.class);
+        this.animationManager = ecs.getOrDefaultComponentManager(AnimationComponent.class);
+        this.animatedEntities = ecs.getView(SpriteComponent.class, AnimationComponent.class);
     }
 
     /**
      * Updates the sprite and animation components of all entities provided.
-     * This method is called every game loop iteration with the set of entities
-     * that might contain {@link SpriteComponent} and {@link AnimationComponent} to update
+     * This method is called every game loop iteration and walks the view of entities
+     * that have both a {@link SpriteComponent} and an {@link AnimationComponent} to update
      * their animation state based on the provided delta time.
      *
-     * @param entities  The set of entities to be updated.
+     * @param entities  The set of all entities, the system iterates its own view instead.
      * @param deltaTime The time elapsed since the last update, used to determine the current frame of the animation.
      */
     @Override
     public void update(Set<Entity> entities, float deltaTime) {
-        for (Entity entity : entities) {
-            Optional<SpriteComponent> spriteComponent = spriteManager.getComponent(entity);
-            Optional<AnimationComponent> animationComponent = animationManager.getComponent(entity);
-
-            if (spriteComponent.isPresent() && animationComponent.isPresent()) {
-                SpriteComponent sprite = spriteComponent.get();
-                AnimationComponent animation = animationComponent.get();
-                sprite.texture_path = animation.getFramePath(deltaTime);
+        for (Entity entity : animatedEntities) {
+            SpriteComponent sprite = spriteManager.get(entity);
+            AnimationComponent animation = animationManager.get(entity);
+            int frame = animation.getFrameId(deltaTime);
+            if (frame != sprite.texture_id) {
+                sprite.texture_id = frame;
+                ecs.markChanged(entity);
             }
         }
     }
 
+    @Override
+    public Phase getPhase() {
+        return Phase.POST_SIMULATION;
+    }
+
+    @Override
+    public ComponentAccess getComponentAccess() {
+        return ACCESS;
+    }
 }
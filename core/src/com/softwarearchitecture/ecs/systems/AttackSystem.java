@@ -1,23 +1,30 @@
 package com.softwarearchitecture.ecs.systems;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.WeakHashMap;
 
+import com.softwarearchitecture.ecs.ComponentAccess;
 import com.softwarearchitecture.ecs.ComponentManager;
 import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.ecs.PathProgressIndex;
+import com.softwarearchitecture.ecs.Phase;
+import com.softwarearchitecture.ecs.SpatialGrid;
 import com.softwarearchitecture.ecs.System;
+import com.softwarearchitecture.ecs.View;
 import com.softwarearchitecture.ecs.components.AnimationComponent;
 import com.softwarearchitecture.ecs.components.AreaOfEffectComponent;
 import com.softwarearchitecture.ecs.components.EnemyComponent;
 import com.softwarearchitecture.ecs.components.HealthComponent;
+import com.softwarearchitecture.ecs.components.PathfindingComponent;
 import com.softwarearchitecture.ecs.components.PositionComponent;
 import com.softwarearchitecture.ecs.components.TowerComponent;
 import com.softwarearchitecture.game_server.Map;
 import com.softwarearchitecture.game_server.TowerFactory;
+import com.softwarearchitecture.math.Polyline;
 import com.softwarearchitecture.math.Vector2;
 
 
@@ -29,116 +36,203 @@ import com.softwarearchitecture.math.Vector2;
  * 
  * <p>This system checks the proximity of each tower to potential enemy targets, applying damage if
  * enemies are within attack range. It supports both single-target and area-of-effect attacks,
- * depending on the tower's specifications.</p>
+ * depending on the tower's specifications. The enemies are put in a {@link SpatialGrid} with a
+ * cell per tile every tick a tower can attack, so an area of effect tower only looks at the
+ * enemies on the tiles around it, however large the wave.</p>
+ *
+ * <p>Other towers attack a single enemy chosen by their {@link TowerComponent.Targeting}. The
+ * enemies are also ordered by how far they have come along the path in a
+ * {@link PathProgressIndex}, and every tower keeps the parts of the path within its range, so
+ * the first, last or strongest enemy in range is found in logarithmic time.</p>
  * 
  * <p>It also has the capability to 'copy' a tower through the {@link TowerFactory}, simulating effects
  * like replication or cloning as a gameplay mechanic.</p>
  */
 public class AttackSystem implements System {
+    private final ECSManager ecs;
     private final Map gameMap;
-    private HashMap<Entity, Entity> activeAttacks = new HashMap<>(); // Map to track which enemy each tower is currently attacking
+    private View towerEntities;
+    private View enemyEntities;
+    /** The enemies by the distance they have come along the path */
+    private final PathProgressIndex enemyProgress = new PathProgressIndex();
+    /** The line the enemies walk along, created once the tiles of the map have a size */
+    private Polyline pathLine;
+    /** The parts of the path each tower reaches, by tower, kept while the tower exists */
+    private final java.util.Map<TowerComponent, Coverage> coverages = new WeakHashMap<>();
+    /** The enemies by position, created once the tiles of the map have a size */
+    private SpatialGrid enemyGrid;
+    /** The enemies hit by an area of effect attack, reused by every tower */
+    private final List<Entity> enemiesInRange = new ArrayList<>();
 
-    public AttackSystem(Map gameMap) {
+    /**
+     * The intervals of the path within the range of a tower at a position.
+     */
+    private static final class Coverage {
+        final float x;
+        final float y;
+        final float range;
+        final float[] intervals;
+
+        Coverage(float x, float y, float range, float[] intervals) {
+            this.x = x;
+            this.y = y;
+            this.range = range;
+            this.intervals = intervals;
+        }
+    }
+
+    public AttackSystem(ECSManager ecs, Map gameMap) {
+        this.ecs = ecs;
         this.gameMap = gameMap;
+        this.towerEntities = ecs.getView(TowerComponent.class, PositionComponent.class);
+        this.enemyEntities = ecs.getView(EnemyComponent.class, PositionComponent.class, HealthComponent.class);
     }
 
 
     /**
      * Updates the attack state of all towers, enabling them to attack enemies within their range.
-     * This method processes each entity, distinguishing between towers and enemies, and handles
-     * their interactions based on proximity and attack capabilities.
+     * This method walks the tower and enemy views and handles their interactions based on
+     * proximity and attack capabilities.
      *
-     * @param entities   the set of all active entities that may include both towers and enemies
+     * @param entities   the set of all active entities, the system iterates its own views instead
      * @param deltaTime  the time elapsed since the last update, used for managing attack timings
      */
     @Override
     public void update(Set<Entity> entities, float deltaTime) {
         List<Entity> towers = new ArrayList<>();
-        List<Entity> enemies = new ArrayList<>();
-
-        for (Entity entity : entities) {
-            if (entity.getComponent(TowerComponent.class).isPresent()) {
-                TowerComponent towerComp = entity.getComponent(TowerComponent.class).get();
-                towerComp.updateTimeSinceLastAttack(deltaTime);
-                if (towerComp.canAttack()) {
-                    towers.add(entity);
-                }
-            }
-            if (entity.getComponent(EnemyComponent.class).isPresent()) {
-                enemies.add(entity);
+        View enemies = enemyEntities;
+
+        for (Entity entity : towerEntities) {
+            TowerComponent towerComp = entity.getComponent(TowerComponent.class).get();
+            towerComp.updateTimeSinceLastAttack(deltaTime);
+            if (towerComp.canAttack()) {
+                towers.add(entity);
             }
         }
 
+        if (towers.isEmpty()) {
+            return;
+        }
+        SpatialGrid grid = fillEnemyGrid(enemies);
+        fillEnemyProgress(enemies);
+
         for (Entity tower : towers) {
             TowerComponent towerComponent = tower.getComponent(TowerComponent.class).get();
             Vector2 towerPosition = tower.getComponent(PositionComponent.class).get().position;
             float range = towerComponent.getRange();
             int damage = towerComponent.getDamage();
-            Vector2 uvDistance = convertRangeToUVDistance(range);
+            float uvRange = convertRangeToUVDistance(range);
 
             // Handle area of effect if applicable
             Optional<AreaOfEffectComponent> areaOfEffectComponent = tower.getComponent(AreaOfEffectComponent.class);
             if (areaOfEffectComponent.isPresent()) {
-                for (Entity enemy : enemies) {
-                    Vector2 enemyPosition = enemy.getComponent(PositionComponent.class).get().position;
-                    float distance = Vector2.dst(towerPosition, enemyPosition);
-                    if (distance <= uvDistance.len()) {
-                        attackEnemy(tower, enemy, damage, true);
-                    }
+                enemiesInRange.clear();
+                grid.queryRadius(towerPosition.x, towerPosition.y, uvRange, enemiesInRange);
+                for (Entity enemy : enemiesInRange) {
+                    attackEnemy(tower, enemy, damage, true);
                 }
+                enemiesInRange.clear();
                 copyTower(tower);
                 towerComponent.resetAttackTimer();
                 continue; // Skip to next tower
             }
             
-            // Handle individual attacks
-            // Check if the tower is already attacking an enemy and if that enemy is still in range
-            if (activeAttacks.containsKey(tower)) {
-                Entity currentEnemy = activeAttacks.get(tower);
-                if (currentEnemy != null && entities.contains(currentEnemy)) {
-                    Vector2 currentEnemyPosition = currentEnemy.getComponent(PositionComponent.class).get().position;
-                    float distance = Vector2.dst(towerPosition, currentEnemyPosition);
-                    if (distance <= uvDistance.len()) {
-                        // Enemy is still in range, continue to attack
-                        attackEnemy(tower, currentEnemy, damage, false);
-                        towerComponent.resetAttackTimer();
-                        continue; // Skip to next tower
-                    } else {
-                        // Enemy out of range, allow tower to search for a new target
-                        activeAttacks.remove(tower);
-                    }
-                } else {
-                    // Current target no longer valid
-                    activeAttacks.remove(tower);
-                }
+            // Handle individual attacks, on the enemy picked by the targeting of the tower
+            Entity enemy = findTarget(towerComponent, towerPosition, uvRange);
+            if (enemy == null) {
+                // Enemies off the path are still attacked, the nearest first
+                enemy = grid.nearest(towerPosition.x, towerPosition.y, uvRange);
+            }
+            if (enemy != null) {
+                attackEnemy(tower, enemy, damage, false); // The tower only attacks one enemy
+                towerComponent.resetAttackTimer();
+            }
+        }
+    }
+
+    /**
+     * Finds the enemy on the path a tower attacks.
+     *
+     * @param towerComponent the tower
+     * @param towerPosition  the position of the tower
+     * @param uvRange        the range of the tower in UV coordinates
+     * @return the enemy, or {@code null} if no enemy on the path is in range
+     */
+    private Entity findTarget(TowerComponent towerComponent, Vector2 towerPosition, float uvRange) {
+        Coverage coverage = coverages.get(towerComponent);
+        if (coverage == null || coverage.x != towerPosition.x || coverage.y != towerPosition.y
+                || coverage.range != uvRange) {
+            float[] intervals = pathLine.coveredIntervals(towerPosition.x, towerPosition.y, uvRange);
+            coverage = new Coverage(towerPosition.x, towerPosition.y, uvRange, intervals);
+            coverages.put(towerComponent, coverage);
+        }
+        switch (towerComponent.targeting) {
+            case LAST:
+                return enemyProgress.last(coverage.intervals);
+            case STRONGEST:
+                return enemyProgress.strongest(coverage.intervals);
+            case FIRST:
+            default:
+                return enemyProgress.first(coverage.intervals);
+        }
+    }
+
+    /**
+     * Orders the living enemies on the path by the distance they have come along it.
+     *
+     * @param enemies the enemies to order
+     */
+    private void fillEnemyProgress(View enemies) {
+        if (pathLine == null) {
+            pathLine = Map.toPolyline(gameMap.getPath(), gameMap.getTileWidth(), gameMap.getTileHeight());
+        }
+        enemyProgress.clear();
+        for (Entity enemy : enemies) {
+            Optional<PathfindingComponent> pathfinding = enemy.getComponent(PathfindingComponent.class);
+            int health = enemy.getComponent(HealthComponent.class).get().getHealth();
+            // Dead enemies stop moving, left in the index they would stay the first in range
+            if (pathfinding.isPresent() && health > 0) {
+                enemyProgress.insert(enemy, pathfinding.get().progress, health);
             }
+        }
+        enemyProgress.build();
+    }
 
-            // Find a new enemy to attack if not already attacking or target is out of range
-            for (Entity enemy : enemies) {
-                Vector2 enemyPosition = enemy.getComponent(PositionComponent.class).get().position;
-                float distance = Vector2.dst(towerPosition, enemyPosition);
-                if (distance <= uvDistance.len()) {
-                    activeAttacks.put(tower, enemy); // Assign new enemy to tower
-                    attackEnemy(tower, enemy, damage, false);
-                    towerComponent.resetAttackTimer();
-                    break; // Ensure the tower only attacks one enemy
-                } 
+    /**
+     * Puts the living enemies at their current positions in the grid.
+     *
+     * @param enemies the enemies to put in the grid
+     * @return the grid of the enemies
+     */
+    private SpatialGrid fillEnemyGrid(View enemies) {
+        if (enemyGrid == null) {
+            // The tiles are columns of the layout from left to right and its rows from bottom to top
+            enemyGrid = new SpatialGrid(gameMap.getMapHeight(), gameMap.getMapWidth(), gameMap.getTileWidth(),
+                    gameMap.getTileHeight());
+        }
+        enemyGrid.clear();
+        for (Entity enemy : enemies) {
+            if (enemy.getComponent(HealthComponent.class).get().getHealth() <= 0) {
+                continue;
             }
+            Vector2 enemyPosition = enemy.getComponent(PositionComponent.class).get().position;
+            enemyGrid.insert(enemy, enemyPosition.x, enemyPosition.y);
         }
+        return enemyGrid;
     }
 
     
     /**
-     * Converts a range in game units to a vector representing distance in UV coordinates,
-     * based on the tile dimensions of the game map.
+     * Converts a range in game units to a distance in UV coordinates, based on the tile
+     * dimensions of the game map. A range of one reaches the length of a tile's diagonal.
      *
      * @param range the range in game units
-     * @return a {@code Vector2} representing the distance in UV coordinates
+     * @return the distance in UV coordinates
      */
-    private Vector2 convertRangeToUVDistance(float range) {
+    private float convertRangeToUVDistance(float range) {
         float tileWidth = gameMap.getTileWidth();
         float tileHeight = gameMap.getTileHeight();
-        return new Vector2(range * tileWidth, range * tileHeight);
+        return range * (float) Math.sqrt(tileWidth * tileWidth + tileHeight * tileHeight);
     }
 
     /**
@@ -151,21 +245,23 @@ public class AttackSystem implements System {
      * @param isAreaOfEffect   indicates whether the attack is an area effect
      */
     private void attackEnemy(Entity tower, Entity enemy, int damage, boolean isAreaOfEffect) {
-        ComponentManager<TowerComponent> towerManager = ECSManager.getInstance().getOrDefaultComponentManager(TowerComponent.class);
+        ComponentManager<TowerComponent> towerManager = ecs.getOrDefaultComponentManager(TowerComponent.class);
         Optional<TowerComponent> towerComp = towerManager.getComponent(tower);
         if (towerComp.isPresent()) {
             towerComp.get().playSound = false;
         }
         
-        ComponentManager<AnimationComponent> animationManager = ECSManager.getInstance().getOrDefaultComponentManager(AnimationComponent.class);
+        ComponentManager<AnimationComponent> animationManager = ecs.getOrDefaultComponentManager(AnimationComponent.class);
         Optional<AnimationComponent> animationComp = animationManager.getComponent(tower);
         if (animationComp.isPresent()) {
             animationComp.get().isPlaying = true;
         }
+        ecs.markChanged(tower);
         
         HealthComponent healthComp = enemy.getComponent(HealthComponent.class).get();
         
         healthComp.setHealth(healthComp.getHealth() - damage);
+        ecs.markChanged(enemy);
         
         if (!isAreaOfEffect)
             copyTower(tower);
@@ -179,11 +275,24 @@ public class AttackSystem implements System {
      * @param tower the tower to copy
      */
     private void copyTower(Entity tower) {
-        Entity newTowerEntity = TowerFactory.copyTower(tower);
+        Entity newTowerEntity = TowerFactory.copyTower(ecs, tower);
         if (newTowerEntity != null) {
-            ECSManager.getInstance().addLocalEntity(newTowerEntity);
-            ECSManager.getInstance().removeLocalEntity(tower);
+            ecs.addLocalEntity(newTowerEntity);
+            ecs.destroyEntity(tower);
         }
     }
 
-}
\ No newline at end of file
+    @Override
+    public Phase getPhase() {
+        return Phase.SIMULATION;
+    }
+
+    /**
+     * The system creates and destroys tower entities, so it must not run
+     * alongside any other system.
+     */
+    @Override
+    public ComponentAccess getComponentAccess() {
+        return ComponentAccess.EXCLUSIVE;
+    }
+}
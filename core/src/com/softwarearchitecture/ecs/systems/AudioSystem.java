@@ -5,9 +5,11 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import com.softwarearchitecture.ecs.ComponentAccess;
 import com.softwarearchitecture.ecs.ComponentManager;
 import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.ecs.Phase;
 import com.softwarearchitecture.ecs.SoundController;
 import com.softwarearchitecture.ecs.System;
 import com.softwarearchitecture.ecs.components.EnemyComponent;
@@ -30,6 +32,12 @@ import com.softwarearchitecture.game_server.PairableCards.TowerType;
  * and {@link EnemyComponent}.</p>
  */
 public class AudioSystem implements System {
+    /** Component types read and written by the system, see {@link #getComponentAccess()} */
+    private static final ComponentAccess ACCESS = new ComponentAccess(
+            Set.of(EnemyComponent.class),
+            Set.of(SoundComponent.class, TowerComponent.class, PlacedCardComponent.class));
+
+    private final ECSManager ecs;
     private ComponentManager<SoundComponent> audioManager;
     private SoundController soundController;
     private ComponentManager<TowerComponent> towerManager;
@@ -37,12 +45,13 @@ public class AudioSystem implements System {
     private ComponentManager<EnemyComponent> enemyManager;
     private List<TowerType> towersWithoutSounds = new ArrayList<TowerType>();
 
-    public AudioSystem(SoundController soundController) {
-        this.audioManager = ECSManager.getInstance().getOrDefaultComponentManager(SoundComponent.class);
+    public AudioSystem(ECSManager ecs, SoundController soundController) {
+        this.ecs = ecs;
+        this.audioManager = ecs.getOrDefaultComponentManager(SoundComponent.class);
         this.soundController = soundController;
-        this.towerManager = ECSManager.getInstance().getOrDefaultComponentManager(TowerComponent.class);
-        this.cardManager = ECSManager.getInstance().getOrDefaultComponentManager(PlacedCardComponent.class);
-        this.enemyManager = ECSManager.getInstance().getOrDefaultComponentManager(EnemyComponent.class);
+        this.towerManager = ecs.getOrDefaultComponentManager(TowerComponent.class);
+        this.cardManager = ecs.getOrDefaultComponentManager(PlacedCardComponent.class);
+        this.enemyManager = ecs.getOrDefaultComponentManager(EnemyComponent.class);
 
         towersWithoutSounds.add(TowerType.INFERNO);
         towersWithoutSounds.add(TowerType.FURNACE);
@@ -62,7 +71,7 @@ public class AudioSystem implements System {
     public void update(Set<Entity> entities, float deltaTime) {
 
         // Check for newly added entities that has sound components.
-        for (Entity entity : ECSManager.getInstance().getAndClearNewlyRemoteAddedEntities()) {
+        for (Entity entity : ecs.getAndClearNewlyRemoteAddedEntities()) {
             Optional<SoundComponent> soundComponent = audioManager.getComponent(entity);
             Optional<PlacedCardComponent> cardComponent = cardManager.getComponent(entity);
             if (soundComponent.isPresent() && cardComponent.isPresent()) {
@@ -113,4 +122,14 @@ public class AudioSystem implements System {
             }
         }
     }
+
+    @Override
+    public Phase getPhase() {
+        return Phase.POST_SIMULATION;
+    }
+
+    @Override
+    public ComponentAccess getComponentAccess() {
+        return ACCESS;
+    }
 }
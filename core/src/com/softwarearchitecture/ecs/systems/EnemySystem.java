@@ -4,11 +4,14 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import com.softwarearchitecture.ecs.ComponentAccess;
 import com.softwarearchitecture.ecs.ComponentManager;
 import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
 import com.softwarearchitecture.ecs.GraphicsController;
+import com.softwarearchitecture.ecs.Phase;
 import com.softwarearchitecture.ecs.System;
+import com.softwarearchitecture.ecs.View;
 import com.softwarearchitecture.ecs.components.EnemyComponent;
 import com.softwarearchitecture.ecs.components.HealthComponent;
 import com.softwarearchitecture.ecs.components.MoneyComponent;
@@ -43,6 +46,7 @@ import com.softwarearchitecture.math.Vector3;
  * display health, manage money rewards for defeating enemies, and other gameplay elements.</p>
  */
 public class EnemySystem implements System {
+    private final ECSManager ecs;
     private ComponentManager<PositionComponent> positionManager;
     private ComponentManager<VelocityComponent> velocityManager;
     private ComponentManager<PathfindingComponent> pathfindingManager;
@@ -55,6 +59,10 @@ public class EnemySystem implements System {
     private ComponentManager<PlayerComponent> playerManager;
     private ComponentManager<VillageComponent> villageManger;   
     private ComponentManager<WaveComponent> WaveManager;
+    private View villages;
+    private View paths;
+    private View tiles;
+    private View enemies;
     private GameOverObserver gameOverObserver;
     private GraphicsController graphicsController;
     private List<Tile> path = null;
@@ -65,29 +73,35 @@ public class EnemySystem implements System {
     private Entity waveEntity = null;
     private Entity waveNumberEntity;
 
-    public EnemySystem() {
-        this.positionManager = ECSManager.getInstance().getOrDefaultComponentManager(PositionComponent.class);
-        this.velocityManager = ECSManager.getInstance().getOrDefaultComponentManager(VelocityComponent.class);
-        this.drawableManager = ECSManager.getInstance().getOrDefaultComponentManager(SpriteComponent.class);
-        this.pathfindingManager = ECSManager.getInstance().getOrDefaultComponentManager(PathfindingComponent.class);
-        this.tileManager = ECSManager.getInstance().getOrDefaultComponentManager(TileComponent.class);
-        this.healthManager = ECSManager.getInstance().getOrDefaultComponentManager(HealthComponent.class);
-        this.moneyManager = ECSManager.getInstance().getOrDefaultComponentManager(MoneyComponent.class);
-        this.textManager = ECSManager.getInstance().getOrDefaultComponentManager(TextComponent.class);
-        this.playerManager = ECSManager.getInstance().getOrDefaultComponentManager(PlayerComponent.class);
-        this.enemyManager = ECSManager.getInstance().getOrDefaultComponentManager(EnemyComponent.class);
-        this.villageManger = ECSManager.getInstance().getOrDefaultComponentManager(VillageComponent.class);
-        this.WaveManager = ECSManager.getInstance().getOrDefaultComponentManager(WaveComponent.class);
+    public EnemySystem(ECSManager ecs) {
+        this.ecs = ecs;
+        this.positionManager = ecs.getOrDefaultComponentManager(PositionComponent.class);
+        this.velocityManager = ecs.getOrDefaultComponentManager(VelocityComponent.class);
+        this.drawableManager = ecs.getOrDefaultComponentManager(SpriteComponent.class);
+        this.pathfindingManager = ecs.getOrDefaultComponentManager(PathfindingComponent.class);
+        this.tileManager = ecs.getOrDefaultComponentManager(TileComponent.class);
+        this.healthManager = ecs.getOrDefaultComponentManager(HealthComponent.class);
+        this.moneyManager = ecs.getOrDefaultComponentManager(MoneyComponent.class);
+        this.textManager = ecs.getOrDefaultComponentManager(TextComponent.class);
+        this.playerManager = ecs.getOrDefaultComponentManager(PlayerComponent.class);
+        this.enemyManager = ecs.getOrDefaultComponentManager(EnemyComponent.class);
+        this.villageManger = ecs.getOrDefaultComponentManager(VillageComponent.class);
+        this.WaveManager = ecs.getOrDefaultComponentManager(WaveComponent.class);
+
+        this.villages = ecs.getView(VillageComponent.class, HealthComponent.class);
+        this.paths = ecs.getView(PathfindingComponent.class);
+        this.tiles = ecs.getView(SpriteComponent.class, TileComponent.class);
+        this.enemies = ecs.getView(PositionComponent.class, VelocityComponent.class, PathfindingComponent.class, HealthComponent.class, EnemyComponent.class);
     
         WaveComponent waveComponent = new WaveComponent(1, 10, 0, 20f, 5);
-        Entity waveEntity = new Entity();
+        Entity waveEntity = ecs.createEntity();
         waveEntity.addComponent(WaveComponent.class, waveComponent);
-        ECSManager.getInstance().addLocalEntity(waveEntity);
+        ecs.addLocalEntity(waveEntity);
         this.waveEntity = waveEntity;
     }
 
-    public EnemySystem(GameOverObserver gameOverObserver) {
-        this();
+    public EnemySystem(ECSManager ecs, GameOverObserver gameOverObserver) {
+        this(ecs);
         this.gameOverObserver = gameOverObserver;
     }
 
@@ -96,22 +110,14 @@ public class EnemySystem implements System {
      * and interactions with the game world, such as reaching the village or being defeated.
      * Also manages spawning of new enemies based on timing and wave conditions.
      *
-     * @param entities   the set of all entities to be processed this update cycle
+     * @param entities   the set of all entities, the system iterates its own views instead
      * @param deltaTime  the time elapsed since the last update, used for timing events like spawning
      */
     @Override
     public void update(Set<Entity> entities, float deltaTime) {
         
         // Get the village entity
-        Entity village = null;
-        for (Entity entity : entities) {
-            Optional<HealthComponent> healthComponent = healthManager.getComponent(entity);
-            Optional<VillageComponent> villageComponent = villageManger.getComponent(entity);
-            if (villageComponent.isPresent() && healthComponent.isPresent()) {  
-                village = entity;
-                break;
-            }
-        }
+        Entity village = villages.first();
         // Get the wave entity
         WaveComponent wave = WaveManager.getComponent(this.waveEntity).get();
 
@@ -123,64 +129,60 @@ public class EnemySystem implements System {
 
         // Get tile size so that enemies follow the path correctly
         Vector2 tileSize = new Vector2(0, 0);
-        for (Entity entity : entities) {
-            if (path == null) {
-                Optional<PathfindingComponent> possiblePath = pathfindingManager.getComponent(entity);
-                if (possiblePath.isPresent()) {
-                    path = possiblePath.get().path;
-                }
-            }
-
-            Optional<SpriteComponent> sprite = drawableManager.getComponent(entity);
-            Optional<TileComponent> tile = tileManager.getComponent(entity);
-            if (sprite.isPresent() && tile.isPresent()) {
-                tileSize = sprite.get().size_uv;
-                continue;
+        if (path == null) {
+            Entity pathEntity = paths.first();
+            if (pathEntity != null) {
+                path = pathfindingManager.get(pathEntity).path;
             }
         }
+        Entity tile = tiles.first();
+        if (tile != null) {
+            tileSize = drawableManager.get(tile).size_uv;
+        }
 
         /* If the path is not initialized correctly escape early */
         if (path == null) {
             return;
         }
         // Check if any enemies have reached the end of the path
-        for (Entity entity : entities) {
-            Optional<PositionComponent> position = positionManager.getComponent(entity);
-            Optional<VelocityComponent> velocity = velocityManager.getComponent(entity);
-            Optional<PathfindingComponent> pathfinding = pathfindingManager.getComponent(entity);
-            Optional<HealthComponent> health = healthManager.getComponent(entity);
-            Optional<EnemyComponent> enemy = enemyManager.getComponent(entity);
-            
-            if (!position.isPresent() || !velocity.isPresent() || !pathfinding.isPresent() || !health.isPresent()) {
-                continue;
-            }
-
-            Vector2 pos = position.get().position;
-            List<Tile> find = pathfinding.get().path;
-            Tile nextTile = pathfinding.get().targetTile;
-            int hp = health.get().getHealth();
+        for (Entity entity : enemies) {
+            PositionComponent position = positionManager.get(entity);
+            VelocityComponent velocity = velocityManager.get(entity);
+            PathfindingComponent pathfinding = pathfindingManager.get(entity);
+            HealthComponent health = healthManager.get(entity);
+            EnemyComponent enemy = enemyManager.get(entity);
+
+            Vector2 pos = position.position;
+            List<Tile> find = pathfinding.path;
+            Tile nextTile = pathfinding.targetTile;
+            int hp = health.getHealth();
 
             // If the enemy has reached the end of the path, move it to the start to be
             // spawned again and set villageDamage != 0 to damage the village
             if (nextTile.getType() == TileType.END) {
-                pathfinding.get().targetTile = find.get(0);
+                pathfinding.targetTile = find.get(0);
+                pathfinding.progress = 0f;
                 float startPosition_x = find.get(0).getX() * tileSize.x;
                 float startPosition_y = find.get(0).getY() * tileSize.y;
-                position.get().position = new Vector2(startPosition_x, startPosition_y);
-                health.get().setHealth(health.get().getMaxHealth());
+                position.position = new Vector2(startPosition_x, startPosition_y);
+                health.setHealth(health.getMaxHealth());
                 wave.monsterCounter++;
-                int remainingEnemyHealth = health.get().getHealth();
+                int remainingEnemyHealth = health.getHealth();
                 this.villageDamage += remainingEnemyHealth;
+                ecs.markChanged(entity);
             }
             // If the enemy is dead, set its velocity to 0
             else if (hp <= 0) {
-                position.get().position = new Vector2(-1, -1);
-                velocity.get().velocity = 0f;
+                if (velocity.velocity != 0f || pos.x != -1f || pos.y != -1f) {
+                    ecs.markChanged(entity);
+                }
+                position.position = new Vector2(-1, -1);
+                velocity.velocity = 0f;
                 wave.liveMonsterCounter--;
-                boolean claimedReward = enemy.get().claimedReward;
+                boolean claimedReward = enemy.claimedReward;
                 if (!claimedReward) {
                     awardPlayerMoney(village, entity);
-                    enemy.get().claimedReward = true;
+                    enemy.claimedReward = true;
                 }
             }
         }
@@ -196,8 +198,8 @@ public class EnemySystem implements System {
                 EnemyType[] enemyTypes = EnemyType.values();
                 EnemyType randomEnemy = enemyTypes[(int) (Math.random() * enemyTypes.length)];
 
-                mob = EnemyFactory.createEnemy(randomEnemy, path, tileSize);
-                ECSManager.getInstance().addLocalEntity(mob);
+                mob = EnemyFactory.createEnemy(ecs, randomEnemy, path, tileSize);
+                ecs.addLocalEntity(mob);
                 wave.monsterCounter++;
                 wave.liveMonsterCounter++;
                 wave.spawnTimer = wave.spawnDuration;
@@ -205,28 +207,24 @@ public class EnemySystem implements System {
             // If the max number of enemies has been met, check if any of them are dead
             else {
 
-                for (Entity entity : entities) {
-                    Optional<PositionComponent> position = positionManager.getComponent(entity);
-                    Optional<VelocityComponent> velocity = velocityManager.getComponent(entity);
-                    Optional<PathfindingComponent> pathfinding = pathfindingManager.getComponent(entity);
-                    Optional<HealthComponent> health = healthManager.getComponent(entity);
-                    Optional<EnemyComponent> enemy = enemyManager.getComponent(entity);
-
-                    if (!position.isPresent() || !velocity.isPresent() || !pathfinding.isPresent() || !enemy.isPresent()
-                            || !health.isPresent()) {
-                        continue;
-                    }
+                for (Entity entity : enemies) {
+                    PositionComponent position = positionManager.get(entity);
+                    VelocityComponent velocity = velocityManager.get(entity);
+                    PathfindingComponent pathfinding = pathfindingManager.get(entity);
+                    HealthComponent health = healthManager.get(entity);
 
                     // Spawn a new enemy
-                    List<Tile> find = pathfinding.get().path;
-                    if (velocity.get().velocity == 0f) {
+                    List<Tile> find = pathfinding.path;
+                    if (velocity.velocity == 0f) {
                         float startPosition_x = find.get(0).getX() * tileSize.x;
                         float startPosition_y = find.get(0).getY() * tileSize.y;
-                        position.get().position = new Vector2(startPosition_x, startPosition_y);
-                        pathfinding.get().targetTile = find.get(0);
-                        velocity.get().velocity = velocity.get().baseVelocity;
-                        health.get().setHealth(health.get().getMaxHealth());
+                        position.position = new Vector2(startPosition_x, startPosition_y);
+                        pathfinding.targetTile = find.get(0);
+                        pathfinding.progress = 0f;
+                        velocity.velocity = velocity.baseVelocity;
+                        health.setHealth(health.getMaxHealth());
                         wave.liveMonsterCounter++;
+                        ecs.markChanged(entity);
                     }
                 }
             }
@@ -283,11 +281,11 @@ public class EnemySystem implements System {
 
     private void updateTopRightCornerText(Entity village) {
         // Get the text-component of the village and update the health
-        ComponentManager<TextComponent> textManager = ECSManager.getInstance()
+        ComponentManager<TextComponent> textManager = ecs
                 .getOrDefaultComponentManager(TextComponent.class);
-        ComponentManager<MoneyComponent> moneyManager = ECSManager.getInstance()
+        ComponentManager<MoneyComponent> moneyManager = ecs
                 .getOrDefaultComponentManager(MoneyComponent.class);
-        ComponentManager<HealthComponent> healthManager = ECSManager.getInstance()
+        ComponentManager<HealthComponent> healthManager = ecs
                 .getOrDefaultComponentManager(HealthComponent.class);
         Optional<TextComponent> textComponent = textManager.getComponent(village);
         Optional<MoneyComponent> moneyComponent = moneyManager.getComponent(village);
@@ -298,29 +296,46 @@ public class EnemySystem implements System {
             int money = moneyComponent.get().amount;
             String textToDisplay = "Health: " + villageHealth + "\n Money: " + money;
             textComponent.get().text = textToDisplay;
+            ecs.markChanged(village);
         }
         
     }
 
     private void initializeWaveNumberDisplay(int waveNumber) {
         // Create a new Entity for the wave number and add it to the ECS
-        this.waveNumberEntity = new Entity();
+        this.waveNumberEntity = ecs.createEntity();
         TextComponent waveNumberText = new TextComponent("Wave: " + waveNumber, new Vector2(0.05f, 0.05f));
         waveNumberText.setColor(new Vector3(0, 0, 0));
         PositionComponent waveNumberPosition = new PositionComponent(new Vector2(0.02f, 0.90f), 10);
         waveNumberEntity.addComponent(TextComponent.class, waveNumberText);
         waveNumberEntity.addComponent(PositionComponent.class, waveNumberPosition);
-        ECSManager.getInstance().addLocalEntity(waveNumberEntity);
+        ecs.addLocalEntity(waveNumberEntity);
     }
 
     private void updateWaveNumberDisplay() {
-        ComponentManager<TextComponent> textManager = ECSManager.getInstance()
+        ComponentManager<TextComponent> textManager = ecs
                 .getOrDefaultComponentManager(TextComponent.class);
         Optional<TextComponent> waveNumberText = textManager.getComponent(waveNumberEntity);
 
         WaveComponent wave = WaveManager.getComponent(this.waveEntity).get();
-        if (waveNumberText.isPresent()) {
-            waveNumberText.get().text = "Wave: " + wave.waveNumber;
+        String text = "Wave: " + wave.waveNumber;
+        if (waveNumberText.isPresent() && !text.equals(waveNumberText.get().text)) {
+            waveNumberText.get().text = text;
+            ecs.markChanged(waveNumberEntity);
         }
     }
+
+    @Override
+    public Phase getPhase() {
+        return Phase.SIMULATION;
+    }
+
+    /**
+     * The system spawns enemies and wave entities, so it must not run alongside
+     * any other system.
+     */
+    @Override
+    public ComponentAccess getComponentAccess() {
+        return ComponentAccess.EXCLUSIVE;
+    }
 }
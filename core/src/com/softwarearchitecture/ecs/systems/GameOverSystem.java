@@ -3,9 +3,11 @@ package com.softwarearchitecture.ecs.systems;
 import java.util.Optional;
 import java.util.Set;
 
+import com.softwarearchitecture.ecs.ComponentAccess;
 import com.softwarearchitecture.ecs.ComponentManager;
 import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.ecs.Phase;
 import com.softwarearchitecture.ecs.System;
 import com.softwarearchitecture.ecs.components.HealthComponent;
 import com.softwarearchitecture.ecs.components.VillageComponent;
@@ -29,10 +31,10 @@ public class GameOverSystem implements System {
     private ComponentManager<VillageComponent> villageManger;
     private GameOverObserver observer;
 
-    public GameOverSystem(GameOverObserver observer) {
+    public GameOverSystem(ECSManager ecs, GameOverObserver observer) {
         this.observer = observer;
-        this.healthManager = ECSManager.getInstance().getOrDefaultComponentManager(HealthComponent.class);
-        this.villageManger = ECSManager.getInstance().getOrDefaultComponentManager(VillageComponent.class);
+        this.healthManager = ecs.getOrDefaultComponentManager(HealthComponent.class);
+        this.villageManger = ecs.getOrDefaultComponentManager(VillageComponent.class);
     }
 
     /**
@@ -67,4 +69,17 @@ public class GameOverSystem implements System {
         }
     }
 
+    @Override
+    public Phase getPhase() {
+        return Phase.POST_SIMULATION;
+    }
+
+    /**
+     * The game over observer may do anything, so the system must not run
+     * alongside any other system.
+     */
+    @Override
+    public ComponentAccess getComponentAccess() {
+        return ComponentAccess.EXCLUSIVE;
+    }
 }
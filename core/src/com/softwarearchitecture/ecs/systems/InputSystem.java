@@ -5,10 +5,12 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import com.softwarearchitecture.ecs.ComponentAccess;
 import com.softwarearchitecture.ecs.ComponentManager;
 import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
 import com.softwarearchitecture.ecs.InputController;
+import com.softwarearchitecture.ecs.Phase;
 import com.softwarearchitecture.ecs.System;
 import com.softwarearchitecture.ecs.TouchLocation;
 import com.softwarearchitecture.ecs.components.ButtonComponent;
@@ -30,10 +32,9 @@ public class InputSystem implements System {
     private InputController inputController;
     private TouchLocation lastTouched;
     private TouchLocation lastReleased;
-    private List<Entity> toAdd = new ArrayList<>();
 
-    public InputSystem(InputController inputController) {
-        this.buttonManager = ECSManager.getInstance().getOrDefaultComponentManager(ButtonComponent.class);
+    public InputSystem(ECSManager ecs, InputController inputController) {
+        this.buttonManager = ecs.getOrDefaultComponentManager(ButtonComponent.class);
         this.inputController = inputController;
         this.inputController.onTouch(this::onTouch);
         this.inputController.onRelease(this::onRelease);
@@ -88,7 +89,6 @@ public class InputSystem implements System {
 
         lastTouched = new TouchLocation(-1f, -1f);
         lastReleased = new TouchLocation(-1f, -1f);
-        entities.addAll(toAdd);
     }
 
     private boolean isButtonPressed(ButtonComponent buttonComponent) {
@@ -108,4 +108,18 @@ public class InputSystem implements System {
     public void clearLastTouched() {
         lastTouched = null;
     }
+
+    @Override
+    public Phase getPhase() {
+        return Phase.INPUT;
+    }
+
+    /**
+     * Button actions may do anything, for example change the screen, so the
+     * system must not run alongside any other system.
+     */
+    @Override
+    public ComponentAccess getComponentAccess() {
+        return ComponentAccess.EXCLUSIVE;
+    }
 }
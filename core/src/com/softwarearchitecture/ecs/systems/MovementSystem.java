@@ -1,19 +1,24 @@
 package com.softwarearchitecture.ecs.systems;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
+import java.util.WeakHashMap;
 
+import com.softwarearchitecture.ecs.ChunkedSystem;
+import com.softwarearchitecture.ecs.ComponentAccess;
 import com.softwarearchitecture.ecs.ComponentManager;
 import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
-import com.softwarearchitecture.ecs.System;
+import com.softwarearchitecture.ecs.Phase;
+import com.softwarearchitecture.ecs.View;
 import com.softwarearchitecture.ecs.components.PathfindingComponent;
 import com.softwarearchitecture.ecs.components.PositionComponent;
 import com.softwarearchitecture.ecs.components.SpriteComponent;
 import com.softwarearchitecture.ecs.components.TileComponent;
 import com.softwarearchitecture.ecs.components.VelocityComponent;
+import com.softwarearchitecture.game_server.Map;
 import com.softwarearchitecture.game_server.Tile;
+import com.softwarearchitecture.math.Polyline;
 import com.softwarearchitecture.math.Vector2;
 
 /**
@@ -24,86 +29,135 @@ import com.softwarearchitecture.math.Vector2;
  * <p>It utilizes the game's tile system to translate path coordinates into actual game world positions, ensuring
  * that entities move along predefined paths accurately. The system also accounts for dynamic changes in velocity
  * and adjusts entity movement accordingly.</p>
+ *
+ * <p>A path is compiled once into a {@link Polyline} of its waypoints, shared by the entities on it.
+ * An entity only keeps the distance it has travelled along the path, and its position is looked up
+ * on the line, so moving an entity costs the same however far it goes in a step and allocates nothing.</p>
  */
-public class MovementSystem implements System {
+public class MovementSystem implements ChunkedSystem {
+    /** Component types read and written by the system, see {@link #getComponentAccess()} */
+    private static final ComponentAccess ACCESS = new ComponentAccess(
+            Set.of(VelocityComponent.class, SpriteComponent.class, TileComponent.class),
+            Set.of(PositionComponent.class, PathfindingComponent.class));
+
+    private final ECSManager ecs;
     private ComponentManager<PositionComponent> positionManager;
     private ComponentManager<VelocityComponent> velocityManager;
     private ComponentManager<SpriteComponent> drawableManager;
     private ComponentManager<PathfindingComponent> pathfindingManager;
     private ComponentManager<TileComponent> tileManager;
+    private View movingEntities;
+    private View tiles;
+    /** Size of a tile, read once per update by {@link #beginChunks(float)} */
+    private float tileWidth = 0f;
+    private float tileHeight = 0f;
+    /** The compiled paths, so the entities on the same path share one line */
+    private final java.util.Map<List<Tile>, Polyline> routes = new WeakHashMap<>();
 
-    public MovementSystem() {
-        this.positionManager = ECSManager.getInstance().getOrDefaultComponentManager(PositionComponent.class);
-        this.velocityManager = ECSManager.getInstance().getOrDefaultComponentManager(VelocityComponent.class);
-        this.drawableManager = ECSManager.getInstance().getOrDefaultComponentManager(SpriteComponent.class);
-        this.pathfindingManager = ECSManager.getInstance().getOrDefaultComponentManager(PathfindingComponent.class);
-        this.tileManager = ECSManager.getInstance().getOrDefaultComponentManager(TileComponent.class);
-
+    public MovementSystem(ECSManager ecs) {
+        this.ecs = ecs;
+        this.positionManager = ecs.getOrDefaultComponentManager(PositionComponent.class);
+        this.velocityManager = ecs.getOrDefaultComponentManager(VelocityComponent.class);
+        this.drawableManager = ecs.getOrDefaultComponentManager(SpriteComponent.class);
+        this.pathfindingManager = ecs.getOrDefaultComponentManager(PathfindingComponent.class);
+        this.tileManager = ecs.getOrDefaultComponentManager(TileComponent.class);
+        this.movingEntities = ecs.getView(PositionComponent.class, VelocityComponent.class, PathfindingComponent.class);
+        this.tiles = ecs.getView(SpriteComponent.class, TileComponent.class);
     }
 
     /**
      * Updates the positions of all entities with position, velocity, and pathfinding components.
-     * This method calculates the next waypoint for each entity and moves them towards it based on
-     * their current velocity and the time elapsed since the last update.
+     * This method moves every entity along its path by its current velocity and the time
+     * elapsed since the last update.
      *
-     * @param entities   the set of entities that might need to be moved
+     * @param entities   the set of all entities, the system iterates its own view instead
      * @param deltaTime  the time elapsed since the last update, used for calculating movement
      */
     @Override
     public void update(Set<Entity> entities, float deltaTime) {
-        
+        beginChunks(deltaTime);
+        for (Entity entity : movingEntities) {
+            move(entity, deltaTime);
+        }
+    }
+
+    @Override
+    public View getChunkedView() {
+        return movingEntities;
+    }
+
+    @Override
+    public void beginChunks(float deltaTime) {
         //Get tile size
-        Vector2 tileSize = new Vector2(0,0);
-        for (Entity entity : entities) {
-            Optional<SpriteComponent> sprite = drawableManager.getComponent(entity);
-            Optional<TileComponent> tile = tileManager.getComponent(entity);
-            if (sprite.isPresent() && tile.isPresent()) {
-                tileSize = sprite.get().size_uv;
-                break;
-            }   
+        tileWidth = 0f;
+        tileHeight = 0f;
+        Entity tile = tiles.first();
+        if (tile != null) {
+            Vector2 tileSize = drawableManager.get(tile).size_uv;
+            tileWidth = tileSize.x;
+            tileHeight = tileSize.y;
         }
-        //Move enemies towards next waypoint
-        for (Entity entity : entities) {
-            Optional<PositionComponent> position = positionManager.getComponent(entity);
-            Optional<VelocityComponent> velocity = velocityManager.getComponent(entity);
-            Optional<PathfindingComponent> pathfinding = pathfindingManager.getComponent(entity);
-            if (!position.isPresent() || !velocity.isPresent() || !pathfinding.isPresent()) {
-                continue;
-            }
-            Vector2 pos = position.get().position;
-            float vel = velocity.get().velocity;
-            List<Tile> find = pathfinding.get().path;
-            Tile nextTile = pathfinding.get().targetTile;
-            int currentIndex = find.indexOf(nextTile);
-            Vector2 nextWaypoint = new Vector2(nextTile.getX()*tileSize.x, nextTile.getY()*tileSize.y+tileSize.y/4);
-            float remainingStepSize = moveTowards(pos, nextWaypoint, vel * deltaTime);
-            while (remainingStepSize != -1f && find.size() > currentIndex+1) {
-                pathfinding.get().targetTile = find.get(currentIndex+1);  // Move to next waypoint and remove it from the path
-                nextTile = pathfinding.get().targetTile;
-                currentIndex = find.indexOf(nextTile);
-                nextWaypoint = new Vector2(nextTile.getX()*tileSize.x, nextTile.getY()*tileSize.y+tileSize.y/4);
-                remainingStepSize = moveTowards(pos, nextWaypoint, remainingStepSize);
-            }
+    }
+
+    @Override
+    public void updateChunk(Entity[] entities, int from, int to, float deltaTime) {
+        for (int i = from; i < to; i++) {
+            move(entities[i], deltaTime);
         }
     }
+
     /**
-     * Changes currentPosition by velocity or sets current position as target position if target is reached
-     * @param currentPosition
-     * @param targetPosition
-     * @param stepLength
-     * @param deltaTime
-     * @return Remaining distance to target. {@code -1} if target not reached.
+     * Moves an entity along its path by its step, placing it at the distance it has
+     * travelled. The step left over at the end of the path is not travelled.
+     *
+     * @param entity    the entity to move
+     * @param deltaTime the time elapsed since the last update
      */
-    private float moveTowards(Vector2 currentPosition, Vector2 targetPosition, float stepLength) {
+    private void move(Entity entity, float deltaTime) {
+        float stepSize = velocityManager.get(entity).velocity * deltaTime;
+        // Entities standing still, like the dead, keep the position they were given
+        if (stepSize <= 0f || tileWidth <= 0f || tileHeight <= 0f) {
+            return;
+        }
+        PathfindingComponent pathfinding = pathfindingManager.get(entity);
+        Polyline route = pathfinding.route;
+        if (route == null) {
+            route = routeOf(pathfinding.path);
+            pathfinding.route = route;
+        }
+        float progress = Math.min(pathfinding.progress + stepSize, route.getLength());
+        pathfinding.progress = progress;
+        route.positionAt(progress, positionManager.get(entity).position);
 
-        Vector2 direction = targetPosition.cpy().sub(currentPosition).nor();
-        float distance = currentPosition.dst(targetPosition);
-        if (distance > stepLength) {
-            currentPosition.add(direction.scl(stepLength));
-            return -1f;  // Target not reached
-        } else {
-            currentPosition.set(targetPosition);
-            return stepLength - distance;  // Target reached
+        // The entity heads for the end of the segment it is on
+        int next = Math.min(route.segmentAt(progress) + 1, route.getPointCount() - 1);
+        pathfinding.targetTile = pathfinding.path.get(next);
+        ecs.markChanged(entity);
+    }
+
+    /**
+     * Finds the line through a path, compiling it the first time the path is seen. The
+     * size of the tiles is fixed once they are placed, which is before anything moves.
+     *
+     * @param path the tiles of the path
+     * @return the line through the path in UV-coordinates
+     */
+    private synchronized Polyline routeOf(List<Tile> path) {
+        Polyline route = routes.get(path);
+        if (route == null) {
+            route = Map.toPolyline(path, tileWidth, tileHeight);
+            routes.put(path, route);
         }
+        return route;
+    }
+
+    @Override
+    public Phase getPhase() {
+        return Phase.SIMULATION;
+    }
+
+    @Override
+    public ComponentAccess getComponentAccess() {
+        return ACCESS;
     }
 }
@@ -5,16 +5,23 @@ import com.softwarearchitecture.ecs.components.HealthComponent;
 import com.softwarearchitecture.ecs.components.PositionComponent;
 import com.softwarearchitecture.ecs.components.SpriteComponent;
 import com.softwarearchitecture.ecs.components.TextComponent;
+import com.softwarearchitecture.ecs.components.VelocityComponent;
+import com.softwarearchitecture.math.Vector2;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
+import com.softwarearchitecture.ecs.ComponentAccess;
 import com.softwarearchitecture.ecs.ComponentManager;
 import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
 import com.softwarearchitecture.ecs.GraphicsController;
+import com.softwarearchitecture.ecs.Phase;
+import com.softwarearchitecture.ecs.View;
 
 /**
  * The {@code RenderingSystem} is responsible for rendering visual components of entities within the game,
@@ -25,12 +32,35 @@ import com.softwarearchitecture.ecs.GraphicsController;
  * <p>Entities with {@link SpriteComponent} and {@link TextComponent} are sorted and rendered according to
  * their depth (z-index) to maintain the correct visual stacking. Health components are also rendered to
  * provide visual feedback on entity health status.</p>
+ *
+ * <p>The server only sends new positions a number of times per second, so moving entities (those with a
+ * {@link VelocityComponent}) are drawn interpolated between the last two positions received, which hides
+ * the steps between game states.</p>
  */
 public class RenderingSystem implements System {
+    /** Component types read and written by the system, see {@link #getComponentAccess()} */
+    private static final ComponentAccess ACCESS = new ComponentAccess(
+            Set.of(SpriteComponent.class, TextComponent.class, PositionComponent.class, HealthComponent.class,
+                    VelocityComponent.class),
+            Set.of());
+    /** Positions further apart in time than this are not stretched over the whole gap */
+    private static final float MAX_INTERPOLATION_INTERVAL = 0.25f;
+    /**
+     * Jumps longer than the distance covered in this many of the longest intervals are
+     * teleports, like a death or a return to the start, and are not interpolated
+     */
+    private static final float TELEPORT_INTERVALS = 2f;
+
     private ComponentManager<SpriteComponent> drawableManager;
     private ComponentManager<TextComponent> textManager;
     private ComponentManager<PositionComponent> positionManager;
     private ComponentManager<HealthComponent> healthManager;
+    private ComponentManager<VelocityComponent> velocityManager;
+    private View spriteEntities;
+    private View textEntities;
+    private View healthBarEntities;
+    private final Map<Entity, Interpolation> interpolations = new HashMap<>();
+    private int frame = 0;
 
     /**
      * Graphics controller - Not optional and will be needed to check against null.
@@ -39,12 +69,16 @@ public class RenderingSystem implements System {
      */
     private GraphicsController graphicsController;
 
-    public RenderingSystem(GraphicsController graphicsController) {
-        this.drawableManager = ECSManager.getInstance().getOrDefaultComponentManager(SpriteComponent.class);
-        this.textManager = ECSManager.getInstance().getOrDefaultComponentManager(TextComponent.class);
+    public RenderingSystem(ECSManager ecs, GraphicsController graphicsController) {
+        this.drawableManager = ecs.getOrDefaultComponentManager(SpriteComponent.class);
+        this.textManager = ecs.getOrDefaultComponentManager(TextComponent.class);
         this.graphicsController = graphicsController;
-        this.positionManager = ECSManager.getInstance().getOrDefaultComponentManager(PositionComponent.class);
-        this.healthManager = ECSManager.getInstance().getOrDefaultComponentManager(HealthComponent.class);
+        this.positionManager = ecs.getOrDefaultComponentManager(PositionComponent.class);
+        this.healthManager = ecs.getOrDefaultComponentManager(HealthComponent.class);
+        this.velocityManager = ecs.getOrDefaultComponentManager(VelocityComponent.class);
+        this.spriteEntities = ecs.getView(SpriteComponent.class);
+        this.textEntities = ecs.getView(TextComponent.class);
+        this.healthBarEntities = ecs.getView(HealthComponent.class, PositionComponent.class, SpriteComponent.class);
     }
 
     private class Pair<T, U> {
@@ -57,12 +91,32 @@ public class RenderingSystem implements System {
         }
     }
 
+    /**
+     * The position a moving entity is drawn at, moving from where it was drawn when the
+     * latest position arrived towards that position.
+     */
+    private static class Interpolation {
+        public final Vector2 from;
+        public final Vector2 to;
+        public final PositionComponent drawn;
+        /** Time between the last two position changes */
+        public float interval = 0;
+        public float sinceChange = 0;
+        public int frame;
+
+        public Interpolation(PositionComponent position) {
+            this.from = new Vector2(position.position);
+            this.to = new Vector2(position.position);
+            this.drawn = new PositionComponent(new Vector2(position.position), position.z_index);
+        }
+    }
+
     /**
      * Updates the rendering state of the game by determining which components to draw based on their
      * component states and z-index. This method handles the sorting of graphical components and calls
      * the appropriate rendering functions in the graphics controller.
      *
-     * @param entities   the set of entities to render
+     * @param entities   the set of all entities, the system iterates its own views instead
      * @param deltaTime  the time since the last update, not used here as rendering is typically independent of time
      */
     @Override
@@ -72,15 +126,17 @@ public class RenderingSystem implements System {
         }
 
         graphicsController.clearScreen();
+        frame++;
 
         ArrayList<Pair<SpriteComponent, PositionComponent>> sprites = new ArrayList<>();
 
-        for (Entity entity : entities) {
-            Optional<SpriteComponent> sprite = drawableManager.getComponent(entity);
-            Optional<PositionComponent> position = positionManager.getComponent(entity);
-            if (sprite.isPresent() && position.isPresent()) {
-                sprites.add(new Pair<SpriteComponent, PositionComponent>(sprite.get(), position.get()));
-            } else if (sprite.isPresent() && !position.isPresent()) {
+        for (Entity entity : spriteEntities) {
+            SpriteComponent sprite = drawableManager.get(entity);
+            PositionComponent position = positionManager.get(entity);
+            if (position != null) {
+                position = getDrawnPosition(entity, position, deltaTime);
+                sprites.add(new Pair<SpriteComponent, PositionComponent>(sprite, position));
+            } else {
                 throw new IllegalStateException(
                         "Entity " + entity + " has a SpriteComponent but no PositionComponent.");
             }
@@ -96,12 +152,12 @@ public class RenderingSystem implements System {
 
         ArrayList<Pair<TextComponent, PositionComponent>> texts = new ArrayList<>();
 
-        for (Entity entity : entities) {
-            Optional<TextComponent> text = textManager.getComponent(entity);
-            Optional<PositionComponent> position = positionManager.getComponent(entity);
-            if (text.isPresent() && position.isPresent()) {
-                texts.add(new Pair<TextComponent, PositionComponent>(text.get(), position.get()));
-            } else if (text.isPresent() && !position.isPresent()) {
+        for (Entity entity : textEntities) {
+            TextComponent text = textManager.get(entity);
+            PositionComponent position = positionManager.get(entity);
+            if (position != null) {
+                texts.add(new Pair<TextComponent, PositionComponent>(text, position));
+            } else {
                 throw new IllegalStateException(
                         "Entity " + entity + " has a TextComponent but no PositionComponent.");
             }
@@ -135,9 +191,6 @@ public class RenderingSystem implements System {
                     i_sprite++;
                 }
             } else if (sprite != null) {
-                if (sprite.first.texture_path == "button_placeholder.png") {
-                    // java.lang.System.out.println(sprite.first.size_uv);
-                }
                 graphicsController.draw(sprite.first, sprite.second);
                 i_sprite++;
             } else if (text != null) {
@@ -146,34 +199,94 @@ public class RenderingSystem implements System {
             }
         }
 
-        for (Entity entity : entities) {
-            Optional<HealthComponent> health = healthManager.getComponent(entity);
-            Optional<PositionComponent> position = positionManager.getComponent(entity);
-            Optional<SpriteComponent> sprite = drawableManager.getComponent(entity);
+        for (Entity entity : healthBarEntities) {
+            HealthComponent health = healthManager.get(entity);
+            PositionComponent position = getDrawnPosition(entity, positionManager.get(entity), deltaTime);
             // render health bars with two rectangles using graphicsController
-            if (health.isPresent() && position.isPresent() && sprite.isPresent()) {
-                float width = 0.05f;
-                float height = 0.008f;
-                float[] green = { 0.451f, 0.922f, 0.333f };
-                float[] yellow = { 0.922f, 0.922f, 0.333f };
-                float[] red = { 0.922f, 0.333f, 0.333f };
-                graphicsController.drawSquare(position.get(), width, height, 0, 0, 0, 1);
-
-                if ((float) health.get().getHealth() / (float) health.get().getMaxHealth() > 0.5) {
-                    graphicsController.drawSquare(position.get(),
-                            ((float) health.get().getHealth() / (float) health.get().getMaxHealth()) * width,
-                            height, green[0], green[1], green[2], 1);
-                } else if ((float) health.get().getHealth() / (float) health.get().getMaxHealth() > 0.2) {
-                    graphicsController.drawSquare(position.get(),
-                            ((float) health.get().getHealth() / (float) health.get().getMaxHealth()) * width,
-                            height, yellow[0], yellow[1], yellow[2], 1);
-                } else {
-                    graphicsController.drawSquare(position.get(),
-                            ((float) health.get().getHealth() / (float) health.get().getMaxHealth()) * width,
-                            height, red[0], red[1], red[2], 1);
-                }
+            float width = 0.05f;
+            float height = 0.008f;
+            float[] green = { 0.451f, 0.922f, 0.333f };
+            float[] yellow = { 0.922f, 0.922f, 0.333f };
+            float[] red = { 0.922f, 0.333f, 0.333f };
+            graphicsController.drawSquare(position, width, height, 0, 0, 0, 1);
+
+            if ((float) health.getHealth() / (float) health.getMaxHealth() > 0.5) {
+                graphicsController.drawSquare(position,
+                        ((float) health.getHealth() / (float) health.getMaxHealth()) * width,
+                        height, green[0], green[1], green[2], 1);
+            } else if ((float) health.getHealth() / (float) health.getMaxHealth() > 0.2) {
+                graphicsController.drawSquare(position,
+                        ((float) health.getHealth() / (float) health.getMaxHealth()) * width,
+                        height, yellow[0], yellow[1], yellow[2], 1);
+            } else {
+                graphicsController.drawSquare(position,
+                        ((float) health.getHealth() / (float) health.getMaxHealth()) * width,
+                        height, red[0], red[1], red[2], 1);
+            }
+        }
+
+        // Forget entities that were not drawn this frame
+        Iterator<Interpolation> iterator = interpolations.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().frame != frame) {
+                iterator.remove();
             }
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Returns the position to draw an entity at. Entities that do not move are drawn at their
+     * position, moving entities at their interpolated position. The interpolation advances once
+     * per frame however often it is asked for.
+     */
+    private PositionComponent getDrawnPosition(Entity entity, PositionComponent position, float deltaTime) {
+        VelocityComponent velocity = velocityManager.get(entity);
+        if (velocity == null) {
+            return position;
+        }
+        Interpolation interpolation = interpolations.get(entity);
+        if (interpolation == null) {
+            interpolation = new Interpolation(position);
+            interpolations.put(entity, interpolation);
+        }
+        if (interpolation.frame == frame) {
+            return interpolation.drawn;
+        }
+        interpolation.frame = frame;
+        interpolation.sinceChange += deltaTime;
+
+        if (position.position.x != interpolation.to.x || position.position.y != interpolation.to.y) {
+            float jump = interpolation.to.dst(position.position);
+            float maxStep = velocity.velocity * MAX_INTERPOLATION_INTERVAL * TELEPORT_INTERVALS;
+            if (velocity.velocity <= 0 || jump > maxStep) {
+                // The entity did not walk there, so it is drawn there at once
+                interpolation.from.set(position.position);
+                interpolation.interval = 0;
+            } else {
+                // A new position has arrived, continue from where the entity is drawn now
+                interpolation.from.set(interpolation.drawn.position);
+                interpolation.interval = Math.min(interpolation.sinceChange, MAX_INTERPOLATION_INTERVAL);
+            }
+            interpolation.to.set(position.position);
+            interpolation.sinceChange = 0;
+        }
+
+        float alpha = interpolation.interval <= 0 ? 1
+                : Math.min(1, interpolation.sinceChange / interpolation.interval);
+        interpolation.drawn.position.set(
+                interpolation.from.x + (interpolation.to.x - interpolation.from.x) * alpha,
+                interpolation.from.y + (interpolation.to.y - interpolation.from.y) * alpha);
+        interpolation.drawn.z_index = position.z_index;
+        return interpolation.drawn;
+    }
+
+    @Override
+    public Phase getPhase() {
+        return Phase.RENDER;
+    }
+
+    @Override
+    public ComponentAccess getComponentAccess() {
+        return ACCESS;
+    }
+}
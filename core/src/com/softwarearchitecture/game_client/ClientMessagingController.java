@@ -3,7 +3,9 @@ package com.softwarearchitecture.game_client;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.game_server.GameState;
 import com.softwarearchitecture.game_server.PlayerInput;
 
@@ -14,36 +16,54 @@ import com.softwarearchitecture.game_server.PlayerInput;
 public interface ClientMessagingController {
 
     /**
-     * Try to make the player with the given playerID join the game with the given gameID.
-     * If the game does not exist or does not have space for the player to join, return false.
-     * If the player was added to the game, return the updated game state.
+     * Try to make the player with the given playerID join the game with the given gameID,
+     * without waiting for the server to answer.
      * @param gameID of the game to join
      * @param playerID of the player to add to the game
-     * @return  true if the player was added to the game, false otherwise
+     * @return a future completed with true once the player was added to the game, or with
+     *         false if the game does not exist or has no space for the player
      */
-    public boolean joinGame(UUID gameID, UUID playerID);
+    public CompletableFuture<Boolean> joinGame(UUID gameID, UUID playerID);
 
     /**
-     * Get the game state of the game with the given gameID.
+     * Get the game state of the game with the given gameID. Only the changes since the last
+     * request are transferred and applied to the entities already read into the manager.
      * @param gameID of the game to get the game state of.
-     * @return the game state of the game with the given gameID
+     * @param playerID of the player requesting the game state
+     * @param ecs the manager the entities of the game state are read into
+     * @return the latest game state of the game with the given gameID
      */
-    public Optional<GameState> requestGameState(UUID gameID);
+    public Optional<GameState> requestGameState(UUID gameID, UUID playerID, ECSManager ecs);
 
     /**
-     * Add an action to the game with the playerID contained in action.
+     * Add an action to the game with the playerID contained in action. The action is
+     * sent again until the server acknowledges it.
      * @param action to perform in the game
      */
     public void addAction(PlayerInput action);
 
     /**
-     * Get all games that are currently available.
-     * @return a list of all games that are currently available
+     * Get a page of the games with open seats, oldest first, without waiting for the storage.
+     * The future is completed on a thread of the storage.
+     * @param after the last game of the previous page, null for the first page
+     * @param limit the most games on the page
+     * @return a future of the games on the page
+     * @throws IllegalArgumentException if the limit is not positive
      */
-    public List<GameState> getAllAvailableGames();
+    public CompletableFuture<List<LobbyEntry>> getAvailableGames(LobbyEntry after, int limit) throws IllegalArgumentException;
 
     /**
-     * Get all high scores.
+     * Get the best high scores of all maps, best first, without waiting for the storage.
+     * The future is completed on a thread of the storage.
+     * @return a future of the best high scores
      */
-    public List<Score> getAllHighScores();
+    public CompletableFuture<List<Score>> getHighScores();
+
+    /**
+     * Get the best high scores of a map, best first, without waiting for the storage.
+     * The future is completed on a thread of the storage.
+     * @param mapName the map of the high scores
+     * @return a future of the best high scores of the map
+     */
+    public CompletableFuture<List<Score>> getHighScores(String mapName);
 }
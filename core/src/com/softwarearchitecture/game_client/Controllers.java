@@ -3,7 +3,7 @@ package com.softwarearchitecture.game_client;
 import com.softwarearchitecture.ecs.GraphicsController;
 import com.softwarearchitecture.ecs.InputController;
 import com.softwarearchitecture.ecs.SoundController;
-import com.softwarearchitecture.game_server.GameServer;
+import com.softwarearchitecture.game_server.GameServerHost;
 import com.softwarearchitecture.game_server.ServerMessagingController;
 
 public class Controllers {
@@ -13,15 +13,17 @@ public class Controllers {
     public final ServerMessagingController serverMessagingController;
     public final ClientMessagingController onlineClientMessagingController;
     public final ClientMessagingController localClientMessagingController;
-    public final GameServer gameServer;
+    public final ServerMessagingController localServerMessagingController;
+    public final GameServerHost gameServerHost;
 
-    public Controllers(GraphicsController graphicsController, InputController inputController, SoundController soundController, ServerMessagingController serverMessagingController, ClientMessagingController onlineClientMessagingController, ClientMessagingController localClientMessagingController, GameServer gameServer) {
+    public Controllers(GraphicsController graphicsController, InputController inputController, SoundController soundController, ServerMessagingController serverMessagingController, ClientMessagingController onlineClientMessagingController, ClientMessagingController localClientMessagingController, ServerMessagingController localServerMessagingController, GameServerHost gameServerHost) {
         this.graphicsController = graphicsController;
         this.inputController = inputController;
         this.soundController = soundController;
         this.serverMessagingController = serverMessagingController;
         this.onlineClientMessagingController = onlineClientMessagingController;
         this.localClientMessagingController = localClientMessagingController;
-        this.gameServer = gameServer;
+        this.localServerMessagingController = localServerMessagingController;
+        this.gameServerHost = gameServerHost;
     }
 }
@@ -3,8 +3,7 @@ package com.softwarearchitecture.game_client;
 import java.util.Optional;
 import java.util.UUID;
 
-import com.softwarearchitecture.clock.Clock;
-import com.softwarearchitecture.ecs.ECSManager;
+import com.softwarearchitecture.ecs.World;
 import com.softwarearchitecture.game_client.states.GameOver;
 import com.softwarearchitecture.game_client.states.InGame;
 import com.softwarearchitecture.game_client.states.Menu;
@@ -14,12 +13,14 @@ import com.softwarearchitecture.game_server.GameState;
 public class GameClient {
     private ScreenManager screenManager;
     private Controllers defaultControllers;
+    private UUID yourId;
 
     private long maxServerResponseTime = 10_000;
     private long lastServerResponse;
 
     public GameClient(Controllers defaultControllers, UUID yourId) throws IllegalArgumentException {
         this.defaultControllers = defaultControllers;
+        this.yourId = yourId;
         screenManager = ScreenManager.getInstance();
         screenManager.nextState(new Menu(defaultControllers, yourId));
 
@@ -28,15 +29,14 @@ public class GameClient {
     public void update() {
         screenManager.activateCurrentStateIfChanged();
 
-        float deltaTime = Clock.getInstance().getAndResetDeltaTime();
-
-        ECSManager.getInstance().update(deltaTime);
+        World world = screenManager.getWorld();
+        world.update();
 
         // Check if the player is in a multiplayer game
         UUID gameId = null;
         if (screenManager.getGameId() != null && screenManager.isCurrentStateOfType(InGame.class)) {
             gameId = screenManager.getGameId();
-            Optional<GameState> game = defaultControllers.onlineClientMessagingController.requestGameState(gameId);
+            Optional<GameState> game = defaultControllers.onlineClientMessagingController.requestGameState(gameId, yourId, world.getECSManager());
             if (game.isPresent()) {
                 if (this.lastServerResponse == 0) {
                     this.lastServerResponse = game.get().timeStamp;
@@ -52,17 +52,24 @@ public class GameClient {
                     this.lastServerResponse = state.timeStamp;
                 }
             }
-        } else if (defaultControllers.gameServer.getGameId() != null
+        } else if (screenManager.getHostedGame() != null && screenManager.getHostedGame().getGameId() != null
                 && screenManager.isCurrentStateOfType(InGame.class)) {
-            gameId = defaultControllers.gameServer.getGameId();
+            gameId = screenManager.getHostedGame().getGameId();
             Optional<GameState> game = Optional.empty();
             game = screenManager.isLocalServer()
-                    ? defaultControllers.localClientMessagingController.requestGameState(gameId)
-                    : defaultControllers.onlineClientMessagingController.requestGameState(gameId);
+                    ? defaultControllers.localClientMessagingController.requestGameState(gameId, yourId, world.getECSManager())
+                    : defaultControllers.onlineClientMessagingController.requestGameState(gameId, yourId, world.getECSManager());
 
             if (game.isPresent()) {
                 game.get();
             }
         }
     }
+
+    /**
+     * Stops every game hosted by this client.
+     */
+    public void dispose() {
+        defaultControllers.gameServerHost.shutdown();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.softwarearchitecture.game_client;
+
+import java.util.UUID;
+
+/**
+ * What the lobby lists of a game waiting for players, so the games can be listed without
+ * reading their states.
+ */
+public class LobbyEntry {
+
+    private UUID gameId;
+    private String mapName;
+    private int openSeats;
+    private long createdAt;
+
+    public LobbyEntry(UUID gameId, String mapName, int openSeats, long createdAt) {
+        this.gameId = gameId;
+        this.mapName = mapName;
+        this.openSeats = openSeats;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getGameId() {
+        return gameId;
+    }
+
+    public String getMapName() {
+        return mapName;
+    }
+
+    /**
+     * @return The number of players that can still join the game.
+     */
+    public int getOpenSeats() {
+        return openSeats;
+    }
+
+    /**
+     * @return The time the game was created, in milliseconds since the epoch.
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -5,10 +5,12 @@ import java.util.UUID;
 public class Score {
 
     private UUID gameId;
+    private String mapName;
     private int wavesSurvived;
 
-    public Score(UUID gameId, int wavesSurvived) {
+    public Score(UUID gameId, String mapName, int wavesSurvived) {
         this.gameId = gameId;
+        this.mapName = mapName;
         this.wavesSurvived = wavesSurvived;
     }
 
@@ -17,6 +19,10 @@ public class Score {
         return gameId;
     }
 
+    public String getMapName() {
+        return mapName;
+    }
+
     public int getWavesSurvived() {
         return wavesSurvived;
     }
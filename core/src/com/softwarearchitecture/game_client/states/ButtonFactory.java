@@ -9,8 +9,8 @@ import com.softwarearchitecture.ecs.components.ButtonComponent;
 import com.softwarearchitecture.ecs.components.PositionComponent;
 import com.softwarearchitecture.ecs.components.SpriteComponent;
 import com.softwarearchitecture.ecs.components.ButtonComponent.ButtonEnum;
+import com.softwarearchitecture.game_client.LobbyEntry;
 import com.softwarearchitecture.game_client.TexturePack;
-import com.softwarearchitecture.game_server.GameState;
 import com.softwarearchitecture.math.Rectangle;
 import com.softwarearchitecture.math.Vector2;
 
@@ -22,12 +22,13 @@ public class ButtonFactory {
     /**
      * Creates a button based on the button type and adds it to the ECS system
      * 
+     * @param ecs:      ECSManager the button is added to
      * @param button:   ButtonEnum
      * @param size:     Vector2
      * @param observer: Observer
      * @throws IllegalArgumentException if the button type is invalid
      */
-    public static Entity createAndAddButtonEntity(ButtonEnum button, Vector2 position, Vector2 size, Observer observer,
+    public static Entity createAndAddButtonEntity(ECSManager ecs, ButtonEnum button, Vector2 position, Vector2 size, Observer observer,
             int z_index) throws IllegalArgumentException {
         // factory that makes buttons based on the state enum
         String texture = chooseTexture(button);
@@ -39,17 +40,17 @@ public class ButtonFactory {
         PositionComponent positionComponent = new PositionComponent(position, z_index);
         SpriteComponent spriteComponent = new SpriteComponent(texture, size);
 
-        Entity buttonEntity = new Entity();
+        Entity buttonEntity = ecs.createEntity();
         buttonEntity.addComponent(ButtonComponent.class, buttonComponent);
         buttonEntity.addComponent(PositionComponent.class, positionComponent);
         buttonEntity.addComponent(SpriteComponent.class, spriteComponent);
 
-        ECSManager.getInstance().addLocalEntity(buttonEntity);
+        ecs.addLocalEntity(buttonEntity);
         return buttonEntity;
     }
 
-    public static Entity createAndAddButtonEntity(ButtonEnum button, Vector2 position, Vector2 size,
-            JoinGameObserver observer, GameState game, int z_index) {
+    public static Entity createAndAddButtonEntity(ECSManager ecs, ButtonEnum button, Vector2 position, Vector2 size,
+            JoinGameObserver observer, LobbyEntry game, int z_index) {
         String texture = chooseTexture(button);
 
         // Here, we pass the game to the joinGame method directly in the lambda
@@ -59,12 +60,12 @@ public class ButtonFactory {
         PositionComponent positionComponent = new PositionComponent(position, z_index);
         SpriteComponent spriteComponent = new SpriteComponent(texture, size);
 
-        Entity buttonEntity = new Entity();
+        Entity buttonEntity = ecs.createEntity();
         buttonEntity.addComponent(ButtonComponent.class, buttonComponent);
         buttonEntity.addComponent(PositionComponent.class, positionComponent);
         buttonEntity.addComponent(SpriteComponent.class, spriteComponent);
 
-        ECSManager.getInstance().addLocalEntity(buttonEntity);
+        ecs.addLocalEntity(buttonEntity);
         return buttonEntity;
     }
 
@@ -6,6 +6,7 @@ import java.util.UUID;
 
 import com.softwarearchitecture.game_client.Controllers;
 import com.softwarearchitecture.game_client.TexturePack;
+import com.softwarearchitecture.game_server.GameServer;
 import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
 import com.softwarearchitecture.ecs.components.PositionComponent;
@@ -41,27 +42,27 @@ public class ChooseMap extends State implements Observer {
     protected void activate() {
         // Set background image
         String backgroundPath = TexturePack.BACKGROUND_MULTIPLAYER;
-        Entity background = new Entity();
+        Entity background = ecs.createEntity();
         SpriteComponent backgroundSprite = new SpriteComponent(backgroundPath, new Vector2(1, 1));
         PositionComponent backgroundPosition = new PositionComponent(new Vector2(0f, 0f), PAGE_Z_INDEX);
         background.addComponent(SpriteComponent.class, backgroundSprite);
         background.addComponent(PositionComponent.class, backgroundPosition);
-        ECSManager.getInstance().addLocalEntity(background);
+        ecs.addLocalEntity(background);
         System.out.println("Menu activated");
 
         // Add systems to the ECSManager
-        RenderingSystem renderingSystem = new RenderingSystem(defaultControllers.graphicsController);
-        InputSystem inputSystem = new InputSystem(defaultControllers.inputController);
-        ECSManager.getInstance().addSystem(renderingSystem);
-        ECSManager.getInstance().addSystem(inputSystem);
+        RenderingSystem renderingSystem = new RenderingSystem(ecs, defaultControllers.graphicsController);
+        InputSystem inputSystem = new InputSystem(ecs, defaultControllers.inputController);
+        ecs.addSystem(renderingSystem);
+        ecs.addSystem(inputSystem);
 
         // Add the choose map
-        Entity logo = new Entity();
+        Entity logo = ecs.createEntity();
         SpriteComponent logoSprite = new SpriteComponent(TexturePack.CHOOSE_MAP, new Vector2(0.35f, 0.06f));
         PositionComponent logoPosition = new PositionComponent(new Vector2(0.5f - 0.35f / 2, 0.75f), TEXT_Z_INDEX);
         logo.addComponent(SpriteComponent.class, logoSprite);
         logo.addComponent(PositionComponent.class, logoPosition);
-        ECSManager.getInstance().addLocalEntity(logo);
+        ecs.addLocalEntity(logo);
 
         // Set up the UI elements
         List<Entity> buttons = new ArrayList<>();
@@ -73,18 +74,18 @@ public class ChooseMap extends State implements Observer {
         // TODO: Make map fetching dynamic
 
         // Create button rectangles
-        buttons.add(ButtonFactory.createAndAddButtonEntity(ButtonEnum.ABYSS,
+        buttons.add(ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.ABYSS,
                 new Vector2(0.5f - buttonWidth - 0.01f, translateY + 0.25f),
                 new Vector2(buttonWidth, buttonHeight), this, BUTTON_Z_INDEX));
-        buttons.add(ButtonFactory.createAndAddButtonEntity(ButtonEnum.CLEARING,
+        buttons.add(ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.CLEARING,
                 new Vector2(0.5f + 0.01f, translateY + 0.25f),
                 new Vector2(buttonWidth, buttonHeight), this, BUTTON_Z_INDEX));
-        buttons.add(ButtonFactory.createAndAddButtonEntity(ButtonEnum.BACK,
+        buttons.add(ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.BACK,
                 new Vector2(0.495f - 0.35f / 2, translateY),
                 new Vector2(0.35f, 0.1f), this, BUTTON_Z_INDEX));
 
         // Create first Preview Image
-        Entity mapPreview = new Entity();
+        Entity mapPreview = ecs.createEntity();
         String imagePath = TexturePack.PREVIEW_ABYSS;
         SpriteComponent mapPreviewSprite = new SpriteComponent(imagePath,
                 new Vector2(buttonWidth, buttonHeight - 0.05f)); // Adjust the size as necessary
@@ -94,10 +95,10 @@ public class ChooseMap extends State implements Observer {
                                                                                                    // necessary
         mapPreview.addComponent(SpriteComponent.class, mapPreviewSprite);
         mapPreview.addComponent(PositionComponent.class, mapPreviewPosition);
-        ECSManager.getInstance().addLocalEntity(mapPreview);
+        ecs.addLocalEntity(mapPreview);
 
         // Create second Preview Image
-        Entity mapPreview2 = new Entity();
+        Entity mapPreview2 = ecs.createEntity();
         String imagePath2 = TexturePack.PREVIEW_CLEARING;
         SpriteComponent mapPreviewSprite2 = new SpriteComponent(imagePath2,
                 new Vector2(buttonWidth, buttonHeight - 0.05f)); // Adjust the size as necessary
@@ -107,7 +108,7 @@ public class ChooseMap extends State implements Observer {
                                                                                                     // necessary
         mapPreview2.addComponent(SpriteComponent.class, mapPreviewSprite2);
         mapPreview2.addComponent(PositionComponent.class, mapPreviewPosition2);
-        ECSManager.getInstance().addLocalEntity(mapPreview2);
+        ecs.addLocalEntity(mapPreview2);
     }
 
     /**
@@ -141,25 +142,30 @@ public class ChooseMap extends State implements Observer {
             default:
                 throw new IllegalArgumentException("Invalid button type");
         }
-        startServer(map);
+        if (!startServer(map)) {
+            return;
+        }
         screenManager.setIsLocalServer(!isMultiplayer);
 
         screenManager.nextState(new InGame(defaultControllers, yourId, map));
     }
 
-    private void startServer(String mapName) {
-        // Start the server
-        new Thread(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    System.out.println("Starting server on a new thread");
-                    defaultControllers.gameServer.run(mapName, isMultiplayer);
-                } catch (Exception e) {
-                    System.out.println("Error running server: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
-        }, "ServerThread").start();
+    /**
+     * Hands a new game server to the host, which runs it on its shared workers.
+     *
+     * @return {@code false} if the host did not admit the game.
+     */
+    private boolean startServer(String mapName) {
+        GameServer gameServer = new GameServer(defaultControllers.serverMessagingController,
+                defaultControllers.localServerMessagingController, yourId,
+                defaultControllers.graphicsController.getAspectRatio(), mapName, isMultiplayer);
+        try {
+            defaultControllers.gameServerHost.host(gameServer);
+        } catch (IllegalStateException e) {
+            System.out.println("Error starting server: " + e.getMessage());
+            return false;
+        }
+        screenManager.setHostedGame(gameServer);
+        return true;
     }
 }
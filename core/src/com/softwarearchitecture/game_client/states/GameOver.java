@@ -2,7 +2,6 @@ package com.softwarearchitecture.game_client.states;
 
 import java.util.UUID;
 
-import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
 import com.softwarearchitecture.ecs.components.ButtonComponent.ButtonEnum;
 import com.softwarearchitecture.ecs.systems.InputSystem;
@@ -29,26 +28,26 @@ public class GameOver extends State implements Observer {
     @Override
     protected void activate() {
         // Clear current game UI components
-        ECSManager.getInstance().clearLocalEntities();
+        ecs.clearLocalEntities();
 
         // Display Game Over text
-        Entity gameOverTextEntity = new Entity();
+        Entity gameOverTextEntity = ecs.createEntity();
         TextComponent gameOverText = new TextComponent(title, new Vector2(0.1f, 0.1f));
         gameOverText.setColor(new Vector3(1f, 0f, 0f)); // Red text
         PositionComponent textPosition = new PositionComponent(new Vector2(0.34f, 0.56f), 10); // Position near the top and centered
         gameOverTextEntity.addComponent(TextComponent.class, gameOverText);
         gameOverTextEntity.addComponent(PositionComponent.class, textPosition);
-        ECSManager.getInstance().addLocalEntity(gameOverTextEntity);
+        ecs.addLocalEntity(gameOverTextEntity);
 
         // Create button to return to main menu using ButtonFactory
         Vector2 mainMenuButtonSize = new Vector2(0.2f, 0.1f);
-        Entity mainMenuButton = ButtonFactory.createAndAddButtonEntity(ButtonEnum.BACK_MENU, new Vector2(0.4f, 0.4f), mainMenuButtonSize, this, 5);
-        ECSManager.getInstance().addLocalEntity(mainMenuButton);
+        Entity mainMenuButton = ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.BACK_MENU, new Vector2(0.4f, 0.4f), mainMenuButtonSize, this, 5);
+        ecs.addLocalEntity(mainMenuButton);
 
-        InputSystem inputSystem = new InputSystem(defaultControllers.inputController);
-        RenderingSystem renderingSystem = new RenderingSystem(defaultControllers.graphicsController);
-        ECSManager.getInstance().addSystem(inputSystem);
-        ECSManager.getInstance().addSystem(renderingSystem);
+        InputSystem inputSystem = new InputSystem(ecs, defaultControllers.inputController);
+        RenderingSystem renderingSystem = new RenderingSystem(ecs, defaultControllers.graphicsController);
+        ecs.addSystem(inputSystem);
+        ecs.addSystem(renderingSystem);
     }
 
     @Override
@@ -42,42 +42,49 @@ public class Highscores extends State implements Observer {
         String backgroundPath = TexturePack.BACKGROUND_TOR;
         SpriteComponent backgroundSprite = new SpriteComponent(backgroundPath, new Vector2(1, 1));
         PositionComponent backgroundPosition = new PositionComponent(new Vector2(0f, 0f), -1);
-        Entity background = new Entity();
+        Entity background = ecs.createEntity();
         background.addComponent(SpriteComponent.class, backgroundSprite);
         background.addComponent(PositionComponent.class, backgroundPosition);
-        ECSManager.getInstance().addLocalEntity(background);
+        ecs.addLocalEntity(background);
         
 
 
         // Add the sign
-        Entity board = new Entity();
+        Entity board = ecs.createEntity();
         SpriteComponent logoSprite = new SpriteComponent(TexturePack.BIG_EMPTY_SING, new Vector2(0.5f, 1f));
         PositionComponent logoPosition = new PositionComponent(new Vector2(0.5f - 0.25f, 0f), 1);
         board.addComponent(SpriteComponent.class, logoSprite);
         board.addComponent(PositionComponent.class, logoPosition);
-        ECSManager.getInstance().addLocalEntity(board);
+        ecs.addLocalEntity(board);
 
-        Entity logoTextEntity = new Entity();
+        Entity logoTextEntity = ecs.createEntity();
         TextComponent logoText = new TextComponent("Highscores", new Vector2(0.05f * 1.5f, 0.05f * 1.5f));
         PositionComponent logoTextPosition = new PositionComponent(new Vector2(0.5f - 0.13f, 0.6f), 1);
         logoTextEntity.addComponent(TextComponent.class, logoText);
         logoTextEntity.addComponent(PositionComponent.class, logoTextPosition);
-        ECSManager.getInstance().addLocalEntity(logoTextEntity);
+        ecs.addLocalEntity(logoTextEntity);
         
         // add buttons
-        ButtonFactory.createAndAddButtonEntity(ButtonEnum.BACK, new Vector2(0.5f - 0.30f / 2f, 0.10f),
+        ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.BACK, new Vector2(0.5f - 0.30f / 2f, 0.10f),
         new Vector2(0.30f, 0.10f), this, 3);
         
         
-        // Add highscores
+        // Add highscores once they are loaded
+        whenLoaded(defaultControllers.onlineClientMessagingController.getHighScores(), this::showHighScores);
 
-        List<Score> allScores = defaultControllers.onlineClientMessagingController.getAllHighScores();
-        
-        // Find the top scores
-        List<Score> highScores = allScores.subList(0, Math.min(MAX_HIGHSCORES, allScores.size()));
-                for (int i = 0; i < highScores.size(); i++) {
+        // Add systems to the ECSManager
+        RenderingSystem renderingSystem = new RenderingSystem(ecs, defaultControllers.graphicsController);
+        InputSystem inputSystem = new InputSystem(ecs, defaultControllers.inputController);
+        ecs.addSystem(renderingSystem);
+        ecs.addSystem(inputSystem);
+    }
+
+    private void showHighScores(List<Score> bestScores) {
+        // The scores are sorted best first, only the top ones fit the board
+        List<Score> highScores = bestScores.subList(0, Math.min(MAX_HIGHSCORES, bestScores.size()));
+        for (int i = 0; i < highScores.size(); i++) {
             
-            Entity scoreEntity = new Entity();
+            Entity scoreEntity = ecs.createEntity();
             String idText = highScores.get(i).getGameId().toString();
             Vector2 scoreSize = new Vector2(0.05f * 0.8f, 0.05f * 0.8f);
             TextComponent scoreText = new TextComponent(idText.substring(0, 12) + " Survived " + highScores.get(i).getWavesSurvived() + " waves", scoreSize);
@@ -85,14 +92,7 @@ public class Highscores extends State implements Observer {
 
             scoreEntity.addComponent(TextComponent.class, scoreText); 
             scoreEntity.addComponent(PositionComponent.class, scorePosition);
-            ECSManager.getInstance().addLocalEntity(scoreEntity);
+            ecs.addLocalEntity(scoreEntity);
         }
-
-        // Add systems to the ECSManager
-        RenderingSystem renderingSystem = new RenderingSystem(defaultControllers.graphicsController);
-        InputSystem inputSystem = new InputSystem(defaultControllers.inputController);
-        ECSManager.getInstance().addSystem(renderingSystem);
-        ECSManager.getInstance().addSystem(inputSystem);
     }
-
 }
@@ -27,14 +27,14 @@ public class HostLobby extends State implements Observer {
     protected void activate() {
         // Set background image
         String backgroundPath = TexturePack.BACKGROUND_ABYSS;
-        Entity background = new Entity();
+        Entity background = ecs.createEntity();
         SpriteComponent backgroundSprite = new SpriteComponent(backgroundPath, new Vector2(1, 1));
         PositionComponent backgroundPosition = new PositionComponent(new Vector2(0, 0), -1);
         background.addComponent(SpriteComponent.class, backgroundSprite);
         background.addComponent(PositionComponent.class, backgroundPosition);
         TextComponent textComponent = new TextComponent("Host lobby!", new Vector2(0.05f, 0.05f));
         background.addComponent(TextComponent.class, textComponent);
-        ECSManager.getInstance().addLocalEntity(background);
+        ecs.addLocalEntity(background);
 
         // Set up the UI elements
         List<ButtonEnum> buttonTypes = new ArrayList<>();
@@ -43,10 +43,10 @@ public class HostLobby extends State implements Observer {
         buttons = createButtons(buttonTypes);
 
         // Add systems to the ECSManager
-        RenderingSystem renderingSystem = new RenderingSystem(this.defaultControllers.graphicsController);
-        InputSystem inputSystem = new InputSystem(this.defaultControllers.inputController);
-        ECSManager.getInstance().addSystem(renderingSystem);
-        ECSManager.getInstance().addSystem(inputSystem);
+        RenderingSystem renderingSystem = new RenderingSystem(ecs, this.defaultControllers.graphicsController);
+        InputSystem inputSystem = new InputSystem(ecs, this.defaultControllers.inputController);
+        ecs.addSystem(renderingSystem);
+        ecs.addSystem(inputSystem);
     }
 
     /**
@@ -72,7 +72,7 @@ public class HostLobby extends State implements Observer {
             Rectangle rectangle = buttonRectangles.get(i);
             Vector2 buttonPosition = rectangle.getPosition();
             Vector2 buttonDimentions = new Vector2(rectangle.getWidth(), rectangle.getHeight());
-            buttons.add(ButtonFactory.createAndAddButtonEntity(buttonTypes.get(i), buttonPosition, buttonDimentions,
+            buttons.add(ButtonFactory.createAndAddButtonEntity(ecs, buttonTypes.get(i), buttonPosition, buttonDimentions,
                     this, 0));
         }
 
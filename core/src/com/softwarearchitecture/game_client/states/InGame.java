@@ -2,7 +2,6 @@ package com.softwarearchitecture.game_client.states;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 import java.util.UUID;
 
 import com.softwarearchitecture.ecs.ComponentManager;
@@ -30,7 +29,7 @@ public class InGame extends State implements Observer, GameOverObserver {
 
     private CardType selectedCardType = null;
     private List<Entity> cardButtonEntities = new ArrayList<>();
-    // private ComponentManager<SoundComponent> soundManager = ECSManager.getInstance().getOrDefaultComponentManager(SoundComponent.class);
+    // private ComponentManager<SoundComponent> soundManager = ecs.getOrDefaultComponentManager(SoundComponent.class);
     
     protected InGame(Controllers defaultControllers, UUID yourId, String mapName)  {
         super(defaultControllers, yourId);
@@ -40,16 +39,14 @@ public class InGame extends State implements Observer, GameOverObserver {
     @Override
     protected void activate() {
         // Make a button that covers the whole screen and sends a message to the server when clicked
-        Entity screenTouch = new Entity();
+        Entity screenTouch = ecs.createEntity();
         Runnable callback = () -> {
             System.out.println("Screen touched at: " + defaultControllers.inputController.getLastReleaseLocation().u + ", " + defaultControllers.inputController.getLastReleaseLocation().v);
-            ComponentManager<SpriteComponent> spriteManager = ECSManager.getInstance().getOrDefaultComponentManager(SpriteComponent.class);  
-            ComponentManager<TileComponent> tileManager = ECSManager.getInstance().getOrDefaultComponentManager(TileComponent.class);
-            ComponentManager<PositionComponent> positionManager = ECSManager.getInstance().getOrDefaultComponentManager(PositionComponent.class);
+            ComponentManager<SpriteComponent> spriteManager = ecs.getOrDefaultComponentManager(SpriteComponent.class);  
+            ComponentManager<TileComponent> tileManager = ecs.getOrDefaultComponentManager(TileComponent.class);
+            ComponentManager<PositionComponent> positionManager = ecs.getOrDefaultComponentManager(PositionComponent.class);
 
-            Set<Entity> entities = ECSManager.getInstance().getLocalEntities();
-            entities.addAll(ECSManager.getInstance().getRemoteEntities());
-            for (Entity entity : entities) {
+            for (Entity entity : ecs.getView(SpriteComponent.class, TileComponent.class, PositionComponent.class)) {
                 if (spriteManager.getComponent(entity).isPresent() && tileManager.getComponent(entity).isPresent() && positionManager.getComponent(entity).isPresent()) {
                     SpriteComponent sprite = spriteManager.getComponent(entity).get();
                     PositionComponent position = positionManager.getComponent(entity).get();
@@ -68,14 +65,14 @@ public class InGame extends State implements Observer, GameOverObserver {
 
         ButtonComponent button = new ButtonComponent(new Vector2(0,0), new Vector2(1,1), ButtonEnum.TILE, 0, callback);
         screenTouch.addComponent(ButtonComponent.class, button);
-        ECSManager.getInstance().addLocalEntity(screenTouch);
+        ecs.addLocalEntity(screenTouch);
         System.out.println("Added screen touch button");
 
 
         // Buttons
-        Entity backButton = ButtonFactory.createAndAddButtonEntity(ButtonEnum.BACK, new Vector2(0, 1),
+        Entity backButton = ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.BACK, new Vector2(0, 1),
                 new Vector2(0.1f, 0.2f), this, 0);
-        ECSManager.getInstance().addLocalEntity(backButton);
+        ecs.addLocalEntity(backButton);
 
 
         // TODO: Check if multiplayer and add multiplayer-specific button functionality
@@ -84,17 +81,17 @@ public class InGame extends State implements Observer, GameOverObserver {
 
 
         // Add systems to the ECSManager
-        RenderingSystem renderingSystem = new RenderingSystem(defaultControllers.graphicsController);
-        InputSystem inputSystem = new InputSystem(defaultControllers.inputController);
-        MovementSystem movementSystem = new MovementSystem();
-        GameOverSystem gameOverSystem = new GameOverSystem(this);
-        AudioSystem audioSystem = new AudioSystem(defaultControllers.soundController);
-
-        ECSManager.getInstance().addSystem(renderingSystem);
-        ECSManager.getInstance().addSystem(inputSystem);
-        ECSManager.getInstance().addSystem(movementSystem);
-        ECSManager.getInstance().addSystem(gameOverSystem);
-        ECSManager.getInstance().addSystem(audioSystem);
+        RenderingSystem renderingSystem = new RenderingSystem(ecs, defaultControllers.graphicsController);
+        InputSystem inputSystem = new InputSystem(ecs, defaultControllers.inputController);
+        MovementSystem movementSystem = new MovementSystem(ecs);
+        GameOverSystem gameOverSystem = new GameOverSystem(ecs, this);
+        AudioSystem audioSystem = new AudioSystem(ecs, defaultControllers.soundController);
+
+        ecs.addSystem(renderingSystem);
+        ecs.addSystem(inputSystem);
+        ecs.addSystem(movementSystem);
+        ecs.addSystem(gameOverSystem);
+        ecs.addSystem(audioSystem);
     }
 
     @Override
@@ -114,31 +111,31 @@ public class InGame extends State implements Observer, GameOverObserver {
         String menuBackgroundTexture = TexturePack.BOARD;
 
         // Create menu background entity
-        Entity menuBackground = new Entity();
+        Entity menuBackground = ecs.createEntity();
         SpriteComponent menuBackgroundSprite = new SpriteComponent(menuBackgroundTexture,
                 new Vector2(0.4f, menuHeight));
         Vector2 position1 = new Vector2(0.58f, menuYPosition);
         PositionComponent menuBackgroundPosition = new PositionComponent(position1, 2);
         menuBackground.addComponent(SpriteComponent.class, menuBackgroundSprite);
         menuBackground.addComponent(PositionComponent.class, menuBackgroundPosition);
-        ECSManager.getInstance().addLocalEntity(menuBackground);
+        ecs.addLocalEntity(menuBackground);
 
         // Create buttons for each card type
         float buttonWidth = 0.065f;
         float buttonHeight = 0.185f;
         float gap = 0.005f;
         for (CardType type : CardType.values()) {
-            Entity card = CardFactory.createCard(type, new Vector2(0, 0), false);
+            Entity card = CardFactory.createCard(ecs, type, new Vector2(0, 0), false);
             Vector2 position2 = new Vector2(0.61f + type.ordinal() * (buttonWidth + gap), menuYPosition - 0.065f);
             Vector2 size = new Vector2(buttonWidth, buttonHeight);
             Entity button = createCardTypeButton(card, position2, size);
-            ECSManager.getInstance().addLocalEntity(button);
+            ecs.addLocalEntity(button);
         }
     }
 
     // Method to create a button for a card type
     private Entity createCardTypeButton(Entity cardEntity, Vector2 position, Vector2 size) {
-        Entity buttonEntity = new Entity();
+        Entity buttonEntity = ecs.createEntity();
         PositionComponent cardPosition = cardEntity.getComponent(PositionComponent.class).get();
         cardPosition.position = position;
         // Define the SpriteComponent for the button
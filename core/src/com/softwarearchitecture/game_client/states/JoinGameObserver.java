@@ -1,8 +1,8 @@
 package com.softwarearchitecture.game_client.states;
 
-import com.softwarearchitecture.game_server.GameState;
+import com.softwarearchitecture.game_client.LobbyEntry;
 
 public interface JoinGameObserver {
     
-    public void onJoinGame(GameState gameName);
+    public void onJoinGame(LobbyEntry game);
 }
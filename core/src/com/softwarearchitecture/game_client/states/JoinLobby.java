@@ -11,8 +11,8 @@ import com.softwarearchitecture.ecs.components.TextComponent;
 import com.softwarearchitecture.ecs.systems.InputSystem;
 import com.softwarearchitecture.ecs.systems.RenderingSystem;
 import com.softwarearchitecture.game_client.Controllers;
+import com.softwarearchitecture.game_client.LobbyEntry;
 import com.softwarearchitecture.game_client.TexturePack;
-import com.softwarearchitecture.game_server.GameState;
 import com.softwarearchitecture.ecs.components.ButtonComponent.ButtonEnum;
 import com.softwarearchitecture.math.Vector2;
 
@@ -21,6 +21,10 @@ public class JoinLobby extends State implements Observer, JoinGameObserver {
     private final int TEXT_Z_INDEX = PAGE_Z_INDEX + 20;
     private final int BUTTON_Z_INDEX = PAGE_Z_INDEX + 10;
     private final float gap = 0.16f;
+    /** The number of games that fit in the table */
+    private final int PAGE_SIZE = 3;
+    /** Whether the server has yet to answer a request to join a game */
+    private boolean joining = false;
 
     public JoinLobby(Controllers defaultControllers, UUID yourId) {
         super(defaultControllers, yourId);
@@ -30,34 +34,33 @@ public class JoinLobby extends State implements Observer, JoinGameObserver {
     protected void activate() {
         System.out.println("Join lobby activated");
         String backgroundPath = TexturePack.BACKGROUND_MULTIPLAYER;
-        Entity background = new Entity();
+        Entity background = ecs.createEntity();
         SpriteComponent backgroundSprite = new SpriteComponent(backgroundPath, new Vector2(1, 1));
         PositionComponent backgroundPosition = new PositionComponent(new Vector2(0, 0), PAGE_Z_INDEX);
         background.addComponent(SpriteComponent.class, backgroundSprite);
         background.addComponent(PositionComponent.class, backgroundPosition);
-        ECSManager.getInstance().addLocalEntity(background);
+        ecs.addLocalEntity(background);
 
         // Add a centered back button
         float backButtonWidth = 0.3f;
         float backButtonX = 0.5f - backButtonWidth / 2;
-        ButtonFactory.createAndAddButtonEntity(ButtonEnum.BACK, new Vector2(backButtonX, 0.1f),
+        ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.BACK, new Vector2(backButtonX, 0.1f),
                 new Vector2(backButtonWidth, 0.1f), this, BUTTON_Z_INDEX);
 
         // Add systems to the ECSManager
-        RenderingSystem renderingSystem = new RenderingSystem(defaultControllers.graphicsController);
-        InputSystem inputSystem = new InputSystem(defaultControllers.inputController);
-        ECSManager.getInstance().addSystem(renderingSystem);
-        ECSManager.getInstance().addSystem(inputSystem);
-
-        // Create buttons for joining a game based on the available games
-        List<GameState> games = defaultControllers.onlineClientMessagingController.getAllAvailableGames();
-        initializeJoinLobbyTable(games);
+        RenderingSystem renderingSystem = new RenderingSystem(ecs, defaultControllers.graphicsController);
+        InputSystem inputSystem = new InputSystem(ecs, defaultControllers.inputController);
+        ecs.addSystem(renderingSystem);
+        ecs.addSystem(inputSystem);
+
+        // Create buttons for joining a game based on the oldest open games, once they are loaded
+        whenLoaded(defaultControllers.onlineClientMessagingController.getAvailableGames(null, PAGE_SIZE), this::initializeJoinLobbyTable);
     }
 
-    private void initializeJoinLobbyTable(List<GameState> games) {
+    private void initializeJoinLobbyTable(List<LobbyEntry> games) {
         // Table background
-        Entity tableBackground = new Entity();
-        Entity joinLobbyText = new Entity();
+        Entity tableBackground = ecs.createEntity();
+        Entity joinLobbyText = ecs.createEntity();
         SpriteComponent logoSprite = new SpriteComponent(TexturePack.BIG_EMPTY_SING, new Vector2(0.55f, 1.1f));
         SpriteComponent joinLobbyTextSprite = new SpriteComponent(TexturePack.JOIN_LOBBY, new Vector2(0.4f, 0.1f));
         PositionComponent logoPosition = new PositionComponent(new Vector2(0.228f, 0f), PAGE_Z_INDEX + 1);
@@ -66,17 +69,17 @@ public class JoinLobby extends State implements Observer, JoinGameObserver {
         tableBackground.addComponent(PositionComponent.class, logoPosition);
         joinLobbyText.addComponent(SpriteComponent.class, joinLobbyTextSprite);
         joinLobbyText.addComponent(PositionComponent.class, joinLobbyPosition);
-        ECSManager.getInstance().addLocalEntity(tableBackground);
-        ECSManager.getInstance().addLocalEntity(joinLobbyText);
+        ecs.addLocalEntity(tableBackground);
+        ecs.addLocalEntity(joinLobbyText);
         // Table content
         float translateY = 0.48f;
 
         // create a fake list of placeholder games
 
-        for (GameState game : games) {
+        for (LobbyEntry game : games) {
             // Add the id and map name of as text components
-            String idText = "ID: " + game.gameID.toString();
-            String gameName = "MAP: " + game.mapName;
+            String idText = "ID: " + game.getGameId().toString();
+            String gameName = "MAP: " + game.getMapName();
             TextComponent textComponent = new TextComponent(idText.substring(0, 12),
                     new Vector2(0.02f * 0.8f, 0.05f * 0.8f));
             TextComponent mapComponent = new TextComponent(gameName, new Vector2(0.05f * 0.8f, 0.05f * 0.8f));
@@ -84,21 +87,21 @@ public class JoinLobby extends State implements Observer, JoinGameObserver {
                     TEXT_Z_INDEX);
             PositionComponent mapPosition = new PositionComponent(new Vector2(0.32f, translateY + 0.028f),
                     TEXT_Z_INDEX);
-            Entity idTextEntity = new Entity();
-            Entity mapTextEntity = new Entity();
+            Entity idTextEntity = ecs.createEntity();
+            Entity mapTextEntity = ecs.createEntity();
             idTextEntity.addComponent(TextComponent.class, textComponent);
             idTextEntity.addComponent(PositionComponent.class, textPosition);
             mapTextEntity.addComponent(TextComponent.class, mapComponent);
             mapTextEntity.addComponent(PositionComponent.class, mapPosition);
-            ECSManager.getInstance().addLocalEntity(idTextEntity);
-            ECSManager.getInstance().addLocalEntity(mapTextEntity);
+            ecs.addLocalEntity(idTextEntity);
+            ecs.addLocalEntity(mapTextEntity);
 
             // Add a join button current game
             ButtonEnum buttonType = ButtonEnum.AVAILABLE_LOBBY;
             Vector2 buttonWidth = new Vector2(0.4f, 0.16f);
             float buttonX = 0.5f - buttonWidth.x / 2;
             Vector2 position = new Vector2(buttonX, translateY);
-            ButtonFactory.createAndAddButtonEntity(buttonType, position, buttonWidth, this, game, BUTTON_Z_INDEX);
+            ButtonFactory.createAndAddButtonEntity(ecs, buttonType, position, buttonWidth, this, game, BUTTON_Z_INDEX);
             translateY -= gap;
         }
     }
@@ -121,25 +124,31 @@ public class JoinLobby extends State implements Observer, JoinGameObserver {
     }
 
     @Override
-    public void onJoinGame(GameState game) {
+    public void onJoinGame(LobbyEntry game) {
+        if (joining) {
+            return;
+        }
+        joining = true;
 
         // Send a message to the server to join the game
-        UUID gameID = game.gameID;
-        boolean didJoin = defaultControllers.onlineClientMessagingController.joinGame(gameID, yourId);
-        // Wait for the server to respond
-        if (didJoin) {
-            screenManager.setGameId(gameID);
-            screenManager.setIsLocalServer(false);
-            // Change the state to the game
-            screenManager.nextState(new InGame(defaultControllers, yourId, getGameName(game)));
-        } else {
-            // Notify the user that the game is full
-            System.out.println("Game is full");
-        }
+        UUID gameID = game.getGameId();
+        // The lobby keeps being drawn while the server responds
+        whenLoaded(defaultControllers.onlineClientMessagingController.joinGame(gameID, yourId), didJoin -> {
+            joining = false;
+            if (didJoin) {
+                screenManager.setGameId(gameID);
+                screenManager.setIsLocalServer(false);
+                // Change the state to the game
+                screenManager.nextState(new InGame(defaultControllers, yourId, getGameName(game)));
+            } else {
+                // Notify the user that the game is full
+                System.out.println("Game is full");
+            }
+        });
     }
 
-    private String getGameName(GameState game) {
+    private String getGameName(LobbyEntry game) {
         // TODO: Get the name of the game
-        return game.mapName;
+        return game.getMapName();
     }
 }
@@ -36,30 +36,30 @@ public class Menu extends State implements Observer {
     protected void activate() {
         // Set background image
         String backgroundPath = TexturePack.BACKGROUND_MAIN_MENU;
-        Entity background = new Entity();
+        Entity background = ecs.createEntity();
         SpriteComponent backgroundSprite = new SpriteComponent(backgroundPath, new Vector2(1, 1));
         PositionComponent backgroundPosition = new PositionComponent(new Vector2(0f, 0f), -1);
         background.addComponent(SpriteComponent.class, backgroundSprite);
         background.addComponent(PositionComponent.class, backgroundPosition);
-        ECSManager.getInstance().addLocalEntity(background);
+        ecs.addLocalEntity(background);
         System.out.println("Menu activated");
 
         // Add systems to the ECSManager
-        RenderingSystem renderingSystem = new RenderingSystem(defaultControllers.graphicsController);
-        InputSystem inputSystem = new InputSystem(defaultControllers.inputController);
-        ComponentManager<SoundComponent> audioManager = ECSManager.getInstance().getOrDefaultComponentManager(SoundComponent.class);
-        AudioSystem audioSystem = new AudioSystem(defaultControllers.soundController);
-        ECSManager.getInstance().addSystem(renderingSystem);
-        ECSManager.getInstance().addSystem(inputSystem);
-        ECSManager.getInstance().addSystem(audioSystem);
+        RenderingSystem renderingSystem = new RenderingSystem(ecs, defaultControllers.graphicsController);
+        InputSystem inputSystem = new InputSystem(ecs, defaultControllers.inputController);
+        ComponentManager<SoundComponent> audioManager = ecs.getOrDefaultComponentManager(SoundComponent.class);
+        AudioSystem audioSystem = new AudioSystem(ecs, defaultControllers.soundController);
+        ecs.addSystem(renderingSystem);
+        ecs.addSystem(inputSystem);
+        ecs.addSystem(audioSystem);
 
         // Add the logo at the top
-        Entity logo = new Entity();
+        Entity logo = ecs.createEntity();
         SpriteComponent logoSprite = new SpriteComponent(TexturePack.LOGO, new Vector2(0.5f, 0.5f));
         PositionComponent logoPosition = new PositionComponent(new Vector2(0.5f - 0.25f, 0.52f), 1);
         logo.addComponent(SpriteComponent.class, logoSprite);
         logo.addComponent(PositionComponent.class, logoPosition);
-        ECSManager.getInstance().addLocalEntity(logo);
+        ecs.addLocalEntity(logo);
 
         // Set up the UI elements
         List<Entity> buttons = new ArrayList<>();
@@ -69,27 +69,27 @@ public class Menu extends State implements Observer {
         float translateY = 0.05f;
 
         // Create button rectangles
-        buttons.add(ButtonFactory.createAndAddButtonEntity(ButtonEnum.PLAY,
+        buttons.add(ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.PLAY,
                 new Vector2(0.5f - buttonWidth / 2, translateY + (buttonHeight + gap) * 4),
                 new Vector2(buttonWidth, buttonHeight), this, 1));
-        buttons.add(ButtonFactory.createAndAddButtonEntity(ButtonEnum.MULTI_PLAYER,
+        buttons.add(ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.MULTI_PLAYER,
                 new Vector2(0.5f - buttonWidth / 2, translateY + (buttonHeight + gap) * 3),
                 new Vector2(buttonWidth, buttonHeight), this, 1));
-        buttons.add(ButtonFactory.createAndAddButtonEntity(ButtonEnum.TUTORIAL,
+        buttons.add(ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.TUTORIAL,
                 new Vector2(0.5f - buttonWidth / 2, translateY + (buttonHeight + gap) * 2),
                 new Vector2(buttonWidth, buttonHeight), this, 1));
-        buttons.add(ButtonFactory.createAndAddButtonEntity(ButtonEnum.OPTIONS,
+        buttons.add(ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.OPTIONS,
                 new Vector2(0.5f - buttonWidth / 2, translateY + (buttonHeight + gap) * 1),
                 new Vector2(buttonWidth, buttonHeight), this, 1));
-        buttons.add(ButtonFactory.createAndAddButtonEntity(ButtonEnum.QUIT,
+        buttons.add(ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.QUIT,
                 new Vector2(0.5f - buttonWidth / 2, translateY + (buttonHeight + gap) * 0),
                 new Vector2(buttonWidth, buttonHeight), this, 1));
 
         // Set up background music
-        Entity backgroundMusicEntity = new Entity();
+        Entity backgroundMusicEntity = ecs.createEntity();
         SoundComponent backgroundMusic = new SoundComponent(AudioPack.BACKGROUND_VIKING_CHOIR, true, true); // true for looping
         backgroundMusicEntity.addComponent(SoundComponent.class, backgroundMusic);
-        ECSManager.getInstance().addLocalEntity(backgroundMusicEntity);
+        ecs.addLocalEntity(backgroundMusicEntity);
     }
 
     /**
@@ -34,27 +34,27 @@ public class Multiplayer extends State implements Observer {
     protected void activate() {
         // Set background image
         String backgroundPath = TexturePack.BACKGROUND_MULTIPLAYER;
-        Entity background = new Entity();
+        Entity background = ecs.createEntity();
         SpriteComponent backgroundSprite = new SpriteComponent(backgroundPath, new Vector2(1, 1));
         PositionComponent backgroundPosition = new PositionComponent(new Vector2(0f, 0f), -1);
         background.addComponent(SpriteComponent.class, backgroundSprite);
         background.addComponent(PositionComponent.class, backgroundPosition);
-        ECSManager.getInstance().addLocalEntity(background);
+        ecs.addLocalEntity(background);
         System.out.println("Menu activated");
 
         // Add systems to the ECSManager
-        RenderingSystem renderingSystem = new RenderingSystem(defaultControllers.graphicsController);
-        InputSystem inputSystem = new InputSystem(defaultControllers.inputController);
-        ECSManager.getInstance().addSystem(renderingSystem);
-        ECSManager.getInstance().addSystem(inputSystem);
+        RenderingSystem renderingSystem = new RenderingSystem(ecs, defaultControllers.graphicsController);
+        InputSystem inputSystem = new InputSystem(ecs, defaultControllers.inputController);
+        ecs.addSystem(renderingSystem);
+        ecs.addSystem(inputSystem);
 
         // Add the sign in button
-        Entity logo = new Entity();
+        Entity logo = ecs.createEntity();
         SpriteComponent logoSprite = new SpriteComponent(TexturePack.SIGN, new Vector2(0.5f, 1.2f));
         PositionComponent logoPosition = new PositionComponent(new Vector2(0.5f - 0.25f, -0.1f), 1);
         logo.addComponent(SpriteComponent.class, logoSprite);
         logo.addComponent(PositionComponent.class, logoPosition);
-        ECSManager.getInstance().addLocalEntity(logo);
+        ecs.addLocalEntity(logo);
 
         // Set up the UI elements
         List<Entity> buttons = new ArrayList<>();
@@ -64,16 +64,16 @@ public class Multiplayer extends State implements Observer {
         float translateY = 0.13f;
 
         // Create button rectangles
-        buttons.add(ButtonFactory.createAndAddButtonEntity(ButtonEnum.JOIN,
+        buttons.add(ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.JOIN,
                 new Vector2(0.403f - buttonWidth / 2, translateY + (buttonHeight + gap) * 2),
                 new Vector2(buttonWidth, buttonHeight), this, 2));
-        buttons.add(ButtonFactory.createAndAddButtonEntity(ButtonEnum.HOST,
+        buttons.add(ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.HOST,
                 new Vector2(0.503f, translateY + (buttonHeight + gap) * 2),
                 new Vector2(buttonWidth, buttonHeight), this, 2));
-        buttons.add(ButtonFactory.createAndAddButtonEntity(ButtonEnum.HIGHSCORES,
+        buttons.add(ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.HIGHSCORES,
                 new Vector2(0.495f - 0.35f / 2, translateY + (buttonHeight + gap) * 1),
                 new Vector2(0.35f, buttonHeight), this, 2));
-        buttons.add(ButtonFactory.createAndAddButtonEntity(ButtonEnum.BACK_MENU,
+        buttons.add(ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.BACK_MENU,
                 new Vector2(0.495f - 0.35f / 2, translateY + (buttonHeight + gap) * 0),
                 new Vector2(0.35f, buttonHeight), this, 2));
     }
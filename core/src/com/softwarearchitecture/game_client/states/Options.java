@@ -28,37 +28,37 @@ public class Options extends State implements Observer {
     protected void activate() {
         // Background
         String backgroundPath = TexturePack.BACKGROUND_GRIFFIN;
-        Entity background = new Entity();
+        Entity background = ecs.createEntity();
         SpriteComponent backgroundSprite = new SpriteComponent(backgroundPath, new Vector2(1, 1));
         PositionComponent backgroundPosition = new PositionComponent(new Vector2(0, 0), -1);
         background.addComponent(SpriteComponent.class, backgroundSprite);
         background.addComponent(PositionComponent.class, backgroundPosition);
-        ECSManager.getInstance().addLocalEntity(background);
+        ecs.addLocalEntity(background);
 
         // Buttons
-        ButtonFactory.createAndAddButtonEntity(ButtonEnum.BACK, new Vector2(0.5f - 0.30f / 2f, 0.10f),
+        ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.BACK, new Vector2(0.5f - 0.30f / 2f, 0.10f),
                 new Vector2(0.30f, 0.10f), this, 0);
 
         // Volume options
-        ButtonFactory.createAndAddButtonEntity(ButtonEnum.PLUSS, new Vector2(0.61f, 0.74f),
+        ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.PLUSS, new Vector2(0.61f, 0.74f),
                 new Vector2(0.07f, 0.07f), this, 0);
-        ButtonFactory.createAndAddButtonEntity(ButtonEnum.MINUS,
+        ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.MINUS,
                 new Vector2(0.33f, 0.74f), new Vector2(0.07f, 0.07f), this, 0);
-        ButtonFactory.createAndAddButtonEntity(ButtonEnum.MUTE,
+        ButtonFactory.createAndAddButtonEntity(ecs, ButtonEnum.MUTE,
                 new Vector2(0.71f, 0.74f), new Vector2(0.07f, 0.07f), this, 0);
-        volumeText = new Entity();
+        volumeText = ecs.createEntity();
         TextComponent volumeTextComponent = new TextComponent(
                 "Volume: " + defaultControllers.soundController.getVolume(), new Vector2(0.05f, 0.05f));
         PositionComponent volumeTextPosition = new PositionComponent(new Vector2(0.43f, 0.75f), 0);
         volumeText.addComponent(TextComponent.class, volumeTextComponent);
         volumeText.addComponent(PositionComponent.class, volumeTextPosition);
-        ECSManager.getInstance().addLocalEntity(volumeText);
+        ecs.addLocalEntity(volumeText);
 
         // Add systems to the ECSManager
-        RenderingSystem renderingSystem = new RenderingSystem(defaultControllers.graphicsController);
-        InputSystem inputSystem = new InputSystem(defaultControllers.inputController);
-        ECSManager.getInstance().addSystem(renderingSystem);
-        ECSManager.getInstance().addSystem(inputSystem);
+        RenderingSystem renderingSystem = new RenderingSystem(ecs, defaultControllers.graphicsController);
+        InputSystem inputSystem = new InputSystem(ecs, defaultControllers.inputController);
+        ecs.addSystem(renderingSystem);
+        ecs.addSystem(inputSystem);
     }
 
     @Override
@@ -86,7 +86,7 @@ public class Options extends State implements Observer {
             default:
                 break;
         }
-        ComponentManager<TextComponent> textComponentManager = ECSManager.getInstance()
+        ComponentManager<TextComponent> textComponentManager = ecs
                 .getOrDefaultComponentManager(TextComponent.class);
         Optional<TextComponent> volumeTextComponent = textComponentManager.getComponent(volumeText);
         if (volumeTextComponent.isPresent()) {
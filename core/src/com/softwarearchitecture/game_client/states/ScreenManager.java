@@ -4,7 +4,8 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.UUID;
 
-import com.softwarearchitecture.ecs.ECSManager;
+import com.softwarearchitecture.ecs.World;
+import com.softwarearchitecture.game_server.GameServer;
 
 public class ScreenManager {
     /**
@@ -16,6 +17,10 @@ public class ScreenManager {
     private static ScreenManager instance = new ScreenManager();
     private UUID gameId;
     private boolean isLocalServer = false;
+    /** The game last started from this client, {@code null} if none */
+    private GameServer hostedGame;
+    /** The world shown on screen, shared by all states */
+    private final World world = new World();
     
     public static ScreenManager getInstance() {
         return instance;
@@ -29,7 +34,7 @@ public class ScreenManager {
     }
 
     public void nextState(State state) {
-        ECSManager.getInstance().clearLocalEntities();
+        world.getECSManager().clearLocalEntities();
         if (this.currentState != null) saveState(this.currentState);
         this.currentState = state;
         stateChanged = true;
@@ -58,6 +63,14 @@ public class ScreenManager {
         return this.gameId;
     }
 
+    public void setHostedGame(GameServer hostedGame) {
+        this.hostedGame = hostedGame;
+    }
+
+    public GameServer getHostedGame() {
+        return this.hostedGame;
+    }
+
     public boolean isLocalServer() {
         return isLocalServer;
     }
@@ -66,7 +79,18 @@ public class ScreenManager {
         this.isLocalServer = isLocal;
     }
 
+    /**
+     * @return The world shown on screen.
+     */
+    public World getWorld() {
+        return world;
+    }
+
     public <T> boolean isCurrentStateOfType(Class<T> classType) {
         return classType.isInstance(currentState);
     }
+
+    public boolean isCurrentState(State state) {
+        return currentState == state;
+    }
 }
@@ -2,6 +2,10 @@ package com.softwarearchitecture.game_client.states;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import com.badlogic.gdx.Gdx;
 
 import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
@@ -10,14 +14,19 @@ import com.softwarearchitecture.math.Vector2;
 
 public abstract class State {
     protected ScreenManager screenManager;
+    /** The manager of the client's world, shared by all states */
+    protected ECSManager ecs;
     protected Vector2 mouse = new Vector2(0, 0);
     protected List<Entity> buttons;
     protected Controllers defaultControllers;
     protected UUID yourId;
+    /** Counts the activations, so results requested by an earlier one are ignored */
+    private int activations = 0;
 
     protected State(Controllers defaultControllers, UUID yourId) {
         this.defaultControllers = defaultControllers;
         this.screenManager = ScreenManager.getInstance();
+        this.ecs = screenManager.getWorld().getECSManager();
         this.yourId = yourId;
     }
 
@@ -25,9 +34,26 @@ public abstract class State {
      * Initializes the state, clearing the ECSManager and activating the state.
      */
     public void init() {
-        ECSManager.getInstance().clearAll();
+        ecs.clearAll();
+        activations++;
         activate();
     }
+
+    /**
+     * Shows the result of a request once it arrives, on the render thread and only if
+     * this state is still on screen since the request was made.
+     *
+     * @param request The request, completed on any thread.
+     * @param onLoaded Adds the result to the state.
+     */
+    protected <T> void whenLoaded(CompletableFuture<T> request, Consumer<T> onLoaded) {
+        int activation = activations;
+        request.thenAccept(result -> Gdx.app.postRunnable(() -> {
+            if (activation == activations && screenManager.isCurrentState(this)) {
+                onLoaded.accept(result);
+            }
+        }));
+    }
     
     /**
      * Activates the state, setting up the ECSManager and the buttons.
@@ -0,0 +1,97 @@
+package com.softwarearchitecture.game_server;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.softwarearchitecture.game_client.TexturePack;
+
+/**
+ * Gives every texture of the {@link TexturePack} and every sound of the {@link AudioPack} a
+ * small integer id, so components, the network and the renderers refer to assets by id
+ * instead of by path.
+ * <p>
+ * The ids are assigned to the paths in sorted order, so the server and the client agree on
+ * them as long as they are built from the same packs. Id {@link #NONE} stands for no asset.
+ */
+public final class AssetRegistry {
+    /** Id of a missing asset */
+    public static final int NONE = 0;
+
+    /** Paths by id, index 0 is the missing asset */
+    private static final String[] paths;
+    private static final Map<String, Integer> ids = new HashMap<>();
+
+    static {
+        TreeSet<String> sorted = new TreeSet<>();
+        collectPaths(TexturePack.class, sorted);
+        collectPaths(AudioPack.class, sorted);
+        paths = new String[sorted.size() + 1];
+        int id = NONE + 1;
+        for (String path : sorted) {
+            paths[id] = path;
+            ids.put(path, id);
+            id++;
+        }
+    }
+
+    private AssetRegistry() {
+    }
+
+    private static void collectPaths(Class<?> pack, TreeSet<String> sorted) {
+        for (Field field : pack.getFields()) {
+            int modifiers = field.getModifiers();
+            if (field.getType() != String.class || !Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers)) {
+                continue;
+            }
+            try {
+                sorted.add((String) field.get(null));
+            } catch (IllegalAccessException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * @param path The path of a texture or sound of the packs, may be {@code null}.
+     * @return The id of the asset, {@link #NONE} for {@code null}.
+     */
+    public static int idOf(String path) throws IllegalArgumentException {
+        if (path == null) {
+            return NONE;
+        }
+        Integer id = ids.get(path);
+        if (id == null) {
+            throw new IllegalArgumentException("[ERROR] The asset is not in the texture or audio pack: " + path);
+        }
+        return id;
+    }
+
+    /**
+     * @param id The id of an asset.
+     * @return The path of the asset, {@code null} for {@link #NONE}.
+     */
+    public static String pathOf(int id) throws IllegalArgumentException {
+        if (!isValid(id)) {
+            throw new IllegalArgumentException("[ERROR] Unknown asset id: " + id);
+        }
+        return paths[id];
+    }
+
+    /**
+     * @param id An asset id.
+     * @return {@code true} if the id is {@link #NONE} or belongs to an asset.
+     */
+    public static boolean isValid(int id) {
+        return id >= NONE && id < paths.length;
+    }
+
+    /**
+     * @return The number of ids, including {@link #NONE}. Renderers can size their caches by it.
+     */
+    public static int size() {
+        return paths.length;
+    }
+}
@@ -1,6 +1,7 @@
 package com.softwarearchitecture.game_server;
 
 
+import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
 import com.softwarearchitecture.ecs.components.CostComponent;
 import com.softwarearchitecture.ecs.components.PlacedCardComponent;
@@ -20,7 +21,7 @@ public class CardFactory {
         TECHNOLOGY,
     }
 
-    public static Entity createCard(CardType type, Vector2 position, boolean placed) throws NullPointerException {
+    public static Entity createCard(ECSManager ecs, CardType type, Vector2 position, boolean placed) throws NullPointerException {
         if (type == null) {
             throw new IllegalArgumentException("Card type cannot be null");
         }
@@ -91,7 +92,7 @@ public class CardFactory {
         SoundComponent soundComponent = new SoundComponent(sound, false, false);
         CostComponent costComponent = new CostComponent(cost);
 
-        Entity cardEntity = new Entity();
+        Entity cardEntity = ecs.createEntity();
         cardEntity.addComponent(PlacedCardComponent.class, placedCardComponent);
         cardEntity.addComponent(PositionComponent.class, positionComponent);
         cardEntity.addComponent(SpriteComponent.class, spriteComponent);
@@ -3,6 +3,7 @@ package com.softwarearchitecture.game_server;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
 import com.softwarearchitecture.ecs.components.AnimationComponent;
 import com.softwarearchitecture.ecs.components.EnemyComponent;
@@ -23,7 +24,7 @@ public class EnemyFactory {
 
     }
 
-    public static Entity createEnemy(EnemyType enemyType, List<Tile> enemyPath, Vector2 tileSize)
+    public static Entity createEnemy(ECSManager ecs, EnemyType enemyType, List<Tile> enemyPath, Vector2 tileSize)
             throws IllegalArgumentException {
         List<String> textures = new ArrayList<String>();
         float tileHeight = tileSize.y;
@@ -184,7 +185,7 @@ public class EnemyFactory {
         MoneyComponent moneyComponent = new MoneyComponent(money);
         // TODO: Add target component if necessary
 
-        Entity enemyEntity = new Entity();
+        Entity enemyEntity = ecs.createEntity();
         enemyEntity.addComponent(EnemyComponent.class, enemyComponent);
         enemyEntity.addComponent(PositionComponent.class, positionComponent);
         enemyEntity.addComponent(AnimationComponent.class, animationComponent);
@@ -3,11 +3,14 @@ package com.softwarearchitecture.game_server;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
-import com.softwarearchitecture.clock.Clock;
+import com.softwarearchitecture.clock.FixedTimestep;
 import com.softwarearchitecture.ecs.ComponentManager;
 import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.ecs.ParallelSystemExecutor;
+import com.softwarearchitecture.ecs.World;
 import com.softwarearchitecture.ecs.components.CostComponent;
 import com.softwarearchitecture.ecs.components.HealthComponent;
 import com.softwarearchitecture.ecs.components.MoneyComponent;
@@ -33,21 +36,51 @@ import com.softwarearchitecture.math.Vector3;
 
 /**
  * Represents a game server that coordinates the lifecycle and state of a multiplayer game.
- * This server manages game creation, state updates, player actions, and the main game loop,
+ * This server manages game creation, state updates, player actions, and the game loop,
  * handling communication between clients and the server through message controllers.
  *
  * <p>Responsibilities include setting up the game environment, managing player connections,
  * updating the game state based on player inputs, and ensuring consistent game logic execution.</p>
+ *
+ * <p>A game server is one {@link Match}. It never blocks: every call to {@link #tick()}
+ * does one step of hosting, waiting for player two, running the game or winding it down,
+ * so many games can share the workers of a {@link GameServerHost}.</p>
  */
-public class GameServer {
-    private UUID gameId;
+public class GameServer implements Match {
+    /** How long the final state stays published after the village has fallen */
+    public static final long GAME_OVER_GRACE_PERIOD_MILLIS = 10_000;
+
+    private enum Stage {
+        HOSTING, WAITING_FOR_PLAYER, RUNNING, GAME_OVER, FINISHED
+    }
+
+    private volatile UUID gameId;
     private UUID playerOneID;
     private UUID playerTwoID;
     private ServerMessagingController onlineMessageController;
     private ServerMessagingController localMessageController;
+    private final ServerMessagingController messageController;
+    private final String mapName;
+    private final boolean isMultiplayer;
+    private final int ticksPerSecond;
+    private final int maxCatchUpSteps;
+    /** The executor of the host running the systems in parallel, {@code null} to run them in order */
+    private volatile ParallelSystemExecutor systemExecutor;
+
+    private Stage stage = Stage.HOSTING;
+    /** Completed once the new game is stored, {@code null} until it is created on the first tick */
+    private CompletableFuture<Boolean> created;
+    /** The world of the game, created on the first tick */
+    private World world;
+    private ECSManager ecs;
+    private GameState gameState;
+    private Entity village;
+    private ComponentManager<HealthComponent> healthManager;
+    private long gameOverTime;
 
     private Map gameMap;
     private float aspectRatio;
+    /** Seconds of simulated time the feedback stays on screen */
     private float feedbackDisplayTime = -1; 
     private Entity feedbackEntity;
 
@@ -61,32 +94,131 @@ public class GameServer {
      *                                communication.
      * @param playerOneID             The unique identifier for the first player in
      *                                the game.
+     * @param mapName                 The name of the map to use for setting up the
+     *                                game environment.
+     * @param isMultiplayer           A boolean indicating if the game will be
+     *                                multiplayer or single-player.
+     * @param ticksPerSecond          The number of simulation steps per second.
+     * @param maxCatchUpSteps         The most simulation steps run by one tick after
+     *                                the server has fallen behind.
      */
     public GameServer(ServerMessagingController onlineMessageController,
-            ServerMessagingController localMessageController, UUID playerOneID, float aspect_ratio) {
+            ServerMessagingController localMessageController, UUID playerOneID, float aspect_ratio,
+            String mapName, boolean isMultiplayer, int ticksPerSecond, int maxCatchUpSteps) {
         this.onlineMessageController = onlineMessageController;
         this.localMessageController = localMessageController;
         this.aspectRatio = aspect_ratio;
         this.playerOneID = playerOneID;
+        this.mapName = mapName;
+        this.isMultiplayer = isMultiplayer;
+        this.messageController = isMultiplayer ? onlineMessageController : localMessageController;
+        this.ticksPerSecond = ticksPerSecond;
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    /**
+     * Initializes a new game server simulating at the default tick rate of a
+     * {@link FixedTimestep}.
+     *
+     * @see #GameServer(ServerMessagingController, ServerMessagingController, UUID, float, String, boolean, int, int)
+     */
+    public GameServer(ServerMessagingController onlineMessageController,
+            ServerMessagingController localMessageController, UUID playerOneID, float aspect_ratio,
+            String mapName, boolean isMultiplayer) {
+        this(onlineMessageController, localMessageController, playerOneID, aspect_ratio, mapName, isMultiplayer,
+                FixedTimestep.DEFAULT_TICKS_PER_SECOND, FixedTimestep.DEFAULT_MAX_CATCH_UP_STEPS);
     }
 
     /**
-     * Starts the server, setting up the game environment and entering the main gameplay loop.
-     * Handles all aspects of game initialization including player joining and periodic state updates.
+     * Does one step of the game: creates it on the first tick and waits for it to be stored,
+     * then looks for player two once per tick, then runs one update of the game loop per tick. When the village has fallen
+     * the final state stays published for {@link #GAME_OVER_GRACE_PERIOD_MILLIS} so the
+     * players see it, after which the game is torn down.
      *
-     * @param mapName The name of the map to use for setting up the game environment.
-     * @param isMultiplayer A boolean indicating if the game will be multiplayer or single-player.
+     * @return {@code false} once the game has been torn down.
      */
-    public void run(String mapName, boolean isMultiplayer) {
-        ServerMessagingController messageController = isMultiplayer ? onlineMessageController : localMessageController;
-        GameState gameState = hostGame(mapName, messageController);
+    @Override
+    public boolean tick() {
+        switch (stage) {
+            case HOSTING:
+                if (created == null) {
+                    world = new World(ticksPerSecond, maxCatchUpSteps);
+                    ecs = world.getECSManager();
+                    gameState = hostGame(mapName, messageController);
+                    break;
+                }
+                if (!created.isDone()) {
+                    break;
+                }
+                if (!created.join()) {
+                    System.out.println("[SERVER] Game could not be created, stopping it");
+                    stop();
+                    break;
+                }
+                System.out.println("[SERVER] Game created with ID: " + gameId);
+                gameState.timeStamp = System.currentTimeMillis();
+                messageController.setNewGameState(gameId, gameState);
+                if (isMultiplayer) {
+                    stage = Stage.WAITING_FOR_PLAYER;
+                } else {
+                    startGame();
+                }
+                break;
+            case WAITING_FOR_PLAYER:
+                if (lookForPlayerTwo()) {
+                    startGame();
+                }
+                break;
+            case RUNNING:
+                update();
+                break;
+            case GAME_OVER:
+                if (System.currentTimeMillis() - gameOverTime >= GAME_OVER_GRACE_PERIOD_MILLIS) {
+                    tearDown();
+                } else {
+                    // Players that missed the final state get it again, the others a heartbeat
+                    gameState.timeStamp = System.currentTimeMillis();
+                    messageController.setNewGameState(gameId, gameState);
+                }
+                break;
+            case FINISHED:
+                break;
+        }
+        if (gameId != null && stage != Stage.FINISHED) {
+            // A state kept back by the publish rate goes out even if no later state follows
+            messageController.flushGameState(gameId);
+        }
+        return stage != Stage.FINISHED;
+    }
+
+    /**
+     * Removes the game from the games listing without recording a highscore.
+     */
+    @Override
+    public void stop() {
+        if (stage == Stage.FINISHED) {
+            return;
+        }
+        stage = Stage.FINISHED;
+        if (gameId != null) {
+            messageController.removeGame(gameId);
+        }
+        if (ecs != null) {
+            ecs.clearAll();
+        }
+    }
 
-        // Wait for player two to join
-        if (isMultiplayer)
-            playerTwoID = waitForPlayerToJoin(gameState);
+    @Override
+    public void useSystemExecutor(ParallelSystemExecutor executor) {
+        this.systemExecutor = executor;
+    }
 
+    /**
+     * Adds the village and the players and starts the game loop.
+     */
+    private void startGame() {
         // TODO: Add relevant entities
-        Entity village = new Entity();
+        village = ecs.createEntity();
         VillageComponent villageComponent = new VillageComponent();
         HealthComponent healthComponent = new HealthComponent(1000);
         MoneyComponent moneyComponent = new MoneyComponent(1100);
@@ -103,20 +235,20 @@ public class GameServer {
         village.addComponent(PositionComponent.class, villagePosition);
         village.addComponent(TextComponent.class, villageHealthText);
 
-        ECSManager.getInstance().addLocalEntity(village);
+        ecs.addLocalEntity(village);
 
-        gameState.playerTwo = new Entity();
+        gameState.playerTwo = ecs.createEntity();
         gameState.playerTwo.addComponent(PlayerComponent.class, new PlayerComponent(playerTwoID));
-        ECSManager.getInstance().addLocalEntity(gameState.playerTwo);
+        ecs.addLocalEntity(gameState.playerTwo);
 
         gameState.playerOne.addComponent(PlayerComponent.class, new PlayerComponent(playerOneID));
         gameState.playerTwo.addComponent(PlayerComponent.class, new PlayerComponent(playerTwoID));
         gameState.playerOne.addComponent(MoneyComponent.class, new MoneyComponent(0));
         gameState.playerTwo.addComponent(MoneyComponent.class, new MoneyComponent(0));
 
-        ECSManager.getInstance().update(0f);
+        ecs.update(0f);
         // System.out.println("[SERVER] Entities 1: " +
-        // ECSManager.getInstance().getEntities().size());
+        // ecs.getEntities().size());
         messageController.setNewGameState(this.gameId, gameState);
         System.out.println("[SERVER] Player two has joined the game");
         System.out.println("[SERVER] Game is now full");
@@ -125,124 +257,117 @@ public class GameServer {
         setupGame(mapName, gameState);
 
         // Component managers
-        ComponentManager<HealthComponent> healthManager = ECSManager.getInstance()
-                .getOrDefaultComponentManager(HealthComponent.class);
-        // Main gameplay loop
-        boolean gamesOver = false;
+        healthManager = ecs.getOrDefaultComponentManager(HealthComponent.class);
+        stage = Stage.RUNNING;
+    }
 
-        while (!gamesOver) {
-            // System.out.println("[SERVER] Deltatime: " +
-            // Clock.getInstance().getDeltaTime());
-            float time = Clock.getInstance().getAndResetDeltaTime();
-            ECSManager.getInstance().update(time);
+    /**
+     * Runs the simulation steps that are due, then handles the player actions and
+     * publishes the new state. Does nothing if no step is due yet.
+     */
+    private void update() {
+        int steps = world.update();
+        if (steps == 0) {
+            return;
+        }
 
-            if (healthManager.getComponent(village).get().getHealth() <= 0)
-                gamesOver = true;
+        boolean gameOver = healthManager.getComponent(village).get().getHealth() <= 0;
 
-            // Process each pending player action.
-            for (PlayerInput action : messageController.lookForPendingActions(playerOneID)) {
+        // Process each pending player action.
+        for (PlayerInput action : messageController.lookForPendingActions(playerOneID)) {
+            // Actions to process player inputs and update game state
+            System.out.println("[SERVER] Processing player one action: " + action.getAction());
+            handlePlayerAction(action);
+        }
+        if (isMultiplayer) {
+            for (PlayerInput action : messageController.lookForPendingActions(playerTwoID)) {
                 // Actions to process player inputs and update game state
-                System.out.println("[SERVER] Processing player one action: " + action.getAction());
+                System.out.println("[SERVER] Processing player two action: " + action.getAction());
                 handlePlayerAction(action);
             }
-            if (isMultiplayer) {
-                for (PlayerInput action : messageController.lookForPendingActions(playerTwoID)) {
-                    // Actions to process player inputs and update game state
-                    System.out.println("[SERVER] Processing player two action: " + action.getAction());
-                    handlePlayerAction(action);
-                }
-            }
-
-            // Update all clients with the latest game state.
-            gameState.timeStamp = System.currentTimeMillis();
-            messageController.setNewGameState(gameId, gameState);
-
-            float deltaTime = Clock.getInstance().getDeltaTime();
-            if (deltaTime < 0.01f) {
-                try {
-                    Thread.sleep(10 - (long) (deltaTime * 1000));
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
+        }
 
-            // Handle the display time for user feedbacks
-            if (feedbackDisplayTime > 0) {
-                feedbackDisplayTime -= deltaTime * 100;
-                if (feedbackDisplayTime <= 0) {
-                    // Time's up, remove feedback from screen
-                    ECSManager.getInstance().removeLocalEntity(feedbackEntity);
-                    feedbackEntity = null; // Reset the feedback entity
-                }
+        // Update all clients with the latest game state.
+        gameState.timeStamp = System.currentTimeMillis();
+        messageController.setNewGameState(gameId, gameState);
+
+        // Handle the display time for user feedbacks
+        if (feedbackDisplayTime > 0) {
+            feedbackDisplayTime -= steps * world.getTimestep().getStepSeconds();
+            if (feedbackDisplayTime <= 0) {
+                // Time's up, remove feedback from screen
+                ecs.destroyEntity(feedbackEntity);
+                feedbackEntity = null; // Reset the feedback entity
             }
         }
 
-        try {
-            Thread.sleep(10_000); // TODO: Find a better solution than waiting for 10 seconds. If we don't wait
-                                // the player will never get that the village has 0 health and has to go to the
-                                // game over screen.
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+        // Keep the final state published for a while instead of holding the thread,
+        // otherwise the players never see that the village has 0 health
+        if (gameOver) {
+            gameOverTime = System.currentTimeMillis();
+            stage = Stage.GAME_OVER;
         }
+    }
 
-        // Teardown of server and delete game from games listing
-        WaveComponent waveComponent = ECSManager.getInstance().getLocalEntities().stream()
+    /**
+     * Records the highscore and deletes the game from the games listing.
+     */
+    private void tearDown() {
+        WaveComponent waveComponent = ecs.getLocalEntities().stream()
                 .filter(e -> e.getComponent(WaveComponent.class).isPresent()).findFirst().get().getComponent(WaveComponent.class).get();
-        messageController.setHighScore(gameId, waveComponent.waveNumber);
+        messageController.setHighScore(gameId, mapName, waveComponent.waveNumber);
         messageController.removeGame(gameId);
+        ecs.clearAll();
+        stage = Stage.FINISHED;
     }
 
     /**
-     * Hosts a new game session, setting up initial conditions and waiting for all players to join.
+     * Hosts a new game session, setting up initial conditions for the players to join.
+     * The game is fresh, so its state is built here and only stored, never read back,
+     * and the tick does not wait for the storage.
      *
      * @param mapName Name of the map on which the game will be played.
      * @param messageController The message controller to use for this game session.
      * @return A new {@link GameState} representing the initial state of the game.
      */
     private GameState hostGame(String mapName, ServerMessagingController messageController) {
-        this.gameId = messageController.createGame(mapName);
-        System.out.println("[SERVER] Game created with ID: " + gameId);
-        GameState gameState = messageController.getGameState(gameId);
+        this.gameId = UUID.randomUUID();
+        GameState gameState = new GameState(ecs);
+        gameState.gameID = gameId;
+        gameState.mapName = mapName;
+        gameState.playerOne = ecs.createEntity();
+        gameState.playerOne.addComponent(PlayerComponent.class, new PlayerComponent(playerOneID));
+        ecs.addLocalEntity(gameState.playerOne);
         gameState.timeStamp = System.currentTimeMillis();
-        if (messageController.getGameState(gameId).playerOne == null) {
-            gameState.playerOne = new Entity();
-            gameState.playerOne.addComponent(PlayerComponent.class, new PlayerComponent(playerOneID));
-            ECSManager.getInstance().addLocalEntity(gameState.playerOne);
-        }
-        messageController.setNewGameState(this.gameId, gameState);
+        created = messageController.createGame(gameState);
         return gameState;
     }
 
     /**
-     * Waits for the second player to join the game. This method is blocking and will wait until the second player has joined.
+     * Checks once whether the second player has joined the game.
      *
-     * @param gameState The current state of the game to be updated when the second player joins.
-     * @return The UUID of the second player once they have joined.
+     * @return {@code true} if the second player has joined, its UUID is then stored.
      */
-    private UUID waitForPlayerToJoin(GameState gameState) {
-        UUID playerTwoID = null;
-        while (onlineMessageController.getGameState(gameId).playerTwo == null) {
-            Optional<UUID> playerTwo = onlineMessageController.lookForPendingPlayer(gameId);
-            System.out.println("[SERVER] Looking for player two");
-            if (!playerTwo.isPresent())
-                continue;
-            playerTwoID = playerTwo.get();
-            System.out.println("[SERVER] The player two joined with: " + playerTwo.get().toString());
-            break;
+    private boolean lookForPlayerTwo() {
+        Optional<UUID> playerTwo = onlineMessageController.lookForPendingPlayer(gameId);
+        if (!playerTwo.isPresent()) {
+            return false;
         }
-        return playerTwoID;
+        playerTwoID = playerTwo.get();
+        System.out.println("[SERVER] The player two joined with: " + playerTwo.get().toString());
+        return true;
     }
 
     private void setupGame(String mapName, GameState gameState) {
         String backgroundPath = TexturePack.BACKGROUND_BLACK;
-        Entity background = new Entity();
+        Entity background = ecs.createEntity();
         SpriteComponent backgroundSprite = new SpriteComponent(backgroundPath, new Vector2(1, 1));
         PositionComponent backgroundPosition = new PositionComponent(new Vector2(0, 0), -1);
         background.addComponent(SpriteComponent.class, backgroundSprite);
         background.addComponent(PositionComponent.class, backgroundPosition);
         TextComponent textComponent = new TextComponent("In Game!", new Vector2(0.05f, 0.05f));
         background.addComponent(TextComponent.class, textComponent);
-        ECSManager.getInstance().addLocalEntity(background);
+        ecs.addLocalEntity(background);
 
         // Map and tiles
         this.gameMap = MapFactory.createMap(mapName);
@@ -251,16 +376,18 @@ public class GameServer {
         initializeVillage(gameState);
 
         // Add systems to the ECSManager
-        MovementSystem MovementSystem = new MovementSystem();
-        EnemySystem EnemySystem = new EnemySystem();
-        AttackSystem attackSystem = new AttackSystem(gameMap);
-        AnimationSystem animationSystem = new AnimationSystem();
-
-        ECSManager.getInstance().addSystem(animationSystem);
-        ECSManager.getInstance().addSystem(MovementSystem);
-        ECSManager.getInstance().addSystem(EnemySystem);
-        ECSManager.getInstance().addSystem(attackSystem);
-
+        MovementSystem MovementSystem = new MovementSystem(ecs);
+        EnemySystem EnemySystem = new EnemySystem(ecs);
+        AttackSystem attackSystem = new AttackSystem(ecs, gameMap);
+        AnimationSystem animationSystem = new AnimationSystem(ecs);
+
+        ecs.addSystem(animationSystem);
+        ecs.addSystem(MovementSystem);
+        ecs.addSystem(EnemySystem);
+        ecs.addSystem(attackSystem);
+
+        // Non-conflicting systems and large views only use other threads if the host has some for them
+        ecs.setParallelExecutor(systemExecutor);
     }
 
     private void initializeMapEntities(Map gameMap) {
@@ -292,14 +419,14 @@ public class GameServer {
         // Create Path entitiy
         List<Tile> enemyPath = gameMap.getPath();
         PathfindingComponent pathfindingComponent = new PathfindingComponent(enemyPath);
-        Entity path = new Entity();
+        Entity path = ecs.createEntity();
         path.addComponent(PathfindingComponent.class, pathfindingComponent);
-        ECSManager.getInstance().addLocalEntity(path);
+        ecs.addLocalEntity(path);
 
         for (int i = 0; i < numOfColumns; i++) {
             for (int j = numOfRows - 1; j >= 0; j--) {
 
-                Entity tileEntity = new Entity();
+                Entity tileEntity = ecs.createEntity();
                 String tileTexture = gameMap.getTextureForTile(tiles[i][j]);
 
                 Vector2 position = new Vector2(i * tileWidth, j * tileHeight);
@@ -311,7 +438,7 @@ public class GameServer {
                 tileEntity.addComponent(SpriteComponent.class, spriteComponent);
                 tileEntity.addComponent(PositionComponent.class, positionComponent);
                 tileEntity.addComponent(TileComponent.class, tileComponent); // Added
-                ECSManager.getInstance().addLocalEntity(tileEntity);
+                ecs.addLocalEntity(tileEntity);
 
             }
         }
@@ -338,34 +465,37 @@ public class GameServer {
         }
 
         // Get necessary entities for card placement
-        Entity village = ECSManager.getInstance().getLocalEntities().stream()
+        Entity village = ecs.getLocalEntities().stream()
                 .filter(e -> e.getComponent(VillageComponent.class).isPresent()).findFirst().get();
-        Entity cardEntity = CardFactory.createCard(selectedCardType, new Vector2(x, y), true);
+        Entity cardEntity = CardFactory.createCard(ecs, selectedCardType, new Vector2(x, y), true);
 
         // Card already placed, place tower
         if (tile.hasCard()) {
             System.out.println("Placing tower on tile at position (" + x + ", " + y + ")");
-            PlacedCardComponent existingCardComponent = ECSManager.getInstance()
+            PlacedCardComponent existingCardComponent = ecs
                     .getOrDefaultComponentManager(PlacedCardComponent.class).getComponent(tileEntity).get();
             CardType existingCardType = existingCardComponent.cardType;
             Optional<TowerType> towerType = PairableCards.getTower(selectedCardType, existingCardType);
 
             if (towerType.isPresent()) {
 
-                if (!buyCard(village, cardEntity)) {
+                boolean bought = buyCard(village, cardEntity);
+                // The card entity was only needed for its cost
+                ecs.destroyEntity(cardEntity);
+                if (!bought) {
                     showUserFeedback("Not enough money to buy card");
                     return;
                 }
 
                 // Remove the card thats already there
-                ECSManager.getInstance().getOrDefaultComponentManager(PlacedCardComponent.class)
+                ecs.getOrDefaultComponentManager(PlacedCardComponent.class)
                         .removeComponent(tileEntity);
                 Entity card = tile.getCard();
-                ECSManager.getInstance().removeLocalEntity(card);
+                ecs.destroyEntity(card);
                 tile.removeCard();
 
                 // Create the tower entity
-                Entity towerEntity = TowerFactory.createTower(selectedCardType, existingCardType, new Vector2(x, y));
+                Entity towerEntity = TowerFactory.createTower(ecs, selectedCardType, existingCardType, new Vector2(x, y));
 
                 // Update the tile with the new tower
                 updateTileWithTower(tile, tileEntity, towerEntity);
@@ -380,13 +510,14 @@ public class GameServer {
         // No card on tile, place card
         else {
             if (!buyCard(village, cardEntity)) {
+                ecs.destroyEntity(cardEntity);
                 showUserFeedback("Not enough money to buy card");
                 return;
             }
             System.out.println("Placing card on tile at position (" + x + ", " + y + ")");
             // Add a PlacedCardComponent the Tile-entity (to keep track of the cards' type)
             PlacedCardComponent placedCardComponent = new PlacedCardComponent(selectedCardType);
-            ECSManager.getInstance().getOrDefaultComponentManager(PlacedCardComponent.class).addComponent(tileEntity,
+            ecs.getOrDefaultComponentManager(PlacedCardComponent.class).addComponent(tileEntity,
                     placedCardComponent);
 
             // Update the tile with the new card
@@ -401,7 +532,7 @@ public class GameServer {
     }
 
     private boolean buyCard(Entity village, Entity cardEntity) {
-        ComponentManager<CostComponent> costComponentManager = ECSManager.getInstance()
+        ComponentManager<CostComponent> costComponentManager = ecs
                 .getOrDefaultComponentManager(CostComponent.class);
         Optional<CostComponent> costComponent = costComponentManager.getComponent(cardEntity);
         if (costComponent.isPresent()) {
@@ -419,11 +550,11 @@ public class GameServer {
 
     private void updateTopRightCornerText(Entity village) {
         // Get the text-component of the village and update the health
-        ComponentManager<TextComponent> textManager = ECSManager.getInstance()
+        ComponentManager<TextComponent> textManager = ecs
                 .getOrDefaultComponentManager(TextComponent.class);
-        ComponentManager<MoneyComponent> moneyManager = ECSManager.getInstance()
+        ComponentManager<MoneyComponent> moneyManager = ecs
                 .getOrDefaultComponentManager(MoneyComponent.class);
-        ComponentManager<HealthComponent> healthManager = ECSManager.getInstance()
+        ComponentManager<HealthComponent> healthManager = ecs
                 .getOrDefaultComponentManager(HealthComponent.class);
         Optional<TextComponent> textComponent = textManager.getComponent(village);
         Optional<MoneyComponent> moneyComponent = moneyManager.getComponent(village);
@@ -434,11 +565,12 @@ public class GameServer {
             int money = moneyComponent.get().amount;
             String textToDisplay = "Health: " + villageHealth + "\n Money: " + money;
             textComponent.get().text = textToDisplay;
+            ecs.markChanged(village);
         }
     }
 
     private Entity getTileEntityByPosition(Vector2 tilePosition) {
-        for (Entity entity : ECSManager.getInstance().getLocalEntities()) {
+        for (Entity entity : ecs.getLocalEntities()) {
             if (entity.getComponent(TileComponent.class).isPresent()
                     && entity.getComponent(PositionComponent.class).isPresent()) {
                 Tile tile = entity.getComponent(TileComponent.class).get().getTile();
@@ -455,8 +587,9 @@ public class GameServer {
         if (tileEntity != null) {
             centerAndResizeEntity(towerEntity, tileEntity, gameMap);
             tile.setTower(towerEntity);
+            ecs.markChanged(tileEntity);
 
-            ECSManager.getInstance().addLocalEntity(towerEntity);
+            ecs.addLocalEntity(towerEntity);
         }
     }
 
@@ -494,14 +627,15 @@ public class GameServer {
         if (tileEntity != null) {
             centerAndResizeEntity(cardEntity, tileEntity, gameMap);
             tile.setCard(cardEntity);
+            ecs.markChanged(tileEntity);
 
-            ECSManager.getInstance().addLocalEntity(cardEntity);
+            ecs.addLocalEntity(cardEntity);
         }
     }
 
     public void initializeVillage(GameState gameState) {
 
-        MoneyComponent moneyComponent = ECSManager.getInstance().getOrDefaultComponentManager(MoneyComponent.class)
+        MoneyComponent moneyComponent = ecs.getOrDefaultComponentManager(MoneyComponent.class)
                 .getComponent(gameState.playerOne).get();
         HealthComponent healthComponent = new HealthComponent(1000);
         PositionComponent villagePosition = new PositionComponent(new Vector2(0.80f, 0.90f), 1000);
@@ -513,21 +647,21 @@ public class GameServer {
         gameState.playerOne.addComponent(PositionComponent.class, villagePosition);
         gameState.playerOne.addComponent(TextComponent.class, villageHealthText);
 
-        ECSManager.getInstance().addLocalEntity(gameState.playerOne);
+        ecs.addLocalEntity(gameState.playerOne);
     }
 
     public void showUserFeedback(String message) {
         if (this.feedbackEntity != null) {
-            ECSManager.getInstance().removeLocalEntity(feedbackEntity);
+            ecs.destroyEntity(feedbackEntity);
         }
         this.feedbackEntity = createFeedbackEntity(message);
-        ECSManager.getInstance().addLocalEntity(feedbackEntity);
+        ecs.addLocalEntity(feedbackEntity);
         this.feedbackDisplayTime = 4.0f; 
     }
     
     // Helper method to create the feedback entity
     private Entity createFeedbackEntity(String message) {
-        Entity feedback = new Entity();
+        Entity feedback = ecs.createEntity();
         TextComponent feedbackText = new TextComponent(message, new Vector2(0.05f, 0.05f));
         feedbackText.setColor(new Vector3(1f, 0f, 0f)); // Set text color to red
         PositionComponent feedbackPosition = new PositionComponent(new Vector2(0.02f, 0.02f), 1000);
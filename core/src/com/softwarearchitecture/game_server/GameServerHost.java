@@ -0,0 +1,240 @@
+package com.softwarearchitecture.game_server;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.softwarearchitecture.ecs.ParallelSystemExecutor;
+
+/**
+ * Runs many {@link Match}es in one process on a bounded pool of worker threads.
+ * <p>
+ * Matches do not own a thread. Each tick is a task on the pool, and when it
+ * returns the next tick of that match is scheduled so that ticks start one tick
+ * interval apart. A tick taking longer than the tick budget is reported, and
+ * the next tick of that match waits a full interval so a slow match cannot
+ * starve the other matches of workers.
+ * <p>
+ * The systems of a match run one after another on the worker ticking it. A host
+ * may be given its own pool of system threads, shared by all of its matches,
+ * to run the systems of a tick in parallel; the threads used by the host stay
+ * bounded either way, so one slow match cannot take the cores of the others.
+ * <p>
+ * The host admits at most {@code maxMatches} matches at once and rejects new
+ * ones until running matches finish. {@link #shutdown()} drops pending ticks,
+ * waits for running ones and stops every match that is still hosted.
+ */
+public final class GameServerHost {
+    public static final int DEFAULT_MAX_MATCHES = 256;
+    public static final long DEFAULT_TICK_INTERVAL_MILLIS = 10;
+    public static final long DEFAULT_TICK_BUDGET_MILLIS = 5;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5_000;
+    /** A match overrunning its budget is reported at most once in this interval */
+    private static final long OVERRUN_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final ScheduledThreadPoolExecutor workers;
+    /** The pool the systems of the matches run on, {@code null} to run them on the workers */
+    private final ForkJoinPool systemPool;
+    private final ParallelSystemExecutor systemExecutor;
+    private final int maxMatches;
+    private final long tickIntervalNanos;
+    private final long tickBudgetNanos;
+    private final Set<HostedMatch> matches = ConcurrentHashMap.newKeySet();
+    private boolean shutdown = false;
+
+    /**
+     * @param workerThreads      The number of threads shared by all matches.
+     * @param systemThreads      The number of threads running the systems of all matches in
+     *                           parallel, {@code 0} to run them one after another on the workers.
+     * @param maxMatches         The number of matches that can be hosted at once.
+     * @param tickIntervalMillis The time between the start of two ticks of a match.
+     * @param tickBudgetMillis   The time a single tick of a match may take.
+     */
+    public GameServerHost(int workerThreads, int systemThreads, int maxMatches, long tickIntervalMillis,
+            long tickBudgetMillis) throws IllegalArgumentException {
+        if (workerThreads <= 0 || maxMatches <= 0) {
+            throw new IllegalArgumentException("[ERROR] Worker threads and max matches must be positive");
+        }
+        if (systemThreads < 0) {
+            throw new IllegalArgumentException("[ERROR] System threads must not be negative, was " + systemThreads);
+        }
+        if (tickIntervalMillis <= 0 || tickBudgetMillis <= 0) {
+            throw new IllegalArgumentException("[ERROR] Tick interval and tick budget must be positive");
+        }
+        this.workers = new ScheduledThreadPoolExecutor(workerThreads, new WorkerThreadFactory());
+        this.workers.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.workers.setRemoveOnCancelPolicy(true);
+        this.systemPool = systemThreads > 0 ? new ForkJoinPool(systemThreads) : null;
+        this.systemExecutor = systemPool != null ? new ParallelSystemExecutor(systemPool) : null;
+        this.maxMatches = maxMatches;
+        this.tickIntervalNanos = TimeUnit.MILLISECONDS.toNanos(tickIntervalMillis);
+        this.tickBudgetNanos = TimeUnit.MILLISECONDS.toNanos(tickBudgetMillis);
+    }
+
+    /**
+     * Creates a host running the systems of every match on the worker ticking it.
+     *
+     * @see #GameServerHost(int, int, int, long, long)
+     */
+    public GameServerHost(int workerThreads, int maxMatches, long tickIntervalMillis, long tickBudgetMillis)
+            throws IllegalArgumentException {
+        this(workerThreads, 0, maxMatches, tickIntervalMillis, tickBudgetMillis);
+    }
+
+    /**
+     * Creates a host with one worker per available processor and the default limits.
+     *
+     * @param systemThreads The number of threads running the systems of all matches in
+     *                      parallel, {@code 0} to run them one after another on the workers.
+     */
+    public GameServerHost(int systemThreads) throws IllegalArgumentException {
+        this(Runtime.getRuntime().availableProcessors(), systemThreads, DEFAULT_MAX_MATCHES,
+                DEFAULT_TICK_INTERVAL_MILLIS, DEFAULT_TICK_BUDGET_MILLIS);
+    }
+
+    /**
+     * Creates a host with one worker per available processor and the default limits,
+     * running the systems of every match on the worker ticking it.
+     */
+    public GameServerHost() {
+        this(0);
+    }
+
+    /**
+     * Admits a match and schedules its first tick.
+     *
+     * @param match The match to host.
+     * @throws IllegalStateException If the host is full or has been shut down.
+     */
+    public synchronized void host(Match match) throws IllegalStateException {
+        if (shutdown) {
+            throw new IllegalStateException("[ERROR] The host has been shut down");
+        }
+        if (matches.size() >= maxMatches) {
+            throw new IllegalStateException("[ERROR] The host is full, it already runs " + maxMatches + " matches");
+        }
+        if (systemExecutor != null) {
+            match.useSystemExecutor(systemExecutor);
+        }
+        HostedMatch hosted = new HostedMatch(match);
+        matches.add(hosted);
+        workers.execute(hosted);
+    }
+
+    /**
+     * @return The number of matches currently hosted.
+     */
+    public int getMatchCount() {
+        return matches.size();
+    }
+
+    /**
+     * @return {@code true} if the systems of the matches run in parallel on the system threads
+     *         of the host.
+     */
+    public boolean isParallel() {
+        return systemExecutor != null;
+    }
+
+    /**
+     * Stops accepting matches, waits for running ticks to finish and stops every
+     * match that is still hosted. Calling it again does nothing.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (shutdown) {
+                return;
+            }
+            shutdown = true;
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                System.out.println("[HOST] Timed out waiting for running ticks, interrupting workers");
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        for (HostedMatch hosted : matches) {
+            hosted.match.stop();
+        }
+        matches.clear();
+        if (systemPool != null) {
+            // No tick is running any more, so no system is either
+            systemPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Ticks one match and schedules its next tick.
+     */
+    private final class HostedMatch implements Runnable {
+        private final Match match;
+        private int overruns = 0;
+        /** Overruns since the last one was reported */
+        private int unreportedOverruns = 0;
+        private long lastOverrunReport = 0;
+
+        HostedMatch(Match match) {
+            this.match = match;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            boolean running;
+            try {
+                running = match.tick();
+            } catch (RuntimeException e) {
+                System.out.println("[HOST] Match failed and is stopped: " + e.getMessage());
+                e.printStackTrace();
+                match.stop();
+                running = false;
+            }
+            if (!running) {
+                matches.remove(this);
+                return;
+            }
+
+            long elapsed = System.nanoTime() - start;
+            long delay = tickIntervalNanos - elapsed;
+            if (elapsed > tickBudgetNanos) {
+                overruns++;
+                unreportedOverruns++;
+                // A match that keeps overrunning is reported now and then, printing every tick slows it further
+                long now = System.nanoTime();
+                if (overruns == 1 || now - lastOverrunReport >= OVERRUN_REPORT_INTERVAL_NANOS) {
+                    System.out.println("[HOST] Tick took " + TimeUnit.NANOSECONDS.toMillis(elapsed)
+                            + " ms, over its budget " + unreportedOverruns + " times since the last report, "
+                            + overruns + " times in total");
+                    unreportedOverruns = 0;
+                    lastOverrunReport = now;
+                }
+                delay = tickIntervalNanos;
+            }
+            try {
+                workers.schedule(this, Math.max(0, delay), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // The host is shutting down and stops the match itself
+            }
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "MatchWorker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.softwarearchitecture.game_server;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+/**
+ * The maps installed in a directory as {@link MapFile}s.
+ * <p>
+ * Nothing is read until the maps are first asked for, and then only the headers of the files,
+ * so the cost of starting the game does not grow with the number of maps installed. The tiles
+ * of a map are only read when it is loaded.
+ */
+public class MapCatalog {
+    private final Path directory;
+    /** The headers of the maps by name, {@code null} until the directory has been read */
+    private java.util.Map<String, MapHeader> headers;
+
+    /**
+     * @param directory The directory the map files are in.
+     */
+    public MapCatalog(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return The names of the maps in the directory.
+     */
+    public synchronized Set<String> getMapNames() {
+        return Collections.unmodifiableSet(getHeaders().keySet());
+    }
+
+    /**
+     * @param mapName The name of the map.
+     * @return The header of the map, or {@code null} if there is no map with the name.
+     */
+    public synchronized MapHeader getHeader(String mapName) {
+        return getHeaders().get(mapName);
+    }
+
+    /**
+     * Reads the tiles of a map and compiles it.
+     *
+     * @param mapName The name of the map.
+     * @return The compiled map.
+     * @throws IllegalArgumentException If there is no map with the name.
+     * @throws IOException              If the map file could not be read.
+     */
+    public MapTemplate load(String mapName) throws IllegalArgumentException, IOException {
+        MapHeader header = getHeader(mapName);
+        if (header == null) {
+            throw new IllegalArgumentException("[ERROR] Map type not found");
+        }
+        return MapFile.load(header);
+    }
+
+    /**
+     * Reads the headers of the map files again, to find maps installed since.
+     */
+    public synchronized void refresh() {
+        headers = null;
+    }
+
+    private java.util.Map<String, MapHeader> getHeaders() {
+        if (headers != null) {
+            return headers;
+        }
+        headers = new LinkedHashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return headers;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + MapFile.EXTENSION)) {
+            for (Path file : files) {
+                try {
+                    MapHeader header = MapFile.readHeader(file);
+                    headers.putIfAbsent(header.getName(), header);
+                } catch (IOException e) {
+                    // A broken map file leaves the other maps playable
+                    System.out.println("Error reading map file " + file + ", skipping it.");
+                    e.printStackTrace();
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error listing the maps in " + directory);
+            e.printStackTrace();
+        }
+        return headers;
+    }
+}
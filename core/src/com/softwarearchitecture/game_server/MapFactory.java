@@ -1,81 +1,135 @@
 package com.softwarearchitecture.game_server;
 
-import java.util.HashMap;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.softwarearchitecture.game_client.TexturePack;
 
 public class MapFactory {
+    private static final String ABYSS_MAP = "BLOCKED_WATER, BLOCKED_WATER, PLACEABLE, PLACEABLE, PLACEABLE, START, BLOCKED_TREE, BLOCKED_TREE;"
+            +
+            "BLOCKED_WATER, BLOCKED_WATER, PLACEABLE, PLACEABLE, PLACEABLE, PATH, PLACEABLE, PLACEABLE;"
+            +
+            "BLOCKED_WATER, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE, PATH, BLOCKED_TREE, BLOCKED_TREE;" +
+            "BLOCKED_WATER, BLOCKED_OBSTRUCTABLE, BLOCKED_TREE, BLOCKED_TREE, PLACEABLE, PATH, PLACEABLE, PLACEABLE;"
+            +
+            "BLOCKED_WATER, PLACEABLE, BLOCKED_OBSTRUCTABLE, PATH, PATH, PATH, PLACEABLE, PLACEABLE;" +
+            "PLACEABLE, PLACEABLE, BLOCKED_OBSTRUCTABLE, PATH, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE;" +
+            "BLOCKED_OBSTRUCTABLE, PLACEABLE, PLACEABLE, PATH, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE;"
+            +
+            "PLACEABLE, PLACEABLE, BLOCKED_OBSTRUCTABLE, PATH, PATH, PATH, PATH, PLACEABLE;" +
+            "BLOCKED_OBSTRUCTABLE, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE, PATH, PLACEABLE;" +
+            "PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE, PATH, PLACEABLE;" +
+            "PLACEABLE, BLOCKED_TREE, BLOCKED_TREE, PLACEABLE, PLACEABLE, PLACEABLE, PATH, PLACEABLE;" +
+
+            "PLACEABLE, BLOCKED_TREE, BLOCKED_TREE, PLACEABLE, PLACEABLE, PLACEABLE, PATH, PLACEABLE;" +
+            "PLACEABLE, PLACEABLE, PATH, PATH, PATH, PATH, PATH, PLACEABLE;" +
+            "PLACEABLE, BLOCKED_OBSTRUCTABLE, PATH, PLACEABLE, PLACEABLE, PLACEABLE, BLOCKED_OBSTRUCTABLE, PLACEABLE;"
+            +
+            "PLACEABLE, PLACEABLE, PATH, PLACEABLE, BLOCKED_TREE, BLOCKED_TREE, PLACEABLE, BLOCKED_WATER;" +
+            "PLACEABLE, BLOCKED_OBSTRUCTABLE, PATH, PLACEABLE, PLACEABLE, PLACEABLE, BLOCKED_WATER, BLOCKED_WATER;"
+            +
+            "PLACEABLE, END_BOTTOM, END, END_TOP, BLOCKED_WATER, BLOCKED_WATER, BLOCKED_WATER, BLOCKED_WATER;";
+
+    private static final String CLEARING_MAP = "BLOCKED_OBSTRUCTABLE, START, PLACEABLE, BLOCKED_TREE, PLACEABLE, BLOCKED_TREE, PLACEABLE, BLOCKED_WATER;" +
+            "PLACEABLE, PATH, PLACEABLE, PLACEABLE, BLOCKED_TREE, BLOCKED_TREE, PLACEABLE, BLOCKED_TREE;" +
+            "PLACEABLE, PATH, PATH, PLACEABLE, PLACEABLE, BLOCKED_TREE, BLOCKED_TREE, BLOCKED_WATER;" +
+            "PLACEABLE, BLOCKED_TREE, PATH, BLOCKED_TREE, PLACEABLE, PLACEABLE, BLOCKED_TREE, BLOCKED_WATER;" +
+            "PLACEABLE, BLOCKED_TREE, PATH, PATH, PATH, PLACEABLE, PLACEABLE, BLOCKED_TREE;" +
+            "PLACEABLE, BLOCKED_OBSTRUCTABLE, BLOCKED_TREE, BLOCKED_OBSTRUCTABLE, PATH, PLACEABLE, PLACEABLE, BLOCKED_TREE;" +
+            "BLOCKED_TREE, PLACEABLE, PLACEABLE, BLOCKED_TREE, PATH, PATH, PLACEABLE, PLACEABLE;" +
+            "BLOCKED_TREE, PLACEABLE, BLOCKED_OBSTRUCTABLE, BLOCKED_TREE, PLACEABLE, PATH, PLACEABLE, BLOCKED_TREE;" +
+            "BLOCKED_TREE, PLACEABLE, BLOCKED_TREE, PLACEABLE, PLACEABLE, PATH, PLACEABLE, BLOCKED_TREE;" +
+            "PLACEABLE, PLACEABLE, PLACEABLE, BLOCKED_TREE, PLACEABLE, PATH, PLACEABLE, BLOCKED_TREE;" +
+            "BLOCKED_WATER, PLACEABLE, PLACEABLE, BLOCKED_TREE, PLACEABLE, PATH, PATH, BLOCKED_TREE;" +
+            "BLOCKED_WATER, BLOCKED_OBSTRUCTABLE, BLOCKED_OBSTRUCTABLE, BLOCKED_TREE, PLACEABLE, PLACEABLE, PATH, BLOCKED_TREE;" +
+            "BLOCKED_WATER, BLOCKED_WATER, PLACEABLE, PATH, PATH, PATH, PATH, PLACEABLE;" +
+            "BLOCKED_WATER, BLOCKED_WATER, PATH, PATH, BLOCKED_OBSTRUCTABLE, BLOCKED_OBSTRUCTABLE, PLACEABLE, PLACEABLE;" +
+            "BLOCKED_WATER, BLOCKED_WATER, PATH, BLOCKED_TREE, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE;" +
+            "BLOCKED_WATER, BLOCKED_WATER, PATH, PATH, PATH, PATH, PLACEABLE, PLACEABLE;" +
+            "BLOCKED_WATER, BLOCKED_OBSTRUCTABLE, BLOCKED_TREE, PLACEABLE, PLACEABLE, PATH, PLACEABLE, PLACEABLE;" +
+            "BLOCKED_WATER, BLOCKED_WATER, BLOCKED_WATER, BLOCKED_WATER, END_BOTTOM, END, END_TOP, BLOCKED_WATER;";
+
+    /** The layout and background image of every map built into the game, by name */
+    private static final LinkedHashMap<String, String[]> DEFINITIONS = new LinkedHashMap<>();
+    /** The maps compiled so far, every map is compiled the first time it is asked for */
+    private static final ConcurrentHashMap<String, MapTemplate> TEMPLATES = new ConcurrentHashMap<>();
+    /** The maps installed as files, {@code null} to only have the built-in maps */
+    private static MapCatalog catalog = null;
+
+    static {
+        DEFINITIONS.put("abyss", new String[] { ABYSS_MAP, TexturePack.BACKGROUND_ABYSS });
+        DEFINITIONS.put("clearing", new String[] { CLEARING_MAP, TexturePack.BACKGROUND_GRIFFIN });
+    }
+
+    /**
+     * Adds the maps installed as {@link MapFile}s in a directory to the built-in maps. A map
+     * file with the name of a built-in map is ignored.
+     *
+     * @param directory The directory of the map files, {@code null} to only have the built-in maps.
+     */
+    public static synchronized void useMapDirectory(File directory) {
+        catalog = directory != null ? new MapCatalog(directory.toPath()) : null;
+        // Maps compiled from the files of another directory are no longer available
+        TEMPLATES.keySet().retainAll(DEFINITIONS.keySet());
+    }
 
     /**
-     * Creates a map based on the name
+     * Creates a map based on the name, for a single match. The maps created share the
+     * compiled template of the map, but not the cards and towers placed on it.
      * 
      * @param mapName
      * @return The map with the given name
      * @throws IllegalArgumentException
      */
     public static Map createMap(String mapName) {
-        HashMap<String, Map> maps = getMaps();
-        Map map = maps.getOrDefault(mapName, null);
-        if (map == null) {
+        return new Map(getTemplate(mapName));
+    }
+
+    /**
+     * Gets the compiled template of a map, compiling it the first time.
+     *
+     * @param mapName The name of the map.
+     * @return The template of the map.
+     * @throws IllegalArgumentException If there is no map with the name.
+     * @throws IllegalStateException    If the file of the map could not be read.
+     */
+    public static MapTemplate getTemplate(String mapName) throws IllegalArgumentException, IllegalStateException {
+        if (mapName == null) {
+            throw new IllegalArgumentException("[ERROR] Map type not found");
+        }
+        String[] definition = DEFINITIONS.get(mapName);
+        if (definition != null) {
+            return TEMPLATES.computeIfAbsent(mapName, name -> MapTemplate.compile(name, definition[0], definition[1]));
+        }
+        MapCatalog installed = catalog;
+        if (installed == null || installed.getHeader(mapName) == null) {
             throw new IllegalArgumentException("[ERROR] Map type not found");
         }
-        return map;
+        return TEMPLATES.computeIfAbsent(mapName, name -> {
+            try {
+                return installed.load(name);
+            } catch (IOException e) {
+                throw new IllegalStateException("[ERROR] Map " + name + " could not be read", e);
+            }
+        });
     }
 
+    /**
+     * @return The names of the built-in maps followed by the names of the installed maps.
+     */
     public static Set<String> getMapNames() {
-        return MapFactory.getMaps().keySet();
-    }
-
-    private static HashMap<String, Map> getMaps() {
-        HashMap<String, Map> maps = new HashMap<>();
-        String abyssMapString = "BLOCKED_WATER, BLOCKED_WATER, PLACEABLE, PLACEABLE, PLACEABLE, START, BLOCKED_TREE, BLOCKED_TREE;"
-                +
-                "BLOCKED_WATER, BLOCKED_WATER, PLACEABLE, PLACEABLE, PLACEABLE, PATH, PLACEABLE, PLACEABLE;"
-                +
-                "BLOCKED_WATER, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE, PATH, BLOCKED_TREE, BLOCKED_TREE;" +
-                "BLOCKED_WATER, BLOCKED_OBSTRUCTABLE, BLOCKED_TREE, BLOCKED_TREE, PLACEABLE, PATH, PLACEABLE, PLACEABLE;"
-                +
-                "BLOCKED_WATER, PLACEABLE, BLOCKED_OBSTRUCTABLE, PATH, PATH, PATH, PLACEABLE, PLACEABLE;" +
-                "PLACEABLE, PLACEABLE, BLOCKED_OBSTRUCTABLE, PATH, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE;" +
-                "BLOCKED_OBSTRUCTABLE, PLACEABLE, PLACEABLE, PATH, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE;"
-                +
-                "PLACEABLE, PLACEABLE, BLOCKED_OBSTRUCTABLE, PATH, PATH, PATH, PATH, PLACEABLE;" +
-                "BLOCKED_OBSTRUCTABLE, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE, PATH, PLACEABLE;" +
-                "PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE, PATH, PLACEABLE;" +
-                "PLACEABLE, BLOCKED_TREE, BLOCKED_TREE, PLACEABLE, PLACEABLE, PLACEABLE, PATH, PLACEABLE;" +
-
-                "PLACEABLE, BLOCKED_TREE, BLOCKED_TREE, PLACEABLE, PLACEABLE, PLACEABLE, PATH, PLACEABLE;" +
-                "PLACEABLE, PLACEABLE, PATH, PATH, PATH, PATH, PATH, PLACEABLE;" +
-                "PLACEABLE, BLOCKED_OBSTRUCTABLE, PATH, PLACEABLE, PLACEABLE, PLACEABLE, BLOCKED_OBSTRUCTABLE, PLACEABLE;"
-                +
-                "PLACEABLE, PLACEABLE, PATH, PLACEABLE, BLOCKED_TREE, BLOCKED_TREE, PLACEABLE, BLOCKED_WATER;" +
-                "PLACEABLE, BLOCKED_OBSTRUCTABLE, PATH, PLACEABLE, PLACEABLE, PLACEABLE, BLOCKED_WATER, BLOCKED_WATER;"
-                +
-                "PLACEABLE, END_BOTTOM, END, END_TOP, BLOCKED_WATER, BLOCKED_WATER, BLOCKED_WATER, BLOCKED_WATER;";
-        String backgroundImage = TexturePack.BACKGROUND_ABYSS;
-        maps.put("abyss", new Map(abyssMapString, backgroundImage));
-
-        String mapString2 ="BLOCKED_OBSTRUCTABLE, START, PLACEABLE, BLOCKED_TREE, PLACEABLE, BLOCKED_TREE, PLACEABLE, BLOCKED_WATER;" +
-                "PLACEABLE, PATH, PLACEABLE, PLACEABLE, BLOCKED_TREE, BLOCKED_TREE, PLACEABLE, BLOCKED_TREE;" +
-                "PLACEABLE, PATH, PATH, PLACEABLE, PLACEABLE, BLOCKED_TREE, BLOCKED_TREE, BLOCKED_WATER;" +
-                "PLACEABLE, BLOCKED_TREE, PATH, BLOCKED_TREE, PLACEABLE, PLACEABLE, BLOCKED_TREE, BLOCKED_WATER;" +
-                "PLACEABLE, BLOCKED_TREE, PATH, PATH, PATH, PLACEABLE, PLACEABLE, BLOCKED_TREE;" +
-                "PLACEABLE, BLOCKED_OBSTRUCTABLE, BLOCKED_TREE, BLOCKED_OBSTRUCTABLE, PATH, PLACEABLE, PLACEABLE, BLOCKED_TREE;" +
-                "BLOCKED_TREE, PLACEABLE, PLACEABLE, BLOCKED_TREE, PATH, PATH, PLACEABLE, PLACEABLE;" +
-                "BLOCKED_TREE, PLACEABLE, BLOCKED_OBSTRUCTABLE, BLOCKED_TREE, PLACEABLE, PATH, PLACEABLE, BLOCKED_TREE;" +
-                "BLOCKED_TREE, PLACEABLE, BLOCKED_TREE, PLACEABLE, PLACEABLE, PATH, PLACEABLE, BLOCKED_TREE;" +
-                "PLACEABLE, PLACEABLE, PLACEABLE, BLOCKED_TREE, PLACEABLE, PATH, PLACEABLE, BLOCKED_TREE;" +
-                "BLOCKED_WATER, PLACEABLE, PLACEABLE, BLOCKED_TREE, PLACEABLE, PATH, PATH, BLOCKED_TREE;" +
-                "BLOCKED_WATER, BLOCKED_OBSTRUCTABLE, BLOCKED_OBSTRUCTABLE, BLOCKED_TREE, PLACEABLE, PLACEABLE, PATH, BLOCKED_TREE;" +
-                "BLOCKED_WATER, BLOCKED_WATER, PLACEABLE, PATH, PATH, PATH, PATH, PLACEABLE;" +
-                "BLOCKED_WATER, BLOCKED_WATER, PATH, PATH, BLOCKED_OBSTRUCTABLE, BLOCKED_OBSTRUCTABLE, PLACEABLE, PLACEABLE;" +
-                "BLOCKED_WATER, BLOCKED_WATER, PATH, BLOCKED_TREE, PLACEABLE, PLACEABLE, PLACEABLE, PLACEABLE;" +
-                "BLOCKED_WATER, BLOCKED_WATER, PATH, PATH, PATH, PATH, PLACEABLE, PLACEABLE;" +
-                "BLOCKED_WATER, BLOCKED_OBSTRUCTABLE, BLOCKED_TREE, PLACEABLE, PLACEABLE, PATH, PLACEABLE, PLACEABLE;" +
-                "BLOCKED_WATER, BLOCKED_WATER, BLOCKED_WATER, BLOCKED_WATER, END_BOTTOM, END, END_TOP, BLOCKED_WATER;";
-        String backString = TexturePack.BACKGROUND_GRIFFIN;
-        maps.put("clearing", new Map(mapString2, backString));
-        return maps;
+        MapCatalog installed = catalog;
+        if (installed == null) {
+            return Collections.unmodifiableSet(DEFINITIONS.keySet());
+        }
+        Set<String> names = new LinkedHashSet<>(DEFINITIONS.keySet());
+        names.addAll(installed.getMapNames());
+        return Collections.unmodifiableSet(names);
     }
 }
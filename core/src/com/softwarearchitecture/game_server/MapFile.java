@@ -0,0 +1,273 @@
+package com.softwarearchitecture.game_server;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Reads and writes maps in files, so maps can be made and installed without changing the game.
+ * <p>
+ * A map file starts with a header holding the name, size, start and end of the map, the types
+ * of tile it uses and free-form metadata. The grid of tiles follows, one byte per tile, row by
+ * row, each byte the index of the type of the tile in the header. The header is read on its
+ * own so maps are listed without reading their tiles, and the grid of a large map is
+ * memory-mapped instead of read through a stream.
+ * <p>
+ * All numbers are big-endian, strings are written as by {@link DataOutputStream#writeUTF}.
+ *
+ * <pre>
+ * int    magic, "BSGM"
+ * short  version
+ * int    offset of the grid in the file
+ * string name
+ * string background image
+ * int    rows, int columns
+ * int    start x, int start y, int end x, int end y, {@code -1} without a start or end
+ * short  number of tile types, followed by the name of every type
+ * short  number of metadata entries, followed by the key and value of every entry
+ * byte[] the grid, rows * columns tiles
+ * </pre>
+ */
+public final class MapFile {
+    /** The ending of the names of map files */
+    public static final String EXTENSION = ".map";
+    private static final int MAGIC = 0x4253474D;
+    private static final short VERSION = 1;
+    /** Grids of at least this many bytes are memory-mapped, smaller ones are simply read */
+    private static final int MAPPING_THRESHOLD = 4096;
+    /** The offset of the grid, written after the magic and version */
+    private static final int GRID_OFFSET_POSITION = 6;
+
+    private MapFile() {
+    }
+
+    /**
+     * A stream counting the bytes read through it, to know where the header ends.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    /**
+     * Writes a map to a file, replacing the file as a whole.
+     *
+     * @param file     The file to write.
+     * @param template The map.
+     * @param metadata Free-form information about the map.
+     * @throws IOException If the file could not be written.
+     */
+    public static void write(Path file, MapTemplate template, java.util.Map<String, String> metadata) throws IOException {
+        int rows = template.getMapHeight();
+        int columns = template.getMapWidth();
+        List<TileType> tileTypes = new ArrayList<>();
+        byte[] grid = new byte[rows * columns];
+        for (int x = 0; x < rows; x++) {
+            for (int y = 0; y < columns; y++) {
+                TileType type = template.getType(x, y);
+                int index = tileTypes.indexOf(type);
+                if (index == -1) {
+                    index = tileTypes.size();
+                    tileTypes.add(type);
+                }
+                grid[x * columns + y] = (byte) index;
+            }
+        }
+        boolean hasPath = template.getPathLength() > 0;
+        int last = template.getPathLength() - 1;
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(header);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(0); // The offset of the grid, known once the header is written
+        out.writeUTF(template.getName());
+        out.writeUTF(template.getBackgroundImage());
+        out.writeInt(rows);
+        out.writeInt(columns);
+        out.writeInt(hasPath ? template.getPathX(0) : -1);
+        out.writeInt(hasPath ? template.getPathY(0) : -1);
+        out.writeInt(hasPath ? template.getPathX(last) : -1);
+        out.writeInt(hasPath ? template.getPathY(last) : -1);
+        out.writeShort(tileTypes.size());
+        for (TileType type : tileTypes) {
+            out.writeUTF(type.name());
+        }
+        out.writeShort(metadata.size());
+        for (java.util.Map.Entry<String, String> entry : metadata.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeUTF(entry.getValue());
+        }
+        out.flush();
+        ByteBuffer headerBytes = ByteBuffer.wrap(header.toByteArray());
+        headerBytes.putInt(GRID_OFFSET_POSITION, headerBytes.limit());
+
+        // A map being replaced is never seen half written
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer gridBytes = ByteBuffer.wrap(grid);
+            while (headerBytes.hasRemaining() || gridBytes.hasRemaining()) {
+                channel.write(new ByteBuffer[] { headerBytes, gridBytes });
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the header of a map file, without reading the tiles.
+     *
+     * @param file The map file.
+     * @return The header.
+     * @throws IOException If the file could not be read or is not a map file.
+     */
+    public static MapHeader readHeader(Path file) throws IOException {
+        long fileSize = Files.size(file);
+        try (InputStream stream = Files.newInputStream(file)) {
+            CountingInputStream counter = new CountingInputStream(new BufferedInputStream(stream, 512));
+            DataInputStream in = new DataInputStream(counter);
+            if (in.readInt() != MAGIC) {
+                throw new IOException("[ERROR] Not a map file: " + file);
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("[ERROR] Map file " + file + " has unsupported version " + version);
+            }
+            long gridOffset = in.readInt();
+            String name = in.readUTF();
+            String backgroundImage = in.readUTF();
+            int rows = in.readInt();
+            int columns = in.readInt();
+            if (rows <= 0 || columns <= 0) {
+                throw new IOException("[ERROR] Map file " + file + " has no tiles, was " + rows + "x" + columns);
+            }
+            int startX = in.readInt();
+            int startY = in.readInt();
+            int endX = in.readInt();
+            int endY = in.readInt();
+            int typeCount = in.readUnsignedShort();
+            List<TileType> tileTypes = new ArrayList<>(typeCount);
+            for (int i = 0; i < typeCount; i++) {
+                String type = in.readUTF();
+                try {
+                    tileTypes.add(TileType.valueOf(type));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("[ERROR] Map file " + file + " has unknown tile type " + type, e);
+                }
+            }
+            int metadataCount = in.readUnsignedShort();
+            java.util.Map<String, String> metadata = new LinkedHashMap<>();
+            for (int i = 0; i < metadataCount; i++) {
+                metadata.put(in.readUTF(), in.readUTF());
+            }
+            // Checked here so a corrupt file is skipped like any other, before anything is allocated
+            if (gridOffset < counter.count || gridOffset + (long) rows * columns > fileSize) {
+                throw new IOException("[ERROR] Map file " + file + " has its " + rows + "x" + columns
+                        + " tiles at offset " + gridOffset + ", which does not fit a file of " + fileSize + " bytes");
+            }
+            return new MapHeader(file, name, backgroundImage, rows, columns, startX, startY, endX, endY,
+                    tileTypes, metadata, gridOffset);
+        }
+    }
+
+    /**
+     * Reads the tiles of a map file and compiles the map.
+     *
+     * @param header The header of the map file, as read by {@link #readHeader(Path)}.
+     * @return The compiled map.
+     * @throws IOException If the file could not be read or its tiles do not match the header.
+     */
+    public static MapTemplate load(MapHeader header) throws IOException {
+        Path file = header.getFile();
+        int rows = header.getRows();
+        int columns = header.getColumns();
+        long size = (long) rows * columns;
+        List<TileType> tileTypes = header.getTileTypes();
+        TileType[][] types;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The file may have changed since its header was read
+            if (header.getGridOffset() + size > channel.size() || size > Integer.MAX_VALUE) {
+                throw new IOException("[ERROR] Map file " + file + " is missing tiles");
+            }
+            types = new TileType[rows][columns];
+            ByteBuffer grid;
+            if (size >= MAPPING_THRESHOLD) {
+                grid = channel.map(FileChannel.MapMode.READ_ONLY, header.getGridOffset(), size);
+            } else {
+                grid = ByteBuffer.allocate((int) size);
+                while (grid.hasRemaining()) {
+                    if (channel.read(grid, header.getGridOffset() + grid.position()) == -1) {
+                        throw new IOException("[ERROR] Map file " + file + " is missing tiles");
+                    }
+                }
+                grid.flip();
+            }
+            for (int x = 0; x < rows; x++) {
+                for (int y = 0; y < columns; y++) {
+                    int index = grid.get() & 0xFF;
+                    if (index >= tileTypes.size()) {
+                        throw new IOException("[ERROR] Map file " + file + " has unknown tile " + index
+                                + " at " + x + "," + y);
+                    }
+                    types[x][y] = tileTypes.get(index);
+                }
+            }
+        }
+        checkPoint(header, types, header.getStartX(), header.getStartY(), TileType.START);
+        checkPoint(header, types, header.getEndX(), header.getEndY(), TileType.END);
+        return MapTemplate.of(header.getName(), types, header.getBackgroundImage());
+    }
+
+    private static void checkPoint(MapHeader header, TileType[][] types, int x, int y, TileType type)
+            throws IOException {
+        if (x == -1 && y == -1) {
+            return;
+        }
+        if (x < 0 || x >= types.length || y < 0 || y >= types[x].length || types[x][y] != type) {
+            throw new IOException("[ERROR] Map file " + header.getFile() + " has no " + type + " tile at "
+                    + x + "," + y);
+        }
+    }
+}
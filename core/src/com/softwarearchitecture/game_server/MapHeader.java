@@ -0,0 +1,102 @@
+package com.softwarearchitecture.game_server;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The header of a map file, everything about a map that is known without reading its tiles.
+ */
+public class MapHeader {
+    private final Path file;
+    private final String name;
+    private final String backgroundImage;
+    private final int rows;
+    private final int columns;
+    private final int startX;
+    private final int startY;
+    private final int endX;
+    private final int endY;
+    private final List<TileType> tileTypes;
+    private final java.util.Map<String, String> metadata;
+    private final long gridOffset;
+
+    MapHeader(Path file, String name, String backgroundImage, int rows, int columns, int startX, int startY,
+            int endX, int endY, List<TileType> tileTypes, java.util.Map<String, String> metadata, long gridOffset) {
+        this.file = file;
+        this.name = name;
+        this.backgroundImage = backgroundImage;
+        this.rows = rows;
+        this.columns = columns;
+        this.startX = startX;
+        this.startY = startY;
+        this.endX = endX;
+        this.endY = endY;
+        this.tileTypes = Collections.unmodifiableList(tileTypes);
+        this.metadata = Collections.unmodifiableMap(metadata);
+        this.gridOffset = gridOffset;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getBackgroundImage() {
+        return backgroundImage;
+    }
+
+    /**
+     * @return The number of rows of tiles, the height of the map.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return The number of tiles in a row, the width of the map.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getStartX() {
+        return startX;
+    }
+
+    public int getStartY() {
+        return startY;
+    }
+
+    public int getEndX() {
+        return endX;
+    }
+
+    public int getEndY() {
+        return endY;
+    }
+
+    /**
+     * @return The types of the tiles of the map, the grid of the file refers to them by index.
+     */
+    public List<TileType> getTileTypes() {
+        return tileTypes;
+    }
+
+    /**
+     * @return Free-form information about the map, like its author or difficulty.
+     */
+    public java.util.Map<String, String> getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * @return The position in the file of the first tile of the grid.
+     */
+    public long getGridOffset() {
+        return gridOffset;
+    }
+}
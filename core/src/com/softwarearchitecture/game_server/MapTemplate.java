@@ -0,0 +1,367 @@
+package com.softwarearchitecture.game_server;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.softwarearchitecture.game_client.TexturePack;
+
+/**
+ * A map compiled from its definition, shared by every match on the map.
+ * <p>
+ * The layout is parsed once into the type of every tile, from which the path of the enemies,
+ * the tiles a card can be placed on and the texture of every tile are worked out up front.
+ * The template is immutable, the cards and towers of a match are kept by the {@link Map}
+ * created from it.
+ */
+public final class MapTemplate {
+    /** East, West, North, South */
+    private static final int[][] DIRECTIONS = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+
+    private final String name;
+    private final String backgroundImage;
+    private final TileType[][] types;
+    private final boolean[][] buildable;
+    private final String[][] textures;
+    /** The coordinates of the tiles of the path, from the start to the end */
+    private final int[] pathXs;
+    private final int[] pathYs;
+
+    private MapTemplate(String name, String backgroundImage, TileType[][] types) {
+        this.name = name;
+        this.backgroundImage = backgroundImage;
+        this.types = types;
+        this.buildable = new boolean[types.length][];
+        for (int x = 0; x < types.length; x++) {
+            buildable[x] = new boolean[types[x].length];
+            for (int y = 0; y < types[x].length; y++) {
+                buildable[x][y] = types[x][y] == TileType.PLACEABLE;
+            }
+        }
+        // The same map gets the same variants of the textures in every match
+        Random random = new Random(name.hashCode());
+        this.textures = new String[types.length][];
+        for (int x = 0; x < types.length; x++) {
+            textures[x] = new String[types[x].length];
+            for (int y = 0; y < types[x].length; y++) {
+                textures[x][y] = textureFor(x, y, random);
+            }
+        }
+        int[][] path = findPath();
+        this.pathXs = path[0];
+        this.pathYs = path[1];
+    }
+
+    /**
+     * Parses the definition of a map.
+     *
+     * @param name            The name of the map.
+     * @param mapString       The types of the tiles, separated by commas within a row and by
+     *                        semicolons between rows.
+     * @param backgroundImage The texture drawn behind the map.
+     * @return The compiled map.
+     * @throws IllegalArgumentException If the definition has no tiles, rows of different
+     *                                  lengths or an unknown tile type.
+     */
+    public static MapTemplate compile(String name, String mapString, String backgroundImage)
+            throws IllegalArgumentException {
+        String[] rows = mapString.split(";");
+        if (rows.length == 0 || rows[0].trim().isEmpty()) {
+            throw new IllegalArgumentException("[ERROR] Map " + name + " has no tiles");
+        }
+        int cols = rows[0].split(",\\s*").length;
+        TileType[][] types = new TileType[rows.length][cols];
+        for (int i = 0; i < rows.length; i++) {
+            String[] colsArray = rows[i].split(",\\s*");
+            if (colsArray.length != cols) {
+                throw new IllegalArgumentException("[ERROR] Row " + i + " of map " + name + " has "
+                        + colsArray.length + " tiles, expected " + cols);
+            }
+            for (int j = 0; j < cols; j++) {
+                types[i][j] = TileType.valueOf(colsArray[j].trim().toUpperCase());
+            }
+        }
+        return new MapTemplate(name, backgroundImage, types);
+    }
+
+    /**
+     * Creates a map from the types of its tiles.
+     *
+     * @param name            The name of the map.
+     * @param types           The type of every tile, indexed like {@link Map#getMapLayout()}.
+     * @param backgroundImage The texture drawn behind the map.
+     * @return The compiled map.
+     * @throws IllegalArgumentException If there are no tiles or the rows have different lengths.
+     */
+    public static MapTemplate of(String name, TileType[][] types, String backgroundImage)
+            throws IllegalArgumentException {
+        if (types.length == 0 || types[0].length == 0) {
+            throw new IllegalArgumentException("[ERROR] Map " + name + " has no tiles");
+        }
+        TileType[][] copy = new TileType[types.length][];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i].length != types[0].length) {
+                throw new IllegalArgumentException("[ERROR] Row " + i + " of map " + name + " has "
+                        + types[i].length + " tiles, expected " + types[0].length);
+            }
+            copy[i] = types[i].clone();
+        }
+        return new MapTemplate(name, backgroundImage, copy);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getBackgroundImage() {
+        return backgroundImage;
+    }
+
+    public int getMapWidth() {
+        return types[0].length;
+    }
+
+    public int getMapHeight() {
+        return types.length;
+    }
+
+    public TileType getType(int x, int y) {
+        return types[x][y];
+    }
+
+    public boolean isBuildable(int x, int y) {
+        return buildable[x][y];
+    }
+
+    public String getTexture(int x, int y) {
+        return textures[x][y];
+    }
+
+    /**
+     * @return The number of tiles of the path of the enemies.
+     */
+    public int getPathLength() {
+        return pathXs.length;
+    }
+
+    public int getPathX(int index) {
+        return pathXs[index];
+    }
+
+    public int getPathY(int index) {
+        return pathYs[index];
+    }
+
+    /**
+     * Walks the path from the start to the end, every tile of the path being visited once.
+     *
+     * @return The x- and y-coordinates of the tiles of the path, empty without a start and end.
+     */
+    private int[][] findPath() {
+        int startX = -1;
+        int startY = -1;
+        int endX = -1;
+        int endY = -1;
+        int pathTiles = 0;
+        for (int x = 0; x < types.length; x++) {
+            for (int y = 0; y < types[x].length; y++) {
+                if (types[x][y] == TileType.START) {
+                    startX = x;
+                    startY = y;
+                } else if (types[x][y] == TileType.END) {
+                    endX = x;
+                    endY = y;
+                } else if (types[x][y] == TileType.PATH) {
+                    pathTiles++;
+                }
+            }
+        }
+        if (startX == -1 || endX == -1) {
+            return new int[][] { new int[0], new int[0] };
+        }
+
+        int[] xs = new int[pathTiles + 2];
+        int[] ys = new int[pathTiles + 2];
+        boolean[][] visited = new boolean[types.length][types[0].length];
+        int length = 0;
+        int x = startX;
+        int y = startY;
+        xs[length] = x;
+        ys[length] = y;
+        length++;
+        while (!(x == endX && y == endY)) {
+            int next = -1;
+            for (int d = 0; d < DIRECTIONS.length && next == -1; d++) {
+                int nx = x + DIRECTIONS[d][0];
+                int ny = y + DIRECTIONS[d][1];
+                if (nx >= 0 && nx < types.length && ny >= 0 && ny < types[nx].length
+                        && (nx == endX && ny == endY || types[nx][ny] == TileType.PATH && !visited[nx][ny])) {
+                    next = d;
+                }
+            }
+            if (next == -1) {
+                // No more valid paths
+                xs[length] = endX;
+                ys[length] = endY;
+                length++;
+                break;
+            }
+            x += DIRECTIONS[next][0];
+            y += DIRECTIONS[next][1];
+            visited[x][y] = true;
+            xs[length] = x;
+            ys[length] = y;
+            length++;
+        }
+        return new int[][] { Arrays.copyOf(xs, length), Arrays.copyOf(ys, length) };
+    }
+
+    private boolean isType(int x, int y, TileType type) {
+        return x >= 0 && x < types.length && y >= 0 && y < types[x].length && types[x][y] == type;
+    }
+
+    private String textureFor(int x, int y, Random random) {
+        switch (types[x][y]) {
+            case PLACEABLE:
+                switch (random.nextInt(4)) {
+                    case 0:
+                        return TexturePack.TILE_GRASS_01;
+                    case 1:
+                        return TexturePack.TILE_GRASS_02;
+                    case 2:
+                        return TexturePack.TILE_GRASS_03;
+                    default:
+                        return TexturePack.TILE_GRASS_04;
+                }
+            case PATH:
+                int[] dir1 = null;
+                int[] dir2 = null;
+                int pathCount = 0;
+                for (int[] dir : DIRECTIONS) {
+                    if (isType(x + dir[0], y + dir[1], TileType.PATH)) {
+                        pathCount++;
+                        if (dir1 == null) {
+                            dir1 = dir;
+                        } else if (dir2 == null) {
+                            dir2 = dir;
+                        }
+                    }
+                }
+
+                if (pathCount == 2) {
+                    // Check if the path tiles are on opposite sides
+                    if (dir1[0] == -dir2[0] && dir1[1] == -dir2[1]) {
+                        // Path is straight
+                        if (dir1[0] != 0) {
+                            // Path is horizontal
+                            return random.nextBoolean() ? TexturePack.TILE_PATH_HORIZONTAL_01
+                                    : TexturePack.TILE_PATH_HORIZONTAL_02;
+                        } else {
+                            // Path is vertical
+                            return random.nextBoolean() ? TexturePack.TILE_PATH_VERTICAL_01
+                                    : TexturePack.TILE_PATH_VERTICAL_02;
+                        }
+                    } else {
+                        // Determine the direction of the corner
+                        if ((dir1[0] == 1 && dir2[1] == 1) || (dir2[0] == 1 && dir1[1] == 1)) {
+                            return TexturePack.TILE_PATH_CORNER_02;
+                        } else if ((dir1[0] == -1 && dir2[1] == 1) || (dir2[0] == -1 && dir1[1] == 1)) {
+                            return TexturePack.TILE_PATH_CORNER_03;
+                        } else if ((dir1[0] == -1 && dir2[1] == -1) || (dir2[0] == -1 && dir1[1] == -1)) {
+                            return TexturePack.TILE_PATH_CORNER_04;
+                        } else { // dir1[0] == 1 && dir2[1] == -1 || dir2[0] == 1 && dir1[1] == -1
+                            return TexturePack.TILE_PATH_CORNER_01;
+                        }
+                    }
+                } else {
+                    return TexturePack.TILE_PATH_HORIZONTAL_01;
+                }
+            case BLOCKED_WATER:
+                // Neighbors outside the bounds of the map count as water
+                boolean[] isWater = new boolean[4];
+                for (int i = 0; i < DIRECTIONS.length; i++) {
+                    int nx = x + DIRECTIONS[i][0];
+                    int ny = y + DIRECTIONS[i][1];
+                    boolean inside = nx >= 0 && nx < types.length && ny >= 0 && ny < types[nx].length;
+                    isWater[i] = !inside || types[nx][ny] == TileType.BLOCKED_WATER;
+                }
+
+                // if no neighbor tiles are water
+                if (!isWater[0] && !isWater[1] && !isWater[2] && !isWater[3]) {
+                    return TexturePack.TILE_WATER;
+                }
+
+                // if one or three neighbor tile(s) is water
+                if ((isWater[0] && !isWater[1] && !isWater[2] && !isWater[3])) {
+                    return TexturePack.TILE_WATER_TOP_EDGE;
+                } else if (!isWater[0] && isWater[1] && !isWater[2] && !isWater[3]) {
+                    return TexturePack.TILE_WATER_RIGHT_EDGE;
+                } else if (!isWater[0] && !isWater[1] && isWater[2] && !isWater[3]) {
+                    return TexturePack.TILE_WATER_BOTTOM_EDGE;
+                } else if (!isWater[0] && !isWater[1] && !isWater[2] && isWater[3]) {
+                    return TexturePack.TILE_WATER_LEFT_EDGE;
+                }
+
+                // if two neighbor tiles are water
+                if (isWater[0] && !isWater[1] && !isWater[2] && isWater[3]) {
+                    return TexturePack.TILE_WATER_TOP_CORNER_LEFT;
+                } else if (!isWater[0] && isWater[1] && !isWater[2] && isWater[3]) {
+                    return TexturePack.TILE_WATER_TOP_CORNER_RIGHT;
+                } else if (!isWater[0] && isWater[1] && isWater[2] && !isWater[3]) {
+                    return TexturePack.TILE_WATER_BOTTOM_CORNER_RIGHT;
+                } else if (isWater[0] && !isWater[1] && isWater[2] && !isWater[3]) {
+                    return TexturePack.TILE_WATER_BOTTOM_CORNER_LEFT;
+                }
+
+                // if three neighbor tiles are water
+                if (isWater[0] && isWater[1] && isWater[2] && !isWater[3]) {
+                    return TexturePack.TILE_WATER_RIGHT_EDGE;
+                } else if (isWater[0] && isWater[1] && !isWater[2] && isWater[3]) {
+                    return TexturePack.TILE_WATER_TOP_EDGE;
+                } else if (isWater[0] && !isWater[1] && isWater[2] && isWater[3]) {
+                    return TexturePack.TILE_WATER_LEFT_EDGE;
+                } else if (!isWater[0] && isWater[1] && isWater[2] && isWater[3]) {
+                    return TexturePack.TILE_WATER_BOTTOM_EDGE;
+                }
+
+                // if all neighbor tiles are water
+                if (isWater[0] && isWater[1] && isWater[2] && isWater[3]) {
+                    return TexturePack.TILE_WATER;
+                }
+
+            case BLOCKED_OBSTRUCTABLE:
+                // randomly choose between TILE_OBSTRUCTED_01 to 06
+                switch (random.nextInt(6)) {
+                    case 0:
+                        return TexturePack.TILE_OBSTRUCTED_01;
+                    case 1:
+                        return TexturePack.TILE_OBSTRUCTED_02;
+                    case 2:
+                        return TexturePack.TILE_OBSTRUCTED_03;
+                    case 3:
+                        return TexturePack.TILE_OBSTRUCTED_04;
+                    case 4:
+                        return TexturePack.TILE_OBSTRUCTED_05;
+                    default:
+                        return TexturePack.TILE_OBSTRUCTED_06;
+                }
+            case BLOCKED_TREE:
+                // default to TILE_TREE_BOTTOM_01 but if the tile under is tree, use
+                // TILE_TREE_TOP_01
+                if (isType(x, y + 1, TileType.BLOCKED_TREE)) {
+                    return TexturePack.TILE_TREE_BOTTOM_01;
+                } else {
+                    return TexturePack.TILE_TREE_TOP_01;
+                }
+            case END:
+                return TexturePack.TILE_END;
+            case END_BOTTOM:
+                return TexturePack.TILE_CASTLE_BOTTOM;
+            case END_TOP:
+                return TexturePack.TILE_CASTLE_TOP;
+            case START:
+                return TexturePack.TILE_PATH_HORIZONTAL_01;
+            default:
+                return TexturePack.COLOR_WHITE;
+        }
+    }
+}
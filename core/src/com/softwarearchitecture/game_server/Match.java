@@ -0,0 +1,38 @@
+package com.softwarearchitecture.game_server;
+
+import com.softwarearchitecture.ecs.ParallelSystemExecutor;
+
+/**
+ * A match that can be advanced one step at a time by a {@link GameServerHost}.
+ * <p>
+ * A tick must never block waiting for players or timers; a match that has to
+ * wait checks again on its next tick instead. The host guarantees that a match
+ * is never ticked by two threads at once.
+ */
+public interface Match {
+
+    /**
+     * Advances the match by one step.
+     *
+     * @return {@code true} while the match wants to be ticked again, {@code false}
+     *         once it has finished and torn itself down.
+     */
+    boolean tick();
+
+    /**
+     * Ends the match early and releases everything it published. Called by the
+     * host when it shuts down or when a tick has failed. Calling it on a finished
+     * match does nothing.
+     */
+    void stop();
+
+    /**
+     * Lets the match run its systems in parallel on the system threads of the host. Called
+     * by a host running systems in parallel when it admits the match, before its first tick.
+     * A match ignoring it runs its systems on the worker ticking it.
+     *
+     * @param executor The executor shared by all matches of the host.
+     */
+    default void useSystemExecutor(ParallelSystemExecutor executor) {
+    }
+}
@@ -3,35 +3,65 @@ package com.softwarearchitecture.game_server;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import com.softwarearchitecture.ecs.ECSManager;
 
 public interface ServerMessagingController {
 
     /**
-     * Create a new game and return the game ID.
+     * Create a new game and return the game ID. Waits for the game to be stored, so a
+     * game server uses {@link #createGame(GameState)} instead.
      * 
      * @return the game ID of the new game
      */
     public UUID createGame(String mapName);
 
+    /**
+     * Stores the initial state of a new game and lists it for the players, without waiting
+     * for the storage. The game ID and map name of the state are those of the game.
+     * 
+     * @param gameState the initial state of the game
+     * @return a future completed with {@code true} once the game is stored, or with
+     *         {@code false} if it could not be
+     */
+    public CompletableFuture<Boolean> createGame(GameState gameState);
+
     /**
      * Get the game state of the game with the given game ID.
      * 
      * @param gameId of the game to get the game state of
+     * @param ecs the manager the entities of the game state are read into
      * @return the game state of the game with the given game ID
      */
-    public GameState getGameState(UUID gameId);
+    public GameState getGameState(UUID gameId, ECSManager ecs);
 
     /**
      * Make the server update the game state to the new game state for all clients.
+     * Should be called once per server tick, as the clients are sent the changes
+     * since the last state they have received. A state arriving sooner than the publish
+     * rate allows is kept back, replacing any state kept before it, until
+     * {@link #flushGameState(UUID)} publishes it.
      * 
      * @param gameId the game ID of the game to update
      * @param gameState the new game state
      */
     public void setNewGameState(UUID gameId, GameState gameState);
 
+    /**
+     * Publishes the state kept back by {@link #setNewGameState(UUID, GameState)} once the
+     * publish rate allows it. Should be called on every server tick, on the thread ticking
+     * the game, so the last state reaches the clients even if no later state follows it.
+     * 
+     * @param gameId the game ID of the game to flush
+     */
+    public void flushGameState(UUID gameId);
+
     /**
      * Add all the actions pending to be performed in the game for the given playerId.
-     * @param gameId of the game to add the actions to
+     * Every action is returned once, in the order the player made them, and the last one
+     * is acknowledged to the player.
+     * @param playerId of the player whose actions are performed
      */
     public List<PlayerInput> lookForPendingActions(UUID playerId);
 
@@ -50,10 +80,12 @@ public interface ServerMessagingController {
     public void removeGame(UUID gameId);
 
     /**
-     * Sets the high score for a game based on the number of waves survived.
+     * Sets the high score for a game based on the number of waves survived. The score is
+     * kept if it ranks among the best of its map or of all maps.
      * 
      * @param gameId the UUID of the game
+     * @param mapName the map the game was played on
      * @param wavesSurvived the number of waves survived
      */
-    public void setHighScore(UUID gameId, int wavesSurvived);
+    public void setHighScore(UUID gameId, String mapName, int wavesSurvived);
 }
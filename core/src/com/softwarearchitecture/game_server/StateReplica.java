@@ -0,0 +1,178 @@
+package com.softwarearchitecture.game_server;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import com.softwarearchitecture.ecs.ECSManager;
+import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.game_server.codec.ComponentCodecs;
+import com.softwarearchitecture.game_server.codec.WireReader;
+
+/**
+ * The client side of {@link StateReplicator}: applies the messages of one game to the
+ * remote entities of a manager and keeps track of the last sequence applied, which the
+ * client acknowledges to the server.
+ * <p>
+ * A delta can be applied as long as its base is not newer than the last sequence applied,
+ * since it then holds every change the client has missed. If a delta starts after that,
+ * the replica asks for the full state through {@link #needsFullState()} and keeps showing
+ * the last state until it arrives.
+ */
+public class StateReplica {
+    private final ECSManager ecs;
+    private final WireReader in;
+    private GameState state;
+    private long lastApplied = StateReplicator.FULL_STATE;
+    private boolean needsFullState = false;
+
+    /**
+     * @param ecs The manager the entities of the game are read into.
+     */
+    public StateReplica(ECSManager ecs) {
+        this.ecs = ecs;
+        this.in = new WireReader(ecs);
+    }
+
+    /**
+     * @return The manager the entities of the game are read into.
+     */
+    public ECSManager getECSManager() {
+        return ecs;
+    }
+
+    /**
+     * @return The last sequence applied, {@link StateReplicator#FULL_STATE} if none or if the full state is needed.
+     */
+    public long getAcknowledgement() {
+        return needsFullState ? StateReplicator.FULL_STATE : lastApplied;
+    }
+
+    /**
+     * @return {@code true} if a delta could not be applied and the full state is needed.
+     */
+    public boolean needsFullState() {
+        return needsFullState;
+    }
+
+    /**
+     * @return The last game state applied.
+     */
+    public Optional<GameState> getState() {
+        return Optional.ofNullable(state);
+    }
+
+    /**
+     * Applies a message written by {@link StateReplicator#encode(GameState, long)}.
+     *
+     * @param data The message.
+     * @return {@code true} if the message was applied, {@code false} if it was already
+     *         applied or could not be applied.
+     * @throws IOException If the message is malformed.
+     */
+    public boolean apply(byte[] data) throws IOException {
+        try {
+            in.reset(data);
+            return apply();
+        } catch (BufferUnderflowException | IllegalStateException e) {
+            throw new IOException("[ERROR] Malformed game state message", e);
+        }
+    }
+
+    private boolean apply() {
+        String version = in.readString();
+        if (!GameState.game_version.equals(version)) {
+            System.err.println("Missmatch in game version! Read version: " + version);
+            return false;
+        }
+        UUID gameID = in.readUUID();
+        long playerOneId = in.readNetworkId();
+        long playerTwoId = in.readNetworkId();
+        String mapName = in.readString();
+        long timeStamp = in.readVarLong();
+        long sequence = in.readVarLong();
+        long base = in.readSignedVarLong();
+
+        boolean full = base == StateReplicator.FULL_STATE;
+        if (sequence <= lastApplied && !needsFullState) {
+            return false;
+        }
+        if (!full && (base > lastApplied || needsFullState)) {
+            needsFullState = true;
+            return false;
+        }
+        if (playerOneId == GameState.NO_ENTITY) {
+            throw new IllegalStateException("Player one must be an entity");
+        }
+
+        long[] removed = readIds();
+        long[] replaced = readIds();
+        if (full) {
+            Set<Long> retained = new HashSet<>();
+            for (long id : replaced) {
+                retained.add(id);
+            }
+            // The players are sent separately and must survive even if they are not local on the sender
+            retained.add(playerOneId);
+            retained.add(playerTwoId);
+            ecs.retainRemoteEntities(retained);
+        } else {
+            for (long id : removed) {
+                ecs.destroyRemoteEntity(id);
+            }
+        }
+
+        Map<Long, Integer> received = new HashMap<>();
+        for (int i = 0; i < GameState.REPLICATED_COMPONENTS.size(); i++) {
+            Class<?> type = GameState.REPLICATED_COMPONENTS.get(i);
+            int count = in.readCount();
+            for (int j = 0; j < count; j++) {
+                long id = in.readVarLong();
+                Entity entity = ecs.getOrCreateRemoteEntity(id);
+                readComponent(type, entity);
+                ecs.addRemoteEntity(entity);
+                received.merge(id, 1 << i, (a, b) -> a | b);
+            }
+        }
+        // Entities whose component set changed lose the components that were not sent
+        for (long id : replaced) {
+            Entity entity = ecs.getOrCreateRemoteEntity(id);
+            ecs.addRemoteEntity(entity);
+            int mask = received.getOrDefault(id, 0);
+            for (int i = 0; i < GameState.REPLICATED_COMPONENTS.size(); i++) {
+                if ((mask & (1 << i)) == 0) {
+                    ecs.getOrDefaultComponentManager(GameState.REPLICATED_COMPONENTS.get(i)).removeComponent(entity);
+                }
+            }
+        }
+
+        GameState next = new GameState(ecs);
+        next.gameID = gameID;
+        next.mapName = mapName;
+        next.timeStamp = timeStamp;
+        next.playerOne = next.readRemoteEntity(playerOneId);
+        next.playerTwo = playerTwoId == GameState.NO_ENTITY ? null : next.readRemoteEntity(playerTwoId);
+        state = next;
+        lastApplied = sequence;
+        needsFullState = false;
+        return true;
+    }
+
+    private <T> void readComponent(Class<T> type, Entity entity) {
+        entity.addComponent(type, ComponentCodecs.get(type).read(in));
+    }
+
+    private long[] readIds() {
+        int count = in.readCount();
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = in.readVarLong();
+        }
+        return ids;
+    }
+}
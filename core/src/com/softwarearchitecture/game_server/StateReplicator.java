@@ -0,0 +1,260 @@
+package com.softwarearchitecture.game_server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.softwarearchitecture.ecs.ComponentManager;
+import com.softwarearchitecture.ecs.ECSManager;
+import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.game_server.codec.ComponentCodecs;
+import com.softwarearchitecture.game_server.codec.WireWriter;
+
+/**
+ * Sends the state of one game to its clients as deltas instead of full snapshots.
+ * <p>
+ * Every call to {@link #capture(GameState)} starts a new sequence number and compares the
+ * encoded components of every local entity with the previous capture, remembering the
+ * sequence each component last changed at. {@link #encode(GameState, long)} then writes
+ * only the components that changed after the sequence a client acknowledged, together with
+ * the entities removed since. Static entities like tiles and paths are therefore only sent
+ * once.
+ * <p>
+ * A client that has not acknowledged anything, or whose acknowledgement is older than the
+ * kept history, gets the full state. Every client also gets the full state every
+ * {@link #KEYFRAME_INTERVAL} sequences, so a client can never drift for long. The messages
+ * are read by {@link StateReplica}.
+ * <p>
+ * Components are written in the binary format of {@link ComponentCodecs}.
+ */
+public class StateReplicator {
+    /** Number of sequences between two full states sent to every client */
+    public static final int KEYFRAME_INTERVAL = 120;
+    /** Number of sequences removals are remembered, older acknowledgements get the full state */
+    public static final int HISTORY_LENGTH = 600;
+    /** Base sequence of a message holding the full state, also used as "nothing acknowledged" */
+    public static final long FULL_STATE = -1L;
+
+    private static final int TYPE_COUNT = GameState.REPLICATED_COMPONENTS.size();
+
+    /** What was sent last of a local entity, by network id */
+    private final Map<Long, EntityRecord> records = new HashMap<>();
+    /** The sequence each recently removed entity was removed at, by network id */
+    private final Map<Long, Long> removedAt = new HashMap<>();
+    private final WireWriter componentWriter = new WireWriter(256);
+    private final WireWriter messageWriter = new WireWriter(4096);
+    private long sequence = 0;
+    /** The last sequence anything of the state changed at */
+    private long lastChange = 0;
+    private long lastPlayerOne = Long.MIN_VALUE;
+    private long lastPlayerTwo = Long.MIN_VALUE;
+    /**
+     * Every this many captures all local entities are compared, so a change made in
+     * place without {@link ECSManager#markChanged(Entity)} is still sent eventually.
+     */
+    private static final int FULL_CAPTURE_INTERVAL = 64;
+    /** The manager of the last capture, and the change version it ended */
+    private ECSManager capturedManager;
+    private long capturedVersion;
+
+    private static final class EntityRecord {
+        final byte[][] components = new byte[TYPE_COUNT][];
+        final long[] changedAt = new long[TYPE_COUNT];
+        /** The sequence a component was last added to or removed from the entity */
+        long structureChangedAt;
+        long seenAt;
+    }
+
+    /**
+     * Compares the local entities of the state's manager with the previous capture and
+     * starts a new sequence. Only the entities changed since the previous capture are
+     * encoded, see {@link ECSManager#markChanged(Entity)}.
+     *
+     * @param state The game state to capture.
+     * @return The new sequence number.
+     */
+    public long capture(GameState state) {
+        sequence++;
+        ECSManager ecs = state.getECSManager();
+        List<ComponentManager<?>> managers = new ArrayList<>(TYPE_COUNT);
+        for (Class<?> type : GameState.REPLICATED_COMPONENTS) {
+            managers.add(ecs.getOrDefaultComponentManager(type));
+        }
+        long version = ecs.nextChangeVersion();
+        boolean fullCapture = ecs != capturedManager || sequence % FULL_CAPTURE_INTERVAL == 0;
+
+        for (Entity entity : ecs.getLocalEntities()) {
+            long networkId = GameState.toNetworkId(entity);
+            EntityRecord record = records.get(networkId);
+            if (record != null && !fullCapture && ecs.getChangedAt(entity) <= capturedVersion) {
+                record.seenAt = sequence;
+                continue;
+            }
+            boolean structureChanged = false;
+            if (record == null) {
+                record = new EntityRecord();
+                records.put(networkId, record);
+                structureChanged = true;
+            }
+            for (int i = 0; i < TYPE_COUNT; i++) {
+                Object component = managers.get(i).get(entity);
+                byte[] previous = record.components[i];
+                if (component == null) {
+                    if (previous != null) {
+                        record.components[i] = null;
+                        structureChanged = true;
+                    }
+                    continue;
+                }
+                componentWriter.clear();
+                ComponentCodecs.write(componentWriter, GameState.REPLICATED_COMPONENTS.get(i), component);
+                if (previous == null) {
+                    structureChanged = true;
+                    record.components[i] = componentWriter.toByteArray();
+                } else if (!componentWriter.contentEquals(previous)) {
+                    record.changedAt[i] = sequence;
+                    record.components[i] = componentWriter.toByteArray();
+                    lastChange = sequence;
+                }
+            }
+            if (structureChanged) {
+                record.structureChangedAt = sequence;
+                Arrays.fill(record.changedAt, sequence);
+                lastChange = sequence;
+            }
+            record.seenAt = sequence;
+        }
+        capturedManager = ecs;
+        capturedVersion = version;
+
+        Iterator<Map.Entry<Long, EntityRecord>> iterator = records.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, EntityRecord> entry = iterator.next();
+            if (entry.getValue().seenAt != sequence) {
+                removedAt.put(entry.getKey(), sequence);
+                iterator.remove();
+                lastChange = sequence;
+            }
+        }
+        removedAt.values().removeIf(removed -> removed < sequence - HISTORY_LENGTH);
+        return sequence;
+    }
+
+    /**
+     * Tells whether the players are other entities than at the previous call to
+     * {@link #isFullStateDue(GameState)}, without capturing the state.
+     *
+     * @param state The game state to compare.
+     */
+    public boolean havePlayersChanged(GameState state) {
+        return networkIdOf(state.playerOne) != lastPlayerOne || networkIdOf(state.playerTwo) != lastPlayerTwo;
+    }
+
+    /**
+     * Tells whether the full state should be stored for readers that do not follow the
+     * deltas, such as the lobby listing and joining players. That is the case every
+     * {@link #KEYFRAME_INTERVAL} sequences and whenever the players have changed.
+     *
+     * @param state The game state captured last.
+     */
+    public boolean isFullStateDue(GameState state) {
+        boolean playersChanged = havePlayersChanged(state);
+        lastPlayerOne = networkIdOf(state.playerOne);
+        lastPlayerTwo = networkIdOf(state.playerTwo);
+        return playersChanged || sequence % KEYFRAME_INTERVAL == 0;
+    }
+
+    /**
+     * Writes the changes made after a client's acknowledged sequence, or the full state if
+     * the client has to start over.
+     *
+     * @param state        The game state captured last.
+     * @param acknowledged The last sequence the client has applied, {@link #FULL_STATE} if none.
+     * @return The message to send to the client.
+     */
+    public byte[] encode(GameState state, long acknowledged) {
+        boolean full = acknowledged < 1 || acknowledged > sequence || acknowledged < sequence - HISTORY_LENGTH
+                || sequence % KEYFRAME_INTERVAL == 0;
+        long base = full ? FULL_STATE : acknowledged;
+
+        WireWriter out = messageWriter;
+        out.clear();
+        out.writeString(GameState.game_version);
+        out.writeUUID(state.gameID);
+        out.writeEntity(state.playerOne);
+        out.writeEntity(state.playerTwo);
+        out.writeString(state.mapName);
+        out.writeVarLong(state.timeStamp);
+        out.writeVarLong(sequence);
+        out.writeSignedVarLong(base);
+
+        // Entities removed since the base, a full state lists the entities to keep instead
+        List<Long> removed = new ArrayList<>();
+        if (!full) {
+            for (Map.Entry<Long, Long> entry : removedAt.entrySet()) {
+                if (entry.getValue() > base) {
+                    removed.add(entry.getKey());
+                }
+            }
+        }
+        writeIds(out, removed);
+
+        // Entities whose component set changed, the client drops the components not sent
+        List<Long> replaced = new ArrayList<>();
+        for (Map.Entry<Long, EntityRecord> entry : records.entrySet()) {
+            if (full || entry.getValue().structureChangedAt > base) {
+                replaced.add(entry.getKey());
+            }
+        }
+        writeIds(out, replaced);
+
+        for (int i = 0; i < TYPE_COUNT; i++) {
+            int count = 0;
+            for (EntityRecord record : records.values()) {
+                if (record.components[i] != null && record.changedAt[i] > base) {
+                    count++;
+                }
+            }
+            out.writeVarInt(count);
+            for (Map.Entry<Long, EntityRecord> entry : records.entrySet()) {
+                EntityRecord record = entry.getValue();
+                if (record.components[i] != null && record.changedAt[i] > base) {
+                    out.writeVarLong(entry.getKey());
+                    out.writeBytes(record.components[i]);
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return The sequence number of the last capture.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * The last sequence a component changed, appeared or disappeared at. A client that has
+     * acknowledged this sequence has the current state, apart from its time stamp.
+     *
+     * @return The sequence number, {@code 0} before the first capture.
+     */
+    public long getLastChange() {
+        return lastChange;
+    }
+
+    private static void writeIds(WireWriter out, List<Long> ids) {
+        out.writeVarInt(ids.size());
+        for (long id : ids) {
+            out.writeVarLong(id);
+        }
+    }
+
+    private static long networkIdOf(Entity entity) {
+        return entity == null ? GameState.NO_ENTITY : GameState.toNetworkId(entity);
+    }
+}
@@ -1,5 +1,6 @@
 package com.softwarearchitecture.game_server;
 
+import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
 import com.softwarearchitecture.game_server.CardFactory.CardType;
 import com.softwarearchitecture.game_server.PairableCards.TowerType;
@@ -10,6 +11,7 @@ import com.softwarearchitecture.ecs.components.PositionComponent;
 import com.softwarearchitecture.ecs.components.SoundComponent;
 import com.softwarearchitecture.ecs.components.SpriteComponent;
 import com.softwarearchitecture.ecs.components.TowerComponent;
+import com.softwarearchitecture.ecs.components.TowerComponent.Targeting;
 import com.softwarearchitecture.game_client.TexturePack;
 
 import java.util.ArrayList;
@@ -17,7 +19,7 @@ import java.util.List;
 import java.util.Optional;
 
 public class TowerFactory {
-    public static Entity createTower(CardType cardType1, CardType cardType2, Vector2 position) {
+    public static Entity createTower(ECSManager ecs, CardType cardType1, CardType cardType2, Vector2 position) {
         if (cardType1 == null || cardType2 == null) {
             throw new IllegalArgumentException("Card type cannot be null");
         }
@@ -26,10 +28,10 @@ public class TowerFactory {
         if (!towerType.isPresent()) {
             throw new IllegalArgumentException("Invalid tower type combination");
         }
-        return createTower(towerType.get(), position);
+        return createTower(ecs, towerType.get(), position);
     }
 
-    public static Entity createTower(TowerType towerType, Vector2 position) {
+    public static Entity createTower(ECSManager ecs, TowerType towerType, Vector2 position) {
         if (position == null) {
             throw new IllegalArgumentException("Position cannot be null");
         }
@@ -40,6 +42,7 @@ public class TowerFactory {
         float attackCooldown = 0;
         String sound = AudioPack.PLACING_CARD;
         float timeFactor = 1f;
+        Targeting targeting = Targeting.FIRST;
 
         AreaOfEffectComponent areaOfEffectComponent = null;
 
@@ -95,6 +98,8 @@ public class TowerFactory {
                 range = 20f;
                 attackCooldown = 15f * timeFactor;
                 sound = AudioPack.TOWER_SHARP_SHOOTER;
+                // A shot this rare is wasted on an enemy that any tower kills
+                targeting = Targeting.STRONGEST;
                 break;
             case BOW:
                 textures.add(TexturePack.TOWER_BOW);
@@ -148,6 +153,7 @@ public class TowerFactory {
                 range = 4.5f;
                 attackCooldown = 7f * timeFactor;
                 sound = AudioPack.TOWER_MORTAR;
+                targeting = Targeting.STRONGEST;
                 break;
 
             case INFERNO:
@@ -251,12 +257,13 @@ public class TowerFactory {
 
         // Create the components for the tower
         TowerComponent towerComponent = new TowerComponent(damage, range, attackCooldown, towerType);
+        towerComponent.targeting = targeting;
         PositionComponent positionComponent = new PositionComponent(position, 10);
         AnimationComponent animationComponent = new AnimationComponent(textures);
         SpriteComponent spriteComponent = new SpriteComponent(textures.get(0), size);
         SoundComponent soundComponent = new SoundComponent(sound, false, false); // TODO: Add the correct sound path
         // Create the tower entity and add the components
-        Entity tower = new Entity();
+        Entity tower = ecs.createEntity();
         tower.addComponent(TowerComponent.class, towerComponent);
         tower.addComponent(SpriteComponent.class, spriteComponent);
         tower.addComponent(PositionComponent.class, positionComponent);
@@ -269,7 +276,7 @@ public class TowerFactory {
         return tower;
     }
 
-    public static Entity copyTower(Entity tower) {
+    public static Entity copyTower(ECSManager ecs, Entity tower) {
         if (tower == null) {
             throw new IllegalArgumentException("Tower cannot be null");
         }
@@ -289,7 +296,7 @@ public class TowerFactory {
         SpriteComponent spriteComponent = spriteComponentOptional.get();
         SoundComponent soundComponent = soundComponentOptional.get();
         AreaOfEffectComponent areaOfEffectComponent = tower.getComponent(AreaOfEffectComponent.class).orElse(null);
-        Entity newTower = new Entity();
+        Entity newTower = ecs.createEntity();
         newTower.addComponent(TowerComponent.class, towerComponent);
         newTower.addComponent(PositionComponent.class, positionComponent);
         newTower.addComponent(AnimationComponent.class, animationComponent);
@@ -0,0 +1,15 @@
+package com.softwarearchitecture.game_server.codec;
+
+/**
+ * Writes and reads the fields of one component type that are sent over the network. The
+ * fields are written in a fixed order without names or type information, so both sides
+ * must use the same {@link com.softwarearchitecture.game_server.GameState#game_version}.
+ *
+ * @param <T> The component type.
+ */
+public interface ComponentCodec<T> {
+
+    void write(WireWriter out, T component);
+
+    T read(WireReader in);
+}
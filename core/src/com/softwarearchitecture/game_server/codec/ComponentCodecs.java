@@ -0,0 +1,325 @@
+package com.softwarearchitecture.game_server.codec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.softwarearchitecture.ecs.components.AnimationComponent;
+import com.softwarearchitecture.ecs.components.CostComponent;
+import com.softwarearchitecture.ecs.components.EnemyComponent;
+import com.softwarearchitecture.ecs.components.HealthComponent;
+import com.softwarearchitecture.ecs.components.MoneyComponent;
+import com.softwarearchitecture.ecs.components.PathfindingComponent;
+import com.softwarearchitecture.ecs.components.PlacedCardComponent;
+import com.softwarearchitecture.ecs.components.PlayerComponent;
+import com.softwarearchitecture.ecs.components.PositionComponent;
+import com.softwarearchitecture.ecs.components.SoundComponent;
+import com.softwarearchitecture.ecs.components.SpriteComponent;
+import com.softwarearchitecture.ecs.components.TextComponent;
+import com.softwarearchitecture.ecs.components.TileComponent;
+import com.softwarearchitecture.ecs.components.TowerComponent;
+import com.softwarearchitecture.ecs.components.VelocityComponent;
+import com.softwarearchitecture.ecs.components.VillageComponent;
+import com.softwarearchitecture.game_server.AssetRegistry;
+import com.softwarearchitecture.game_server.CardFactory.CardType;
+import com.softwarearchitecture.game_server.PairableCards.TowerType;
+import com.softwarearchitecture.game_server.Tile;
+import com.softwarearchitecture.game_server.TileType;
+
+/**
+ * The wire schema of every component type the server sends to its clients.
+ * <p>
+ * Only the state a client needs to show the game is sent: timers that only drive the
+ * simulation on the server, like the time since a tower last attacked or the current frame
+ * of an animation, start over on the client. Textures and sounds are written as their
+ * {@link AssetRegistry} ids, free text like the labels of a text component is written as is.
+ */
+public final class ComponentCodecs {
+    private static final Map<Class<?>, ComponentCodec<?>> codecs = new HashMap<>();
+
+    static {
+        register(PlayerComponent.class, new ComponentCodec<PlayerComponent>() {
+            public void write(WireWriter out, PlayerComponent component) {
+                out.writeUUID(component.playerID);
+            }
+
+            public PlayerComponent read(WireReader in) {
+                return new PlayerComponent(in.readUUID());
+            }
+        });
+        register(PositionComponent.class, new ComponentCodec<PositionComponent>() {
+            public void write(WireWriter out, PositionComponent component) {
+                out.writeVector2(component.position);
+                out.writeSignedVarInt(component.z_index);
+            }
+
+            public PositionComponent read(WireReader in) {
+                return new PositionComponent(in.readVector2(), in.readSignedVarInt());
+            }
+        });
+        register(SpriteComponent.class, new ComponentCodec<SpriteComponent>() {
+            public void write(WireWriter out, SpriteComponent component) {
+                out.writeVarInt(component.texture_id);
+                out.writeVector2(component.size_uv);
+            }
+
+            public SpriteComponent read(WireReader in) {
+                return new SpriteComponent(in.readAssetId(), in.readVector2());
+            }
+        });
+        register(HealthComponent.class, new ComponentCodec<HealthComponent>() {
+            public void write(WireWriter out, HealthComponent component) {
+                out.writeVarInt(component.getMaxHealth());
+                out.writeVarInt(component.getHealth());
+            }
+
+            public HealthComponent read(WireReader in) {
+                HealthComponent component = new HealthComponent(in.readVarInt());
+                component.setHealth(in.readVarInt());
+                return component;
+            }
+        });
+        register(MoneyComponent.class, new ComponentCodec<MoneyComponent>() {
+            public void write(WireWriter out, MoneyComponent component) {
+                out.writeSignedVarInt(component.amount);
+            }
+
+            public MoneyComponent read(WireReader in) {
+                return new MoneyComponent(in.readSignedVarInt());
+            }
+        });
+        register(VelocityComponent.class, new ComponentCodec<VelocityComponent>() {
+            public void write(WireWriter out, VelocityComponent component) {
+                out.writeFloat(component.velocity);
+                out.writeFloat(component.baseVelocity);
+            }
+
+            public VelocityComponent read(WireReader in) {
+                VelocityComponent component = new VelocityComponent(in.readFloat());
+                component.baseVelocity = in.readFloat();
+                return component;
+            }
+        });
+        register(CostComponent.class, new ComponentCodec<CostComponent>() {
+            public void write(WireWriter out, CostComponent component) {
+                out.writeVarInt(component.getCost());
+            }
+
+            public CostComponent read(WireReader in) {
+                return new CostComponent(in.readVarInt());
+            }
+        });
+        register(PathfindingComponent.class, new ComponentCodec<PathfindingComponent>() {
+            public void write(WireWriter out, PathfindingComponent component) {
+                out.writeVarInt(component.path.size());
+                for (Tile tile : component.path) {
+                    writeTile(out, tile);
+                }
+                // The target is nearly always a tile of the path, so it is sent as its index
+                int target = component.path.indexOf(component.targetTile);
+                out.writeSignedVarInt(target);
+                if (target < 0) {
+                    out.writeBoolean(component.targetTile != null);
+                    if (component.targetTile != null) {
+                        writeTile(out, component.targetTile);
+                    }
+                }
+                // The client moves the enemies on from the distance they have come
+                out.writeFloat(component.progress);
+            }
+
+            public PathfindingComponent read(WireReader in) {
+                int size = in.readCount();
+                if (size < 2) {
+                    throw new IllegalStateException("[ERROR] A path must hold at least two tiles, was " + size);
+                }
+                List<Tile> path = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    path.add(readTile(in));
+                }
+                PathfindingComponent component = new PathfindingComponent(path);
+                int target = in.readSignedVarInt();
+                if (target >= size) {
+                    throw new IllegalStateException("[ERROR] Target tile outside of the path: " + target);
+                }
+                if (target >= 0) {
+                    component.targetTile = path.get(target);
+                } else {
+                    component.targetTile = in.readBoolean() ? readTile(in) : null;
+                }
+                component.progress = in.readFloat();
+                return component;
+            }
+        });
+        register(TileComponent.class, new ComponentCodec<TileComponent>() {
+            public void write(WireWriter out, TileComponent component) {
+                writeTile(out, component.getTile());
+            }
+
+            public TileComponent read(WireReader in) {
+                return new TileComponent(readTile(in));
+            }
+        });
+        register(PlacedCardComponent.class, new ComponentCodec<PlacedCardComponent>() {
+            public void write(WireWriter out, PlacedCardComponent component) {
+                out.writeEnum(component.cardType);
+                out.writeBoolean(component.playSound);
+            }
+
+            public PlacedCardComponent read(WireReader in) {
+                PlacedCardComponent component = new PlacedCardComponent(in.readEnum(CardType.class));
+                component.playSound = in.readBoolean();
+                return component;
+            }
+        });
+        register(VillageComponent.class, new ComponentCodec<VillageComponent>() {
+            public void write(WireWriter out, VillageComponent component) {
+            }
+
+            public VillageComponent read(WireReader in) {
+                return new VillageComponent();
+            }
+        });
+        register(TowerComponent.class, new ComponentCodec<TowerComponent>() {
+            public void write(WireWriter out, TowerComponent component) {
+                out.writeEnum(component.towerType);
+                out.writeVarInt(component.getDamage());
+                out.writeFloat(component.getRange());
+                out.writeFloat(component.getAttackCooldown());
+                out.writeEnum(component.targeting);
+                out.writeBoolean(component.playSound);
+            }
+
+            public TowerComponent read(WireReader in) {
+                TowerType towerType = in.readEnum(TowerType.class);
+                int damage = in.readVarInt();
+                float range = in.readFloat();
+                TowerComponent component = new TowerComponent(damage, range, in.readFloat(), towerType);
+                // The constructor drops the type of a tower with invalid stats
+                component.towerType = towerType;
+                component.targeting = in.readEnum(TowerComponent.Targeting.class);
+                component.playSound = in.readBoolean();
+                return component;
+            }
+        });
+        register(EnemyComponent.class, new ComponentCodec<EnemyComponent>() {
+            public void write(WireWriter out, EnemyComponent component) {
+                out.writeVarInt(component.damage);
+                out.writeBoolean(component.claimedReward);
+            }
+
+            public EnemyComponent read(WireReader in) {
+                EnemyComponent component = new EnemyComponent(in.readVarInt());
+                component.claimedReward = in.readBoolean();
+                return component;
+            }
+        });
+        register(TextComponent.class, new ComponentCodec<TextComponent>() {
+            public void write(WireWriter out, TextComponent component) {
+                out.writeString(component.text);
+                out.writeVector2(component.fontScale);
+                out.writeBoolean(component.color != null);
+                if (component.color != null) {
+                    out.writeVector3(component.color);
+                }
+            }
+
+            public TextComponent read(WireReader in) {
+                TextComponent component = new TextComponent(in.readString(), in.readVector2());
+                component.setColor(in.readBoolean() ? in.readVector3() : null);
+                return component;
+            }
+        });
+        register(AnimationComponent.class, new ComponentCodec<AnimationComponent>() {
+            public void write(WireWriter out, AnimationComponent component) {
+                int[] ids = component.getAnimationIds();
+                out.writeVarInt(ids.length);
+                for (int id : ids) {
+                    out.writeVarInt(id);
+                }
+                out.writeBoolean(component.isPlaying);
+            }
+
+            public AnimationComponent read(WireReader in) {
+                int[] ids = new int[in.readCount()];
+                if (ids.length == 0) {
+                    throw new IllegalStateException("[ERROR] An animation must have at least one frame");
+                }
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = in.readAssetId();
+                }
+                AnimationComponent component = new AnimationComponent(ids);
+                component.isPlaying = in.readBoolean();
+                return component;
+            }
+        });
+        register(SoundComponent.class, new ComponentCodec<SoundComponent>() {
+            public void write(WireWriter out, SoundComponent component) {
+                out.writeVarInt(component.sound_id);
+                out.writeBoolean(component.loop);
+                out.writeBoolean(component.isPlaying);
+                out.writeBoolean(component.isBackgroundMusic);
+            }
+
+            public SoundComponent read(WireReader in) {
+                int soundId = in.readAssetId();
+                boolean loop = in.readBoolean();
+                boolean isPlaying = in.readBoolean();
+                SoundComponent component = new SoundComponent(soundId, loop, in.readBoolean());
+                component.isPlaying = isPlaying;
+                return component;
+            }
+        });
+    }
+
+    private ComponentCodecs() {
+    }
+
+    private static <T> void register(Class<T> type, ComponentCodec<T> codec) {
+        codecs.put(type, codec);
+    }
+
+    /**
+     * @param type The component type.
+     * @return The codec of the component type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ComponentCodec<T> get(Class<T> type) throws IllegalArgumentException {
+        ComponentCodec<?> codec = codecs.get(type);
+        if (codec == null) {
+            throw new IllegalArgumentException("[ERROR] No codec for component type: " + type.getName());
+        }
+        return (ComponentCodec<T>) codec;
+    }
+
+    /**
+     * Writes a component through the codec of its type.
+     *
+     * @param out       The writer.
+     * @param type      The component type.
+     * @param component The component.
+     */
+    public static <T> void write(WireWriter out, Class<T> type, Object component) throws IllegalArgumentException {
+        get(type).write(out, type.cast(component));
+    }
+
+    private static void writeTile(WireWriter out, Tile tile) {
+        out.writeSignedVarInt(tile.getX());
+        out.writeSignedVarInt(tile.getY());
+        out.writeEnum(tile.getType());
+        out.writeEntity(tile.getCard());
+        out.writeEntity(tile.getTower());
+        out.writeVarInt(AssetRegistry.idOf(tile.getCardOrTowerTexturePath()));
+    }
+
+    private static Tile readTile(WireReader in) {
+        int x = in.readSignedVarInt();
+        int y = in.readSignedVarInt();
+        Tile tile = new Tile(x, y, in.readEnum(TileType.class));
+        tile.setCard(in.readEntity());
+        tile.setTower(in.readEntity());
+        tile.setCardOrTowerTexturePath(AssetRegistry.pathOf(in.readAssetId()));
+        return tile;
+    }
+}
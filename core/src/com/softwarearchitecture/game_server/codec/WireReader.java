@@ -0,0 +1,189 @@
+package com.softwarearchitecture.game_server.codec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import com.softwarearchitecture.ecs.ECSManager;
+import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.game_server.AssetRegistry;
+import com.softwarearchitecture.math.Vector2;
+import com.softwarearchitecture.math.Vector3;
+
+/**
+ * Reads the format written by {@link WireWriter}. Entities are resolved to the remote
+ * entities of the manager being read into.
+ * <p>
+ * Reading past the end of a message throws a {@link BufferUnderflowException} and reading
+ * a malformed value throws an {@link IllegalStateException}.
+ */
+public class WireReader {
+    private ByteBuffer buffer = ByteBuffer.allocate(0);
+    private final ECSManager ecs;
+
+    /**
+     * @param ecs The manager entities are resolved in, {@code null} for messages without entities.
+     */
+    public WireReader(ECSManager ecs) {
+        this.ecs = ecs;
+    }
+
+    /**
+     * Starts reading a new message.
+     *
+     * @param data The message.
+     */
+    public void reset(byte[] data) {
+        buffer = ByteBuffer.wrap(data);
+    }
+
+    /**
+     * @return The number of bytes left in the message.
+     */
+    public int remaining() {
+        return buffer.remaining();
+    }
+
+    public int readByte() throws BufferUnderflowException {
+        return buffer.get();
+    }
+
+    public boolean readBoolean() throws BufferUnderflowException {
+        return buffer.get() != 0;
+    }
+
+    public byte[] readBytes(int length) throws BufferUnderflowException, IllegalStateException {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("[ERROR] Invalid length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    public int readVarInt() throws BufferUnderflowException, IllegalStateException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("[ERROR] Varint is too long");
+    }
+
+    public int readSignedVarInt() throws BufferUnderflowException, IllegalStateException {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readVarLong() throws BufferUnderflowException, IllegalStateException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("[ERROR] Varlong is too long");
+    }
+
+    public long readSignedVarLong() throws BufferUnderflowException, IllegalStateException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a count that is at most the number of bytes left, so a malformed message
+     * cannot make the reader allocate large arrays.
+     */
+    public int readCount() throws BufferUnderflowException, IllegalStateException {
+        int count = readVarInt();
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalStateException("[ERROR] Invalid count: " + count);
+        }
+        return count;
+    }
+
+    public long readLong() throws BufferUnderflowException {
+        return buffer.getLong();
+    }
+
+    public float readFloat() throws BufferUnderflowException {
+        return buffer.getFloat();
+    }
+
+    public float readQuantized() throws BufferUnderflowException, IllegalStateException {
+        return readSignedVarInt() / WireWriter.QUANTIZATION_STEPS;
+    }
+
+    public Vector2 readVector2() throws BufferUnderflowException, IllegalStateException {
+        float x = readQuantized();
+        return new Vector2(x, readQuantized());
+    }
+
+    public Vector3 readVector3() throws BufferUnderflowException, IllegalStateException {
+        float x = readQuantized();
+        float y = readQuantized();
+        return new Vector3(x, y, readQuantized());
+    }
+
+    public String readString() throws BufferUnderflowException, IllegalStateException {
+        int length = readVarInt();
+        if (length == 0) {
+            return null;
+        }
+        return new String(readBytes(length - 1), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads an {@link AssetRegistry} id, rejecting ids the registry does not know.
+     */
+    public int readAssetId() throws BufferUnderflowException, IllegalStateException {
+        int id = readVarInt();
+        if (!AssetRegistry.isValid(id)) {
+            throw new IllegalStateException("[ERROR] Unknown asset id: " + id);
+        }
+        return id;
+    }
+
+    public <E extends Enum<E>> E readEnum(Class<E> type) throws BufferUnderflowException, IllegalStateException {
+        int value = readVarInt();
+        if (value == 0) {
+            return null;
+        }
+        E[] constants = type.getEnumConstants();
+        if (value > constants.length) {
+            throw new IllegalStateException("[ERROR] Unknown constant of " + type.getSimpleName() + ": " + (value - 1));
+        }
+        return constants[value - 1];
+    }
+
+    public UUID readUUID() throws BufferUnderflowException {
+        if (!readBoolean()) {
+            return null;
+        }
+        long mostSignificantBits = buffer.getLong();
+        return new UUID(mostSignificantBits, buffer.getLong());
+    }
+
+    /**
+     * Reads an entity written by {@link WireWriter#writeEntity(Entity)} as a remote entity
+     * of the manager being read into.
+     */
+    public Entity readEntity() throws BufferUnderflowException, IllegalStateException {
+        long value = readVarLong();
+        return value == 0 ? null : ecs.getOrCreateRemoteEntity(value - 1);
+    }
+
+    /**
+     * @return The network id of an entity written by {@link WireWriter#writeEntity(Entity)},
+     *         {@code -1} if none was written.
+     */
+    public long readNetworkId() throws BufferUnderflowException, IllegalStateException {
+        return readVarLong() - 1;
+    }
+}
@@ -0,0 +1,217 @@
+package com.softwarearchitecture.game_server.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.math.Vector2;
+import com.softwarearchitecture.math.Vector3;
+
+/**
+ * Writes the compact binary format read by {@link WireReader} into a buffer that is reused
+ * between messages and grows when needed.
+ * <p>
+ * Integers are written as varints, so small values take a single byte, and signed values
+ * are zigzag encoded first. Coordinates and sizes are quantized to fixed point with
+ * {@link #QUANTIZATION_STEPS} steps per unit, which is far below a pixel for the UV
+ * coordinates the game uses. Assets are written as their
+ * {@link com.softwarearchitecture.game_server.AssetRegistry} ids.
+ */
+public class WireWriter {
+    /** Number of fixed point steps per unit of a quantized float */
+    public static final float QUANTIZATION_STEPS = 65536f;
+
+    private ByteBuffer buffer;
+
+    /**
+     * @param initialCapacity The initial size of the buffer in bytes.
+     */
+    public WireWriter(int initialCapacity) {
+        this.buffer = ByteBuffer.allocate(Math.max(16, initialCapacity));
+    }
+
+    /**
+     * Empties the buffer, keeping its capacity.
+     */
+    public void clear() {
+        buffer.clear();
+    }
+
+    /**
+     * @return The number of bytes written since the last {@link #clear()}.
+     */
+    public int size() {
+        return buffer.position();
+    }
+
+    /**
+     * @return A copy of the bytes written since the last {@link #clear()}.
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[buffer.position()];
+        System.arraycopy(buffer.array(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Compares the bytes written with earlier output without copying them.
+     *
+     * @param bytes Bytes returned by {@link #toByteArray()} earlier, may be {@code null}.
+     * @return {@code true} if the same bytes were written.
+     */
+    public boolean contentEquals(byte[] bytes) {
+        if (bytes == null || bytes.length != buffer.position()) {
+            return false;
+        }
+        byte[] array = buffer.array();
+        for (int i = 0; i < bytes.length; i++) {
+            if (array[i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void writeByte(int value) {
+        ensureRemaining(1);
+        buffer.put((byte) value);
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    public void writeBytes(byte[] bytes) {
+        ensureRemaining(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Writes a non-negative integer in 1 to 5 bytes, 7 bits per byte.
+     */
+    public void writeVarInt(int value) {
+        ensureRemaining(5);
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Writes an integer that may be negative, small magnitudes take a single byte.
+     */
+    public void writeSignedVarInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Writes a non-negative long in 1 to 10 bytes, 7 bits per byte.
+     */
+    public void writeVarLong(long value) {
+        ensureRemaining(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Writes a long that may be negative, small magnitudes take a single byte.
+     */
+    public void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeLong(long value) {
+        ensureRemaining(8);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Writes a float exactly, for values that are not coordinates such as speeds and timers.
+     */
+    public void writeFloat(float value) {
+        ensureRemaining(4);
+        buffer.putFloat(value);
+    }
+
+    /**
+     * Writes a float as fixed point with {@link #QUANTIZATION_STEPS} steps per unit.
+     */
+    public void writeQuantized(float value) {
+        writeSignedVarInt(Math.round(value * QUANTIZATION_STEPS));
+    }
+
+    public void writeVector2(Vector2 vector) {
+        writeQuantized(vector.x);
+        writeQuantized(vector.y);
+    }
+
+    public void writeVector3(Vector3 vector) {
+        writeQuantized(vector.x);
+        writeQuantized(vector.y);
+        writeQuantized(vector.z);
+    }
+
+    /**
+     * Writes a string that may be {@code null} as its UTF-8 bytes.
+     */
+    public void writeString(String string) {
+        if (string == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        writeBytes(bytes);
+    }
+
+    /**
+     * Writes an enum constant that may be {@code null} as its ordinal.
+     */
+    public void writeEnum(Enum<?> value) {
+        writeVarInt(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    public void writeUUID(UUID uuid) {
+        writeBoolean(uuid != null);
+        if (uuid != null) {
+            writeLong(uuid.getMostSignificantBits());
+            writeLong(uuid.getLeastSignificantBits());
+        }
+    }
+
+    /**
+     * Writes an entity that may be {@code null} as its network id, see {@link #toNetworkId(Entity)}.
+     */
+    public void writeEntity(Entity entity) {
+        writeVarLong(entity == null ? 0 : toNetworkId(entity) + 1);
+    }
+
+    /**
+     * Packs the id and generation of an entity into the id it is known by on the network.
+     *
+     * @param entity The entity, local to the manager writing it.
+     * @return The network id.
+     */
+    public static long toNetworkId(Entity entity) {
+        return ((long) entity.getGeneration() << 32) | (entity.getId() & 0xFFFFFFFFL);
+    }
+
+    private void ensureRemaining(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < bytes) {
+            capacity *= 2;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+}
@@ -13,12 +13,12 @@ import com.softwarearchitecture.ecs.GraphicsController;
 import com.softwarearchitecture.ecs.components.PositionComponent;
 import com.softwarearchitecture.ecs.components.SpriteComponent;
 import com.softwarearchitecture.ecs.components.TextComponent;
-
-import java.util.HashMap;
+import com.softwarearchitecture.game_server.AssetRegistry;
 
 public class LibGDXGraphics implements GraphicsController {
     private SpriteBatch batch;
-    private HashMap<String, Texture> textures;
+    /** Loaded textures by {@link AssetRegistry} id */
+    private Texture[] textures;
     private BitmapFont font;
     private OrthographicCamera camera;
     private Viewport viewport;
@@ -26,7 +26,7 @@ public class LibGDXGraphics implements GraphicsController {
 
     public LibGDXGraphics(OrthographicCamera camera, Viewport viewport) {
         batch = new SpriteBatch();
-        textures = new HashMap<>();
+        textures = new Texture[AssetRegistry.size()];
         // Initialize the font using FreeTypeFontGenerator
         FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal("fonts/odinson.ttf"));
         FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
@@ -45,10 +45,11 @@ public class LibGDXGraphics implements GraphicsController {
 
     @Override
     public void draw(SpriteComponent component, PositionComponent positionComponent) {
-        if (!textures.containsKey(component.texture_path)) {
-            textures.put(component.texture_path, new Texture(component.texture_path));
+        Texture texture = textures[component.texture_id];
+        if (texture == null) {
+            texture = new Texture(AssetRegistry.pathOf(component.texture_id));
+            textures[component.texture_id] = texture;
         }
-        Texture texture = textures.get(component.texture_path);
         int width = Gdx.graphics.getWidth();
         int height = Gdx.graphics.getHeight();
         batch.begin();
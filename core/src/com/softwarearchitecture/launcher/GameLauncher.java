@@ -1,22 +1,39 @@
 package com.softwarearchitecture.launcher;
 
+import java.io.File;
 import java.util.UUID;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import com.softwarearchitecture.clock.FixedTimestep;
 import com.softwarearchitecture.ecs.GraphicsController;
 import com.softwarearchitecture.game_client.ClientMessagingController;
 import com.softwarearchitecture.game_client.Controllers;
 import com.softwarearchitecture.game_client.GameClient;
-import com.softwarearchitecture.game_server.GameServer;
+import com.softwarearchitecture.game_server.GameServerHost;
+import com.softwarearchitecture.game_server.MapFactory;
 import com.softwarearchitecture.graphics.LibGDXGraphics;
 import com.softwarearchitecture.input.LibGDXInput;
 import com.softwarearchitecture.networking.messaging.ClientMessenger;
 import com.softwarearchitecture.networking.messaging.ServerMessenger;
+import com.softwarearchitecture.networking.persistence.DAOFactory;
+import com.softwarearchitecture.networking.transport.TransportFactory;
 import com.softwarearchitecture.ecs.SoundController;
 import com.softwarearchitecture.sound.LibGDXSound;
 
 public class GameLauncher {
+    /** Hosts online games for players on the local network on this port, as in {@code -Dbesieged.listen=7777} */
+    public static final String LISTEN_PROPERTY = "besieged.listen";
+    /** Joins online games hosted on the local network, as in {@code -Dbesieged.connect=192.168.0.10:7777} */
+    public static final String CONNECT_PROPERTY = "besieged.connect";
+    /** Keeps the offline games and highscores in this directory, as in {@code -Dbesieged.storage=saves} */
+    public static final String STORAGE_PROPERTY = "besieged.storage";
+    /** Installs the map files in this directory next to the built-in maps, as in {@code -Dbesieged.maps=maps} */
+    public static final String MAPS_PROPERTY = "besieged.maps";
+    /** Runs the systems of the hosted games in parallel on this many threads, as in {@code -Dbesieged.systemThreads=4} */
+    public static final String SYSTEM_THREADS_PROPERTY = "besieged.systemThreads";
+
     /**
      * Create a new game client.
      */
@@ -24,15 +41,39 @@ public class GameLauncher {
         LibGDXInput libGDXInput = new LibGDXInput(viewport);
         GraphicsController graphicsController = new LibGDXGraphics(camera, viewport);
         SoundController soundController = new LibGDXSound(50);
-        ServerMessenger onlineServerMessenger = new ServerMessenger(true);
+        // Offline games and highscores are kept on this machine between runs
+        String storage = System.getProperty(STORAGE_PROPERTY);
+        DAOFactory.useFileStorage(storage != null ? new File(storage) : Gdx.files.local("storage").file());
+        // Installed maps are only read once they are listed or played
+        String maps = System.getProperty(MAPS_PROPERTY);
+        MapFactory.useMapDirectory(maps != null ? new File(maps) : Gdx.files.local("maps").file());
+        // Online games go through Firebase unless the players are connected directly
+        TransportFactory serverTransport = new TransportFactory(false);
+        TransportFactory clientTransport = new TransportFactory(false);
+        String listenPort = System.getProperty(LISTEN_PROPERTY);
+        String hostAddress = System.getProperty(CONNECT_PROPERTY);
+        if (listenPort != null) {
+            int port = Integer.parseInt(listenPort);
+            serverTransport.listenOn(port);
+            // The host plays through its own server like the other players
+            clientTransport.connectTo("localhost", port);
+        } else if (hostAddress != null) {
+            int separator = hostAddress.lastIndexOf(':');
+            clientTransport.connectTo(hostAddress.substring(0, separator), Integer.parseInt(hostAddress.substring(separator + 1)));
+        }
+        ServerMessenger onlineServerMessenger = new ServerMessenger(true, serverTransport.build());
         ServerMessenger localServerMessenger = new ServerMessenger(false);
-        ClientMessagingController onlineClientMessaging = new ClientMessenger(true);
+        // Publishing within this machine costs nothing, so every tick is published
+        localServerMessenger.setPublishRate(FixedTimestep.DEFAULT_TICKS_PER_SECOND);
+        ClientMessagingController onlineClientMessaging = new ClientMessenger(true, clientTransport.build());
         ClientMessagingController localClientMessaging = new ClientMessenger(false);
 
         // Set to main manu
         UUID yourId = UUID.randomUUID();
-        GameServer gameServer = new GameServer(onlineServerMessenger, localServerMessenger, yourId, graphicsController.getAspectRatio());
-        Controllers defaultControllers = new Controllers(graphicsController, libGDXInput, soundController, onlineServerMessenger, onlineClientMessaging, localClientMessaging, gameServer);
+        // The systems of a game run on the thread ticking it unless the host is given threads for them
+        String systemThreads = System.getProperty(SYSTEM_THREADS_PROPERTY);
+        GameServerHost gameServerHost = new GameServerHost(systemThreads != null ? Integer.parseInt(systemThreads) : 0);
+        Controllers defaultControllers = new Controllers(graphicsController, libGDXInput, soundController, onlineServerMessenger, onlineClientMessaging, localClientMessaging, localServerMessenger, gameServerHost);
         return new GameClient(defaultControllers, yourId);
     }
 }
@@ -0,0 +1,165 @@
+package com.softwarearchitecture.math;
+
+import java.util.Arrays;
+
+/**
+ * An immutable line through a list of points, parameterised by the distance along it.
+ * <p>
+ * The distance from the first point to every point is computed once, so the position at a
+ * distance is found by a binary search over the segments instead of by walking the line.
+ * Evaluating the line allocates nothing.
+ */
+public final class Polyline {
+    private final float[] xs;
+    private final float[] ys;
+    /** The distance along the line from the first point to every point */
+    private final float[] distances;
+
+    /**
+     * @param xs The x-coordinates of the points, in order.
+     * @param ys The y-coordinates of the points, in order.
+     * @throws IllegalArgumentException If the coordinates do not pair up or there are no points.
+     */
+    public Polyline(float[] xs, float[] ys) throws IllegalArgumentException {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("[ERROR] Every point needs both coordinates, was " + xs.length + " and " + ys.length);
+        }
+        if (xs.length == 0) {
+            throw new IllegalArgumentException("[ERROR] A line must have at least one point");
+        }
+        this.xs = Arrays.copyOf(xs, xs.length);
+        this.ys = Arrays.copyOf(ys, ys.length);
+        this.distances = new float[xs.length];
+        for (int i = 1; i < xs.length; i++) {
+            float dx = xs[i] - xs[i - 1];
+            float dy = ys[i] - ys[i - 1];
+            distances[i] = distances[i - 1] + (float) Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    /**
+     * @return The number of points of the line.
+     */
+    public int getPointCount() {
+        return xs.length;
+    }
+
+    /**
+     * @return The distance from the first to the last point along the line.
+     */
+    public float getLength() {
+        return distances[distances.length - 1];
+    }
+
+    /**
+     * @param point The index of the point.
+     * @return The distance from the first point to the point along the line.
+     */
+    public float getDistance(int point) {
+        return distances[point];
+    }
+
+    /**
+     * Finds the segment a distance along the line is on, the segment from point {@code i} to
+     * point {@code i + 1} holding the distances from the one of point {@code i} up to the
+     * one of the next point. Distances outside of the line are on the first or last segment.
+     *
+     * @param distance The distance along the line.
+     * @return The index of the first point of the segment, {@code 0} for a line of one point.
+     */
+    public int segmentAt(float distance) {
+        int low = 0;
+        int high = distances.length - 2;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (distances[middle] <= distance) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return Math.max(low, 0);
+    }
+
+    /**
+     * Sets a vector to the position a distance along the line, clamped to its ends.
+     *
+     * @param distance The distance along the line.
+     * @param out      The vector the position is written to.
+     * @return The vector.
+     */
+    public Vector2 positionAt(float distance, Vector2 out) {
+        if (distance <= 0f || xs.length == 1) {
+            out.set(xs[0], ys[0]);
+            return out;
+        }
+        int last = xs.length - 1;
+        if (distance >= distances[last]) {
+            out.set(xs[last], ys[last]);
+            return out;
+        }
+        int segment = segmentAt(distance);
+        float length = distances[segment + 1] - distances[segment];
+        float t = length == 0f ? 0f : (distance - distances[segment]) / length;
+        out.set(xs[segment] + (xs[segment + 1] - xs[segment]) * t,
+                ys[segment] + (ys[segment + 1] - ys[segment]) * t);
+        return out;
+    }
+
+    /**
+     * Computes the parts of the line within a radius of a point, as intervals of the
+     * distance along the line.
+     *
+     * @param x      The x-coordinate of the point.
+     * @param y      The y-coordinate of the point.
+     * @param radius The largest distance from the point, inclusive.
+     * @return The start and end of every interval, in increasing order.
+     */
+    public float[] coveredIntervals(float x, float y, float radius) {
+        float[] intervals = new float[Math.max(2, xs.length * 2)];
+        int count = 0;
+        float radiusSquared = radius * radius;
+        for (int i = 0; i + 1 < xs.length; i++) {
+            float dx = xs[i + 1] - xs[i];
+            float dy = ys[i + 1] - ys[i];
+            float start = distances[i];
+            float length = distances[i + 1] - start;
+            float fx = xs[i] - x;
+            float fy = ys[i] - y;
+            float from;
+            float to;
+            if (length == 0f) {
+                if (fx * fx + fy * fy > radiusSquared) {
+                    continue;
+                }
+                from = start;
+                to = start;
+            } else {
+                // Where |start + t * (dx, dy) - (x, y)| = radius, for t from 0 to 1
+                float a = dx * dx + dy * dy;
+                float b = 2 * (fx * dx + fy * dy);
+                float c = fx * fx + fy * fy - radiusSquared;
+                float discriminant = b * b - 4 * a * c;
+                if (discriminant < 0) {
+                    continue;
+                }
+                float root = (float) Math.sqrt(discriminant);
+                float enter = Math.max(0f, (-b - root) / (2 * a));
+                float leave = Math.min(1f, (-b + root) / (2 * a));
+                if (enter > leave) {
+                    continue;
+                }
+                from = start + enter * length;
+                to = start + leave * length;
+            }
+            if (count > 0 && from <= intervals[count - 1]) {
+                // Continues the interval of the previous segment
+                intervals[count - 1] = Math.max(intervals[count - 1], to);
+            } else {
+                intervals[count++] = from;
+                intervals[count++] = to;
+            }
+        }
+        return Arrays.copyOf(intervals, count);
+    }
+}
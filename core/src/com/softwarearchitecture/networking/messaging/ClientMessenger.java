@@ -1,162 +1,223 @@
 package com.softwarearchitecture.networking.messaging;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.game_client.ClientMessagingController;
+import com.softwarearchitecture.game_client.LobbyEntry;
 import com.softwarearchitecture.game_client.Score;
 import com.softwarearchitecture.game_server.GameState;
 import com.softwarearchitecture.game_server.PlayerInput;
-import com.softwarearchitecture.networking.persistence.DAO;
-import com.softwarearchitecture.networking.persistence.DAOFactory;
-
+import com.softwarearchitecture.game_server.StateReplica;
+import com.softwarearchitecture.networking.persistence.Leaderboard;
+import com.softwarearchitecture.networking.persistence.LeaderboardFactory;
+import com.softwarearchitecture.networking.persistence.LobbyIndex;
+import com.softwarearchitecture.networking.persistence.LobbyIndexFactory;
+import com.softwarearchitecture.networking.transport.MessageQueue;
+import com.softwarearchitecture.networking.transport.MessageTransport;
+import com.softwarearchitecture.networking.transport.Subscription;
+import com.softwarearchitecture.networking.transport.TransportFactory;
+
+/**
+ * The client side of the messaging. The games listing is read from a {@link LobbyIndex}
+ * and the highscores from a {@link Leaderboard}, while the state of the game being played is pushed to the client through a
+ * {@link MessageTransport} and the actions, acknowledgements and join requests are
+ * published on it. A player has joined a game once the server pushes states to it.
+ * <p>
+ * Actions are numbered and kept until the server acknowledges them, and every batch sent
+ * holds all actions not yet acknowledged, so rapid clicks are not lost to a transport that
+ * only keeps the latest message.
+ */
 public class ClientMessenger implements ClientMessagingController {
-
-    private DAO<String, byte[]> gameDAO;
-    private DAO<UUID, PlayerInput> actionDAO;
-    private DAO<String, UUID> joinPlayerDAO;
-    private DAO<String, String> gamesDAO;
-    private DAO<String, Score> highscoreDAO;
+    /** The most game states kept between two frames, only the latest is applied */
+    public static final int STATE_QUEUE_CAPACITY = 4;
+    /** How long a player waits for the server to accept it into a game, in milliseconds */
+    public static final long JOIN_TIMEOUT = 1000;
+    /** The most actions of a player waiting for the server, the oldest is dropped beyond it */
+    public static final int MAX_PENDING_ACTIONS = 64;
+    /** How long actions wait for an acknowledgement before they are sent again, in milliseconds */
+    public static final long ACTION_RESEND_INTERVAL = 200;
+
+    private LobbyIndex lobbyIndex;
+    private Leaderboard leaderboard;
+    private final MessageTransport transport;
+    /** The game followed by this client, {@code null} before the first request */
+    private Feed feed;
+    /** The actions not yet acknowledged by the server, by player id */
+    private final Map<UUID, Outbox> outboxes = new ConcurrentHashMap<>();
     
-    private final String JOIN_PREFIX = "JOIN";
-    private final String GAME_PREFIX = "GAME";
-    private final String HIGHSCORE_PREFIX = "HIGHSCORE";
         
 
     public ClientMessenger(boolean isMultiplayer) {
-        this.gameDAO = new DAOFactory<String, byte[]>(!isMultiplayer).build(String.class, byte[].class);
-        this.actionDAO = new DAOFactory<UUID, PlayerInput>(!isMultiplayer).build(UUID.class, PlayerInput.class);
-        this.joinPlayerDAO = new DAOFactory<String, UUID>(!isMultiplayer).build(String.class, UUID.class);
-        this.gamesDAO = new DAOFactory<String, String>(!isMultiplayer).build(String.class, String.class);
-        this.highscoreDAO = new DAOFactory<String, Score>(!isMultiplayer).build(String.class, Score.class);
+        this(isMultiplayer, new TransportFactory(!isMultiplayer).build());
+    }
+
+    /**
+     * @param isMultiplayer Whether the lobby and highscores are read online.
+     * @param transport     The transport the game being played is pushed through.
+     */
+    public ClientMessenger(boolean isMultiplayer, MessageTransport transport) {
+        this.lobbyIndex = new LobbyIndexFactory(!isMultiplayer).build();
+        this.leaderboard = new LeaderboardFactory(!isMultiplayer).build();
+        this.transport = transport;
+    }
+
+    /**
+     * The states of one game pushed to one player and the replica they are applied to.
+     */
+    private static class Feed {
+        final UUID gameID;
+        final UUID playerID;
+        final StateReplica replica;
+        final MessageQueue states = new MessageQueue(STATE_QUEUE_CAPACITY);
+        final Subscription subscription;
+
+        Feed(MessageTransport transport, UUID gameID, UUID playerID, ECSManager ecs) {
+            this.gameID = gameID;
+            this.playerID = playerID;
+            this.replica = new StateReplica(ecs);
+            this.subscription = transport.subscribe(Messages.deltaTopic(gameID, playerID), states);
+        }
+
+        boolean follows(UUID gameID, UUID playerID, ECSManager ecs) {
+            return this.gameID.equals(gameID) && this.playerID.equals(playerID) && replica.getECSManager() == ecs;
+        }
     }
     
-    @Override
-    public boolean joinGame(UUID gameID, UUID playerID) {
-       synchronized (this) {
-            joinPlayerDAO.add(createJoinGameId(gameID), playerID);
-            System.out.println("Joining game: " + gameID + " with player: " + playerID);
-            
-            // Give server time before checking server 
-            try {
-                wait(1000); 
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt(); // Restore interrupt status
-                e.printStackTrace();
-            }
-            // Check with server
-            Optional<byte[]> data = gameDAO.get(createGameId(gameID));
-            if (data.isPresent()) {
+    /**
+     * The actions of a player the server has not acknowledged, numbered from 1 in the order
+     * they were made. Every batch sent holds all of them, so an action is only lost if the
+     * player makes more than {@link #MAX_PENDING_ACTIONS} while the server does not answer.
+     */
+    private static class Outbox {
+        final UUID playerId;
+        final ArrayDeque<PlayerInput> actions = new ArrayDeque<>();
+        /** The sequence number of the first action waiting */
+        long firstSequence = 1;
+        long lastSent;
+        final Subscription acknowledgements;
+
+        Outbox(MessageTransport transport, UUID playerId) {
+            this.playerId = playerId;
+            this.acknowledgements = transport.subscribe(Messages.actionAckTopic(playerId), payload -> {
                 try {
-                    GameState gameState = GameState.deserializeFromByteArray(data.get());
-                    System.out.println("Player one: " + gameState.playerOne);
-                    System.out.println("Player two: " + gameState.playerTwo);
-                    System.out.println("Player ID: " + playerID);
-                    
-                    boolean correctGameId =  gameState.gameID.equals(gameID);
-                    boolean hasJoined = gameState.playerTwo != null;
-                    return correctGameId && hasJoined;
-                } catch (IOException | ClassNotFoundException e) {
-                    e.printStackTrace();
+                    acknowledge(Messages.decodeSequence(payload));
+                } catch (RuntimeException e) {
+                    System.out.println("Malformed acknowledgement of actions for player: " + playerId);
                 }
-            }
+            });
         }
-        return false; 
-    }
 
-    private class GameStateWrapper implements Runnable {
+        synchronized void add(PlayerInput action) {
+            if (actions.size() == MAX_PENDING_ACTIONS) {
+                System.out.println("Too many actions waiting for the server, dropping the oldest of player: " + playerId);
+                actions.pollFirst();
+                firstSequence++;
+            }
+            actions.addLast(action);
+        }
 
-        private volatile byte[] data;
-        private volatile GameState gameState = null;
+        synchronized void acknowledge(long processed) {
+            while (!actions.isEmpty() && firstSequence <= processed) {
+                actions.pollFirst();
+                firstSequence++;
+            }
+        }
 
-        public GameStateWrapper(byte[] data) {
-            this.data = data;
+        synchronized void send(MessageTransport transport) {
+            if (actions.isEmpty()) {
+                return;
+            }
+            transport.publish(Messages.actionTopic(playerId), Messages.encodeActions(firstSequence, actions));
+            lastSent = System.currentTimeMillis();
         }
 
-        @Override
-        public void run() {
-            try {
-                gameState = GameState.deserializeFromByteArray(data);
-            } catch (IOException | ClassNotFoundException e) {
-                e.printStackTrace();
+        synchronized void resendIfDue(MessageTransport transport) {
+            if (System.currentTimeMillis() - lastSent >= ACTION_RESEND_INTERVAL) {
+                send(transport);
             }
         }
+    }
 
+    @Override
+    public CompletableFuture<Boolean> joinGame(UUID gameID, UUID playerID) {
+        // The server starts pushing states to a player once it has joined
+        CompletableFuture<Boolean> joined = new CompletableFuture<>();
+        Subscription subscription = transport.subscribe(Messages.deltaTopic(gameID, playerID),
+                payload -> joined.complete(true));
+        transport.publish(Messages.joinTopic(gameID), Messages.encodeUUID(playerID));
+        System.out.println("Joining game: " + gameID + " with player: " + playerID);
+
+        // Give server time before giving up
+        joined.completeOnTimeout(false, JOIN_TIMEOUT, TimeUnit.MILLISECONDS);
+        joined.whenComplete((didJoin, error) -> subscription.cancel());
+        return joined;
     }
 
-    public List<GameState> getAllAvailableGames() {
-        List<String> indexes = gamesDAO.loadAllIndices();
-        List<GameState> games = new ArrayList<>();
-        for (String index : indexes) {
-            if (index.contains(GAME_PREFIX)) {
-                try {
-                    
-                    Optional<byte[]> data = gameDAO.get(index);
-                    
-                    if (data.isPresent()) {
-                        GameStateWrapper getter = new GameStateWrapper(data.get());
-                        Thread thread = new Thread(getter);
-                        thread.start();
-                        thread.join();
-                        GameState gameState = getter.gameState;
-                        if (gameState != null && gameState.playerTwo == null) {
-                            games.add(gameState);
-                        }
-                    }
-                } catch (InterruptedException i) {
-                    i.printStackTrace();
-                }
-            }
+    @Override
+    public CompletableFuture<List<LobbyEntry>> getAvailableGames(LobbyEntry after, int limit) throws IllegalArgumentException {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("[ERROR] The number of games listed must be positive, was " + limit);
         }
-        return games;
+        // Only games with open seats are indexed, so a page is a single read of its entries
+        return lobbyIndex.listOpen(after, limit);
     }
 
     @Override
-    public Optional<GameState> requestGameState(UUID gameID) {
-        Optional<byte[]> data = gameDAO.get(createGameId(gameID));
+    public synchronized Optional<GameState> requestGameState(UUID gameID, UUID playerID, ECSManager ecs) {
+        if (feed == null || !feed.follows(gameID, playerID, ecs)) {
+            // A new world has to start from the full state
+            if (feed != null) {
+                feed.subscription.cancel();
+            }
+            feed = new Feed(transport, gameID, playerID, ecs);
+        }
+        // Every delta holds all changes since the last acknowledgement, so only the latest is needed
+        Optional<byte[]> data = feed.states.pollLatest();
         if (data.isPresent()) {
             try {
-                // TODO: ADD LOGIC FOR NOT ADDING GAMES THAT ARE FULL
-                GameState gameState = GameState.deserializeFromByteArray(data.get());
-                return Optional.of(gameState);
-            } catch (IOException | ClassNotFoundException e) {
+                StateReplica replica = feed.replica;
+                boolean applied = replica.apply(data.get());
+                if (applied || replica.needsFullState()) {
+                    transport.publish(Messages.ackTopic(gameID, playerID), Messages.encodeSequence(replica.getAcknowledgement()));
+                }
+            } catch (IOException e) {
                 e.printStackTrace();
             }
         }
-        return Optional.empty();
+        // Actions whose batch or acknowledgement was lost are sent again
+        for (Outbox outbox : outboxes.values()) {
+            outbox.resendIfDue(transport);
+        }
+        return feed.replica.getState();
     }
 
-    private String createGameId(UUID gameId) {
-        return GAME_PREFIX + gameId.toString();
-    }
-    
-    private String createJoinGameId(UUID gameId) {
-        return JOIN_PREFIX + gameId.toString();
+    @Override
+    public void addAction(PlayerInput action) {
+        Outbox outbox = outboxes.computeIfAbsent(action.getPlayerId(), id -> new Outbox(transport, id));
+        synchronized (outbox) {
+            outbox.add(action);
+            outbox.send(transport);
+        }
     }
 
 
     @Override
-    public void addAction(PlayerInput action) {
-        actionDAO.add(action.getPlayerId(), action);
+    public CompletableFuture<List<Score>> getHighScores() {
+        return leaderboard.top(Leaderboard.ALL_MAPS);
     }
 
-
     @Override
-    public List<Score> getAllHighScores() {
-        List<Score> scores = new ArrayList<>();
-        for (String index : highscoreDAO.loadAllIndices()) {
-            if (!index.contains(HIGHSCORE_PREFIX)) {
-                continue;
-            }
-            Optional<Score> possibleScore = highscoreDAO.get(index);
-            if (possibleScore.isPresent()) {
-                Score score = possibleScore.get();
-                scores.add(score);
-            }
-        }
-        return scores;
+    public CompletableFuture<List<Score>> getHighScores(String mapName) {
+        // The board is kept sorted and trimmed by the servers, so it is read as it is
+        return leaderboard.top(mapName);
     }
 }
@@ -0,0 +1,121 @@
+package com.softwarearchitecture.networking.messaging;
+
+import java.nio.BufferUnderflowException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import com.softwarearchitecture.game_server.CardFactory.CardType;
+import com.softwarearchitecture.game_server.PlayerInput;
+import com.softwarearchitecture.game_server.codec.WireReader;
+import com.softwarearchitecture.game_server.codec.WireWriter;
+
+/**
+ * The topics the server and clients exchange messages on, and the encoding of the messages
+ * that are not game states.
+ */
+final class Messages {
+    private static final String DELTA_PREFIX = "DELTA";
+    private static final String ACK_PREFIX = "ACK";
+    private static final String ACTION_PREFIX = "ACTION";
+    private static final String ACTION_ACK_PREFIX = "ACTIONACK";
+    private static final String JOIN_PREFIX = "JOIN";
+
+    private Messages() {
+    }
+
+    /** The changes of a game's state for one player, published by the server */
+    static String deltaTopic(UUID gameId, UUID playerId) {
+        return DELTA_PREFIX + gameId.toString() + playerId.toString();
+    }
+
+    /** The last state a player has applied, published by the client */
+    static String ackTopic(UUID gameId, UUID playerId) {
+        return ACK_PREFIX + gameId.toString() + playerId.toString();
+    }
+
+    /** The actions of a player not yet acknowledged, published by the client */
+    static String actionTopic(UUID playerId) {
+        return ACTION_PREFIX + playerId.toString();
+    }
+
+    /** The last action of a player the server has processed, published by the server */
+    static String actionAckTopic(UUID playerId) {
+        return ACTION_ACK_PREFIX + playerId.toString();
+    }
+
+    /** The players asking to join a game, published by the clients */
+    static String joinTopic(UUID gameId) {
+        return JOIN_PREFIX + gameId.toString();
+    }
+
+    /**
+     * Actions of a player with consecutive sequence numbers.
+     */
+    static class ActionBatch {
+        /** The sequence number of the first action */
+        final long firstSequence;
+        final List<PlayerInput> actions;
+
+        ActionBatch(long firstSequence, List<PlayerInput> actions) {
+            this.firstSequence = firstSequence;
+            this.actions = actions;
+        }
+    }
+
+    static byte[] encodeActions(long firstSequence, Collection<PlayerInput> actions) {
+        WireWriter out = new WireWriter(16 + 32 * actions.size());
+        out.writeVarLong(firstSequence);
+        out.writeVarInt(actions.size());
+        for (PlayerInput action : actions) {
+            out.writeUUID(action.getPlayerId());
+            out.writeEnum(action.getCardType());
+            out.writeSignedVarInt(action.getX());
+            out.writeSignedVarInt(action.getY());
+            out.writeString(action.getAction());
+        }
+        return out.toByteArray();
+    }
+
+    static ActionBatch decodeActions(byte[] data) throws BufferUnderflowException, IllegalStateException {
+        WireReader in = new WireReader(null);
+        in.reset(data);
+        long firstSequence = in.readVarLong();
+        int count = in.readCount();
+        List<PlayerInput> actions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UUID playerId = in.readUUID();
+            CardType cardType = in.readEnum(CardType.class);
+            int x = in.readSignedVarInt();
+            int y = in.readSignedVarInt();
+            String action = in.readString();
+            actions.add(cardType != null ? new PlayerInput(playerId, cardType, x, y) : new PlayerInput(playerId, action));
+        }
+        return new ActionBatch(firstSequence, actions);
+    }
+
+    static byte[] encodeUUID(UUID uuid) {
+        WireWriter out = new WireWriter(17);
+        out.writeUUID(uuid);
+        return out.toByteArray();
+    }
+
+    static UUID decodeUUID(byte[] data) throws BufferUnderflowException {
+        WireReader in = new WireReader(null);
+        in.reset(data);
+        return in.readUUID();
+    }
+
+    static byte[] encodeSequence(long sequence) {
+        WireWriter out = new WireWriter(10);
+        out.writeSignedVarLong(sequence);
+        return out.toByteArray();
+    }
+
+    static long decodeSequence(byte[] data) throws BufferUnderflowException, IllegalStateException {
+        WireReader in = new WireReader(null);
+        in.reset(data);
+        return in.readSignedVarLong();
+    }
+}
@@ -3,82 +3,194 @@ package com.softwarearchitecture.networking.messaging;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.softwarearchitecture.game_server.PlayerInput;
 import com.softwarearchitecture.game_server.ServerMessagingController;
-import com.softwarearchitecture.networking.persistence.DAO;
+import com.softwarearchitecture.networking.persistence.AsyncDAO;
 import com.softwarearchitecture.networking.persistence.DAOFactory;
+import com.softwarearchitecture.networking.persistence.Leaderboard;
+import com.softwarearchitecture.networking.persistence.LeaderboardFactory;
+import com.softwarearchitecture.networking.persistence.LobbyIndex;
+import com.softwarearchitecture.networking.persistence.LobbyIndexFactory;
+import com.softwarearchitecture.networking.transport.MessageQueue;
+import com.softwarearchitecture.networking.transport.MessageTransport;
+import com.softwarearchitecture.networking.transport.Subscription;
+import com.softwarearchitecture.networking.transport.TransportFactory;
+import com.softwarearchitecture.ecs.ComponentManager;
+import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
 import com.softwarearchitecture.ecs.components.PlayerComponent;
+import com.softwarearchitecture.game_client.LobbyEntry;
 import com.softwarearchitecture.game_client.Score;
 import com.softwarearchitecture.game_server.GameState;
+import com.softwarearchitecture.game_server.StateReplicator;
 
+/**
+ * The server side of the messaging. The full state of a game is stored through a DAO, the
+ * games waiting for a player are listed in a {@link LobbyIndex} and the highscores are
+ * recorded on a {@link Leaderboard}, while the game states, acknowledgements, actions and
+ * join requests of running games are pushed through a {@link MessageTransport}, so the
+ * server never polls storage while a game runs.
+ * <p>
+ * The state of a game is published at most at the publish rate, and only to the players
+ * that have not acknowledged its last change, so a game where nothing moves publishes
+ * nothing but a heartbeat. The newest state arriving between two publications is kept in
+ * a single slot and published by {@link #flushGameState(UUID)} once the interval has
+ * passed, on the thread ticking the game since capturing a state reads its entities.
+ */
 public class ServerMessenger implements ServerMessagingController {
+    /** The most batches of actions of a player kept between two ticks, later batches repeat the earlier */
+    public static final int ACTION_QUEUE_CAPACITY = 64;
+    /** The most join requests of a game kept until the server looks for them */
+    public static final int JOIN_QUEUE_CAPACITY = 8;
+    /** The most states of a game published per second, unless set otherwise */
+    public static final int DEFAULT_PUBLISH_RATE = 20;
+    /** The longest time a player goes without a state while nothing changes, in milliseconds */
+    public static final long HEARTBEAT_INTERVAL = 1000;
 
-    private DAO<String, byte[]> gameDao;
-    private DAO<String, UUID> pendingPlayerDao;
-    private DAO<UUID, PlayerInput> actionDao;
-    private DAO<String, Score> highscoreDao;
+    private AsyncDAO<String, byte[]> gameDao;
+    private Leaderboard leaderboard;
+    private LobbyIndex lobbyIndex;
+    private final MessageTransport transport;
+    /** The shortest time between two states published of a game, in milliseconds */
+    private long publishInterval = 1000 / DEFAULT_PUBLISH_RATE;
+    /** The replication of every game this server publishes, by game id */
+    private final Map<UUID, Replication> replications = new ConcurrentHashMap<>();
+    /** The actions of every player in a game of this server, by player id */
+    private final Map<UUID, ActionStream> actionStreams = new ConcurrentHashMap<>();
+    /** The players asking to join every game of this server, by game id */
+    private final Map<UUID, Inbox> joinInboxes = new ConcurrentHashMap<>();
+    /** The listing of every game of this server in the lobby, by game id */
+    private final Map<UUID, LobbyEntry> lobbyEntries = new ConcurrentHashMap<>();
     
-    private final String JOIN_PREFIX = "JOIN";
     private static final String GAME_PREFIX = "GAME";
-    private final String HIGHSCORE_PREFIX = "HIGHSCORE";
 
     public ServerMessenger(boolean isMultiplayer) {
+        this(isMultiplayer, new TransportFactory(!isMultiplayer).build());
+    }
+
+    /**
+     * @param isMultiplayer Whether the lobby and highscores are stored online.
+     * @param transport     The transport the running games are pushed through.
+     */
+    public ServerMessenger(boolean isMultiplayer, MessageTransport transport) {
         gameDao = new DAOFactory<String, byte[]>(!isMultiplayer).build(String.class, byte[].class);
-        pendingPlayerDao = new DAOFactory<String, UUID>(!isMultiplayer).build(String.class, UUID.class);
-        actionDao = new DAOFactory<UUID, PlayerInput>(!isMultiplayer).build(UUID.class, PlayerInput.class);
-        highscoreDao = new DAOFactory<String, Score>(!isMultiplayer).build(String.class, Score.class);
+        leaderboard = new LeaderboardFactory(!isMultiplayer).build();
+        lobbyIndex = new LobbyIndexFactory(!isMultiplayer).build();
+        this.transport = transport;
+    }
+
+    /**
+     * The replicator of a game, the players it has sent deltas to and the last state each
+     * of them has acknowledged.
+     */
+    private static class Replication {
+        final StateReplicator replicator = new StateReplicator();
+        final Set<UUID> players = ConcurrentHashMap.newKeySet();
+        final Map<UUID, Long> acknowledged = new ConcurrentHashMap<>();
+        final Map<UUID, Subscription> ackSubscriptions = new ConcurrentHashMap<>();
+        /** Whether a full state is being stored, guarded by the replication */
+        boolean storing = false;
+        /** The newest full state waiting for the one being stored, guarded by the replication */
+        byte[] unstored;
+        /** Whether the game is removed, so no full state is stored after the deletion */
+        boolean removed = false;
+        /** The earliest time the next state is published, in milliseconds */
+        long nextPublish = 0;
+        /** The newest state kept back until the next publication, only used by the game's tick */
+        GameState pending;
+        /** The last change of the full state stored */
+        long storedChange = -1;
+        /** The time a state was last published to every player, in milliseconds */
+        final Map<UUID, Long> lastPublished = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Messages of a topic kept until the game loop handles them.
+     */
+    private static class Inbox {
+        final MessageQueue queue;
+        final Subscription subscription;
+
+        Inbox(MessageTransport transport, String topic, int capacity) {
+            this.queue = new MessageQueue(capacity);
+            this.subscription = transport.subscribe(topic, queue);
+        }
+    }
+
+    /**
+     * The batches of actions of a player and the last action processed of them.
+     */
+    private static class ActionStream {
+        final Inbox inbox;
+        /** The sequence number of the last action processed, the first action is number 1 */
+        long processed = 0;
+
+        ActionStream(MessageTransport transport, UUID playerId) {
+            this.inbox = new Inbox(transport, Messages.actionTopic(playerId), ACTION_QUEUE_CAPACITY);
+        }
     }
 
     @Override
     public UUID createGame(String mapName) {
         UUID gameId = UUID.randomUUID();
         UUID playerID = UUID.randomUUID();
-        // Create a player entity for player one
-        Entity playerOne = new Entity();
+        // Create a player entity for player one, in a manager of its own since no world exists yet
+        ECSManager ecs = new ECSManager();
+        Entity playerOne = ecs.createEntity();
         playerOne.addComponent(PlayerComponent.class, new PlayerComponent(playerID));
-        GameState gameState = new GameState();
+        GameState gameState = new GameState(ecs);
         gameState.playerOne = playerOne;
         gameState.gameID = gameId;
         gameState.mapName = mapName;
         
 
         System.out.println("The gameStates player one" + gameState.playerOne);
-        try {
-            byte[] gameOutput = GameState.serializeToByteArray(gameState);
-            gameDao.add(createGameId(gameId), gameOutput);
-            
-        } catch (IOException e) {
-            // TODO: handle exception
-            System.out.println("Error creating game");
-        }
+        createGame(gameState).join();
         return gameState.gameID;
     }
 
+    @Override
+    public CompletableFuture<Boolean> createGame(GameState gameState) {
+        UUID gameId = gameState.gameID;
+        // Listen for player two before the game is listed
+        joinInboxes.computeIfAbsent(gameId, id -> new Inbox(transport, Messages.joinTopic(id), JOIN_QUEUE_CAPACITY));
+        byte[] gameOutput = GameState.serializeToByteArray(gameState);
+        // The lobby lists the game without reading its state, with the seat of player two open
+        LobbyEntry entry = new LobbyEntry(gameId, gameState.mapName, 1, System.currentTimeMillis());
+        lobbyEntries.put(gameId, entry);
+        return gameDao.addAsync(createGameId(gameId), gameOutput).handle((stored, error) -> {
+            if (error != null || !Boolean.TRUE.equals(stored)) {
+                System.out.println("Error storing new game with ID: " + gameId);
+                return false;
+            }
+            // Listed once its state can be read, unless the game was removed in the meantime
+            if (lobbyEntries.get(gameId) == entry) {
+                lobbyIndex.put(entry);
+            }
+            return true;
+        });
+    }
+
     private String createGameId(UUID gameId) {
         return GAME_PREFIX + gameId.toString();
     }
     
-    private String createJoinGameId(UUID gameId) {
-        return JOIN_PREFIX + gameId.toString();
-    }
-    
-    private String createHighScoreId(UUID gameId) {
-        return HIGHSCORE_PREFIX + gameId.toString();
-    }
-
     @Override
-    public GameState getGameState(UUID gameId) {
+    public GameState getGameState(UUID gameId, ECSManager ecs) {
         try {
             Optional<byte[]> gameOutput = gameDao.get(createGameId(gameId));
             if (!gameOutput.isPresent()) {
                 return null;
             }
-            return GameState.deserializeFromByteArray(gameOutput.get());
-        } catch (IOException | ClassNotFoundException e) {
+            return GameState.deserializeFromByteArray(gameOutput.get(), ecs);
+        } catch (IOException e) {
             System.out.println(e);
             System.out.println("Error getting game state with ID: " + gameId);
             return null;
@@ -87,41 +199,227 @@ public class ServerMessenger implements ServerMessagingController {
 
     @Override
     public void setNewGameState(UUID gameId, GameState gameState) {
-        try {
-            byte[] gameOutput = GameState.serializeToByteArray(gameState);
-            gameDao.update(createGameId(gameId), gameOutput);
-        } catch (IOException e) {
-            System.out.println(e);
-            System.out.println("Error updating game state with ID: " + gameId);
+        Replication replication = replications.computeIfAbsent(gameId, id -> new Replication());
+        long now = System.currentTimeMillis();
+        // States between two publications are superseded before they are even captured,
+        // except when the players change so a joining player is answered at once
+        boolean playersChanged = replication.replicator.havePlayersChanged(gameState);
+        if (!playersChanged && now < replication.nextPublish) {
+            replication.pending = gameState;
+            return;
         }
+        publish(gameId, replication, gameState, playersChanged, now);
+    }
+
+    @Override
+    public void flushGameState(UUID gameId) {
+        Replication replication = replications.get(gameId);
+        if (replication == null || replication.pending == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now < replication.nextPublish) {
+            return;
+        }
+        GameState gameState = replication.pending;
+        publish(gameId, replication, gameState, replication.replicator.havePlayersChanged(gameState), now);
+    }
+
+    /**
+     * Captures a state and sends every player the changes it has not acknowledged.
+     */
+    private void publish(UUID gameId, Replication replication, GameState gameState, boolean playersChanged, long now) {
+        StateReplicator replicator = replication.replicator;
+        replication.pending = null;
+        replication.nextPublish = now + publishInterval;
+        replicator.capture(gameState);
+
+        // The full state is only kept for readers that do not follow the deltas
+        if (replicator.isFullStateDue(gameState) && (playersChanged || replicator.getLastChange() > replication.storedChange)) {
+            replication.storedChange = replicator.getLastChange();
+            storeFullState(gameId, replication, replicator.encode(gameState, StateReplicator.FULL_STATE));
+        }
+        // Each player gets the changes since the last state it acknowledged
+        ComponentManager<PlayerComponent> playerManager = gameState.getECSManager()
+                .getOrDefaultComponentManager(PlayerComponent.class);
+        for (Entity player : new Entity[] { gameState.playerOne, gameState.playerTwo }) {
+            PlayerComponent playerComponent = player == null ? null : playerManager.get(player);
+            if (playerComponent == null || playerComponent.playerID == null) {
+                continue;
+            }
+            UUID playerId = playerComponent.playerID;
+            if (replication.players.add(playerId)) {
+                listenForAcknowledgements(gameId, playerId, replication);
+            }
+            long acknowledged = replication.acknowledged.getOrDefault(playerId, StateReplicator.FULL_STATE);
+            // A player that has the current state only gets a heartbeat now and then
+            boolean upToDate = acknowledged >= replicator.getLastChange() && acknowledged <= replicator.getSequence();
+            long lastPublished = replication.lastPublished.getOrDefault(playerId, 0L);
+            if (upToDate && !playersChanged && now - lastPublished < HEARTBEAT_INTERVAL) {
+                continue;
+            }
+            replication.lastPublished.put(playerId, now);
+            transport.publish(Messages.deltaTopic(gameId, playerId), replicator.encode(gameState, acknowledged));
+        }
+    }
+
+    /**
+     * Sets how often the state of a game is published at most. A game ticking faster only
+     * has its latest state published, the states in between are superseded.
+     *
+     * @param statesPerSecond The most states published per second of every game.
+     * @throws IllegalArgumentException If the rate is not positive.
+     */
+    public void setPublishRate(int statesPerSecond) throws IllegalArgumentException {
+        if (statesPerSecond <= 0) {
+            throw new IllegalArgumentException("[ERROR] The publish rate must be positive, was " + statesPerSecond);
+        }
+        this.publishInterval = 1000 / statesPerSecond;
+    }
+
+    /**
+     * Stores the full state of a game without waiting for the storage. While
+     * a state is being stored, only the newest of the states due after it is kept and
+     * stored once the storage answers, so a slow storage never holds up the tick.
+     */
+    private void storeFullState(UUID gameId, Replication replication, byte[] gameOutput) {
+        synchronized (replication) {
+            if (replication.removed) {
+                return;
+            }
+            if (replication.storing) {
+                replication.unstored = gameOutput;
+                return;
+            }
+            replication.storing = true;
+        }
+        gameDao.updateAsync(createGameId(gameId), gameOutput).whenComplete((stored, error) -> {
+            if (error != null || !Boolean.TRUE.equals(stored)) {
+                System.out.println("Error storing game state with ID: " + gameId);
+            }
+            byte[] next;
+            synchronized (replication) {
+                replication.storing = false;
+                next = replication.unstored;
+                replication.unstored = null;
+            }
+            if (next != null) {
+                storeFullState(gameId, replication, next);
+            }
+        });
+    }
+
+    private void listenForAcknowledgements(UUID gameId, UUID playerId, Replication replication) {
+        Subscription subscription = transport.subscribe(Messages.ackTopic(gameId, playerId), payload -> {
+            try {
+                replication.acknowledged.put(playerId, Messages.decodeSequence(payload));
+            } catch (RuntimeException e) {
+                System.out.println("Malformed acknowledgement from player: " + playerId);
+            }
+        });
+        replication.ackSubscriptions.put(playerId, subscription);
     }
 
     @Override
     public List<PlayerInput> lookForPendingActions(UUID playerId) {
+        ActionStream stream = actionStreams.computeIfAbsent(playerId, id -> new ActionStream(transport, id));
         List<PlayerInput> actions = new ArrayList<>();
-        Optional<PlayerInput> action = actionDao.get(playerId);
-        if (action.isPresent()) {
-            actions.add(action.get());
-            actionDao.delete(playerId);
+        List<byte[]> batches = stream.inbox.queue.drain();
+        if (batches.isEmpty()) {
+            return actions;
+        }
+        for (byte[] payload : batches) {
+            try {
+                Messages.ActionBatch batch = Messages.decodeActions(payload);
+                // A batch repeats every action not yet acknowledged, those processed are skipped
+                long processedInBatch = Math.max(0, stream.processed - batch.firstSequence + 1);
+                for (int i = (int) Math.min(processedInBatch, batch.actions.size()); i < batch.actions.size(); i++) {
+                    actions.add(batch.actions.get(i));
+                }
+                stream.processed = Math.max(stream.processed, batch.firstSequence + batch.actions.size() - 1);
+            } catch (RuntimeException e) {
+                System.out.println("Malformed actions from player: " + playerId);
+            }
         }
+        // One acknowledgement per tick covers every batch drained
+        transport.publish(Messages.actionAckTopic(playerId), Messages.encodeSequence(stream.processed));
         return actions;
     }
     
 
     @Override
     public Optional<UUID> lookForPendingPlayer(UUID gameId) {
-        String lookingId = createJoinGameId(gameId);
-        return pendingPlayerDao.get(lookingId);
+        Inbox inbox = joinInboxes.computeIfAbsent(gameId,
+                id -> new Inbox(transport, Messages.joinTopic(id), JOIN_QUEUE_CAPACITY));
+        Optional<byte[]> request = inbox.queue.poll();
+        if (!request.isPresent()) {
+            return Optional.empty();
+        }
+        UUID playerId;
+        try {
+            playerId = Messages.decodeUUID(request.get());
+        } catch (RuntimeException e) {
+            System.out.println("Malformed join request for game: " + gameId);
+            return Optional.empty();
+        }
+        if (playerId != null) {
+            takeSeat(gameId);
+        }
+        return Optional.ofNullable(playerId);
+    }
+
+    /**
+     * Lists a game with one seat less, the lobby index drops it once no seat is left.
+     */
+    private void takeSeat(UUID gameId) {
+        LobbyEntry entry = lobbyEntries.get(gameId);
+        if (entry == null || entry.getOpenSeats() == 0) {
+            return;
+        }
+        LobbyEntry joined = new LobbyEntry(gameId, entry.getMapName(), entry.getOpenSeats() - 1, entry.getCreatedAt());
+        lobbyEntries.put(gameId, joined);
+        lobbyIndex.put(joined);
     }
 
     @Override
     public void removeGame(UUID gameId) {
-        gameDao.delete(createGameId(gameId));
+        Replication replication = replications.remove(gameId);
+        if (replication != null) {
+            synchronized (replication) {
+                replication.removed = true;
+                replication.unstored = null;
+            }
+        }
+        gameDao.deleteAsync(createGameId(gameId));
+        LobbyEntry entry = lobbyEntries.remove(gameId);
+        if (entry != null) {
+            lobbyIndex.remove(entry);
+        }
+        Inbox joinInbox = joinInboxes.remove(gameId);
+        if (joinInbox != null) {
+            joinInbox.subscription.cancel();
+            transport.clear(Messages.joinTopic(gameId));
+        }
+        if (replication != null) {
+            for (Subscription subscription : replication.ackSubscriptions.values()) {
+                subscription.cancel();
+            }
+            for (UUID playerId : replication.players) {
+                ActionStream actionStream = actionStreams.remove(playerId);
+                if (actionStream != null) {
+                    actionStream.inbox.subscription.cancel();
+                    transport.clear(Messages.actionTopic(playerId));
+                    transport.clear(Messages.actionAckTopic(playerId));
+                }
+                transport.clear(Messages.deltaTopic(gameId, playerId));
+                transport.clear(Messages.ackTopic(gameId, playerId));
+            }
+        }
     }
 
     @Override
-    public void setHighScore(UUID gameId, int wavesSurvived) {
-        Score score = new Score(gameId, wavesSurvived);
-        highscoreDao.add(createHighScoreId(gameId), score);
+    public void setHighScore(UUID gameId, String mapName, int wavesSurvived) {
+        Score score = new Score(gameId, mapName, wavesSurvived);
+        leaderboard.submit(score);
     }
 }
@@ -0,0 +1,62 @@
+package com.softwarearchitecture.networking.persistence;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link DAO} whose operations can also be started without waiting for the data storage,
+ * so a game loop or the render thread is never held up by the latency of the network.
+ * <p>
+ * Every operation returns a {@link CompletableFuture} completed when the storage answers,
+ * which lets several requests be in flight at once instead of one round trip each after
+ * the other. The futures are completed on a thread of the storage, so callbacks must not
+ * touch state owned by the game loop or the render thread.
+ *
+ * @param <K> The type of the primary key used to identify objects of type T.
+ * @param <T> The type of the object managed by this DAO.
+ */
+public interface AsyncDAO<K, T> extends DAO<K, T> {
+
+    /**
+     * Starts loading the primary keys of all instances in the data storage.
+     *
+     * @return A future of the keys, completed with an empty list if they could not be loaded.
+     */
+    public CompletableFuture<List<K>> loadAllIndicesAsync();
+
+    /**
+     * Starts looking up the instance identified by the given primary key {@code id}.
+     *
+     * @param id The primary key used to identify the instance in the data storage.
+     * @return A future of the instance, completed empty if there is no such instance or it
+     *         could not be read.
+     */
+    public CompletableFuture<Optional<T>> getAsync(K id);
+
+    /**
+     * Starts replacing the instance identified by the given primary key {@code id}.
+     *
+     * @param id The primary key used to identify the instance to be updated.
+     * @param object The updated instance of type {@code T} to replace the existing one.
+     * @return A future completed with {@code true} if the update was successful.
+     */
+    public CompletableFuture<Boolean> updateAsync(K id, T object);
+
+    /**
+     * Starts deleting the instance identified by the given primary key {@code id}.
+     *
+     * @param id The primary key used to identify the instance to be deleted.
+     * @return A future completed with {@code true} if the deletion was successful.
+     */
+    public CompletableFuture<Boolean> deleteAsync(K id);
+
+    /**
+     * Starts adding a new instance to the data storage.
+     *
+     * @param id The primary key used to identify the instance to be added.
+     * @param object The instance of type {@code T} to be added to the data storage.
+     * @return A future completed with {@code true} if the instance was stored.
+     */
+    public CompletableFuture<Boolean> addAsync(K id, T object);
+}
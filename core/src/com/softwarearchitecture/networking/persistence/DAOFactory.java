@@ -1,5 +1,6 @@
 package com.softwarearchitecture.networking.persistence;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 
@@ -13,6 +14,9 @@ import java.io.IOException;
  */
 public class DAOFactory<K, T>{
 
+    /** The directory local storage is kept in, {@code null} to keep it in memory */
+    private static File storageDirectory = null;
+
     private boolean useLocalStorage;
 
     public DAOFactory() {
@@ -23,6 +27,16 @@ public class DAOFactory<K, T>{
         this.useLocalStorage = useLocalStorage;
     }
 
+    /**
+     * Keeps the local storage of every DAO built afterwards in files, so it survives a
+     * restart of the game.
+     *
+     * @param directory The directory of the files, {@code null} to keep local storage in memory.
+     */
+    public static void useFileStorage(File directory) {
+        storageDirectory = directory;
+    }
+
     /**
      * Constructs and returns a DAO instance configured according to the builder settings.
      * This method decides the specific DAO implementation to instantiate based on the
@@ -33,11 +47,20 @@ public class DAOFactory<K, T>{
      * @return A configured DAO instance.
      */
     @SuppressWarnings({ "unchecked", "rawtypes" })
-    public DAO<K, T> build(Class<K> idParameterClass, Class<T> typeParameterClass) {
+    public AsyncDAO<K, T> build(Class<K> idParameterClass, Class<T> typeParameterClass) {
         // TODO: add conditional logic to determine which DAO implementation to use
         // based on the configuration of system capabilities
-        DAO<K, T> dao;
+        AsyncDAO<K, T> dao;
         if (useLocalStorage) {
+            if (storageDirectory != null) {
+                try {
+                    return FileDAO.getInstance(storageDirectory.toPath(), idParameterClass, typeParameterClass);
+                } catch (IOException e) {
+                    // Playing offline is still possible, only without keeping anything
+                    System.out.println("Error opening local storage in " + storageDirectory + ", keeping it in memory.");
+                    e.printStackTrace();
+                }
+            }
             dao = LocalDAO.getInstance(idParameterClass, typeParameterClass);
             return dao;
         }
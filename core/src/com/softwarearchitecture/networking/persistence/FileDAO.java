@@ -0,0 +1,542 @@
+package com.softwarearchitecture.networking.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+import com.google.gson.Gson;
+
+/**
+ * A {@link DAO} kept in files on this machine, so the offline games and highscores survive
+ * a restart without any online service.
+ * <p>
+ * Every change is appended to a log and forced to disk before the operation returns. A
+ * replaced or deleted record stays in the log until the log is compacted, which happens once
+ * such records take up more than half of it. The position of every live record is written
+ * to a memory-mapped index file when the log is compacted, every {@link #INDEX_INTERVAL}
+ * changes and when the DAO is closed, so opening the DAO reads the index and the records
+ * appended after it instead of the whole log.
+ * <p>
+ * Every record carries a checksum. A record cut short or corrupted by a crash ends the log,
+ * which is truncated after the last complete record when the DAO is opened. An index that
+ * does not belong to the log is ignored and the log is read from the start instead.
+ * <p>
+ * Keys and objects are written as JSON, except {@code byte[]} objects which are written as
+ * they are. The asynchronous operations run one after the other on a thread of the DAO.
+ *
+ * @param <K> The type of the primary key used to identify objects of type T.
+ * @param <T> The type of the object managed by this DAO.
+ */
+public class FileDAO<K, T> implements AsyncDAO<K, T> {
+    /** Number of changes between two index files written */
+    public static final int INDEX_INTERVAL = 1024;
+    /** Size of the log below which it is never compacted, in bytes */
+    public static final long COMPACTION_THRESHOLD = 64 * 1024;
+
+    private static final int LOG_MAGIC = 0x42534c47;
+    private static final int INDEX_MAGIC = 0x42534958;
+    private static final int VERSION = 1;
+    /** Magic, version and generation */
+    private static final int LOG_HEADER_SIZE = 16;
+    /** Magic, version, generation, length of the log covered and number of entries */
+    private static final int INDEX_HEADER_SIZE = 28;
+    /** Length of the body and its checksum */
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private static final Map<Path, FileDAO<?, ?>> instances = new ConcurrentHashMap<>();
+    private static boolean shutdownHookAdded = false;
+
+    private final Path logPath;
+    private final Path indexPath;
+    private final Class<K> idParameterClass;
+    private final Class<T> typeParameterClass;
+    private final Gson gson = new Gson();
+    private final ExecutorService executor;
+    private final Random random = new Random();
+
+    /** The log, guarded by the DAO like the fields below */
+    private FileChannel log;
+    /** Tells an index apart from the index of an earlier log, a new log is written by every compaction */
+    private long generation;
+    /** The length of the complete records of the log */
+    private long logEnd;
+    /** The record of every live instance */
+    private Map<K, Location> index = new HashMap<>();
+    /** The bytes of the log taken up by the records of live instances */
+    private long liveBytes = 0;
+    private int changesSinceIndex = 0;
+
+    /**
+     * Where the current record of an instance is in the log.
+     */
+    private static final class Location {
+        final byte[] key;
+        final long offset;
+        final int length;
+
+        Location(byte[] key, long offset, int length) {
+            this.key = key;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private FileDAO(Path directory, Class<K> idParameterClass, Class<T> typeParameterClass) throws IOException {
+        this.idParameterClass = idParameterClass;
+        this.typeParameterClass = typeParameterClass;
+        String name = fileName(idParameterClass) + "-" + fileName(typeParameterClass);
+        this.logPath = directory.resolve(name + ".log");
+        this.indexPath = directory.resolve(name + ".idx");
+        Files.createDirectories(directory);
+        // Leftovers of a compaction or index interrupted by a crash
+        Files.deleteIfExists(compactionPath());
+        Files.deleteIfExists(indexPath.resolveSibling(indexPath.getFileName() + ".tmp"));
+        open();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "FileDAO-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the DAO of the given types in a directory, sharing it with every other user of
+     * the same files.
+     *
+     * @param directory The directory the files are kept in, created if missing.
+     * @throws IOException If the files could not be read or created.
+     */
+    @SuppressWarnings("unchecked")
+    public static synchronized <K, T> FileDAO<K, T> getInstance(Path directory, Class<K> idParameterClass,
+            Class<T> typeParameterClass) throws IOException {
+        Path key = directory.toAbsolutePath().resolve(fileName(idParameterClass) + "-" + fileName(typeParameterClass));
+        FileDAO<?, ?> dao = instances.get(key);
+        if (dao == null) {
+            dao = new FileDAO<>(directory, idParameterClass, typeParameterClass);
+            instances.put(key, dao);
+        }
+        if (!shutdownHookAdded) {
+            // An index written on exit spares the next start reading the log
+            Runtime.getRuntime().addShutdownHook(new Thread(FileDAO::closeAll));
+            shutdownHookAdded = true;
+        }
+        return (FileDAO<K, T>) dao;
+    }
+
+    private static synchronized void closeAll() {
+        for (FileDAO<?, ?> dao : new ArrayList<>(instances.values())) {
+            dao.close();
+        }
+    }
+
+    private static String fileName(Class<?> type) {
+        return type.getSimpleName().replace("[]", "Array");
+    }
+
+    private Path compactionPath() {
+        return logPath.resolveSibling(logPath.getFileName() + ".compact");
+    }
+
+    /**
+     * Reads the index and the log, truncating the log after its last complete record.
+     */
+    private void open() throws IOException {
+        log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (log.size() < LOG_HEADER_SIZE) {
+            // A new log, or one whose header never made it to the disk
+            log.truncate(0);
+            generation = random.nextLong();
+            writeLogHeader(log, generation);
+            log.force(true);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+            readFully(log, header, 0);
+            header.flip();
+            if (header.getInt() != LOG_MAGIC || header.getInt() != VERSION) {
+                log.close();
+                throw new IOException("[ERROR] " + logPath + " is not a log of this version");
+            }
+            generation = header.getLong();
+        }
+
+        long replayFrom = readIndex();
+        long size = log.size();
+        logEnd = replay(replayFrom);
+        if (logEnd < size) {
+            System.out.println("Dropping " + (size - logEnd) + " bytes of incomplete records from " + logPath);
+            log.truncate(logEnd);
+            log.force(true);
+        }
+    }
+
+    /**
+     * Reads the index file if it belongs to the log.
+     *
+     * @return The length of the log covered by the index, where the log is read from.
+     */
+    private long readIndex() throws IOException {
+        if (!Files.exists(indexPath)) {
+            return LOG_HEADER_SIZE;
+        }
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != INDEX_MAGIC || buffer.getInt() != VERSION || buffer.getLong() != generation) {
+                return LOG_HEADER_SIZE;
+            }
+            long covered = buffer.getLong();
+            int count = buffer.getInt();
+            if (covered > log.size()) {
+                return LOG_HEADER_SIZE;
+            }
+            Map<K, Location> entries = new HashMap<>(count * 2);
+            long live = 0;
+            for (int i = 0; i < count; i++) {
+                byte[] key = new byte[buffer.getInt()];
+                buffer.get(key);
+                long offset = buffer.getLong();
+                int length = buffer.getInt();
+                entries.put(decodeKey(key), new Location(key, offset, length));
+                live += length;
+            }
+            index = entries;
+            liveBytes = live;
+            return covered;
+        } catch (RuntimeException e) {
+            // A damaged index only costs reading the whole log
+            System.out.println("Ignoring damaged index " + indexPath + ": " + e.getMessage());
+            index = new HashMap<>();
+            liveBytes = 0;
+            return LOG_HEADER_SIZE;
+        }
+    }
+
+    /**
+     * Applies the records of the log from a position on to the index.
+     *
+     * @return The position after the last complete record.
+     */
+    private long replay(long from) throws IOException {
+        long position = from;
+        log.position(from);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(log)));
+        CRC32 checksum = new CRC32();
+        while (true) {
+            byte[] body;
+            try {
+                int length = in.readInt();
+                int expected = in.readInt();
+                if (length < 5 || position + RECORD_HEADER_SIZE + length > log.size()) {
+                    break;
+                }
+                body = new byte[length];
+                in.readFully(body);
+                checksum.reset();
+                checksum.update(body);
+                if ((int) checksum.getValue() != expected) {
+                    break;
+                }
+            } catch (EOFException e) {
+                break;
+            }
+            ByteBuffer record = ByteBuffer.wrap(body);
+            byte operation = record.get();
+            int keyLength = record.getInt();
+            if (keyLength < 0 || keyLength > record.remaining() || (operation != PUT && operation != DELETE)) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            record.get(key);
+            int length = RECORD_HEADER_SIZE + body.length;
+            K id;
+            try {
+                id = decodeKey(key);
+            } catch (RuntimeException e) {
+                break;
+            }
+            apply(operation, id, key, position, length);
+            position += length;
+        }
+        return position;
+    }
+
+    private void apply(byte operation, K id, byte[] key, long offset, int length) {
+        Location previous = operation == PUT ? index.put(id, new Location(key, offset, length)) : index.remove(id);
+        if (previous != null) {
+            liveBytes -= previous.length;
+        }
+        if (operation == PUT) {
+            liveBytes += length;
+        }
+    }
+
+    private synchronized void append(byte operation, K id, T object) throws IOException {
+        if (log == null) {
+            throw new IOException("[ERROR] " + logPath + " is closed");
+        }
+        byte[] key = encodeKey(id);
+        byte[] value = operation == PUT ? encodeValue(object) : new byte[0];
+        int bodyLength = 1 + 4 + key.length + value.length;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + bodyLength);
+        record.putInt(bodyLength);
+        record.putInt(0);
+        record.put(operation);
+        record.putInt(key.length);
+        record.put(key);
+        record.put(value);
+        CRC32 checksum = new CRC32();
+        checksum.update(record.array(), RECORD_HEADER_SIZE, bodyLength);
+        record.putInt(4, (int) checksum.getValue());
+        record.flip();
+        writeFully(log, record, logEnd);
+        log.force(false);
+
+        apply(operation, id, key, logEnd, record.capacity());
+        logEnd += record.capacity();
+        changesSinceIndex++;
+
+        long logBytes = logEnd - LOG_HEADER_SIZE;
+        if (logBytes > COMPACTION_THRESHOLD && liveBytes * 2 < logBytes) {
+            compact();
+        } else if (changesSinceIndex >= INDEX_INTERVAL) {
+            writeIndex();
+        }
+    }
+
+    /**
+     * Writes the live records to a new log that replaces the current one.
+     */
+    private void compact() throws IOException {
+        Path compacted = compactionPath();
+        long newGeneration = random.nextLong();
+        Map<K, Location> moved = new HashMap<>(index.size() * 2);
+        long position = LOG_HEADER_SIZE;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeLogHeader(out, newGeneration);
+            for (Map.Entry<K, Location> entry : index.entrySet()) {
+                Location location = entry.getValue();
+                ByteBuffer record = ByteBuffer.allocate(location.length);
+                readFully(log, record, location.offset);
+                record.flip();
+                writeFully(out, record, position);
+                moved.put(entry.getKey(), new Location(location.key, position, location.length));
+                position += location.length;
+            }
+            out.force(true);
+        }
+        log.close();
+        Files.move(compacted, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        generation = newGeneration;
+        index = moved;
+        logEnd = position;
+        liveBytes = position - LOG_HEADER_SIZE;
+        writeIndex();
+    }
+
+    /**
+     * Writes the position of every live record, a failure only makes the next start slower.
+     */
+    private void writeIndex() {
+        changesSinceIndex = 0;
+        long size = INDEX_HEADER_SIZE;
+        for (Location location : index.values()) {
+            size += 4 + location.key.length + 8 + 4;
+        }
+        Path written = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(written, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(INDEX_MAGIC);
+                buffer.putInt(VERSION);
+                buffer.putLong(generation);
+                buffer.putLong(logEnd);
+                buffer.putInt(index.size());
+                for (Location location : index.values()) {
+                    buffer.putInt(location.key.length);
+                    buffer.put(location.key);
+                    buffer.putLong(location.offset);
+                    buffer.putInt(location.length);
+                }
+                buffer.force();
+            }
+            Files.move(written, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Error writing index " + indexPath + ": " + e.getMessage());
+        }
+    }
+
+    private synchronized Optional<T> read(K id) throws IOException {
+        Location location = index.get(id);
+        if (location == null || log == null) {
+            return Optional.empty();
+        }
+        ByteBuffer record = ByteBuffer.allocate(location.length);
+        readFully(log, record, location.offset);
+        int valueOffset = RECORD_HEADER_SIZE + 1 + 4 + location.key.length;
+        byte[] value = new byte[location.length - valueOffset];
+        record.position(valueOffset);
+        record.get(value);
+        return Optional.of(decodeValue(value));
+    }
+
+    /**
+     * Writes the index and closes the files. The DAO can be opened again with
+     * {@link #getInstance}.
+     */
+    public synchronized void close() {
+        instances.values().remove(this);
+        if (log == null) {
+            return;
+        }
+        writeIndex();
+        try {
+            log.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        log = null;
+    }
+
+    private static void writeLogHeader(FileChannel channel, long generation) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+        header.putInt(LOG_MAGIC);
+        header.putInt(VERSION);
+        header.putLong(generation);
+        header.flip();
+        writeFully(channel, header, 0);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("[ERROR] Record beyond the end of the log");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private byte[] encodeKey(K id) {
+        return gson.toJson(id).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private K decodeKey(byte[] key) {
+        return gson.fromJson(new String(key, StandardCharsets.UTF_8), idParameterClass);
+    }
+
+    private byte[] encodeValue(T object) {
+        if (object instanceof byte[]) {
+            return (byte[]) object;
+        }
+        return gson.toJson(object).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T decodeValue(byte[] value) {
+        if (typeParameterClass == byte[].class) {
+            return (T) value;
+        }
+        return gson.fromJson(new String(value, StandardCharsets.UTF_8), typeParameterClass);
+    }
+
+    @Override
+    public synchronized List<K> loadAllIndices() {
+        return new ArrayList<>(index.keySet());
+    }
+
+    @Override
+    public Optional<T> get(K id) {
+        try {
+            return read(id);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error reading " + id + " from " + logPath + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public synchronized boolean update(K id, T object) {
+        if (!index.containsKey(id)) {
+            return false;
+        }
+        return write(PUT, id, object);
+    }
+
+    @Override
+    public synchronized boolean delete(K id) {
+        if (!index.containsKey(id)) {
+            return false;
+        }
+        return write(DELETE, id, null);
+    }
+
+    @Override
+    public void add(K id, T object) {
+        write(PUT, id, object);
+    }
+
+    private boolean write(byte operation, K id, T object) {
+        try {
+            append(operation, id, object);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error writing " + id + " to " + logPath);
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<K>> loadAllIndicesAsync() {
+        return CompletableFuture.supplyAsync(this::loadAllIndices, executor);
+    }
+
+    @Override
+    public CompletableFuture<Optional<T>> getAsync(K id) {
+        return CompletableFuture.supplyAsync(() -> get(id), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateAsync(K id, T object) {
+        return CompletableFuture.supplyAsync(() -> update(id, object), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAsync(K id) {
+        return CompletableFuture.supplyAsync(() -> delete(id), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addAsync(K id, T object) {
+        return CompletableFuture.supplyAsync(() -> write(PUT, id, object), executor);
+    }
+}
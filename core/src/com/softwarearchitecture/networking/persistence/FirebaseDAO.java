@@ -9,8 +9,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.atomic.AtomicReference;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
@@ -24,7 +22,7 @@ import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ValueEventListener;
 import com.google.gson.Gson;
 
-public class FirebaseDAO<K, T> implements DAO<K, T> {
+public class FirebaseDAO<K, T> implements AsyncDAO<K, T> {
 
     private final FirebaseDatabase database;
     private final Class<K> idParameterClass;
@@ -35,7 +33,15 @@ public class FirebaseDAO<K, T> implements DAO<K, T> {
         this.typeParameterClass = typeParameterClass;
         this.idParameterClass = idParameterClass;
         this.gson = new Gson();
-       
+        this.database = connect();
+    }
+
+    /**
+     * Connects to the game's database, initializing Firebase on the first call.
+     *
+     * @return The database.
+     */
+    public static FirebaseDatabase connect() throws FileNotFoundException, IOException {
         FileHandle serviceHandle = Gdx.files.internal("FirebaseSecretKey.json");
 		String jsonString = serviceHandle.readString();
 
@@ -52,23 +58,17 @@ public class FirebaseDAO<K, T> implements DAO<K, T> {
             FirebaseApp.getInstance();
         }
 
-        this.database = FirebaseDatabase.getInstance();
-    
+        return FirebaseDatabase.getInstance();
     }
     
     @Override
     public List<K> loadAllIndices() {
-        try {
-            // Call the asynchronous loadAll method and wait for it to complete
-            return getAllIndices().join();  // This blocks the current thread until the future completes
-        } catch (Exception e) {
-            // Log the exception or handle it according to your error handling policy
-            System.err.println("Failed to load all entries: " + e.getMessage());
-            return new ArrayList<>();
-        }
+        // This blocks the current thread until the future completes
+        return loadAllIndicesAsync().join();
     }
 
-    private CompletableFuture<List<K>> getAllIndices() {
+    @Override
+    public CompletableFuture<List<K>> loadAllIndicesAsync() {
         // Define the path where your data keys are located
         DatabaseReference ref = database.getReference("");
         
@@ -80,10 +80,14 @@ public class FirebaseDAO<K, T> implements DAO<K, T> {
         ref.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot dataSnapshot) {
-                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    // Assume the keys are the node names at this path
-                    K key = gson.fromJson(snapshot.getKey(), idParameterClass);
-                    keyList.add(key);
+                try {
+                    for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
+                        // Assume the keys are the node names at this path
+                        K key = gson.fromJson(snapshot.getKey(), idParameterClass);
+                        keyList.add(key);
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("Failed to load all entries: " + e.getMessage());
                 }
                 // Complete the future with the loaded list of keys
                 future.complete(keyList);
@@ -91,8 +95,8 @@ public class FirebaseDAO<K, T> implements DAO<K, T> {
 
             @Override
             public void onCancelled(DatabaseError databaseError) {
-                // Handle possible errors
-                future.completeExceptionally(new Exception(databaseError.getMessage()));
+                System.err.println("Failed to load all entries: " + databaseError.getMessage());
+                future.complete(new ArrayList<>());
             }
         });
 
@@ -102,17 +106,24 @@ public class FirebaseDAO<K, T> implements DAO<K, T> {
 
     @Override
     public Optional<T> get(K id) {
+        return getAsync(id).join();
+    }
+
+    @Override
+    public CompletableFuture<Optional<T>> getAsync(K id) {
         String idJson = gson.toJson(id);
         DatabaseReference ref = database.getReference(idJson);
-        AtomicReference<T> result = new AtomicReference<>();
         CompletableFuture<Optional<T>> future = new CompletableFuture<>();
         ref.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot dataSnapshot) {
-                String objectJson = dataSnapshot.getValue(String.class);
-                T value = gson.fromJson(objectJson, typeParameterClass);
-                result.set(value);
-                future.complete(Optional.ofNullable(value));
+                try {
+                    String objectJson = dataSnapshot.getValue(String.class);
+                    future.complete(Optional.ofNullable(gson.fromJson(objectJson, typeParameterClass)));
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                    future.complete(Optional.empty());
+                }
             }
 
             @Override
@@ -120,60 +131,52 @@ public class FirebaseDAO<K, T> implements DAO<K, T> {
                 future.complete(Optional.empty());
             }
         });
-
-        try {
-            return future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            e.printStackTrace();
-            return Optional.empty();
-        }
+        return future;
     }
 
     @Override
     public boolean update(K id, T object) {
-        String idJson = gson.toJson(id);
-        DatabaseReference ref = database.getReference(idJson);
-        CompletableFuture<Boolean> future = new CompletableFuture<>();
-        // Convert object to JSON
-        String objectJson = gson.toJson(object);
-        ref.setValue(objectJson, (databaseError, databaseReference) -> future.complete(databaseError == null));
+        return updateAsync(id, object).join();
+    }
 
-        try {
-            return future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            e.printStackTrace();
-            return false;
-        }
+    @Override
+    public CompletableFuture<Boolean> updateAsync(K id, T object) {
+        return write(id, object);
     }
 
     @Override
     public boolean delete(K id) {
+        return deleteAsync(id).join();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAsync(K id) {
         String idJson = gson.toJson(id);
         DatabaseReference ref = database.getReference(idJson);
         CompletableFuture<Boolean> future = new CompletableFuture<>();
         ref.removeValue((databaseError, databaseReference) -> future.complete(databaseError == null));
-
-        try {
-            return future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            e.printStackTrace();
-            return false;
-        }
+        return future;
     }
 
     @Override
     public void add(K id, T object) {
+        // Adding never waited for the database
+        addAsync(id, object);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addAsync(K id, T object) {
+        return write(id, object);
+    }
+
+    private CompletableFuture<Boolean> write(K id, T object) {
         String idJson = gson.toJson(id);
         DatabaseReference ref = database.getReference(idJson);
         CompletableFuture<Boolean> future = new CompletableFuture<>();
-        
         // Convert object to JSON
         String objectJson = gson.toJson(object);
-
         ref.setValue(objectJson, (databaseError, databaseReference) -> future.complete(databaseError == null));
+        return future;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,120 @@
+package com.softwarearchitecture.networking.persistence;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+import com.google.gson.Gson;
+import com.softwarearchitecture.game_client.Score;
+
+/**
+ * A {@link Leaderboard} in a node of its own in the Firebase realtime database, with a child
+ * per board. A board is read with a single query ordered by key, and a score that ranks is
+ * written together with the removal of the score it pushes off the board.
+ */
+public class FirebaseLeaderboard implements Leaderboard {
+    private static final String LEADERBOARD_NODE = "LEADERBOARD";
+
+    private final DatabaseReference leaderboards;
+    private final Gson gson = new Gson();
+
+    public FirebaseLeaderboard() throws FileNotFoundException, IOException {
+        FirebaseDatabase database = FirebaseDAO.connect();
+        this.leaderboards = database.getReference(LEADERBOARD_NODE);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> submit(Score score) {
+        CompletableFuture<Boolean> all = record(ALL_MAPS, score);
+        if (score.getMapName() == null) {
+            return all;
+        }
+        return record(score.getMapName(), score).thenCombine(all, (map, both) -> map && both);
+    }
+
+    private CompletableFuture<Boolean> record(String board, Score score) {
+        String key = Leaderboard.keyOf(score);
+        DatabaseReference scores = leaderboards.child(board);
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        readKeys(scores).thenAccept(keys -> {
+            if (keys == null) {
+                future.complete(false);
+                return;
+            }
+            boolean full = keys.size() >= MAX_SCORES;
+            String last = keys.isEmpty() ? null : keys.get(keys.size() - 1);
+            if (keys.contains(key) || (full && key.compareTo(last) > 0)) {
+                // The score does not rank, or is already on the board
+                future.complete(true);
+                return;
+            }
+            // The score and the removal of the one it pushes off are written at once
+            Map<String, Object> update = new HashMap<>();
+            update.put(key, gson.toJson(score));
+            if (full) {
+                update.put(last, null);
+            }
+            scores.updateChildren(update, (databaseError, databaseReference) -> future.complete(databaseError == null));
+        });
+        return future;
+    }
+
+    /**
+     * Reads the keys of the scores on a board, best first, {@code null} if they could not be read.
+     */
+    private CompletableFuture<List<String>> readKeys(DatabaseReference scores) {
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        scores.orderByKey().limitToFirst(MAX_SCORES).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                List<String> keys = new ArrayList<>();
+                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
+                    keys.add(snapshot.getKey());
+                }
+                future.complete(keys);
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                System.err.println("Failed to read the leaderboard: " + databaseError.getMessage());
+                future.complete(null);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<List<Score>> top(String board) {
+        CompletableFuture<List<Score>> future = new CompletableFuture<>();
+        leaderboards.child(board).orderByKey().limitToFirst(MAX_SCORES).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                List<Score> scores = new ArrayList<>();
+                try {
+                    for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
+                        scores.add(gson.fromJson(snapshot.getValue(String.class), Score.class));
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("Failed to read the leaderboard: " + e.getMessage());
+                }
+                future.complete(scores);
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                System.err.println("Failed to read the leaderboard: " + databaseError.getMessage());
+                future.complete(new ArrayList<>());
+            }
+        });
+        return future;
+    }
+}
@@ -0,0 +1,86 @@
+package com.softwarearchitecture.networking.persistence;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+import com.google.gson.Gson;
+import com.softwarearchitecture.game_client.LobbyEntry;
+
+/**
+ * A {@link LobbyIndex} in a node of its own in the Firebase realtime database. A page is a
+ * single query ordered by key, so listing the lobby reads the listed games only instead
+ * of the whole database.
+ */
+public class FirebaseLobbyIndex implements LobbyIndex {
+    private static final String LOBBY_NODE = "LOBBY";
+
+    private final DatabaseReference lobby;
+    private final Gson gson = new Gson();
+
+    public FirebaseLobbyIndex() throws FileNotFoundException, IOException {
+        FirebaseDatabase database = FirebaseDAO.connect();
+        this.lobby = database.getReference(LOBBY_NODE);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> put(LobbyEntry entry) {
+        if (entry.getOpenSeats() <= 0) {
+            return remove(entry);
+        }
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        lobby.child(LobbyIndex.keyOf(entry)).setValue(gson.toJson(entry),
+                (databaseError, databaseReference) -> future.complete(databaseError == null));
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> remove(LobbyEntry entry) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        lobby.child(LobbyIndex.keyOf(entry)).removeValue(
+                (databaseError, databaseReference) -> future.complete(databaseError == null));
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<List<LobbyEntry>> listOpen(LobbyEntry after, int limit) {
+        String afterKey = after == null ? null : LobbyIndex.keyOf(after);
+        // The page starts at the last game of the previous one, which is skipped
+        Query page = afterKey == null
+                ? lobby.orderByKey().limitToFirst(limit)
+                : lobby.orderByKey().startAt(afterKey).limitToFirst(limit + 1);
+        CompletableFuture<List<LobbyEntry>> future = new CompletableFuture<>();
+        page.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                List<LobbyEntry> games = new ArrayList<>(limit);
+                try {
+                    for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
+                        if (snapshot.getKey().equals(afterKey) || games.size() == limit) {
+                            continue;
+                        }
+                        games.add(gson.fromJson(snapshot.getValue(String.class), LobbyEntry.class));
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("Failed to list the lobby: " + e.getMessage());
+                }
+                future.complete(games);
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                System.err.println("Failed to list the lobby: " + databaseError.getMessage());
+                future.complete(new ArrayList<>());
+            }
+        });
+        return future;
+    }
+}
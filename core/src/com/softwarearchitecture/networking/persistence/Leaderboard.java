@@ -0,0 +1,49 @@
+package com.softwarearchitecture.networking.persistence;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.softwarearchitecture.game_client.Score;
+
+/**
+ * The best scores of every map, and of all maps together, kept sorted as they are
+ * submitted.
+ * <p>
+ * A board holds at most {@link #MAX_SCORES} scores, a score that does not rank is never
+ * stored, so reading a board is a single request however many games have been played.
+ * The scores are ordered by their {@link #keyOf key}, the most waves survived first.
+ */
+public interface Leaderboard {
+    /** The most scores kept on a board */
+    public static final int MAX_SCORES = 10;
+    /** The board of the best scores of all maps */
+    public static final String ALL_MAPS = "ALL";
+
+    /**
+     * Records a score on the board of its map and the board of all maps, if it ranks.
+     *
+     * @param score The score.
+     * @return A future completed with {@code true} if the boards were written.
+     */
+    public CompletableFuture<Boolean> submit(Score score);
+
+    /**
+     * Reads the scores of a board.
+     *
+     * @param board The map of the board, or {@link #ALL_MAPS}.
+     * @return A future of at most {@link #MAX_SCORES} scores, best first, completed with an
+     *         empty list if the board could not be read.
+     */
+    public CompletableFuture<List<Score>> top(String board);
+
+    /**
+     * The key of a score on a board, ordering the scores by waves survived, most first, and
+     * then by game id.
+     *
+     * @param score The score.
+     * @return The key.
+     */
+    public static String keyOf(Score score) {
+        return String.format("%010d", (long) Integer.MAX_VALUE - score.getWavesSurvived()) + score.getGameId().toString();
+    }
+}
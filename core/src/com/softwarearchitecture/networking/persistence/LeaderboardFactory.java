@@ -0,0 +1,42 @@
+package com.softwarearchitecture.networking.persistence;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * Creates the {@link Leaderboard} of a messenger, the {@link LocalLeaderboard} for games on
+ * this machine and the {@link FirebaseLeaderboard} otherwise.
+ */
+public class LeaderboardFactory {
+
+    private boolean useLocalStorage;
+
+    public LeaderboardFactory(boolean useLocalStorage) {
+        this.useLocalStorage = useLocalStorage;
+    }
+
+    /**
+     * If it is not possible to connect to Firebase, the method will terminate the application.
+     *
+     * @return A configured leaderboard.
+     */
+    public Leaderboard build() {
+        if (useLocalStorage) {
+            return LocalLeaderboard.getInstance();
+        }
+
+        try {
+            return new FirebaseLeaderboard();
+        } catch (FileNotFoundException e) {
+            System.out.println("Firebase secret key file not found. Please check the file and try again.");
+            e.printStackTrace();
+            System.exit(1); // Terminate the application with a status code indicating abnormal termination.
+        } catch (IOException e) {
+            System.out.println("Error reading Firebase secret key file. Please check the file and try again.");
+            e.printStackTrace();
+            System.exit(1); // Terminate the application with a status code indicating abnormal termination.
+        }
+        // Need to return a value to satisfy the compiler, but this should never be reached.
+        return null;
+    }
+}
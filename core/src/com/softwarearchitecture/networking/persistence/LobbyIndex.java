@@ -0,0 +1,52 @@
+package com.softwarearchitecture.networking.persistence;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.softwarearchitecture.game_client.LobbyEntry;
+
+/**
+ * The listing of the games waiting for players, kept by the servers hosting them.
+ * <p>
+ * Only games with open seats are kept, so the filtering is done when the index is written
+ * and a listing never reads a full game. The games are listed oldest first, a page at a
+ * time, ordered by their {@link #keyOf key}.
+ */
+public interface LobbyIndex {
+
+    /**
+     * Lists or updates a game, or removes it from the listing once it has no open seats.
+     *
+     * @param entry The game.
+     * @return A future completed with {@code true} if the index was written.
+     */
+    public CompletableFuture<Boolean> put(LobbyEntry entry);
+
+    /**
+     * Removes a game from the listing.
+     *
+     * @param entry The game, as it was last put.
+     * @return A future completed with {@code true} if the index was written.
+     */
+    public CompletableFuture<Boolean> remove(LobbyEntry entry);
+
+    /**
+     * Lists a page of the games with open seats.
+     *
+     * @param after The last game of the previous page, {@code null} for the first page.
+     * @param limit The most games listed.
+     * @return A future of the games, oldest first, completed with an empty list if the
+     *         index could not be read.
+     */
+    public CompletableFuture<List<LobbyEntry>> listOpen(LobbyEntry after, int limit);
+
+    /**
+     * The key of a game in the index, ordering the games by creation time and then by id.
+     *
+     * @param entry The game.
+     * @return The key.
+     */
+    public static String keyOf(LobbyEntry entry) {
+        return String.format("%019d", entry.getCreatedAt()) + entry.getGameId().toString();
+    }
+}
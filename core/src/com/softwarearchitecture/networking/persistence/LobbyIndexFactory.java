@@ -0,0 +1,42 @@
+package com.softwarearchitecture.networking.persistence;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * Creates the {@link LobbyIndex} of a messenger, the {@link LocalLobbyIndex} for games on
+ * this machine and the {@link FirebaseLobbyIndex} otherwise.
+ */
+public class LobbyIndexFactory {
+
+    private boolean useLocalStorage;
+
+    public LobbyIndexFactory(boolean useLocalStorage) {
+        this.useLocalStorage = useLocalStorage;
+    }
+
+    /**
+     * If it is not possible to connect to Firebase, the method will terminate the application.
+     *
+     * @return A configured lobby index.
+     */
+    public LobbyIndex build() {
+        if (useLocalStorage) {
+            return LocalLobbyIndex.getInstance();
+        }
+
+        try {
+            return new FirebaseLobbyIndex();
+        } catch (FileNotFoundException e) {
+            System.out.println("Firebase secret key file not found. Please check the file and try again.");
+            e.printStackTrace();
+            System.exit(1); // Terminate the application with a status code indicating abnormal termination.
+        } catch (IOException e) {
+            System.out.println("Error reading Firebase secret key file. Please check the file and try again.");
+            e.printStackTrace();
+            System.exit(1); // Terminate the application with a status code indicating abnormal termination.
+        }
+        // Need to return a value to satisfy the compiler, but this should never be reached.
+        return null;
+    }
+}
@@ -2,9 +2,10 @@ package com.softwarearchitecture.networking.persistence;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
-public class LocalDAO<K,T> implements DAO<K,T> {
+public class LocalDAO<K,T> implements AsyncDAO<K,T> {
 
     private static ConcurrentHashMap<String, LocalDAO<?, ?>> instances = new ConcurrentHashMap<>();
 
@@ -44,4 +45,31 @@ public class LocalDAO<K,T> implements DAO<K,T> {
     public void add(K id, T object) {
         data.put(id, object);
     }
+
+    @Override
+    public CompletableFuture<List<K>> loadAllIndicesAsync() {
+        // The data is in memory, so every operation is done before it returns
+        return CompletableFuture.completedFuture(loadAllIndices());
+    }
+
+    @Override
+    public CompletableFuture<Optional<T>> getAsync(K id) {
+        return CompletableFuture.completedFuture(get(id));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateAsync(K id, T object) {
+        return CompletableFuture.completedFuture(update(id, object));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAsync(K id) {
+        return CompletableFuture.completedFuture(delete(id));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addAsync(K id, T object) {
+        add(id, object);
+        return CompletableFuture.completedFuture(true);
+    }
 }
@@ -0,0 +1,72 @@
+package com.softwarearchitecture.networking.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.softwarearchitecture.game_client.Score;
+
+/**
+ * A {@link Leaderboard} for the games played on this machine. Every board is a sorted map
+ * trimmed to {@link Leaderboard#MAX_SCORES} as scores are submitted, and is stored whole
+ * in the local storage of {@link DAOFactory} whenever it changes.
+ */
+public class LocalLeaderboard implements Leaderboard {
+    private static LocalLeaderboard instance;
+
+    private final Map<String, ConcurrentSkipListMap<String, Score>> boards = new ConcurrentHashMap<>();
+    private final AsyncDAO<String, Score[]> storedBoards;
+
+    private LocalLeaderboard() {
+        storedBoards = new DAOFactory<String, Score[]>(true).build(String.class, Score[].class);
+    }
+
+    public static synchronized LocalLeaderboard getInstance() {
+        if (instance == null) {
+            instance = new LocalLeaderboard();
+        }
+        return instance;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> submit(Score score) {
+        record(score.getMapName(), score);
+        record(ALL_MAPS, score);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    private void record(String board, Score score) {
+        if (board == null) {
+            return;
+        }
+        ConcurrentSkipListMap<String, Score> scores = load(board);
+        synchronized (scores) {
+            scores.put(Leaderboard.keyOf(score), score);
+            while (scores.size() > MAX_SCORES) {
+                scores.pollLastEntry();
+            }
+            storedBoards.addAsync(board, scores.values().toArray(new Score[0]));
+        }
+    }
+
+    /**
+     * The scores of a board, read from the storage the first time the board is used.
+     */
+    private ConcurrentSkipListMap<String, Score> load(String board) {
+        return boards.computeIfAbsent(board, b -> {
+            ConcurrentSkipListMap<String, Score> scores = new ConcurrentSkipListMap<>();
+            for (Score score : storedBoards.get(b).orElse(new Score[0])) {
+                scores.put(Leaderboard.keyOf(score), score);
+            }
+            return scores;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Score>> top(String board) {
+        return CompletableFuture.completedFuture(new ArrayList<>(load(board).values()));
+    }
+}
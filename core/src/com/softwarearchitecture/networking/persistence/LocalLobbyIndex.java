@@ -0,0 +1,57 @@
+package com.softwarearchitecture.networking.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.softwarearchitecture.game_client.LobbyEntry;
+
+/**
+ * A {@link LobbyIndex} in memory, for the games hosted on this machine.
+ */
+public class LocalLobbyIndex implements LobbyIndex {
+    private static LocalLobbyIndex instance;
+
+    private final ConcurrentSkipListMap<String, LobbyEntry> entries = new ConcurrentSkipListMap<>();
+
+    private LocalLobbyIndex() {
+    }
+
+    public static synchronized LocalLobbyIndex getInstance() {
+        if (instance == null) {
+            instance = new LocalLobbyIndex();
+        }
+        return instance;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> put(LobbyEntry entry) {
+        if (entry.getOpenSeats() <= 0) {
+            return remove(entry);
+        }
+        entries.put(LobbyIndex.keyOf(entry), entry);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> remove(LobbyEntry entry) {
+        entries.remove(LobbyIndex.keyOf(entry));
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<List<LobbyEntry>> listOpen(LobbyEntry after, int limit) {
+        NavigableMap<String, LobbyEntry> page = after == null ? entries : entries.tailMap(LobbyIndex.keyOf(after), false);
+        List<LobbyEntry> games = new ArrayList<>(limit);
+        for (Map.Entry<String, LobbyEntry> entry : page.entrySet()) {
+            if (games.size() == limit) {
+                break;
+            }
+            games.add(entry.getValue());
+        }
+        return CompletableFuture.completedFuture(games);
+    }
+}
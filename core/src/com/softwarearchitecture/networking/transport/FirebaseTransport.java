@@ -0,0 +1,75 @@
+package com.softwarearchitecture.networking.transport;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Base64;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+import com.softwarearchitecture.networking.persistence.FirebaseDAO;
+
+/**
+ * A {@link MessageTransport} over the Firebase realtime database. Every topic is a node of
+ * the database holding the latest message, and subscribers are pushed every change of the
+ * node by Firebase instead of reading it themselves.
+ * <p>
+ * Since a topic only holds its latest message, messages published in quick succession may
+ * be coalesced into the last one.
+ */
+public class FirebaseTransport implements MessageTransport {
+    private static final String TOPIC_PREFIX = "TOPIC";
+
+    private final FirebaseDatabase database;
+
+    public FirebaseTransport() throws FileNotFoundException, IOException {
+        this.database = FirebaseDAO.connect();
+    }
+
+    @Override
+    public void publish(String topic, byte[] payload) {
+        DatabaseReference ref = database.getReference(TOPIC_PREFIX + topic);
+        ref.setValue(Base64.getEncoder().encodeToString(payload), (databaseError, databaseReference) -> {
+            if (databaseError != null) {
+                System.out.println("Error publishing to topic " + topic + ": " + databaseError.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public Subscription subscribe(String topic, MessageListener listener) {
+        DatabaseReference ref = database.getReference(TOPIC_PREFIX + topic);
+        ValueEventListener valueListener = ref.addValueEventListener(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                String value = dataSnapshot.getValue(String.class);
+                // Called with nothing when the topic has no message yet
+                if (value == null) {
+                    return;
+                }
+                byte[] payload;
+                try {
+                    payload = Base64.getDecoder().decode(value);
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Malformed message on topic " + topic);
+                    return;
+                }
+                listener.onMessage(payload);
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                System.out.println("Subscription to topic " + topic + " cancelled: " + databaseError.getMessage());
+            }
+        });
+        return () -> ref.removeEventListener(valueListener);
+    }
+
+    @Override
+    public void clear(String topic) {
+        database.getReference(TOPIC_PREFIX + topic).removeValue((databaseError, databaseReference) -> {
+        });
+    }
+}
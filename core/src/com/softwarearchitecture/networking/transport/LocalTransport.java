@@ -0,0 +1,55 @@
+package com.softwarearchitecture.networking.transport;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A {@link MessageTransport} within one process, used when the server runs on the same
+ * machine as its only player. Messages are handed to the listeners on the publishing
+ * thread, so nothing is coalesced or copied.
+ */
+public class LocalTransport implements MessageTransport {
+    private static LocalTransport instance;
+
+    private final ConcurrentHashMap<String, List<MessageListener>> listeners = new ConcurrentHashMap<>();
+
+    private LocalTransport() {
+    }
+
+    public static synchronized LocalTransport getInstance() {
+        if (instance == null) {
+            instance = new LocalTransport();
+        }
+        return instance;
+    }
+
+    @Override
+    public void publish(String topic, byte[] payload) {
+        List<MessageListener> subscribers = listeners.get(topic);
+        if (subscribers == null) {
+            return;
+        }
+        for (MessageListener listener : subscribers) {
+            listener.onMessage(payload);
+        }
+    }
+
+    @Override
+    public Subscription subscribe(String topic, MessageListener listener) {
+        listeners.compute(topic, (t, subscribers) -> {
+            List<MessageListener> updated = subscribers == null ? new CopyOnWriteArrayList<>() : subscribers;
+            updated.add(listener);
+            return updated;
+        });
+        return () -> listeners.computeIfPresent(topic, (t, subscribers) -> {
+            subscribers.remove(listener);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    @Override
+    public void clear(String topic) {
+        // Messages are handed over directly, nothing is kept
+    }
+}
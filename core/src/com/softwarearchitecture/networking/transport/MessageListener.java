@@ -0,0 +1,13 @@
+package com.softwarearchitecture.networking.transport;
+
+/**
+ * Called by a {@link MessageTransport} with the messages published to a topic.
+ */
+@FunctionalInterface
+public interface MessageListener {
+
+    /**
+     * @param payload The message, must not be modified.
+     */
+    public void onMessage(byte[] payload);
+}
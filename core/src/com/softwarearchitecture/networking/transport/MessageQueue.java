@@ -0,0 +1,76 @@
+package com.softwarearchitecture.networking.transport;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A bounded queue of messages, subscribed to a topic and drained by a game loop on its own
+ * thread.
+ * <p>
+ * When the queue is full the oldest message is dropped, so a loop that falls behind handles
+ * the most recent messages and the memory held per subscriber stays bounded.
+ */
+public class MessageQueue implements MessageListener {
+    private final ArrayDeque<byte[]> messages;
+    private final int capacity;
+    private long dropped = 0;
+
+    /**
+     * @param capacity The most messages held before the oldest is dropped.
+     */
+    public MessageQueue(int capacity) throws IllegalArgumentException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("[ERROR] The capacity of a message queue must be positive, was " + capacity);
+        }
+        this.capacity = capacity;
+        this.messages = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public synchronized void onMessage(byte[] payload) {
+        if (messages.size() == capacity) {
+            messages.pollFirst();
+            dropped++;
+        }
+        messages.addLast(payload);
+    }
+
+    /**
+     * @return The oldest message held, empty if there is none.
+     */
+    public synchronized Optional<byte[]> poll() {
+        return Optional.ofNullable(messages.pollFirst());
+    }
+
+    /**
+     * Empties the queue and returns the newest message, for topics where every message
+     * replaces the previous ones.
+     *
+     * @return The newest message held, empty if there is none.
+     */
+    public synchronized Optional<byte[]> pollLatest() {
+        byte[] latest = messages.pollLast();
+        messages.clear();
+        return Optional.ofNullable(latest);
+    }
+
+    /**
+     * Empties the queue.
+     *
+     * @return The messages held, oldest first.
+     */
+    public synchronized List<byte[]> drain() {
+        List<byte[]> drained = new ArrayList<>(messages);
+        messages.clear();
+        return drained;
+    }
+
+    /**
+     * @return The number of messages dropped because the queue was full.
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,41 @@
+package com.softwarearchitecture.networking.transport;
+
+/**
+ * Pushes messages from publishers to the subscribers of a topic, so neither the server nor
+ * the clients have to poll storage for new game states, acknowledgements or actions.
+ * <p>
+ * Topics are plain strings built from the ids of the game and player involved. Listeners
+ * are called on a thread of the transport and must return quickly; a game loop that wants
+ * to handle messages on its own thread subscribes a {@link MessageQueue} and drains it
+ * once per frame or tick.
+ * <p>
+ * A transport may coalesce messages that are published faster than they are delivered, so
+ * a subscriber is only guaranteed to see the latest message of a topic.
+ */
+public interface MessageTransport {
+
+    /**
+     * Publishes a message to every current subscriber of a topic. Does not wait for the
+     * message to be delivered.
+     *
+     * @param topic   The topic.
+     * @param payload The message.
+     */
+    public void publish(String topic, byte[] payload);
+
+    /**
+     * Subscribes a listener to a topic until the subscription is cancelled.
+     *
+     * @param topic    The topic.
+     * @param listener The listener called with every message published to the topic.
+     * @return The subscription, to cancel it with.
+     */
+    public Subscription subscribe(String topic, MessageListener listener);
+
+    /**
+     * Forgets the messages a transport keeps of a topic, once the game it belongs to is over.
+     *
+     * @param topic The topic.
+     */
+    public void clear(String topic);
+}
@@ -0,0 +1,441 @@
+package com.softwarearchitecture.networking.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A {@link MessageTransport} over direct TCP connections between the players, so a game on
+ * a local network is not slowed down by a round trip to a cloud database every tick.
+ * <p>
+ * The player hosting the game {@link #listen listens} for the other players, who
+ * {@link #connect connect} to it. The host routes every message to the connections
+ * subscribed to its topic, so the authoritative {@code GameServer} runs on the host and
+ * its own client connects to it like any other.
+ * <p>
+ * All sockets are served by one non-blocking thread per transport. Messages are sent as
+ * frames of a 4 byte length followed by the kind, the topic and the payload. Listeners are
+ * called on that thread, in the order the frames arrive, for messages of the other players,
+ * and on the thread calling {@link #publish} for messages published through this transport,
+ * so a listener may be called from both. Nothing is kept of a topic, a subscriber only gets
+ * the messages published after its subscription reached the host.
+ */
+public class SocketTransport implements MessageTransport, Closeable {
+    /** The largest payload of a message, larger frames close the connection */
+    public static final int MAX_FRAME_SIZE = 1 << 20;
+    /** The most frames waiting to be sent to a connection before it is considered dead */
+    public static final int MAX_QUEUED_FRAMES = 256;
+
+    private static final byte PUBLISH = 1;
+    private static final byte SUBSCRIBE = 2;
+    private static final byte UNSUBSCRIBE = 3;
+    private static final int LENGTH_SIZE = Integer.BYTES;
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    private final Selector selector;
+    /** The socket accepting players on the host, {@code null} on the other players */
+    private final ServerSocketChannel server;
+    /** The connection to the host on the other players, {@code null} on the host */
+    private final Connection host;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Map<String, List<MessageListener>> listeners = new ConcurrentHashMap<>();
+    /** Connections with frames to send, their interest is updated on the network thread */
+    private final ConcurrentLinkedQueue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+    /** Connections to close on the network thread */
+    private final ConcurrentLinkedQueue<Connection> pendingCloses = new ConcurrentLinkedQueue<>();
+    private final Thread networkThread;
+    private volatile boolean running = true;
+
+    /**
+     * A socket to another player, its partly read frame, the frames waiting to be sent and
+     * the topics it is subscribed to.
+     */
+    private static class Connection {
+        final SocketChannel channel;
+        final ArrayDeque<ByteBuffer> writes = new ArrayDeque<>();
+        final Set<String> topics = ConcurrentHashMap.newKeySet();
+        ByteBuffer reads = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        SelectionKey key;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private SocketTransport(Selector selector, ServerSocketChannel server, SocketChannel host) throws IOException {
+        this.selector = selector;
+        this.server = server;
+        if (server != null) {
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            this.host = null;
+        } else {
+            this.host = register(host);
+        }
+        this.networkThread = new Thread(this::run, "SocketTransport");
+        this.networkThread.setDaemon(true);
+        this.networkThread.start();
+    }
+
+    /**
+     * Hosts games for other players on a port of this machine.
+     *
+     * @param port The port to listen on, {@code 0} for any free port.
+     * @return The transport of the host.
+     * @throws IOException If the port can not be listened on.
+     */
+    public static SocketTransport listen(int port) throws IOException {
+        Selector selector = Selector.open();
+        ServerSocketChannel server = ServerSocketChannel.open();
+        try {
+            server.bind(new InetSocketAddress(port));
+            server.configureBlocking(false);
+            return new SocketTransport(selector, server, null);
+        } catch (IOException e) {
+            server.close();
+            selector.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Connects to the player hosting the games. Blocks until the connection is made.
+     *
+     * @param address The address the host listens on.
+     * @return The transport of the connecting player.
+     * @throws IOException If the host can not be reached.
+     */
+    public static SocketTransport connect(InetSocketAddress address) throws IOException {
+        Selector selector = Selector.open();
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open(address);
+            return new SocketTransport(selector, null, channel);
+        } catch (IOException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            selector.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The port the host listens on, or the local port of the connection to the host.
+     */
+    public int getLocalPort() {
+        try {
+            InetSocketAddress address = (InetSocketAddress) (server != null ? server.getLocalAddress() : host.channel.getLocalAddress());
+            return address.getPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("[ERROR] The transport is closed", e);
+        }
+    }
+
+    /**
+     * @return {@code true} while the host listens, or while the connection to the host is open.
+     */
+    public boolean isOpen() {
+        return running && (server != null || host.channel.isOpen());
+    }
+
+    @Override
+    public void publish(String topic, byte[] payload) throws IllegalArgumentException {
+        ByteBuffer frame = frame(PUBLISH, topic, payload);
+        deliver(topic, payload);
+        if (host != null) {
+            send(host, frame);
+            return;
+        }
+        for (Connection connection : connections) {
+            if (connection.topics.contains(topic)) {
+                send(connection, frame.duplicate());
+            }
+        }
+    }
+
+    @Override
+    public Subscription subscribe(String topic, MessageListener listener) {
+        // The host is told within the update of the listeners, so it sees them in the same order
+        listeners.compute(topic, (t, subscribers) -> {
+            List<MessageListener> updated = subscribers == null ? new CopyOnWriteArrayList<>() : subscribers;
+            if (host != null && updated.isEmpty()) {
+                send(host, frame(SUBSCRIBE, topic, new byte[0]));
+            }
+            updated.add(listener);
+            return updated;
+        });
+        return () -> listeners.computeIfPresent(topic, (t, subscribers) -> {
+            if (!subscribers.remove(listener) || !subscribers.isEmpty()) {
+                return subscribers;
+            }
+            if (host != null) {
+                send(host, frame(UNSUBSCRIBE, topic, new byte[0]));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void clear(String topic) {
+        // Messages are routed directly, nothing is kept
+    }
+
+    /**
+     * Closes every connection and stops the network thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            networkThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ByteBuffer frame(byte kind, String topic, byte[] payload) throws IllegalArgumentException {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        if (topicBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("[ERROR] The topic is too long: " + topic);
+        }
+        if (payload.length > MAX_FRAME_SIZE) {
+            throw new IllegalArgumentException("[ERROR] The message of " + payload.length + " bytes is larger than " + MAX_FRAME_SIZE);
+        }
+        int length = 1 + Short.BYTES + topicBytes.length + payload.length;
+        ByteBuffer frame = ByteBuffer.allocate(LENGTH_SIZE + length);
+        frame.putInt(length).put(kind).putShort((short) topicBytes.length).put(topicBytes).put(payload);
+        frame.flip();
+        return frame;
+    }
+
+    private void deliver(String topic, byte[] payload) {
+        List<MessageListener> subscribers = listeners.get(topic);
+        if (subscribers == null) {
+            return;
+        }
+        for (MessageListener listener : subscribers) {
+            try {
+                listener.onMessage(payload);
+            } catch (RuntimeException e) {
+                System.out.println("Listener of topic " + topic + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void send(Connection connection, ByteBuffer frame) {
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        synchronized (connection.writes) {
+            if (connection.writes.size() >= MAX_QUEUED_FRAMES) {
+                // The player is not reading, it is dropped rather than holding ever more memory
+                System.out.println("Dropping connection that fell behind: " + describe(connection));
+                connection.writes.clear();
+                pendingCloses.add(connection);
+                selector.wakeup();
+                return;
+            }
+            connection.writes.add(frame);
+        }
+        pendingWrites.add(connection);
+        selector.wakeup();
+    }
+
+    private Connection register(SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        // Frames are small and sent every tick, they should not wait for more to fill a packet
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        connections.add(connection);
+        return connection;
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Connection closing;
+                while ((closing = pendingCloses.poll()) != null) {
+                    disconnect(closing);
+                }
+                Connection writing;
+                while ((writing = pendingWrites.poll()) != null) {
+                    if (writing.key.isValid()) {
+                        writing.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    }
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            read(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(connection);
+                        }
+                    } catch (IOException | IllegalStateException e) {
+                        System.out.println("Connection lost: " + describe(connection) + " " + e.getMessage());
+                        disconnect(connection);
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            running = false;
+            for (Connection connection : connections) {
+                disconnect(connection);
+            }
+            try {
+                if (server != null) {
+                    server.close();
+                }
+                selector.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        Connection connection = register(channel);
+        System.out.println("Player connected: " + describe(connection));
+    }
+
+    private void read(Connection connection) throws IOException, IllegalStateException {
+        if (connection.channel.read(connection.reads) < 0) {
+            throw new IOException("closed by the other side");
+        }
+        ByteBuffer reads = connection.reads;
+        reads.flip();
+        while (reads.remaining() >= LENGTH_SIZE) {
+            int length = reads.getInt(reads.position());
+            if (length <= 0 || length > MAX_FRAME_SIZE + 1 + Short.BYTES + Short.MAX_VALUE) {
+                throw new IllegalStateException("[ERROR] Malformed frame of length " + length);
+            }
+            if (reads.remaining() < LENGTH_SIZE + length) {
+                break;
+            }
+            reads.getInt();
+            int end = reads.position() + length;
+            handle(connection, reads, end);
+            reads.position(end);
+        }
+        reads.compact();
+        // Make room for the rest of a frame larger than the buffer
+        if (reads.position() >= LENGTH_SIZE) {
+            int needed = LENGTH_SIZE + reads.getInt(0);
+            if (needed > reads.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(needed);
+                reads.flip();
+                larger.put(reads);
+                connection.reads = larger;
+            }
+        }
+    }
+
+    private void handle(Connection connection, ByteBuffer reads, int end) throws IllegalStateException {
+        byte kind = reads.get();
+        int topicLength = reads.getShort();
+        if (topicLength < 0 || reads.position() + topicLength > end) {
+            throw new IllegalStateException("[ERROR] Malformed topic of length " + topicLength);
+        }
+        String topic = new String(reads.array(), reads.arrayOffset() + reads.position(), topicLength, StandardCharsets.UTF_8);
+        reads.position(reads.position() + topicLength);
+        switch (kind) {
+            case PUBLISH:
+                byte[] payload = new byte[end - reads.position()];
+                reads.get(payload);
+                deliver(topic, payload);
+                if (host == null) {
+                    forward(connection, topic, payload);
+                }
+                break;
+            case SUBSCRIBE:
+                connection.topics.add(topic);
+                break;
+            case UNSUBSCRIBE:
+                connection.topics.remove(topic);
+                break;
+            default:
+                throw new IllegalStateException("[ERROR] Unknown frame kind " + kind);
+        }
+    }
+
+    /** Routes a message published by one player to the other players subscribed to its topic */
+    private void forward(Connection from, String topic, byte[] payload) {
+        ByteBuffer frame = null;
+        for (Connection connection : connections) {
+            if (connection == from || !connection.topics.contains(topic)) {
+                continue;
+            }
+            if (frame == null) {
+                frame = frame(PUBLISH, topic, payload);
+            }
+            send(connection, frame.duplicate());
+        }
+    }
+
+    private void write(Connection connection) throws IOException {
+        synchronized (connection.writes) {
+            while (!connection.writes.isEmpty()) {
+                ByteBuffer frame = connection.writes.peekFirst();
+                connection.channel.write(frame);
+                if (frame.hasRemaining()) {
+                    // The socket buffer is full, the rest is written when it drains
+                    return;
+                }
+                connection.writes.pollFirst();
+            }
+            connection.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        connections.remove(connection);
+        if (connection.key != null) {
+            connection.key.cancel();
+        }
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static String describe(Connection connection) {
+        try {
+            return String.valueOf(connection.channel.getRemoteAddress());
+        } catch (IOException e) {
+            return "closed connection";
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.softwarearchitecture.networking.transport;
+
+/**
+ * A listener's subscription to a topic of a {@link MessageTransport}.
+ */
+public interface Subscription {
+
+    /**
+     * Stops delivering messages to the listener. Cancelling twice has no effect.
+     */
+    public void cancel();
+}
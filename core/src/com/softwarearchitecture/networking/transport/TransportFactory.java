@@ -0,0 +1,82 @@
+package com.softwarearchitecture.networking.transport;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Creates the {@link MessageTransport} of a messenger, the {@link LocalTransport} when the
+ * game runs on this machine only, a {@link SocketTransport} when the players are connected
+ * directly and the {@link FirebaseTransport} otherwise.
+ */
+public class TransportFactory {
+
+    private boolean useLocalTransport;
+    /** The port to host games on, {@code -1} when not hosting */
+    private int listenPort = -1;
+    /** The address of the host to connect to, {@code null} when not connecting */
+    private InetSocketAddress hostAddress;
+
+    public TransportFactory(boolean useLocalTransport) {
+        this.useLocalTransport = useLocalTransport;
+    }
+
+    /**
+     * Hosts the games for the other players on a port of this machine.
+     *
+     * @param port The port to listen on.
+     * @return This factory.
+     */
+    public TransportFactory listenOn(int port) {
+        this.listenPort = port;
+        return this;
+    }
+
+    /**
+     * Connects directly to the player hosting the games.
+     *
+     * @param host The name or address of the host.
+     * @param port The port the host listens on.
+     * @return This factory.
+     */
+    public TransportFactory connectTo(String host, int port) {
+        this.hostAddress = new InetSocketAddress(host, port);
+        return this;
+    }
+
+    /**
+     * If it is not possible to listen on the port, connect to the host or connect to
+     * Firebase, the method will terminate the application.
+     *
+     * @return A configured transport.
+     */
+    public MessageTransport build() {
+        if (useLocalTransport) {
+            return LocalTransport.getInstance();
+        }
+
+        if (listenPort >= 0 || hostAddress != null) {
+            try {
+                return listenPort >= 0 ? SocketTransport.listen(listenPort) : SocketTransport.connect(hostAddress);
+            } catch (IOException e) {
+                System.out.println("Could not connect the players directly. Please check the address and port and try again.");
+                e.printStackTrace();
+                System.exit(1); // Terminate the application with a status code indicating abnormal termination.
+            }
+        }
+
+        try {
+            return new FirebaseTransport();
+        } catch (FileNotFoundException e) {
+            System.out.println("Firebase secret key file not found. Please check the file and try again.");
+            e.printStackTrace();
+            System.exit(1); // Terminate the application with a status code indicating abnormal termination.
+        } catch (IOException e) {
+            System.out.println("Error reading Firebase secret key file. Please check the file and try again.");
+            e.printStackTrace();
+            System.exit(1); // Terminate the application with a status code indicating abnormal termination.
+        }
+        // Need to return a value to satisfy the compiler, but this should never be reached.
+        return null;
+    }
+}
@@ -4,14 +4,13 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.utils.LongMap;
 
-import java.util.HashMap;
-
 import com.softwarearchitecture.ecs.SoundController;
 import com.softwarearchitecture.ecs.components.SoundComponent;
+import com.softwarearchitecture.game_server.AssetRegistry;
 
 public class LibGDXSound implements SoundController {
-    // Cache loaded sounds to avoid loading them multiple times
-    private final HashMap<String, Sound> soundCache = new HashMap<>();
+    // Cache loaded sounds by asset id to avoid loading them multiple times
+    private final Sound[] soundCache = new Sound[AssetRegistry.size()];
     private final LongMap<Boolean> soundPlaying = new LongMap<>();
     private int volume;
 
@@ -42,10 +41,7 @@ public class LibGDXSound implements SoundController {
     }
 
     public void playSound(SoundComponent soundComponent) {
-        Sound sound = soundCache.computeIfAbsent(soundComponent.sound_path, path -> {
-            System.out.println("Loading sound: " + path);
-            return Gdx.audio.newSound(Gdx.files.internal(path));
-        });
+        Sound sound = getSound(soundComponent.sound_id);
 
         // Determine if sound should loop
         long id;
@@ -60,16 +56,24 @@ public class LibGDXSound implements SoundController {
 
     public void playBackgroundMusic(SoundComponent soundComponent) {
         if (!isAnySoundPlaying()) {
-            Sound sound = soundCache.computeIfAbsent(soundComponent.sound_path, path -> {
-                System.out.println("Loading sound: " + path);
-                return Gdx.audio.newSound(Gdx.files.internal(path));
-            });
+            Sound sound = getSound(soundComponent.sound_id);
 
             long id = sound.loop(((float) this.volume) / 100f);  // Always loop background music
             soundPlaying.put(id, true);  // Mark this sound ID as playing
         }
     }
 
+    private Sound getSound(int soundId) {
+        Sound sound = soundCache[soundId];
+        if (sound == null) {
+            String path = AssetRegistry.pathOf(soundId);
+            System.out.println("Loading sound: " + path);
+            sound = Gdx.audio.newSound(Gdx.files.internal(path));
+            soundCache[soundId] = sound;
+        }
+        return sound;
+    }
+
     // Check if any sound is still marked as playing
     private boolean isAnySoundPlaying() {
         for (Boolean state : soundPlaying.values()) {
@@ -83,10 +87,12 @@ public class LibGDXSound implements SoundController {
 
     // Optional: Consider adding a method to dispose of sounds when no longer needed
     public void dispose() {
-        for (Sound sound : soundCache.values()) {
-            sound.dispose();
+        for (int i = 0; i < soundCache.length; i++) {
+            if (soundCache[i] != null) {
+                soundCache[i].dispose();
+                soundCache[i] = null;
+            }
         }
-        soundCache.clear();
         soundPlaying.clear();
     }
 
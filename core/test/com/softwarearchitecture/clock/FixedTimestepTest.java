@@ -0,0 +1,30 @@
+package com.softwarearchitecture.clock;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class FixedTimestepTest {
+
+    @Test
+    public void testStepsAreTakenOutOfTheAccumulator() {
+        FixedTimestep timestep = new FixedTimestep(10, 5);
+        assertEquals(0, timestep.advance(0.05f));
+        assertEquals(1, timestep.advance(0.07f));
+        assertEquals(0.2f, timestep.getAlpha(), 0.001f);
+        assertEquals(0.1f, timestep.getStepSeconds(), 0.0001f);
+    }
+
+    @Test
+    public void testCatchUpIsLimitedAndBacklogDropped() {
+        FixedTimestep timestep = new FixedTimestep(10, 3);
+        assertEquals("A hitch should only run the max catch-up steps", 3, timestep.advance(1.06f));
+        assertEquals("The backlog should be dropped", 0.6f, timestep.getAlpha(), 0.001f);
+        assertEquals(1, timestep.advance(0.05f));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTickRateMustBePositive() {
+        new FixedTimestep(0, 1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.softwarearchitecture.ecs;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.ecs.components.HealthComponent;
+import com.softwarearchitecture.ecs.components.MoneyComponent;
+import com.softwarearchitecture.ecs.components.VelocityComponent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ComponentManagerTest {
+
+    private ECSManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new ECSManager();
+    }
+
+    @Test
+    public void testAddAndGetComponent() {
+        Entity entity = manager.createEntity();
+        HealthComponent health = new HealthComponent(10);
+        entity.addComponent(HealthComponent.class, health);
+
+        assertTrue("The entity should have a health component", entity.getComponent(HealthComponent.class).isPresent());
+        assertSame("The stored component should be returned", health, entity.getComponent(HealthComponent.class).get());
+        assertFalse("The entity should not have a money component", entity.getComponent(MoneyComponent.class).isPresent());
+    }
+
+    @Test
+    public void testOverwriteComponent() {
+        Entity entity = manager.createEntity();
+        HealthComponent second = new HealthComponent(20);
+        entity.addComponent(HealthComponent.class, new HealthComponent(10));
+        entity.addComponent(HealthComponent.class, second);
+
+        assertSame("The newest component should win", second, entity.getComponent(HealthComponent.class).get());
+    }
+
+    @Test
+    public void testComponentsSurviveArchetypeChanges() {
+        Entity entity = manager.createEntity();
+        HealthComponent health = new HealthComponent(10);
+        MoneyComponent money = new MoneyComponent(5);
+        entity.addComponent(HealthComponent.class, health);
+        entity.addComponent(MoneyComponent.class, money);
+        entity.addComponent(VelocityComponent.class, new VelocityComponent(1f));
+        entity.removeComponent(VelocityComponent.class);
+
+        assertSame("Health should be kept when moving between archetypes", health, entity.getComponent(HealthComponent.class).get());
+        assertSame("Money should be kept when moving between archetypes", money, entity.getComponent(MoneyComponent.class).get());
+        assertFalse("Velocity should be removed", entity.getComponent(VelocityComponent.class).isPresent());
+    }
+
+    @Test
+    public void testRemovingRowsKeepsOtherEntitiesIntact() {
+        List<Entity> entities = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Entity entity = manager.createEntity();
+            entity.addComponent(HealthComponent.class, new HealthComponent(i));
+            entities.add(entity);
+        }
+        for (int i = 0; i < 100; i += 3) {
+            entities.get(i).removeComponent(HealthComponent.class);
+        }
+        for (int i = 0; i < 100; i++) {
+            boolean removed = i % 3 == 0;
+            assertEquals("Only every third entity should have lost its health", !removed,
+                    entities.get(i).getComponent(HealthComponent.class).isPresent());
+            if (!removed) {
+                assertEquals(i, entities.get(i).getComponent(HealthComponent.class).get().getHealth());
+            }
+        }
+    }
+}
@@ -2,6 +2,12 @@ package com.softwarearchitecture.ecs;
 
 import org.junit.Before;
 import org.junit.Test;
+
+import com.softwarearchitecture.ecs.components.HealthComponent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 public class ECSManagerTest {
@@ -10,13 +16,12 @@ public class ECSManagerTest {
 
     @Before
     public void setUp() {
-        manager = ECSManager.getInstance();
-        manager.clearLocalEntities();
+        manager = new ECSManager();
     }
 
     @Test
     public void testAddEntity() {
-        Entity entity = new Entity();
+        Entity entity = manager.createEntity();
         int amount_of_entities = manager.getLocalEntities().size();
         assertTrue("There should be no entities in the manager", amount_of_entities == 0);
         manager.addLocalEntity(entity);
@@ -28,8 +33,8 @@ public class ECSManagerTest {
 
     @Test
     public void testGetEntities() {
-        Entity entity1 = new Entity();
-        Entity entity2 = new Entity();
+        Entity entity1 = manager.createEntity();
+        Entity entity2 = manager.createEntity();
 
         manager.addLocalEntity(entity1);
         manager.addLocalEntity(entity2);
@@ -42,8 +47,8 @@ public class ECSManagerTest {
     
     @Test
     public void testAddingOnlyUniqueEntities() {
-        Entity entity1 = new Entity();
-        Entity entity2 = new Entity();
+        Entity entity1 = manager.createEntity();
+        Entity entity2 = manager.createEntity();
         manager.addLocalEntity(entity1);
         manager.addLocalEntity(entity2);
         manager.addLocalEntity(entity1);
@@ -52,4 +57,80 @@ public class ECSManagerTest {
         assertTrue("There should be two entities in the manager", amount_of_entities == 2);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testDestroyedEntityIdIsRecycled() {
+        Entity entity = manager.createEntity();
+        entity.addComponent(HealthComponent.class, new HealthComponent(10));
+        manager.addLocalEntity(entity);
+        manager.update(0);
+
+        manager.destroyEntity(entity);
+        manager.update(0);
+        assertFalse("Destroyed entities should be removed", manager.getLocalEntities().contains(entity));
+        assertFalse("Destroyed entities should lose their components", entity.getComponent(HealthComponent.class).isPresent());
+
+        Entity recycled = manager.createEntity();
+        assertEquals("The id should be reused", entity.getId(), recycled.getId());
+        assertNotEquals("The reused id should have a new generation", entity, recycled);
+        recycled.addComponent(HealthComponent.class, new HealthComponent(20));
+        assertFalse("A stale handle should not see the components of the new entity",
+                entity.getComponent(HealthComponent.class).isPresent());
+    }
+
+    @Test
+    public void testPendingChangesAreAppliedOnceInOrder() {
+        Entity entity = manager.createEntity();
+        manager.addLocalEntity(entity);
+        manager.removeLocalEntity(entity);
+        manager.addLocalEntity(entity);
+        manager.update(0);
+        assertTrue("The last change should win", manager.getLocalEntities().contains(entity));
+
+        manager.removeLocalEntity(entity);
+        manager.update(0);
+        manager.update(0);
+        assertFalse("Applied additions should not be replayed on later updates", manager.getLocalEntities().contains(entity));
+    }
+
+    @Test
+    public void testClearAllRecyclesEveryId() {
+        Entity first = manager.createEntity();
+        Entity second = manager.createEntity();
+        first.addComponent(HealthComponent.class, new HealthComponent(10));
+        manager.addLocalEntity(first);
+        manager.addLocalEntity(second);
+        manager.update(0);
+
+        manager.clearAll();
+
+        assertFalse("Cleared entities should lose their components", first.getComponent(HealthComponent.class).isPresent());
+        Entity recycled = manager.createEntity();
+        assertEquals("Ids should be reused from the lowest one", first.getId(), recycled.getId());
+        assertNotEquals("The reused id should have a new generation", first, recycled);
+        assertEquals("The next id should be reused too", second.getId(), manager.createEntity().getId());
+    }
+
+    @Test
+    public void testClearLocalEntitiesRecyclesTheirIds() {
+        Entity entity = manager.createEntity();
+        entity.addComponent(HealthComponent.class, new HealthComponent(10));
+        manager.addLocalEntity(entity);
+        manager.update(0);
+
+        manager.clearLocalEntities();
+
+        assertFalse("Cleared entities should lose their components", entity.getComponent(HealthComponent.class).isPresent());
+        assertEquals("The id should be reused", entity.getId(), manager.createEntity().getId());
+    }
+
+    @Test
+    public void testClearLocalEntitiesKeepsPendingDestroys() {
+        Entity remote = manager.getOrCreateRemoteEntity(7L);
+        manager.addRemoteEntity(remote);
+        manager.destroyRemoteEntity(7L);
+
+        manager.clearLocalEntities();
+
+        assertEquals("The id of the destroyed remote entity should be reused", remote.getId(), manager.createEntity().getId());
+    }
+}
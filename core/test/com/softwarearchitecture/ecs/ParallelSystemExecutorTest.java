@@ -0,0 +1,137 @@
+package com.softwarearchitecture.ecs;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.ecs.components.HealthComponent;
+import com.softwarearchitecture.ecs.components.MoneyComponent;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelSystemExecutorTest {
+
+    private ECSManager manager;
+    private ForkJoinPool pool;
+
+    /** Adds one to the health of every entity with a health component, in chunks */
+    private static class HealingSystem implements ChunkedSystem {
+        private final View view;
+        private final ComponentManager<HealthComponent> healthManager;
+
+        HealingSystem(ECSManager ecs) {
+            view = ecs.getView(HealthComponent.class);
+            healthManager = ecs.getOrDefaultComponentManager(HealthComponent.class);
+        }
+
+        @Override
+        public void update(Set<Entity> entities, float deltaTime) {
+            for (Entity entity : view) {
+                heal(entity);
+            }
+        }
+
+        @Override
+        public View getChunkedView() {
+            return view;
+        }
+
+        @Override
+        public void beginChunks(float deltaTime) {
+        }
+
+        @Override
+        public void updateChunk(Entity[] entities, int from, int to, float deltaTime) {
+            for (int i = from; i < to; i++) {
+                heal(entities[i]);
+            }
+        }
+
+        private void heal(Entity entity) {
+            HealthComponent health = healthManager.get(entity);
+            health.setHealth(health.getHealth() + 1);
+        }
+    }
+
+    /** Records its name when updated */
+    private static class RecordingSystem implements System {
+        private final String name;
+        private final List<String> log;
+        private final ComponentAccess access;
+
+        RecordingSystem(String name, List<String> log, ComponentAccess access) {
+            this.name = name;
+            this.log = log;
+            this.access = access;
+        }
+
+        @Override
+        public void update(Set<Entity> entities, float deltaTime) {
+            log.add(name);
+        }
+
+        @Override
+        public ComponentAccess getComponentAccess() {
+            return access;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        manager = new ECSManager();
+        pool = new ForkJoinPool(4);
+        manager.setParallelExecutor(new ParallelSystemExecutor(pool, 3));
+    }
+
+    @After
+    public void tearDown() {
+        manager.setParallelExecutor(null);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testChunkedSystemUpdatesEveryEntityOnce() {
+        List<Entity> entities = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Entity entity = manager.createEntity();
+            entity.addComponent(HealthComponent.class, new HealthComponent(10));
+            if (i % 3 == 0) {
+                entity.addComponent(MoneyComponent.class, new MoneyComponent(i));
+            }
+            manager.addLocalEntity(entity);
+            entities.add(entity);
+        }
+        manager.addSystem(new HealingSystem(manager));
+
+        manager.update(0f);
+
+        for (Entity entity : entities) {
+            assertEquals("Every entity should be healed exactly once", 11,
+                    entity.getComponent(HealthComponent.class).get().getHealth());
+        }
+    }
+
+    @Test
+    public void testConflictingSystemsKeepTheirOrder() {
+        List<String> log = Collections.synchronizedList(new ArrayList<>());
+        ComponentAccess writesHealth = new ComponentAccess(Set.of(), Set.of(HealthComponent.class));
+        ComponentAccess readsHealth = new ComponentAccess(Set.of(HealthComponent.class), Set.of());
+        manager.addSystem(new RecordingSystem("writer", log, writesHealth));
+        manager.addSystem(new RecordingSystem("reader", log, readsHealth));
+        manager.addSystem(new RecordingSystem("exclusive", log, ComponentAccess.EXCLUSIVE));
+
+        for (int i = 0; i < 10; i++) {
+            manager.update(0f);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(List.of("writer", "reader", "exclusive"), log.subList(i * 3, i * 3 + 3));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.softwarearchitecture.ecs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PathProgressIndexTest {
+
+    private ECSManager manager;
+    private PathProgressIndex index;
+
+    @Before
+    public void setUp() {
+        manager = new ECSManager();
+        index = new PathProgressIndex();
+    }
+
+    private static boolean within(float[] intervals, float progress) {
+        for (int i = 0; i < intervals.length; i += 2) {
+            if (progress >= intervals[i] && progress <= intervals[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testQueriesMatchCheckingEveryEntity() {
+        Random random = new Random(7);
+        List<Entity> entities = new ArrayList<>();
+        float[] progress = new float[300];
+        int[] health = new int[300];
+        for (int i = 0; i < progress.length; i++) {
+            Entity entity = manager.createEntity();
+            progress[i] = random.nextFloat() * 10f;
+            health[i] = random.nextInt(20);
+            entities.add(entity);
+            index.insert(entity, progress[i], health[i]);
+        }
+        index.build();
+
+        for (int query = 0; query < 100; query++) {
+            float a = random.nextFloat() * 10f;
+            float b = a + random.nextFloat() * 2f;
+            float c = b + random.nextFloat() * 3f;
+            float d = c + random.nextFloat() * 2f;
+            float[] intervals = { a, b, c, d };
+            Entity first = null;
+            Entity last = null;
+            Entity strongest = null;
+            float firstProgress = -1f;
+            float lastProgress = Float.MAX_VALUE;
+            int strongestHealth = -1;
+            float strongestProgress = -1f;
+            for (int i = 0; i < progress.length; i++) {
+                if (!within(intervals, progress[i])) {
+                    continue;
+                }
+                if (progress[i] > firstProgress) {
+                    firstProgress = progress[i];
+                    first = entities.get(i);
+                }
+                if (progress[i] < lastProgress) {
+                    lastProgress = progress[i];
+                    last = entities.get(i);
+                }
+                if (health[i] > strongestHealth || (health[i] == strongestHealth && progress[i] > strongestProgress)) {
+                    strongestHealth = health[i];
+                    strongestProgress = progress[i];
+                    strongest = entities.get(i);
+                }
+            }
+
+            assertSame(first, index.first(intervals));
+            assertSame(last, index.last(intervals));
+            assertSame(strongest, index.strongest(intervals));
+        }
+    }
+
+    @Test
+    public void testEmptyIntervalsFindNothing() {
+        index.insert(manager.createEntity(), 5f, 10);
+        index.build();
+
+        assertNull(index.first(new float[] { 0f, 4f }));
+        assertNull(index.last(new float[0]));
+        assertNull(index.strongest(new float[] { 6f, 8f }));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIndexMustBeBuiltBeforeQueries() {
+        index.insert(manager.createEntity(), 1f, 1);
+
+        index.first(new float[] { 0f, 2f });
+    }
+}
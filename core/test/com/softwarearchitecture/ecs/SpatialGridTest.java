@@ -0,0 +1,103 @@
+package com.softwarearchitecture.ecs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpatialGridTest {
+
+    private ECSManager manager;
+    private SpatialGrid grid;
+
+    @Before
+    public void setUp() {
+        manager = new ECSManager();
+        grid = new SpatialGrid(10, 8, 0.1f, 0.125f);
+    }
+
+    @Test
+    public void testNearestIsTheClosestInRange() {
+        Entity far = manager.createEntity();
+        Entity near = manager.createEntity();
+        grid.insert(far, 0.5f, 0.5f);
+        grid.insert(near, 0.35f, 0.3f);
+
+        assertSame(near, grid.nearest(0.3f, 0.3f, 0.5f));
+        assertNull(grid.nearest(0.9f, 0.9f, 0.1f));
+    }
+
+    @Test
+    public void testRadiusIsInclusive() {
+        Entity entity = manager.createEntity();
+        grid.insert(entity, 0.5f, 0.25f);
+
+        assertSame(entity, grid.nearest(0.25f, 0.25f, 0.25f));
+    }
+
+    @Test
+    public void testQueriesMatchCheckingEveryEntity() {
+        Random random = new Random(42);
+        List<Entity> entities = new ArrayList<>();
+        List<float[]> positions = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Entity entity = manager.createEntity();
+            // Some positions lie outside the grid
+            float[] position = { random.nextFloat() * 1.4f - 0.2f, random.nextFloat() * 1.4f - 0.2f };
+            entities.add(entity);
+            positions.add(position);
+            grid.insert(entity, position[0], position[1]);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            float x = random.nextFloat() * 1.2f - 0.1f;
+            float y = random.nextFloat() * 1.2f - 0.1f;
+            float radius = random.nextFloat() * 0.3f;
+            Set<Entity> expected = new HashSet<>();
+            Entity expectedNearest = null;
+            float nearestDistance = Float.POSITIVE_INFINITY;
+            for (int i = 0; i < entities.size(); i++) {
+                float dx = positions.get(i)[0] - x;
+                float dy = positions.get(i)[1] - y;
+                float distance = dx * dx + dy * dy;
+                if (distance <= radius * radius) {
+                    expected.add(entities.get(i));
+                    if (distance < nearestDistance) {
+                        nearestDistance = distance;
+                        expectedNearest = entities.get(i);
+                    }
+                }
+            }
+            List<Entity> found = new ArrayList<>();
+
+            assertEquals(expected.size(), grid.queryRadius(x, y, radius, found));
+            assertEquals(expected, new HashSet<>(found));
+            assertSame(expectedNearest, grid.nearest(x, y, radius));
+        }
+    }
+
+    @Test
+    public void testClearRemovesEveryEntity() {
+        for (int i = 0; i < 100; i++) {
+            grid.insert(manager.createEntity(), 0.5f, 0.5f);
+        }
+
+        grid.clear();
+
+        assertEquals(0, grid.size());
+        assertNull(grid.nearest(0.5f, 0.5f, 1f));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCellsMustHaveASize() {
+        new SpatialGrid(10, 10, 0f, 0.1f);
+    }
+}
@@ -0,0 +1,81 @@
+package com.softwarearchitecture.ecs;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.ecs.components.HealthComponent;
+import com.softwarearchitecture.ecs.components.PositionComponent;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+public class SystemSchedulerTest {
+
+    private SystemScheduler scheduler;
+
+    /** System with a fixed phase and access that does nothing */
+    private static class StubSystem implements System {
+        private final Phase phase;
+        private final ComponentAccess access;
+
+        StubSystem(Phase phase, ComponentAccess access) {
+            this.phase = phase;
+            this.access = access;
+        }
+
+        @Override
+        public void update(Set<Entity> entities, float deltaTime) {
+        }
+
+        @Override
+        public Phase getPhase() {
+            return phase;
+        }
+
+        @Override
+        public ComponentAccess getComponentAccess() {
+            return access;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        scheduler = new SystemScheduler();
+    }
+
+    @Test
+    public void testSystemsRunByPhaseThenRegistrationOrder() {
+        System render = new StubSystem(Phase.RENDER, ComponentAccess.EXCLUSIVE);
+        System first = new StubSystem(Phase.SIMULATION, ComponentAccess.EXCLUSIVE);
+        System post = new StubSystem(Phase.POST_SIMULATION, ComponentAccess.EXCLUSIVE);
+        System second = new StubSystem(Phase.SIMULATION, ComponentAccess.EXCLUSIVE);
+        System input = new StubSystem(Phase.INPUT, ComponentAccess.EXCLUSIVE);
+        for (System system : Arrays.asList(render, first, post, second, input)) {
+            scheduler.add(system);
+        }
+        scheduler.add(first);
+
+        List<System> expected = Arrays.asList(input, first, second, post, render);
+        assertEquals("Systems should be ordered by phase and then by registration", expected, scheduler.getOrder());
+    }
+
+    @Test
+    public void testOnlyConflictingSystemsDependOnEachOther() {
+        ComponentAccess writesPosition = new ComponentAccess(Set.of(), Set.of(PositionComponent.class));
+        ComponentAccess readsPosition = new ComponentAccess(Set.of(PositionComponent.class), Set.of());
+        ComponentAccess writesHealth = new ComponentAccess(Set.of(), Set.of(HealthComponent.class));
+        scheduler.add(new StubSystem(Phase.SIMULATION, writesPosition));
+        scheduler.add(new StubSystem(Phase.SIMULATION, writesHealth));
+        scheduler.add(new StubSystem(Phase.SIMULATION, readsPosition));
+        scheduler.add(new StubSystem(Phase.RENDER, readsPosition));
+
+        assertArrayEquals(new int[0], scheduler.getDependencies(0));
+        assertArrayEquals("Systems writing different components are independent", new int[0], scheduler.getDependencies(1));
+        assertArrayEquals("A reader depends on an earlier writer", new int[] { 0 }, scheduler.getDependencies(2));
+        assertArrayEquals("A system depends on every system of earlier phases", new int[] { 0, 1, 2 }, scheduler.getDependencies(3));
+    }
+}
@@ -0,0 +1,80 @@
+package com.softwarearchitecture.ecs;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.ecs.components.HealthComponent;
+import com.softwarearchitecture.ecs.components.MoneyComponent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class ViewTest {
+
+    private ECSManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new ECSManager();
+    }
+
+    @Test
+    public void testViewOnlyContainsRegisteredEntities() {
+        View view = manager.getView(HealthComponent.class);
+        Entity entity = manager.createEntity();
+        entity.addComponent(HealthComponent.class, new HealthComponent(10));
+        assertTrue("Entities not added to the manager should not be in the view", view.isEmpty());
+
+        manager.addRemoteEntity(entity);
+        assertEquals("Registered entities should be in the view", 1, view.size());
+        assertSame(entity, view.first());
+
+        manager.removeRemoteEntity(entity);
+        assertFalse("Removed entities should leave the view", view.contains(entity));
+    }
+
+    @Test
+    public void testViewIsUpdatedWhenComponentsChange() {
+        View view = manager.getView(HealthComponent.class, MoneyComponent.class);
+        Entity entity = manager.createEntity();
+        entity.addComponent(HealthComponent.class, new HealthComponent(10));
+        manager.addRemoteEntity(entity);
+        assertFalse("The entity is missing a money component", view.contains(entity));
+
+        entity.addComponent(MoneyComponent.class, new MoneyComponent(5));
+        assertTrue("The entity should match once it has both components", view.contains(entity));
+
+        entity.removeComponent(HealthComponent.class);
+        assertFalse("The entity should leave the view when a component is removed", view.contains(entity));
+    }
+
+    @Test
+    public void testViewIteratesAllMatchingArchetypes() {
+        View view = manager.getView(HealthComponent.class);
+        Set<Entity> expected = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            Entity entity = manager.createEntity();
+            entity.addComponent(HealthComponent.class, new HealthComponent(i));
+            if (i % 2 == 0) {
+                entity.addComponent(MoneyComponent.class, new MoneyComponent(i));
+            }
+            manager.addRemoteEntity(entity);
+            expected.add(entity);
+        }
+        Entity other = manager.createEntity();
+        other.addComponent(MoneyComponent.class, new MoneyComponent(1));
+        manager.addRemoteEntity(other);
+
+        Set<Entity> visited = new HashSet<>();
+        for (Entity entity : view) {
+            visited.add(entity);
+        }
+        assertEquals("The view should visit every entity with a health component exactly once", expected, visited);
+        assertEquals(10, view.size());
+    }
+}
@@ -0,0 +1,104 @@
+package com.softwarearchitecture.ecs.systems;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.ecs.ECSManager;
+import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.ecs.components.EnemyComponent;
+import com.softwarearchitecture.ecs.components.HealthComponent;
+import com.softwarearchitecture.ecs.components.PathfindingComponent;
+import com.softwarearchitecture.ecs.components.PositionComponent;
+import com.softwarearchitecture.ecs.components.TowerComponent;
+import com.softwarearchitecture.game_server.Map;
+import com.softwarearchitecture.game_server.MapFactory;
+import com.softwarearchitecture.game_server.PairableCards.TowerType;
+import com.softwarearchitecture.math.Polyline;
+import com.softwarearchitecture.math.Vector2;
+
+public class AttackSystemTest {
+
+    private ECSManager manager;
+    private Map map;
+    private Polyline pathLine;
+    private AttackSystem attackSystem;
+
+    @Before
+    public void setUp() {
+        manager = new ECSManager();
+        map = MapFactory.createMap("abyss");
+        map.setTileWidth(1f / map.getMapHeight());
+        map.setTileHeight(1f / map.getMapWidth());
+        pathLine = Map.toPolyline(map.getPath(), map.getTileWidth(), map.getTileHeight());
+        attackSystem = new AttackSystem(manager, map);
+    }
+
+    private Entity addEnemy(float progress, int health) {
+        Entity enemy = manager.createEntity();
+        PathfindingComponent pathfinding = new PathfindingComponent(map.getPath());
+        pathfinding.progress = progress;
+        enemy.addComponent(PathfindingComponent.class, pathfinding);
+        enemy.addComponent(PositionComponent.class, new PositionComponent(pathLine.positionAt(progress, new Vector2()), 0));
+        enemy.addComponent(HealthComponent.class, new HealthComponent(health));
+        enemy.addComponent(EnemyComponent.class, new EnemyComponent(1));
+        manager.addRemoteEntity(enemy);
+        return enemy;
+    }
+
+    private Entity addTower(int damage, TowerComponent.Targeting targeting) {
+        Entity tower = manager.createEntity();
+        // A range reaching the whole map, the tower has no sprite so it is never copied
+        TowerComponent towerComponent = new TowerComponent(damage, 100, 0, TowerType.FIRE_MAGIC);
+        towerComponent.targeting = targeting;
+        tower.addComponent(TowerComponent.class, towerComponent);
+        tower.addComponent(PositionComponent.class, new PositionComponent(new Vector2(0.5f, 0.5f), 0));
+        manager.addRemoteEntity(tower);
+        return tower;
+    }
+
+    private static int healthOf(Entity entity) {
+        return entity.getComponent(HealthComponent.class).get().getHealth();
+    }
+
+    @Test
+    public void testTowerAttacksTheEnemyFurthestAlong() {
+        Entity behind = addEnemy(pathLine.getLength() / 4, 10);
+        Entity ahead = addEnemy(pathLine.getLength() / 2, 10);
+        addTower(3, TowerComponent.Targeting.FIRST);
+
+        attackSystem.update(null, 1f);
+
+        assertEquals(10, healthOf(behind));
+        assertEquals(7, healthOf(ahead));
+    }
+
+    @Test
+    public void testTowerMovesOnOnceItsTargetIsDead() {
+        Entity behind = addEnemy(pathLine.getLength() / 4, 5);
+        Entity ahead = addEnemy(pathLine.getLength() / 2, 5);
+        addTower(5, TowerComponent.Targeting.FIRST);
+
+        attackSystem.update(null, 1f);
+        assertEquals("The first enemy should be killed", 0, healthOf(ahead));
+
+        // The dead enemy stays in the world until it is cleared away, but is no longer a target
+        attackSystem.update(null, 1f);
+        assertEquals("The tower should attack the next enemy", 0, healthOf(behind));
+    }
+
+    @Test
+    public void testTowerTargetingTheLastEnemyMovesOnOnceItIsDead() {
+        Entity behind = addEnemy(pathLine.getLength() / 4, 5);
+        Entity ahead = addEnemy(pathLine.getLength() / 2, 5);
+        addTower(5, TowerComponent.Targeting.LAST);
+
+        attackSystem.update(null, 1f);
+        assertEquals(0, healthOf(behind));
+        assertEquals(5, healthOf(ahead));
+
+        attackSystem.update(null, 1f);
+        assertEquals(0, healthOf(ahead));
+    }
+}
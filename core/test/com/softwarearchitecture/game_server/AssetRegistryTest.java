@@ -0,0 +1,31 @@
+package com.softwarearchitecture.game_server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.softwarearchitecture.game_client.TexturePack;
+
+public class AssetRegistryTest {
+
+    @Test
+    public void testIdsRoundTrip() {
+        int id = AssetRegistry.idOf(TexturePack.BACKGROUND_ABYSS);
+        assertNotEquals(AssetRegistry.NONE, id);
+        assertEquals(TexturePack.BACKGROUND_ABYSS, AssetRegistry.pathOf(id));
+        assertEquals(AssetRegistry.idOf(AudioPack.ENEMY_DEATH), AssetRegistry.idOf(AudioPack.ENEMY_ANT));
+    }
+
+    @Test
+    public void testMissingAssetIsNone() {
+        assertEquals(AssetRegistry.NONE, AssetRegistry.idOf(null));
+        assertNull(AssetRegistry.pathOf(AssetRegistry.NONE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownPathIsRejected() {
+        AssetRegistry.idOf("not/an/asset.png");
+    }
+}
@@ -22,13 +22,13 @@ import com.softwarearchitecture.math.Vector2;
 
 public class EnemyFactoryTest {
 
+    private ECSManager ecs;
     private List<Tile> tiles;
     private Vector2 tileSize;
 
     @Before
     public void setUp() {
-        // Reset the entity ID counter before each test
-        ECSManager.getInstance().clearLocalEntities();
+        ecs = new ECSManager();
         tiles = new ArrayList<Tile>();
         for (int i = 0; i < 10; i++) {
             for (int j = 0; j < 10; j++) {
@@ -42,13 +42,13 @@ public class EnemyFactoryTest {
 
     @Test
     public void testCreateEnemyNotNull() {
-        assertNotNull("Entity should not be null", EnemyFactory.createEnemy(EnemyFactory.EnemyType.NORDIC_ANT, tiles, tileSize));
-        assertNotNull("Entity should not be null", EnemyFactory.createEnemy(EnemyFactory.EnemyType.WOLF, tiles, tileSize));
+        assertNotNull("Entity should not be null", EnemyFactory.createEnemy(ecs, EnemyFactory.EnemyType.NORDIC_ANT, tiles, tileSize));
+        assertNotNull("Entity should not be null", EnemyFactory.createEnemy(ecs, EnemyFactory.EnemyType.WOLF, tiles, tileSize));
     }
 
     @Test
     public void testEnemyAttributes() {
-        Entity nordicAnt = EnemyFactory.createEnemy(EnemyFactory.EnemyType.NORDIC_ANT, tiles, tileSize);
+        Entity nordicAnt = EnemyFactory.createEnemy(ecs, EnemyFactory.EnemyType.NORDIC_ANT, tiles, tileSize);
         Optional<EnemyComponent> nordicAntComponentOpt = nordicAnt.getComponent(EnemyComponent.class);
         Optional<HealthComponent> nordicAntHealthOpt = nordicAnt.getComponent(HealthComponent.class);
 
@@ -58,7 +58,7 @@ public class EnemyFactoryTest {
         assertEquals("Health should be 10 for NORDIC_ANT", 10, nordicAntHealthOpt.get().getHealth());
         assertEquals("Damage should be 1 for NORDIC_ANT", 1, nordicAntComponentOpt.get().getDamage());
 
-        Entity wolf = EnemyFactory.createEnemy(EnemyFactory.EnemyType.WOLF, tiles, tileSize);
+        Entity wolf = EnemyFactory.createEnemy(ecs, EnemyFactory.EnemyType.WOLF, tiles, tileSize);
         Optional<EnemyComponent> wolfComponentOpt = wolf.getComponent(EnemyComponent.class);
         Optional<HealthComponent> wolfHealthOpt = wolf.getComponent(HealthComponent.class);
 
@@ -71,13 +71,13 @@ public class EnemyFactoryTest {
 
     @Test
     public void testComponentAssignment() {
-        Entity wolf = EnemyFactory.createEnemy(EnemyFactory.EnemyType.WOLF, tiles, tileSize);
+        Entity wolf = EnemyFactory.createEnemy(ecs, EnemyFactory.EnemyType.WOLF, tiles, tileSize);
         assertNotNull("PositionComponent should be assigned", wolf.getComponent(PositionComponent.class));
         assertNotNull("AnimationComponent should be assigned", wolf.getComponent(AnimationComponent.class));
     }
 
     @Test(expected = NullPointerException.class)
     public void testInvalidEnemyType() {
-        EnemyFactory.createEnemy(null, tiles, tileSize); // Should throw IllegalArgumentException due to invalid enemy type
+        EnemyFactory.createEnemy(ecs, null, tiles, tileSize); // Should throw IllegalArgumentException due to invalid enemy type
     }
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.softwarearchitecture.game_server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.ecs.ParallelSystemExecutor;
+
+public class GameServerHostTest {
+
+    private GameServerHost host;
+
+    /** A match that finishes after a fixed number of ticks */
+    private static class CountingMatch implements Match {
+        private final int ticksToRun;
+        final AtomicInteger ticks = new AtomicInteger();
+        final AtomicInteger stops = new AtomicInteger();
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        CountingMatch(int ticksToRun) {
+            this.ticksToRun = ticksToRun;
+        }
+
+        @Override
+        public boolean tick() {
+            if (ticks.incrementAndGet() < ticksToRun) {
+                return true;
+            }
+            finished.countDown();
+            return false;
+        }
+
+        @Override
+        public void stop() {
+            stops.incrementAndGet();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        host = new GameServerHost(2, 3, 1, 50);
+    }
+
+    @After
+    public void tearDown() {
+        host.shutdown();
+    }
+
+    @Test
+    public void testMatchesAreTickedUntilTheyFinish() throws InterruptedException {
+        CountingMatch first = new CountingMatch(5);
+        CountingMatch second = new CountingMatch(8);
+        host.host(first);
+        host.host(second);
+
+        assertTrue(first.finished.await(5, TimeUnit.SECONDS));
+        assertTrue(second.finished.await(5, TimeUnit.SECONDS));
+        assertEquals(5, first.ticks.get());
+        assertEquals(8, second.ticks.get());
+        assertEquals(0, first.stops.get());
+    }
+
+    /** A match recording the executor it was given by the host */
+    private static class ExecutorMatch extends CountingMatch {
+        volatile ParallelSystemExecutor executor;
+
+        ExecutorMatch() {
+            super(1);
+        }
+
+        @Override
+        public void useSystemExecutor(ParallelSystemExecutor executor) {
+            this.executor = executor;
+        }
+    }
+
+    @Test
+    public void testSystemsRunOnTheWorkersByDefault() throws InterruptedException {
+        ExecutorMatch match = new ExecutorMatch();
+        host.host(match);
+
+        assertTrue(match.finished.await(5, TimeUnit.SECONDS));
+        assertFalse(host.isParallel());
+        assertNull(match.executor);
+    }
+
+    @Test
+    public void testMatchesShareTheSystemThreadsOfTheHost() throws InterruptedException {
+        GameServerHost parallelHost = new GameServerHost(2, 2, 3, 1, 50);
+        try {
+            ExecutorMatch first = new ExecutorMatch();
+            ExecutorMatch second = new ExecutorMatch();
+            parallelHost.host(first);
+            parallelHost.host(second);
+
+            assertTrue(first.finished.await(5, TimeUnit.SECONDS));
+            assertTrue(parallelHost.isParallel());
+            assertNotNull(first.executor);
+            assertSame(first.executor, second.executor);
+        } finally {
+            parallelHost.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testHostRejectsMatchesWhenFull() {
+        for (int i = 0; i < 4; i++) {
+            host.host(new CountingMatch(Integer.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void testShutdownStopsRunningMatches() {
+        CountingMatch match = new CountingMatch(Integer.MAX_VALUE);
+        host.host(match);
+        host.shutdown();
+
+        assertEquals(1, match.stops.get());
+        assertEquals(0, host.getMatchCount());
+    }
+}
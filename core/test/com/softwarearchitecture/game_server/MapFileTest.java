@@ -0,0 +1,183 @@
+package com.softwarearchitecture.game_server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MapFileTest {
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("besieged-maps");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        MapFactory.useMapDirectory(null);
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * A map with a straight path along the first row and grass everywhere else.
+     */
+    private static MapTemplate largeMap(String name, int rows, int columns) {
+        TileType[][] types = new TileType[rows][columns];
+        for (int x = 0; x < rows; x++) {
+            for (int y = 0; y < columns; y++) {
+                types[x][y] = TileType.PLACEABLE;
+            }
+        }
+        types[0][0] = TileType.START;
+        for (int y = 1; y < columns - 1; y++) {
+            types[0][y] = TileType.PATH;
+        }
+        types[0][columns - 1] = TileType.END;
+        return MapTemplate.of(name, types, "background.png");
+    }
+
+    private static void assertSameTiles(MapTemplate expected, MapTemplate actual) {
+        assertEquals(expected.getMapHeight(), actual.getMapHeight());
+        assertEquals(expected.getMapWidth(), actual.getMapWidth());
+        for (int x = 0; x < expected.getMapHeight(); x++) {
+            for (int y = 0; y < expected.getMapWidth(); y++) {
+                assertEquals(expected.getType(x, y), actual.getType(x, y));
+            }
+        }
+        assertEquals(expected.getPathLength(), actual.getPathLength());
+    }
+
+    @Test
+    public void testHeaderRoundTrip() throws IOException {
+        MapTemplate abyss = MapFactory.getTemplate("abyss");
+        java.util.Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("author", "level design");
+        Path file = directory.resolve("abyss" + MapFile.EXTENSION);
+
+        MapFile.write(file, abyss, metadata);
+        MapHeader header = MapFile.readHeader(file);
+
+        assertEquals("abyss", header.getName());
+        assertEquals(abyss.getBackgroundImage(), header.getBackgroundImage());
+        assertEquals(abyss.getMapHeight(), header.getRows());
+        assertEquals(abyss.getMapWidth(), header.getColumns());
+        assertEquals(abyss.getPathX(0), header.getStartX());
+        assertEquals(abyss.getPathY(0), header.getStartY());
+        assertEquals(metadata, header.getMetadata());
+        assertSameTiles(abyss, MapFile.load(header));
+    }
+
+    @Test
+    public void testLargeMapsAreLoaded() throws IOException {
+        MapTemplate large = largeMap("large", 120, 80);
+        Path file = directory.resolve("large" + MapFile.EXTENSION);
+
+        MapFile.write(file, large, new LinkedHashMap<>());
+        MapTemplate loaded = MapFile.load(MapFile.readHeader(file));
+
+        assertSameTiles(large, loaded);
+        assertEquals(80, loaded.getPathLength());
+    }
+
+    @Test(expected = IOException.class)
+    public void testOtherFilesAreRejected() throws IOException {
+        Path file = directory.resolve("notes" + MapFile.EXTENSION);
+        Files.write(file, "not a map".getBytes());
+
+        MapFile.readHeader(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedGridIsRejected() throws IOException {
+        Path file = directory.resolve("large" + MapFile.EXTENSION);
+        MapFile.write(file, largeMap("large", 40, 40), new LinkedHashMap<>());
+        MapHeader header = MapFile.readHeader(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 10));
+
+        MapFile.load(header);
+    }
+
+    /**
+     * Writes a map file with another offset of the grid than the one written by {@link MapFile}.
+     */
+    private Path writeWithGridOffset(String name, int gridOffset) throws IOException {
+        Path file = directory.resolve(name + MapFile.EXTENSION);
+        MapFile.write(file, largeMap(name, 10, 10), new LinkedHashMap<>());
+        byte[] bytes = Files.readAllBytes(file);
+        java.nio.ByteBuffer.wrap(bytes).putInt(6, gridOffset);
+        Files.write(file, bytes);
+        return file;
+    }
+
+    @Test
+    public void testCorruptGridOffsetsAreRejected() throws IOException {
+        int[] offsets = { -1, 0, 10, Integer.MAX_VALUE };
+        for (int offset : offsets) {
+            Path file = writeWithGridOffset("corrupt", offset);
+            try {
+                MapFile.readHeader(file);
+                fail("A grid at offset " + offset + " should be rejected");
+            } catch (IOException e) {
+                // Expected, the catalog skips the file
+            }
+        }
+    }
+
+    @Test
+    public void testCatalogSkipsFilesWithCorruptGridOffsets() throws IOException {
+        MapFile.write(directory.resolve("first" + MapFile.EXTENSION), largeMap("first", 10, 10), new LinkedHashMap<>());
+        writeWithGridOffset("corrupt", Integer.MAX_VALUE);
+        MapCatalog catalog = new MapCatalog(directory);
+
+        assertEquals(1, catalog.getMapNames().size());
+        assertNull(catalog.getHeader("corrupt"));
+    }
+
+    @Test
+    public void testCatalogSkipsBrokenFiles() throws IOException {
+        MapFile.write(directory.resolve("first" + MapFile.EXTENSION), largeMap("first", 10, 10), new LinkedHashMap<>());
+        MapFile.write(directory.resolve("second" + MapFile.EXTENSION), largeMap("second", 12, 8), new LinkedHashMap<>());
+        Files.write(directory.resolve("broken" + MapFile.EXTENSION), new byte[] { 1, 2, 3 });
+        MapCatalog catalog = new MapCatalog(directory);
+
+        assertEquals(2, catalog.getMapNames().size());
+        assertEquals(12, catalog.getHeader("second").getRows());
+        assertNull(catalog.getHeader("broken"));
+        assertEquals(8, catalog.load("second").getMapWidth());
+    }
+
+    @Test
+    public void testInstalledMapsArePlayable() throws IOException {
+        MapFile.write(directory.resolve("large" + MapFile.EXTENSION), largeMap("large", 60, 40), new LinkedHashMap<>());
+        MapFactory.useMapDirectory(directory.toFile());
+
+        assertTrue(MapFactory.getMapNames().contains("abyss"));
+        assertTrue(MapFactory.getMapNames().contains("large"));
+        Map map = MapFactory.createMap("large");
+        assertEquals(60, map.getMapHeight());
+        assertEquals(40, map.getPath().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingDirectoryHasNoMaps() {
+        MapFactory.useMapDirectory(directory.resolve("missing").toFile());
+
+        MapFactory.createMap("large");
+    }
+}
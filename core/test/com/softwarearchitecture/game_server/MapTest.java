@@ -1,7 +1,10 @@
 package com.softwarearchitecture.game_server;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
@@ -9,6 +12,8 @@ import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.softwarearchitecture.ecs.ECSManager;
+
 public class MapTest {
 
     private Map abyssMap;
@@ -44,4 +49,40 @@ public class MapTest {
         assertEquals(abyssPath.size(), 26);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPathRunsFromStartToEnd() {
+        List<Tile> path = TestMap.getPath();
+        assertEquals(TileType.START, path.get(0).getType());
+        assertEquals(TileType.END, path.get(path.size() - 1).getType());
+
+        for (int i = 1; i < path.size(); i++) {
+            Tile previous = path.get(i - 1);
+            Tile tile = path.get(i);
+            int steps = Math.abs(tile.getX() - previous.getX()) + Math.abs(tile.getY() - previous.getY());
+            assertEquals(1, steps);
+            assertSame(TestMap.getMapLayout()[tile.getX()][tile.getY()], tile);
+        }
+    }
+
+    @Test
+    public void testMapsOfAMatchShareTheTemplate() {
+        Map other = MapFactory.createMap("abyss");
+        assertSame(abyssMap.getTemplate(), other.getTemplate());
+        assertNotSame(abyssMap.getMapLayout()[0][2], other.getMapLayout()[0][2]);
+
+        // Towers placed in one match are not on the map of another
+        abyssMap.getMapLayout()[0][2].setTower(new ECSManager().createEntity());
+        assertTrue(abyssMap.getMapLayout()[0][2].hasTower());
+        assertFalse(other.getMapLayout()[0][2].hasTower());
+
+        Tile tile = other.getMapLayout()[0][2];
+        assertEquals(abyssMap.getTextureForTile(abyssMap.getMapLayout()[0][2]), other.getTextureForTile(tile));
+        assertEquals(tile.isBuildable(), other.isBuildable(0, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownMap() {
+        MapFactory.createMap("unknown");
+    }
+}
@@ -0,0 +1,144 @@
+package com.softwarearchitecture.game_server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.ecs.ECSManager;
+import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.ecs.components.HealthComponent;
+import com.softwarearchitecture.ecs.components.PlayerComponent;
+import com.softwarearchitecture.ecs.components.TileComponent;
+
+public class StateReplicatorTest {
+
+    private ECSManager server;
+    private ECSManager client;
+    private GameState state;
+    private StateReplicator replicator;
+    private StateReplica replica;
+    private Entity enemy;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new ECSManager();
+        client = new ECSManager();
+        state = new GameState(server);
+        state.gameID = UUID.randomUUID();
+        state.mapName = "abyss";
+        state.playerOne = server.createEntity();
+        state.playerOne.addComponent(PlayerComponent.class, new PlayerComponent(UUID.randomUUID()));
+        server.addLocalEntity(state.playerOne);
+
+        Entity tile = server.createEntity();
+        tile.addComponent(TileComponent.class, new TileComponent(new Tile(0, 0, TileType.PATH)));
+        server.addLocalEntity(tile);
+        enemy = server.createEntity();
+        enemy.addComponent(HealthComponent.class, new HealthComponent(10));
+        server.addLocalEntity(enemy);
+        server.update(0f);
+
+        replicator = new StateReplicator();
+        replica = new StateReplica(client);
+    }
+
+    @Test
+    public void testDeltaOnlyHoldsChangedComponents() throws Exception {
+        replicator.capture(state);
+        byte[] full = replicator.encode(state, StateReplicator.FULL_STATE);
+        assertTrue(replica.apply(full));
+        client.update(0f);
+        assertEquals("The full state should hold every entity", 3, client.getRemoteEntities().size());
+
+        enemy.getComponent(HealthComponent.class).get().setHealth(6);
+        enemy.markChanged();
+        replicator.capture(state);
+        byte[] delta = replicator.encode(state, replica.getAcknowledgement());
+        assertTrue("A delta should be smaller than the full state", delta.length < full.length);
+        assertTrue(replica.apply(delta));
+
+        Entity replicated = client.getOrCreateRemoteEntity(GameState.toNetworkId(enemy));
+        assertEquals(6, replicated.getComponent(HealthComponent.class).get().getHealth());
+        assertFalse("A message should only be applied once", replica.apply(delta));
+    }
+
+    @Test
+    public void testRemovedEntitiesAreDestroyed() throws Exception {
+        replicator.capture(state);
+        replica.apply(replicator.encode(state, StateReplicator.FULL_STATE));
+        long acknowledged = replica.getAcknowledgement();
+
+        server.destroyEntity(enemy);
+        server.update(0f);
+        replicator.capture(state);
+        assertTrue(replica.apply(replicator.encode(state, acknowledged)));
+        client.update(0f);
+        assertEquals(2, client.getRemoteEntities().size());
+    }
+
+    @Test
+    public void testGapRequestsFullState() throws Exception {
+        replicator.capture(state);
+        byte[] first = replicator.encode(state, StateReplicator.FULL_STATE);
+        replicator.capture(state);
+        replicator.capture(state);
+        // A delta based on a sequence the replica never applied
+        byte[] delta = replicator.encode(state, 2);
+        assertTrue(replica.apply(first));
+        assertFalse(replica.apply(delta));
+        assertTrue(replica.needsFullState());
+        assertEquals(StateReplicator.FULL_STATE, replica.getAcknowledgement());
+    }
+
+    @Test
+    public void testLastChangeIgnoresUnchangedCaptures() {
+        long first = replicator.capture(state);
+        assertEquals(first, replicator.getLastChange());
+
+        replicator.capture(state);
+        assertEquals("Nothing changed since the first capture", first, replicator.getLastChange());
+
+        enemy.getComponent(HealthComponent.class).get().setHealth(3);
+        enemy.markChanged();
+        long changed = replicator.capture(state);
+        assertEquals(changed, replicator.getLastChange());
+
+        server.destroyEntity(enemy);
+        server.update(0f);
+        long removed = replicator.capture(state);
+        assertEquals(removed, replicator.getLastChange());
+    }
+
+    @Test
+    public void testOnlyChangedEntitiesAreCompared() {
+        long first = replicator.capture(state);
+        HealthComponent health = enemy.getComponent(HealthComponent.class).get();
+
+        health.setHealth(4);
+        replicator.capture(state);
+        assertEquals("An unmarked change should not be compared", first, replicator.getLastChange());
+
+        enemy.markChanged();
+        long changed = replicator.capture(state);
+        assertEquals(changed, replicator.getLastChange());
+
+        enemy.addComponent(HealthComponent.class, new HealthComponent(2));
+        long replaced = replicator.capture(state);
+        assertEquals("Replacing a component should mark the entity", replaced, replicator.getLastChange());
+    }
+
+    @Test
+    public void testUnmarkedChangesAreFoundByAFullCapture() {
+        long first = replicator.capture(state);
+        enemy.getComponent(HealthComponent.class).get().setHealth(4);
+        for (int i = 0; i < 64; i++) {
+            replicator.capture(state);
+        }
+        assertTrue("A full capture should compare every entity", replicator.getLastChange() > first);
+    }
+}
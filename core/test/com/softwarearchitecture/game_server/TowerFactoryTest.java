@@ -5,18 +5,21 @@ import static org.junit.Assert.assertNotNull;
 
 import org.junit.Test;
 
+import com.softwarearchitecture.ecs.ECSManager;
 import com.softwarearchitecture.ecs.Entity;
 import com.softwarearchitecture.ecs.components.TowerComponent;
 import com.softwarearchitecture.game_server.CardFactory.CardType;
 import com.softwarearchitecture.math.Vector2;
 
 public class TowerFactoryTest {
+    private final ECSManager ecs = new ECSManager();
+
     @Test
     public void testValidTowerCreation() {
         // Assuming Vector2 is a class that holds coordinates or dimensions and has a
         // constructor
         Vector2 position = new Vector2(0, 0);
-        Entity tower = TowerFactory.createTower(CardType.MAGIC, CardType.FIRE, position);
+        Entity tower = TowerFactory.createTower(ecs, CardType.MAGIC, CardType.FIRE, position);
 
         assertNotNull("Tower should not be null", tower);
         TowerComponent tc = tower.getComponent(TowerComponent.class)
@@ -24,22 +27,32 @@ public class TowerFactoryTest {
         assertEquals("Damage should match expected for FIRE_MAGIC tower", 15, tc.getDamage());
     }
 
+    @Test
+    public void testTowerTargeting() {
+        Vector2 position = new Vector2(0, 0);
+        Entity sharpShooter = TowerFactory.createTower(ecs, CardType.BOW, CardType.TECHNOLOGY, position);
+        Entity bow = TowerFactory.createTower(ecs, CardType.BOW, CardType.BOW, position);
+
+        assertEquals(TowerComponent.Targeting.STRONGEST, sharpShooter.getComponent(TowerComponent.class).get().targeting);
+        assertEquals(TowerComponent.Targeting.FIRST, bow.getComponent(TowerComponent.class).get().targeting);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testNonPairableCards() {
         Vector2 position = new Vector2(0, 0);
-        TowerFactory.createTower(CardType.BOW, CardType.MAGIC, position); // Assuming this combination is invalid
+        TowerFactory.createTower(ecs, CardType.BOW, CardType.MAGIC, position); // Assuming this combination is invalid
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testNullInputHandling() {
         Vector2 position = new Vector2(0, 0);
-        TowerFactory.createTower(null, CardType.FIRE, position);
+        TowerFactory.createTower(ecs, null, CardType.FIRE, position);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testSecondNullInputHandling() {
         Vector2 position = new Vector2(0, 0);
-        TowerFactory.createTower(CardType.FIRE, null, position);
+        TowerFactory.createTower(ecs, CardType.FIRE, null, position);
     }
 
 }
@@ -0,0 +1,126 @@
+package com.softwarearchitecture.game_server.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.ecs.ECSManager;
+import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.ecs.components.AnimationComponent;
+import com.softwarearchitecture.ecs.components.PositionComponent;
+import com.softwarearchitecture.ecs.components.SoundComponent;
+import com.softwarearchitecture.ecs.components.SpriteComponent;
+import com.softwarearchitecture.ecs.components.TileComponent;
+import com.softwarearchitecture.ecs.components.TowerComponent;
+import com.softwarearchitecture.game_client.TexturePack;
+import com.softwarearchitecture.game_server.AssetRegistry;
+import com.softwarearchitecture.game_server.AudioPack;
+import com.softwarearchitecture.game_server.PairableCards.TowerType;
+import com.softwarearchitecture.game_server.Tile;
+import com.softwarearchitecture.game_server.TileType;
+import com.softwarearchitecture.math.Vector2;
+
+public class ComponentCodecsTest {
+
+    private ECSManager server;
+    private ECSManager client;
+    private WireWriter out;
+    private WireReader in;
+
+    @Before
+    public void setUp() {
+        server = new ECSManager();
+        client = new ECSManager();
+        out = new WireWriter(16);
+        in = new WireReader(client);
+    }
+
+    private <T> T roundTrip(Class<T> type, T component) {
+        out.clear();
+        ComponentCodecs.write(out, type, component);
+        in.reset(out.toByteArray());
+        T read = ComponentCodecs.get(type).read(in);
+        assertEquals("The whole component should be read", 0, in.remaining());
+        return read;
+    }
+
+    @Test
+    public void testVarIntsRoundTrip() {
+        long[] values = { 0, 1, -1, 127, 128, -300, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE };
+        for (long value : values) {
+            out.writeSignedVarInt((int) value);
+            out.writeSignedVarLong(value);
+        }
+        in.reset(out.toByteArray());
+        for (long value : values) {
+            assertEquals((int) value, in.readSignedVarInt());
+            assertEquals(value, in.readSignedVarLong());
+        }
+    }
+
+    @Test
+    public void testPositionIsQuantized() {
+        PositionComponent read = roundTrip(PositionComponent.class, new PositionComponent(new Vector2(0.123456f, 0.5f), -2));
+        assertEquals(0.123456f, read.position.x, 1f / WireWriter.QUANTIZATION_STEPS);
+        assertEquals(0.5f, read.position.y, 0f);
+        assertEquals(-2, read.z_index);
+        assertTrue("A position should take a few bytes", out.size() <= 8);
+    }
+
+    @Test
+    public void testAssetsAreWrittenAsIds() {
+        SpriteComponent sprite = roundTrip(SpriteComponent.class, new SpriteComponent(TexturePack.BUTTON_BACK, new Vector2(0.1f, 0.1f)));
+        assertEquals(TexturePack.BUTTON_BACK, AssetRegistry.pathOf(sprite.texture_id));
+        assertTrue("The path should be written as an id", out.size() < TexturePack.BUTTON_BACK.length());
+
+        AnimationComponent animation = roundTrip(AnimationComponent.class,
+                new AnimationComponent(List.of(TexturePack.BUTTON_BACK, TexturePack.BUTTON_QUIT)));
+        assertEquals(AssetRegistry.idOf(TexturePack.BUTTON_QUIT), animation.getAnimationIds()[1]);
+
+        SoundComponent sound = roundTrip(SoundComponent.class, new SoundComponent(AudioPack.JENS, true, false));
+        assertEquals(AssetRegistry.idOf(AudioPack.JENS), sound.sound_id);
+        assertTrue(sound.loop);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnknownAssetIdIsRejected() {
+        out.writeVarInt(AssetRegistry.size());
+        out.writeVector2(new Vector2());
+        in.reset(out.toByteArray());
+        ComponentCodecs.get(SpriteComponent.class).read(in);
+    }
+
+    @Test
+    public void testTileEntitiesAreResolved() {
+        Entity tower = server.createEntity();
+        Tile tile = new Tile(3, 4, TileType.PLACEABLE);
+        tile.setTower(tower);
+        Tile read = roundTrip(TileComponent.class, new TileComponent(tile)).getTile();
+        assertEquals(3, read.getX());
+        assertEquals(4, read.getY());
+        assertEquals(TileType.PLACEABLE, read.getType());
+        assertNull(read.getCard());
+        assertEquals(client.getOrCreateRemoteEntity(WireWriter.toNetworkId(tower)), read.getTower());
+    }
+
+    @Test
+    public void testTowerKeepsItsType() {
+        TowerComponent tower = new TowerComponent(5, 0.3f, 1.5f, TowerType.FIRE_MAGIC);
+        tower.targeting = TowerComponent.Targeting.LAST;
+        TowerComponent read = roundTrip(TowerComponent.class, tower);
+        assertEquals(TowerType.FIRE_MAGIC, read.towerType);
+        assertEquals(5, read.getDamage());
+        assertEquals(1.5f, read.getAttackCooldown(), 0f);
+        assertEquals(TowerComponent.Targeting.LAST, read.targeting);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownTypeIsRejected() {
+        ComponentCodecs.get(String.class);
+    }
+}
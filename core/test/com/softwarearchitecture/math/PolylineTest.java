@@ -0,0 +1,120 @@
+package com.softwarearchitecture.math;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class PolylineTest {
+
+    private static boolean within(float[] intervals, float distance) {
+        for (int i = 0; i < intervals.length; i += 2) {
+            if (distance >= intervals[i] && distance <= intervals[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testLengthIsTheSumOfTheSegments() {
+        Polyline line = new Polyline(new float[] { 0f, 3f, 3f }, new float[] { 0f, 4f, 10f });
+
+        assertEquals(3, line.getPointCount());
+        assertEquals(5f, line.getDistance(1), 1e-4f);
+        assertEquals(11f, line.getLength(), 1e-4f);
+    }
+
+    @Test
+    public void testPositionAtADistance() {
+        Polyline line = new Polyline(new float[] { 0f, 4f, 4f }, new float[] { 0f, 0f, 4f });
+        Vector2 position = new Vector2();
+
+        line.positionAt(2f, position);
+        assertEquals(2f, position.x, 1e-4f);
+        assertEquals(0f, position.y, 1e-4f);
+
+        line.positionAt(5f, position);
+        assertEquals(4f, position.x, 1e-4f);
+        assertEquals(1f, position.y, 1e-4f);
+    }
+
+    @Test
+    public void testPositionIsClampedToTheEnds() {
+        Polyline line = new Polyline(new float[] { 0f, 4f, 4f }, new float[] { 0f, 0f, 4f });
+        Vector2 position = new Vector2();
+
+        line.positionAt(-1f, position);
+        assertEquals(0f, position.x, 1e-4f);
+        assertEquals(0f, position.y, 1e-4f);
+
+        line.positionAt(100f, position);
+        assertEquals(4f, position.x, 1e-4f);
+        assertEquals(4f, position.y, 1e-4f);
+    }
+
+    @Test
+    public void testSegmentAtADistance() {
+        Polyline line = new Polyline(new float[] { 0f, 1f, 2f, 3f }, new float[] { 0f, 0f, 0f, 0f });
+
+        assertEquals(0, line.segmentAt(-1f));
+        assertEquals(0, line.segmentAt(0.5f));
+        assertEquals(1, line.segmentAt(1f));
+        assertEquals(2, line.segmentAt(2.5f));
+        assertEquals(2, line.segmentAt(3f));
+        assertEquals(2, line.segmentAt(10f));
+    }
+
+    @Test
+    public void testSinglePoint() {
+        Polyline line = new Polyline(new float[] { 2f }, new float[] { 3f });
+        Vector2 position = line.positionAt(1f, new Vector2());
+
+        assertEquals(0f, line.getLength(), 0f);
+        assertEquals(0, line.segmentAt(1f));
+        assertEquals(2f, position.x, 0f);
+        assertEquals(3f, position.y, 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLineMustHavePoints() {
+        new Polyline(new float[0], new float[0]);
+    }
+
+    @Test
+    public void testCoveredIntervalsOfAStraightPath() {
+        Polyline line = new Polyline(new float[] { 0f, 10f }, new float[] { 0f, 0f });
+
+        float[] intervals = line.coveredIntervals(5f, 3f, 5f);
+
+        assertArrayEquals(new float[] { 1f, 9f }, intervals, 1e-4f);
+    }
+
+    @Test
+    public void testCoveredIntervalsJoinAcrossCorners() {
+        // An L-shaped path around the point, reached on both sides of the corner
+        Polyline line = new Polyline(new float[] { 0f, 4f, 4f }, new float[] { 0f, 0f, 4f });
+
+        float[] intervals = line.coveredIntervals(4f, 0f, 1f);
+
+        assertArrayEquals(new float[] { 3f, 5f }, intervals, 1e-4f);
+    }
+
+    @Test
+    public void testCoveredIntervalsOfAWindingPath() {
+        // The path leaves the range and comes back
+        Polyline line = new Polyline(new float[] { 0f, 10f, 10f, 0f }, new float[] { 0f, 0f, 2f, 2f });
+
+        float[] intervals = line.coveredIntervals(2f, 1f, 1.5f);
+
+        assertEquals(4, intervals.length);
+        for (float distance = 0f; distance <= 22f; distance += 0.05f) {
+            float x = distance <= 10f ? distance : (distance <= 12f ? 10f : 22f - distance);
+            float y = distance <= 10f ? 0f : (distance <= 12f ? distance - 10f : 2f);
+            float away = (float) Math.hypot(x - 2f, y - 1f);
+            if (Math.abs(away - 1.5f) > 1e-3f) {
+                assertEquals(away < 1.5f, within(intervals, distance));
+            }
+        }
+    }
+}
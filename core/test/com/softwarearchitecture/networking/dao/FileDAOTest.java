@@ -0,0 +1,149 @@
+package com.softwarearchitecture.networking.dao;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.game_client.Score;
+import com.softwarearchitecture.networking.persistence.FileDAO;
+
+public class FileDAOTest {
+
+    private Path directory;
+    private FileDAO<String, Score> dao;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("besieged");
+        dao = FileDAO.getInstance(directory, String.class, Score.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        dao.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private FileDAO<String, Score> reopen() throws IOException {
+        dao.close();
+        dao = FileDAO.getInstance(directory, String.class, Score.class);
+        return dao;
+    }
+
+    private Path logFile() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".log")).findFirst().get();
+        }
+    }
+
+    @Test
+    public void testRecordsSurviveReopening() throws IOException {
+        UUID gameId = UUID.randomUUID();
+        dao.add("first", new Score(gameId, "map", 4));
+        dao.add("second", new Score(gameId, "map", 5));
+        dao.update("first", new Score(gameId, "map", 6));
+        dao.delete("second");
+
+        reopen();
+
+        assertEquals(1, dao.loadAllIndices().size());
+        Score score = dao.get("first").get();
+        assertEquals(gameId, score.getGameId());
+        assertEquals(6, score.getWavesSurvived());
+        assertFalse(dao.get("second").isPresent());
+    }
+
+    @Test
+    public void testMissingRecordsAreNotUpdatedOrDeleted() {
+        assertFalse(dao.update("missing", new Score(UUID.randomUUID(), "map", 1)));
+        assertFalse(dao.delete("missing"));
+        assertFalse(dao.get("missing").isPresent());
+    }
+
+    @Test
+    public void testIncompleteRecordIsDroppedOnRecovery() throws IOException {
+        dao.add("kept", new Score(UUID.randomUUID(), "map", 1));
+        dao.close();
+        // A crash in the middle of writing a record leaves part of it behind
+        try (FileChannel log = FileChannel.open(logFile(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            log.write(ByteBuffer.wrap(new byte[] { 0, 0, 1, 0, 7, 7 }));
+        }
+        long damagedSize = Files.size(logFile());
+
+        dao = FileDAO.getInstance(directory, String.class, Score.class);
+
+        assertTrue(dao.get("kept").isPresent());
+        assertTrue(Files.size(logFile()) < damagedSize);
+        dao.add("after", new Score(UUID.randomUUID(), "map", 2));
+        reopen();
+        assertTrue(dao.get("kept").isPresent());
+        assertTrue(dao.get("after").isPresent());
+    }
+
+    @Test
+    public void testCorruptedRecordEndsTheLog() throws IOException {
+        dao.add("kept", new Score(UUID.randomUUID(), "map", 1));
+        long end = Files.size(logFile());
+        dao.add("corrupted", new Score(UUID.randomUUID(), "map", 2));
+        dao.close();
+        // Remove the index so the log is read from the start, then damage the last record
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.toString().endsWith(".idx")).forEach(path -> path.toFile().delete());
+        }
+        try (FileChannel log = FileChannel.open(logFile(), StandardOpenOption.WRITE)) {
+            log.write(ByteBuffer.wrap(new byte[] { 42 }), end + 12);
+        }
+
+        dao = FileDAO.getInstance(directory, String.class, Score.class);
+
+        assertTrue(dao.get("kept").isPresent());
+        assertFalse(dao.get("corrupted").isPresent());
+    }
+
+    @Test
+    public void testLogIsCompacted() throws IOException {
+        UUID gameId = UUID.randomUUID();
+        for (int i = 0; i < 5000; i++) {
+            dao.add("replaced", new Score(gameId, "map", i));
+        }
+
+        assertTrue(Files.size(logFile()) <= 2 * FileDAO.COMPACTION_THRESHOLD);
+        assertEquals(4999, dao.get("replaced").get().getWavesSurvived());
+        reopen();
+        assertEquals(4999, dao.get("replaced").get().getWavesSurvived());
+    }
+
+    @Test
+    public void testByteArraysAreStoredAsTheyAre() throws IOException {
+        dao.close();
+        FileDAO<String, byte[]> bytes = FileDAO.getInstance(directory, String.class, byte[].class);
+        byte[] state = new byte[] { 0, 1, -1, 127, -128 };
+        bytes.addAsync("game", state).join();
+        bytes.close();
+
+        bytes = FileDAO.getInstance(directory, String.class, byte[].class);
+        Optional<byte[]> stored = bytes.getAsync("game").join();
+        bytes.close();
+        dao = FileDAO.getInstance(directory, String.class, Score.class);
+
+        assertArrayEquals(state, stored.get());
+    }
+}
@@ -0,0 +1,71 @@
+package com.softwarearchitecture.networking.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.game_client.Score;
+import com.softwarearchitecture.networking.persistence.Leaderboard;
+import com.softwarearchitecture.networking.persistence.LocalLeaderboard;
+
+public class LocalLeaderboardTest {
+
+    private Leaderboard leaderboard;
+    private String mapName;
+
+    @Before
+    public void setUp() {
+        leaderboard = LocalLeaderboard.getInstance();
+        // The leaderboard is shared, so every test plays a map of its own
+        mapName = "map" + UUID.randomUUID();
+    }
+
+    @Test
+    public void testScoresAreSortedBestFirst() {
+        int[] waves = { 3, 9, 1, 9, 5 };
+        for (int wave : waves) {
+            leaderboard.submit(new Score(UUID.randomUUID(), mapName, wave));
+        }
+
+        List<Score> scores = leaderboard.top(mapName).join();
+
+        assertEquals(waves.length, scores.size());
+        for (int i = 1; i < scores.size(); i++) {
+            assertTrue(scores.get(i - 1).getWavesSurvived() >= scores.get(i).getWavesSurvived());
+        }
+        assertEquals(9, scores.get(0).getWavesSurvived());
+    }
+
+    @Test
+    public void testOnlyTheBestScoresAreKept() {
+        for (int wave = 0; wave < Leaderboard.MAX_SCORES * 2; wave++) {
+            leaderboard.submit(new Score(UUID.randomUUID(), mapName, wave));
+        }
+
+        List<Score> scores = leaderboard.top(mapName).join();
+
+        assertEquals(Leaderboard.MAX_SCORES, scores.size());
+        assertEquals(Leaderboard.MAX_SCORES * 2 - 1, scores.get(0).getWavesSurvived());
+        assertEquals(Leaderboard.MAX_SCORES, scores.get(scores.size() - 1).getWavesSurvived());
+    }
+
+    @Test
+    public void testScoresAreAlsoOnTheBoardOfAllMaps() {
+        UUID gameId = UUID.randomUUID();
+        leaderboard.submit(new Score(gameId, mapName, Integer.MAX_VALUE));
+
+        List<Score> scores = leaderboard.top(Leaderboard.ALL_MAPS).join();
+
+        assertTrue(scores.stream().anyMatch(score -> score.getGameId().equals(gameId)));
+    }
+
+    @Test
+    public void testUnknownMapsHaveNoScores() {
+        assertTrue(leaderboard.top(mapName).join().isEmpty());
+    }
+}
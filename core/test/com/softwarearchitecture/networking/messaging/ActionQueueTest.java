@@ -0,0 +1,94 @@
+package com.softwarearchitecture.networking.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.game_server.PlayerInput;
+import com.softwarearchitecture.networking.transport.LocalTransport;
+import com.softwarearchitecture.networking.transport.MessageQueue;
+import com.softwarearchitecture.networking.transport.MessageTransport;
+
+public class ActionQueueTest {
+
+    private MessageTransport transport;
+    private ServerMessenger server;
+    private ClientMessenger client;
+    private UUID playerId;
+
+    @Before
+    public void setUp() {
+        transport = LocalTransport.getInstance();
+        server = new ServerMessenger(false, transport);
+        client = new ClientMessenger(false, transport);
+        playerId = UUID.randomUUID();
+    }
+
+    @Test
+    public void testRapidActionsAreNotLost() {
+        server.lookForPendingActions(playerId);
+        for (int i = 0; i < 10; i++) {
+            client.addAction(new PlayerInput(playerId, "ACTION" + i));
+        }
+
+        List<PlayerInput> actions = server.lookForPendingActions(playerId);
+
+        assertEquals(10, actions.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("ACTION" + i, actions.get(i).getAction());
+        }
+        assertTrue(server.lookForPendingActions(playerId).isEmpty());
+    }
+
+    @Test
+    public void testActionsSentBeforeServerListensArriveWithTheNextBatch() {
+        client.addAction(new PlayerInput(playerId, "FIRST"));
+        server.lookForPendingActions(playerId);
+        client.addAction(new PlayerInput(playerId, "SECOND"));
+
+        List<PlayerInput> actions = server.lookForPendingActions(playerId);
+
+        assertEquals(2, actions.size());
+        assertEquals("FIRST", actions.get(0).getAction());
+        assertEquals("SECOND", actions.get(1).getAction());
+    }
+
+    @Test
+    public void testAcknowledgedActionsAreNotSentAgain() {
+        MessageQueue batches = new MessageQueue(8);
+        transport.subscribe(Messages.actionTopic(playerId), batches);
+        server.lookForPendingActions(playerId);
+        client.addAction(new PlayerInput(playerId, "FIRST"));
+        server.lookForPendingActions(playerId);
+        batches.drain();
+
+        client.addAction(new PlayerInput(playerId, "SECOND"));
+
+        Messages.ActionBatch batch = Messages.decodeActions(batches.poll().get());
+        assertEquals(2, batch.firstSequence);
+        assertEquals(1, batch.actions.size());
+        assertEquals("SECOND", batch.actions.get(0).getAction());
+    }
+
+    @Test
+    public void testRepeatedBatchesAreProcessedOnce() {
+        server.lookForPendingActions(playerId);
+        PlayerInput first = new PlayerInput(playerId, "FIRST");
+        PlayerInput second = new PlayerInput(playerId, "SECOND");
+        transport.publish(Messages.actionTopic(playerId), Messages.encodeActions(1, Arrays.asList(first)));
+        transport.publish(Messages.actionTopic(playerId), Messages.encodeActions(1, Arrays.asList(first, second)));
+        transport.publish(Messages.actionTopic(playerId), Messages.encodeActions(1, Arrays.asList(first, second)));
+
+        List<PlayerInput> actions = server.lookForPendingActions(playerId);
+
+        assertEquals(2, actions.size());
+        assertEquals("FIRST", actions.get(0).getAction());
+        assertEquals("SECOND", actions.get(1).getAction());
+    }
+}
@@ -0,0 +1,152 @@
+package com.softwarearchitecture.networking.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.ecs.ECSManager;
+import com.softwarearchitecture.game_client.LobbyEntry;
+import com.softwarearchitecture.game_client.Score;
+import com.softwarearchitecture.game_server.GameState;
+import com.softwarearchitecture.networking.persistence.LobbyIndex;
+import com.softwarearchitecture.networking.transport.LocalTransport;
+
+public class LobbyTest {
+
+    private ServerMessenger server;
+    private ClientMessenger client;
+
+    @Before
+    public void setUp() {
+        server = new ServerMessenger(false, LocalTransport.getInstance());
+        client = new ClientMessenger(false, LocalTransport.getInstance());
+    }
+
+    private static boolean listed(List<LobbyEntry> games, UUID gameId) {
+        return games.stream().anyMatch(game -> game.getGameId().equals(gameId));
+    }
+
+    /**
+     * Reads the whole lobby a page at a time.
+     */
+    private List<LobbyEntry> listAll(int pageSize) {
+        List<LobbyEntry> games = new ArrayList<>();
+        List<LobbyEntry> page = client.getAvailableGames(null, pageSize).join();
+        while (!page.isEmpty()) {
+            assertTrue(page.size() <= pageSize);
+            games.addAll(page);
+            page = client.getAvailableGames(page.get(page.size() - 1), pageSize).join();
+        }
+        return games;
+    }
+
+    @Test
+    public void testCreatedGamesAreListed() {
+        UUID first = server.createGame("first");
+        UUID second = server.createGame("second");
+
+        CompletableFuture<List<LobbyEntry>> games = client.getAvailableGames(null, 100);
+
+        assertTrue(listed(games.join(), first));
+        assertTrue(listed(games.join(), second));
+        server.removeGame(first);
+        server.removeGame(second);
+    }
+
+    @Test
+    public void testGamesCreatedFromAStateAreListedOnceStored() {
+        GameState gameState = new GameState(new ECSManager());
+        gameState.gameID = UUID.randomUUID();
+        gameState.mapName = "stored";
+
+        assertTrue(server.createGame(gameState).join());
+
+        List<LobbyEntry> games = client.getAvailableGames(null, 100).join();
+        assertTrue(listed(games, gameState.gameID));
+        server.removeGame(gameState.gameID);
+    }
+
+    @Test
+    public void testRemovedGamesAreNotListed() {
+        UUID gameId = server.createGame("removed");
+        server.removeGame(gameId);
+
+        assertFalse(listed(client.getAvailableGames(null, 100).join(), gameId));
+    }
+
+    @Test
+    public void testJoinedGamesAreNotListed() {
+        UUID gameId = server.createGame("joined");
+        client.joinGame(gameId, UUID.randomUUID());
+
+        assertTrue(server.lookForPendingPlayer(gameId).isPresent());
+
+        assertFalse(listed(client.getAvailableGames(null, 100).join(), gameId));
+        server.removeGame(gameId);
+    }
+
+    @Test
+    public void testJoiningAGameThatDoesNotAnswerFails() {
+        CompletableFuture<Boolean> joined = client.joinGame(UUID.randomUUID(), UUID.randomUUID());
+
+        assertFalse("Joining does not wait for the server", joined.isDone());
+        assertFalse(joined.join());
+    }
+
+    @Test
+    public void testPagesListEveryGameOnce() {
+        List<UUID> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(server.createGame("paged"));
+        }
+
+        List<LobbyEntry> games = listAll(2);
+
+        for (UUID gameId : created) {
+            assertEquals(1, games.stream().filter(game -> game.getGameId().equals(gameId)).count());
+            server.removeGame(gameId);
+        }
+        Set<String> keys = new HashSet<>();
+        for (LobbyEntry game : games) {
+            assertTrue(keys.add(LobbyIndex.keyOf(game)));
+        }
+    }
+
+    @Test
+    public void testListedGamesHaveOpenSeats() {
+        UUID gameId = server.createGame("open");
+
+        LobbyEntry entry = client.getAvailableGames(null, 100).join().stream()
+                .filter(game -> game.getGameId().equals(gameId)).findFirst().get();
+
+        assertEquals("open", entry.getMapName());
+        assertEquals(1, entry.getOpenSeats());
+        server.removeGame(gameId);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPageSizeMustBePositive() {
+        client.getAvailableGames(null, 0);
+    }
+
+    @Test
+    public void testHighScoresAreListed() {
+        UUID gameId = UUID.randomUUID();
+        server.setHighScore(gameId, "scored", 7);
+
+        List<Score> scores = client.getHighScores("scored").join();
+
+        Score score = scores.stream().filter(s -> s.getGameId().equals(gameId)).findFirst().get();
+        assertEquals(7, score.getWavesSurvived());
+    }
+}
@@ -0,0 +1,141 @@
+package com.softwarearchitecture.networking.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.ecs.ECSManager;
+import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.ecs.components.HealthComponent;
+import com.softwarearchitecture.ecs.components.PlayerComponent;
+import com.softwarearchitecture.game_server.GameState;
+import com.softwarearchitecture.game_server.StateReplica;
+import com.softwarearchitecture.networking.transport.LocalTransport;
+import com.softwarearchitecture.networking.transport.MessageQueue;
+import com.softwarearchitecture.networking.transport.MessageTransport;
+
+public class StatePublishingTest {
+
+    private MessageTransport transport;
+    private ServerMessenger server;
+    private GameState state;
+    private Entity enemy;
+    private UUID gameId;
+    private UUID playerId;
+    private MessageQueue deltas;
+    private StateReplica replica;
+
+    @Before
+    public void setUp() {
+        transport = LocalTransport.getInstance();
+        server = new ServerMessenger(false, transport);
+        gameId = UUID.randomUUID();
+        playerId = UUID.randomUUID();
+
+        ECSManager ecs = new ECSManager();
+        state = new GameState(ecs);
+        state.gameID = gameId;
+        state.mapName = "abyss";
+        state.playerOne = ecs.createEntity();
+        state.playerOne.addComponent(PlayerComponent.class, new PlayerComponent(playerId));
+        ecs.addLocalEntity(state.playerOne);
+        enemy = ecs.createEntity();
+        enemy.addComponent(HealthComponent.class, new HealthComponent(10));
+        ecs.addLocalEntity(enemy);
+        ecs.update(0f);
+
+        deltas = new MessageQueue(8);
+        transport.subscribe(Messages.deltaTopic(gameId, playerId), deltas);
+        replica = new StateReplica(new ECSManager());
+    }
+
+    /** Applies the state published last and acknowledges it like a client */
+    private void applyAndAcknowledge() throws Exception {
+        assertTrue(replica.apply(deltas.pollLatest().get()));
+        transport.publish(Messages.ackTopic(gameId, playerId), Messages.encodeSequence(replica.getAcknowledgement()));
+    }
+
+    private void waitForNextPublication() throws InterruptedException {
+        Thread.sleep(5);
+    }
+
+    @Test
+    public void testUnchangedStatesAreNotPublished() throws Exception {
+        server.setPublishRate(1000);
+        server.setNewGameState(gameId, state);
+        applyAndAcknowledge();
+
+        waitForNextPublication();
+        server.setNewGameState(gameId, state);
+        assertFalse("Nothing changed since the acknowledged state", deltas.poll().isPresent());
+
+        enemy.getComponent(HealthComponent.class).get().setHealth(4);
+        enemy.markChanged();
+        waitForNextPublication();
+        server.setNewGameState(gameId, state);
+        assertTrue(deltas.poll().isPresent());
+    }
+
+    @Test
+    public void testStatesAreNotPublishedFasterThanTheRate() throws Exception {
+        server.setPublishRate(1);
+        server.setNewGameState(gameId, state);
+        assertTrue(deltas.poll().isPresent());
+
+        enemy.getComponent(HealthComponent.class).get().setHealth(4);
+        enemy.markChanged();
+        server.setNewGameState(gameId, state);
+        assertFalse("The state is superseded by a later one", deltas.poll().isPresent());
+    }
+
+    @Test
+    public void testLastStateIsPublishedOnceTheIntervalHasPassed() throws Exception {
+        server.setPublishRate(20);
+        server.setNewGameState(gameId, state);
+        applyAndAcknowledge();
+
+        enemy.getComponent(HealthComponent.class).get().setHealth(4);
+        enemy.markChanged();
+        server.setNewGameState(gameId, state);
+        server.flushGameState(gameId);
+        assertFalse("The state is kept back until the interval has passed", deltas.poll().isPresent());
+
+        Thread.sleep(60);
+        server.flushGameState(gameId);
+        applyAndAcknowledge();
+        Entity replicated = replica.getECSManager().getRemoteEntities().stream()
+                .filter(entity -> entity.getComponent(HealthComponent.class).isPresent())
+                .findFirst().get();
+        assertEquals("The newest state is published", 4, replicated.getComponent(HealthComponent.class).get().getHealth());
+
+        server.flushGameState(gameId);
+        assertFalse("A flushed state is not published again", deltas.poll().isPresent());
+    }
+
+    @Test
+    public void testJoiningPlayerIsPublishedAtOnce() throws Exception {
+        server.setPublishRate(1);
+        server.setNewGameState(gameId, state);
+        UUID playerTwoId = UUID.randomUUID();
+        MessageQueue playerTwoDeltas = new MessageQueue(8);
+        transport.subscribe(Messages.deltaTopic(gameId, playerTwoId), playerTwoDeltas);
+
+        state.playerTwo = state.getECSManager().createEntity();
+        state.playerTwo.addComponent(PlayerComponent.class, new PlayerComponent(playerTwoId));
+        state.getECSManager().addLocalEntity(state.playerTwo);
+        state.getECSManager().update(0f);
+        server.setNewGameState(gameId, state);
+
+        assertTrue(playerTwoDeltas.poll().isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPublishRateMustBePositive() {
+        server.setPublishRate(0);
+    }
+}
@@ -0,0 +1,116 @@
+package com.softwarearchitecture.networking.transport;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.game_server.CardFactory.CardType;
+import com.softwarearchitecture.game_server.PlayerInput;
+import com.softwarearchitecture.networking.messaging.ClientMessenger;
+import com.softwarearchitecture.networking.messaging.ServerMessenger;
+
+public class LocalTransportTest {
+
+    private MessageTransport transport;
+    private String topic;
+
+    @Before
+    public void setUp() {
+        transport = LocalTransport.getInstance();
+        // The transport is shared, so every test gets its own topic
+        topic = UUID.randomUUID().toString();
+    }
+
+    @Test
+    public void testPublishedMessagesReachSubscribers() {
+        MessageQueue first = new MessageQueue(4);
+        MessageQueue second = new MessageQueue(4);
+        transport.subscribe(topic, first);
+        transport.subscribe(topic, second);
+
+        transport.publish(topic, new byte[] { 1, 2 });
+
+        assertArrayEquals(new byte[] { 1, 2 }, first.poll().get());
+        assertArrayEquals(new byte[] { 1, 2 }, second.poll().get());
+    }
+
+    @Test
+    public void testOtherTopicsAreNotDelivered() {
+        MessageQueue queue = new MessageQueue(4);
+        transport.subscribe(topic, queue);
+
+        transport.publish(topic + "other", new byte[] { 1 });
+
+        assertFalse(queue.poll().isPresent());
+    }
+
+    @Test
+    public void testCancelledSubscriptionsAreNotDelivered() {
+        MessageQueue queue = new MessageQueue(4);
+        Subscription subscription = transport.subscribe(topic, queue);
+        subscription.cancel();
+        subscription.cancel();
+
+        transport.publish(topic, new byte[] { 1 });
+
+        assertFalse(queue.poll().isPresent());
+    }
+
+    @Test
+    public void testFullQueueDropsOldest() {
+        MessageQueue queue = new MessageQueue(2);
+        queue.onMessage(new byte[] { 1 });
+        queue.onMessage(new byte[] { 2 });
+        queue.onMessage(new byte[] { 3 });
+
+        List<byte[]> drained = queue.drain();
+        assertEquals(2, drained.size());
+        assertArrayEquals(new byte[] { 2 }, drained.get(0));
+        assertArrayEquals(new byte[] { 3 }, drained.get(1));
+        assertEquals(1, queue.getDropped());
+        assertTrue(queue.drain().isEmpty());
+    }
+
+    @Test
+    public void testPollLatestEmptiesQueue() {
+        MessageQueue queue = new MessageQueue(4);
+        queue.onMessage(new byte[] { 1 });
+        queue.onMessage(new byte[] { 2 });
+
+        assertArrayEquals(new byte[] { 2 }, queue.pollLatest().get());
+        assertFalse(queue.poll().isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQueueNeedsCapacity() {
+        new MessageQueue(0);
+    }
+
+    @Test
+    public void testActionsReachServer() {
+        ServerMessenger server = new ServerMessenger(false);
+        ClientMessenger client = new ClientMessenger(false);
+        UUID playerId = UUID.randomUUID();
+        // The inbox of a player is opened by the first look for actions
+        assertTrue(server.lookForPendingActions(playerId).isEmpty());
+
+        client.addAction(new PlayerInput(playerId, CardType.FIRE, 3, -4));
+        client.addAction(new PlayerInput(playerId, "START"));
+
+        List<PlayerInput> actions = server.lookForPendingActions(playerId);
+        assertEquals(2, actions.size());
+        assertEquals(playerId, actions.get(0).getPlayerId());
+        assertEquals(CardType.FIRE, actions.get(0).getCardType());
+        assertEquals(3, actions.get(0).getX());
+        assertEquals(-4, actions.get(0).getY());
+        assertEquals("START", actions.get(1).getAction());
+        assertTrue(server.lookForPendingActions(playerId).isEmpty());
+    }
+}
@@ -0,0 +1,200 @@
+package com.softwarearchitecture.networking.transport;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.softwarearchitecture.ecs.ECSManager;
+import com.softwarearchitecture.ecs.Entity;
+import com.softwarearchitecture.ecs.components.PlayerComponent;
+import com.softwarearchitecture.game_server.GameState;
+import com.softwarearchitecture.game_server.PlayerInput;
+import com.softwarearchitecture.networking.messaging.ClientMessenger;
+import com.softwarearchitecture.networking.messaging.ServerMessenger;
+
+public class SocketTransportTest {
+    private static final long TIMEOUT = 2000;
+
+    private SocketTransport host;
+    private SocketTransport first;
+    private SocketTransport second;
+
+    @Before
+    public void setUp() throws IOException {
+        host = SocketTransport.listen(0);
+        InetSocketAddress address = new InetSocketAddress("localhost", host.getLocalPort());
+        first = SocketTransport.connect(address);
+        second = SocketTransport.connect(address);
+    }
+
+    @After
+    public void tearDown() {
+        first.close();
+        second.close();
+        host.close();
+    }
+
+    /**
+     * Publishes until the message arrives, since a subscription reaches the host asynchronously.
+     */
+    private static byte[] awaitMessage(MessageQueue queue, Runnable publish) {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (System.currentTimeMillis() < deadline) {
+            publish.run();
+            Optional<byte[]> message = queue.poll();
+            if (message.isPresent()) {
+                return message.get();
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        fail("No message arrived within " + TIMEOUT + " ms");
+        return null;
+    }
+
+    @Test
+    public void testHostPublishesToPlayers() {
+        MessageQueue queue = new MessageQueue(64);
+        first.subscribe("topic", queue);
+
+        byte[] message = awaitMessage(queue, () -> host.publish("topic", new byte[] { 1, 2, 3 }));
+
+        assertArrayEquals(new byte[] { 1, 2, 3 }, message);
+    }
+
+    @Test
+    public void testPlayersPublishToHostAndOtherPlayers() {
+        MessageQueue atHost = new MessageQueue(64);
+        MessageQueue atSecond = new MessageQueue(64);
+        host.subscribe("topic", atHost);
+        second.subscribe("topic", atSecond);
+
+        assertArrayEquals(new byte[] { 4 }, awaitMessage(atHost, () -> first.publish("topic", new byte[] { 4 })));
+        assertArrayEquals(new byte[] { 4 }, awaitMessage(atSecond, () -> first.publish("topic", new byte[] { 4 })));
+    }
+
+    @Test
+    public void testOnlySubscribedTopicsAreSent() {
+        MessageQueue other = new MessageQueue(64);
+        MessageQueue topic = new MessageQueue(64);
+        first.subscribe("other", other);
+        first.subscribe("topic", topic);
+
+        awaitMessage(topic, () -> host.publish("topic", new byte[] { 1 }));
+
+        assertFalse(other.poll().isPresent());
+    }
+
+    @Test
+    public void testMessagesLargerThanBuffersArriveWhole() {
+        MessageQueue queue = new MessageQueue(1);
+        first.subscribe("topic", queue);
+        byte[] large = new byte[200_000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+
+        assertArrayEquals(large, awaitMessage(queue, () -> host.publish("topic", large)));
+        assertTrue(first.isOpen());
+    }
+
+    @Test
+    public void testMessagesKeepTheirOrder() {
+        MessageQueue queue = new MessageQueue(1024);
+        first.subscribe("topic", queue);
+        awaitMessage(queue, () -> host.publish("topic", new byte[] { -1 }));
+
+        for (int i = 0; i < 100; i++) {
+            host.publish("topic", new byte[] { (byte) i });
+        }
+
+        List<byte[]> received = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (received.size() < 100 && System.currentTimeMillis() < deadline) {
+            for (byte[] message : queue.drain()) {
+                // Copies of the first message may still be on their way
+                if (message[0] >= 0) {
+                    received.add(message);
+                }
+            }
+            Thread.yield();
+        }
+        assertEquals(100, received.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, received.get(i)[0]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooLargeMessagesAreRejected() {
+        host.publish("topic", new byte[SocketTransport.MAX_FRAME_SIZE + 1]);
+    }
+
+    @Test
+    public void testPlayerJoinsAndActsThroughHost() throws InterruptedException {
+        ServerMessenger server = new ServerMessenger(false, host);
+        ClientMessenger client = new ClientMessenger(false, first);
+        UUID gameId = server.createGame("test");
+        UUID playerId = UUID.randomUUID();
+
+        // The server loop accepts the player and pushes states to it
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread serverLoop = new Thread(() -> {
+            boolean joined = false;
+            while (running.get()) {
+                joined |= server.lookForPendingPlayer(gameId).isPresent();
+                if (joined) {
+                    ECSManager ecs = new ECSManager();
+                    Entity player = ecs.createEntity();
+                    player.addComponent(PlayerComponent.class, new PlayerComponent(playerId));
+                    GameState gameState = new GameState(ecs);
+                    gameState.gameID = gameId;
+                    gameState.mapName = "test";
+                    gameState.playerTwo = player;
+                    server.setNewGameState(gameId, gameState);
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        serverLoop.start();
+        try {
+            assertTrue(client.joinGame(gameId, playerId).join());
+        } finally {
+            running.set(false);
+            serverLoop.join();
+        }
+
+        assertTrue(server.lookForPendingActions(playerId).isEmpty());
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        List<PlayerInput> actions = new ArrayList<>();
+        while (actions.isEmpty() && System.currentTimeMillis() < deadline) {
+            client.addAction(new PlayerInput(playerId, "START"));
+            Thread.sleep(10);
+            actions.addAll(server.lookForPendingActions(playerId));
+        }
+        assertFalse(actions.isEmpty());
+        assertEquals(playerId, actions.get(0).getPlayerId());
+        assertEquals("START", actions.get(0).getAction());
+    }
+}